@@ -0,0 +1,323 @@
+package osbsp;
+import java.util.*;
+
+/**
+ * AddressSpace
+ *
+ * Speicherbereiche (VMArea) eines Prozesses in einem Intervallbaum: ein
+ * nach Startadressen geordneter AVL-Baum, dessen Knoten zusätzlich das
+ * größte Bereichsende ihres Teilbaums speichern. Damit kosten die Suche des
+ * Bereichs einer Adresse (bei jedem TLB-Miss) und die Prüfung, ob ein neuer
+ * Bereich mit vorhandenen überlappt (mmap, brk, Stackwachstum), O(log n)
+ * bei n Bereichen.
+ *
+ * Heap und Stack werden zusätzlich direkt gemerkt, da brk und das
+ * Stackwachstum ihre Grenzen verschieben.
+ */
+public class AddressSpace {
+	private VMArea root; // Wurzel des Intervallbaums
+	private int count; // Anzahl Bereiche
+	private VMArea heap; // Heap (oder null)
+	private VMArea stack; // Stack (oder null)
+
+	/**
+	 * Konstruktor: leerer Adressraum
+	 */
+	public AddressSpace() {
+	}
+
+	/**
+	 * Konstruktor: Kopie eines Adressraums (fork)
+	 *
+	 * @param parent
+	 *            Adressraum des Elternprozesses
+	 */
+	public AddressSpace(AddressSpace parent) {
+		for (VMArea area : parent.getAreas()) {
+			add(new VMArea(area.getStart(), area.getEnd(), area.getType(),
+					area.getPermissions()));
+		}
+	}
+
+	/**
+	 * Bereich suchen, in dem eine virtuelle Adresse liegt
+	 *
+	 * @param adr
+	 *            virtuelle Adresse
+	 * @return Bereich oder null, wenn die Adresse in keinem Bereich liegt
+	 */
+	public VMArea find(int adr) {
+		VMArea node = root; // aktueller Knoten
+
+		while (node != null) {
+			if (node.contains(adr)) {
+				return node;
+			}
+			// links weitersuchen, wenn dort ein Bereich über adr hinausreicht
+			node = (node.left != null && node.left.maxEnd > adr) ? node.left
+					: node.right;
+		}
+		return null;
+	}
+
+	/**
+	 * Einen Bereich suchen, der mit start .. end-1 überlappt
+	 *
+	 * @return überlappender Bereich oder null
+	 */
+	public VMArea findOverlap(int start, int end) {
+		VMArea node = root; // aktueller Knoten
+
+		while (node != null) {
+			if (node.getStart() < end && start < node.getEnd()) {
+				return node;
+			}
+			node = (node.left != null && node.left.maxEnd > start) ? node.left
+					: node.right;
+		}
+		return null;
+	}
+
+	/**
+	 * Bereich eintragen (darf keinen vorhandenen Bereich überlappen)
+	 */
+	public void add(VMArea area) {
+		root = insert(root, area);
+		count++;
+		if (area.getType() == VMArea.HEAP) {
+			heap = area;
+		} else if (area.getType() == VMArea.STACK) {
+			stack = area;
+		}
+	}
+
+	/**
+	 * Bereich austragen
+	 */
+	public void remove(VMArea area) {
+		root = delete(root, area);
+		count--;
+		if (area == heap) {
+			heap = null;
+		} else if (area == stack) {
+			stack = null;
+		}
+	}
+
+	/**
+	 * Grenzen eines Bereichs ändern (z.B. brk, Stackwachstum); der Bereich
+	 * wird dazu aus dem Baum genommen und neu eingeordnet
+	 */
+	public void resize(VMArea area, int start, int end) {
+		root = delete(root, area);
+		area.setBounds(start, end);
+		root = insert(root, area);
+	}
+
+	/**
+	 * @return Heap des Prozesses oder null
+	 */
+	public VMArea getHeap() {
+		return heap;
+	}
+
+	/**
+	 * @return Stack des Prozesses oder null
+	 */
+	public VMArea getStack() {
+		return stack;
+	}
+
+	/**
+	 * @return Anzahl Bereiche
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * @return alle Bereiche nach Startadressen geordnet
+	 */
+	public List<VMArea> getAreas() {
+		List<VMArea> areas = new ArrayList<VMArea>(count);
+
+		collect(root, areas);
+		return areas;
+	}
+
+	// ----------------------- Sicherungspunkte ----------------------------
+
+	/**
+	 * Bereiche in einen Sicherungspunkt schreiben
+	 */
+	public void writeCheckpoint(Checkpoint cp) {
+		cp.putInt(count);
+		for (VMArea area : getAreas()) {
+			cp.putInt(area.getStart());
+			cp.putInt(area.getEnd());
+			cp.putInt(area.getType());
+			cp.putInt(area.getPermissions());
+		}
+	}
+
+	/**
+	 * Bereiche des (leeren) Adressraums aus einem Sicherungspunkt lesen
+	 */
+	public void readCheckpoint(Checkpoint cp) {
+		int n = cp.getInt(); // Anzahl Bereiche
+
+		for (int i = 0; i < n; i++) {
+			add(new VMArea(cp.getInt(), cp.getInt(), cp.getInt(), cp.getInt()));
+		}
+	}
+
+	// ----------------------- Hilfsmethoden --------------------------------
+
+	/**
+	 * Bereich in den Teilbaum node einfügen
+	 *
+	 * @return neue Wurzel des Teilbaums
+	 */
+	private VMArea insert(VMArea node, VMArea area) {
+		if (node == null) {
+			area.left = null;
+			area.right = null;
+			update(area);
+			return area;
+		}
+		if (less(area, node)) {
+			node.left = insert(node.left, area);
+		} else {
+			node.right = insert(node.right, area);
+		}
+		return balance(node);
+	}
+
+	/**
+	 * Bereich aus dem Teilbaum node löschen
+	 *
+	 * @return neue Wurzel des Teilbaums
+	 */
+	private VMArea delete(VMArea node, VMArea area) {
+		VMArea successor; // kleinster Knoten des rechten Teilbaums
+
+		if (node == null) {
+			return null;
+		}
+		if (node == area) {
+			if (node.left == null) {
+				return node.right;
+			}
+			if (node.right == null) {
+				return node.left;
+			}
+			successor = node.right;
+			while (successor.left != null) {
+				successor = successor.left;
+			}
+			successor.right = deleteMin(node.right);
+			successor.left = node.left;
+			return balance(successor);
+		}
+		if (less(area, node)) {
+			node.left = delete(node.left, area);
+		} else {
+			node.right = delete(node.right, area);
+		}
+		return balance(node);
+	}
+
+	/**
+	 * Kleinsten Knoten aus dem Teilbaum node entfernen
+	 *
+	 * @return neue Wurzel des Teilbaums
+	 */
+	private VMArea deleteMin(VMArea node) {
+		if (node.left == null) {
+			return node.right;
+		}
+		node.left = deleteMin(node.left);
+		return balance(node);
+	}
+
+	/**
+	 * Reihenfolge im Baum: nach Startadresse, bei gleicher Startadresse
+	 * (leerer Heap) nach Ende
+	 */
+	private static boolean less(VMArea a, VMArea b) {
+		return a.getStart() < b.getStart()
+				|| (a.getStart() == b.getStart() && a.getEnd() < b.getEnd());
+	}
+
+	/**
+	 * AVL-Bedingung im Knoten node wiederherstellen
+	 *
+	 * @return neue Wurzel des Teilbaums
+	 */
+	private static VMArea balance(VMArea node) {
+		int diff; // Höhenunterschied links - rechts
+
+		update(node);
+		diff = height(node.left) - height(node.right);
+		if (diff > 1) {
+			if (height(node.left.left) < height(node.left.right)) {
+				node.left = rotateLeft(node.left);
+			}
+			return rotateRight(node);
+		}
+		if (diff < -1) {
+			if (height(node.right.right) < height(node.right.left)) {
+				node.right = rotateRight(node.right);
+			}
+			return rotateLeft(node);
+		}
+		return node;
+	}
+
+	private static VMArea rotateRight(VMArea node) {
+		VMArea top = node.left; // neue Wurzel
+
+		node.left = top.right;
+		top.right = node;
+		update(node);
+		update(top);
+		return top;
+	}
+
+	private static VMArea rotateLeft(VMArea node) {
+		VMArea top = node.right; // neue Wurzel
+
+		node.right = top.left;
+		top.left = node;
+		update(node);
+		update(top);
+		return top;
+	}
+
+	/**
+	 * Höhe und größtes Bereichsende eines Knotens aus seinen Kindern neu
+	 * berechnen
+	 */
+	private static void update(VMArea node) {
+		node.height = 1 + Math.max(height(node.left), height(node.right));
+		node.maxEnd = node.getEnd();
+		if (node.left != null && node.left.maxEnd > node.maxEnd) {
+			node.maxEnd = node.left.maxEnd;
+		}
+		if (node.right != null && node.right.maxEnd > node.maxEnd) {
+			node.maxEnd = node.right.maxEnd;
+		}
+	}
+
+	private static int height(VMArea node) {
+		return (node == null) ? 0 : node.height;
+	}
+
+	private static void collect(VMArea node, List<VMArea> areas) {
+		if (node != null) {
+			collect(node.left, areas);
+			areas.add(node);
+			collect(node.right, areas);
+		}
+	}
+}
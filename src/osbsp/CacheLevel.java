@@ -0,0 +1,193 @@
+package osbsp;
+
+/**
+ * CacheLevel
+ *
+ * Modell einer Cache-Stufe (L1, L2) zwischen übersetzter physikalischer
+ * Adresse und Hauptspeicher: mengenassoziativ mit einstellbarer
+ * Zeilengröße und Assoziativität, Ersetzung nach LRU oder Pseudo-LRU
+ * (Binärbaum je Menge). Modelliert werden nur Treffer und Fehlzugriffe,
+ * keine Daten: die Datenworte liegen weiterhin im physRAM.
+ *
+ * Alle Zustände liegen in primitiven Feldern (Tag und Zeitstempel je Zeile,
+ * Baumbits je Menge); ein Zugriff kostet eine Suche über die Wege einer
+ * Menge ohne Objekterzeugung.
+ */
+public class CacheLevel {
+	/**
+	 * Ersetzung nach LRU (Zeitstempel je Zeile)
+	 */
+	public static final int LRU = 0;
+
+	/**
+	 * Ersetzung nach Pseudo-LRU (Baum mit Wege-1 Bits je Menge)
+	 */
+	public static final int PLRU = 1;
+
+	private final int lineShift; // Zweierlogarithmus der Zeilengröße
+	private final int setShift; // lineShift + Zweierlogarithmus der Mengen
+	private final int setMask; // Anzahl Mengen - 1
+	private final int ways; // Assoziativität
+	private final int policy; // LRU oder PLRU
+	private final int[] tags; // Tag + 1 je Zeile (0 = ungültig), Index =
+								// Menge * ways + Weg
+	private final int[] stamps; // LRU: letzter Zugriff je Zeile
+	private final int[] treeBits; // PLRU: Baumbits je Menge
+	private int clock; // LRU: Zugriffszähler
+
+	/**
+	 * Konstruktor (Größen werden auf Zweierpotenzen abgerundet)
+	 *
+	 * @param size
+	 *            Kapazität in Byte
+	 * @param lineSize
+	 *            Zeilengröße in Byte
+	 * @param associativity
+	 *            Anzahl Wege je Menge (höchstens 32)
+	 * @param replacement
+	 *            LRU oder PLRU
+	 */
+	public CacheLevel(int size, int lineSize, int associativity, int replacement) {
+		int sets; // Anzahl Mengen
+
+		lineSize = Integer.highestOneBit(Math.max(lineSize, 4));
+		ways = Integer.highestOneBit(Math.max(1, Math.min(associativity, 32)));
+		sets = Math.max(1, Integer.highestOneBit(Math.max(size, lineSize))
+				/ (lineSize * ways));
+		lineShift = Integer.numberOfTrailingZeros(lineSize);
+		setShift = lineShift + Integer.numberOfTrailingZeros(sets);
+		setMask = sets - 1;
+		policy = replacement;
+		tags = new int[sets * ways];
+		stamps = (policy == LRU) ? new int[sets * ways] : null;
+		treeBits = (policy == PLRU) ? new int[sets] : null;
+	}
+
+	/**
+	 * @return Kapazität in Byte
+	 */
+	public int getSize() {
+		return tags.length << lineShift;
+	}
+
+	/**
+	 * @return Zeilengröße in Byte
+	 */
+	public int getLineSize() {
+		return 1 << lineShift;
+	}
+
+	/**
+	 * @return Anzahl Wege je Menge
+	 */
+	public int getAssociativity() {
+		return ways;
+	}
+
+	/**
+	 * Zugriff auf eine physikalische Adresse: bei einem Fehlzugriff wird die
+	 * Zeile geladen und dafür eine Zeile der Menge verdrängt
+	 *
+	 * @param adr
+	 *            physikalische Adresse
+	 * @return true bei einem Treffer
+	 */
+	public boolean access(int adr) {
+		int set = (adr >>> lineShift) & setMask; // Menge
+		int tag = (adr >>> setShift) + 1; // gesuchter Tag (0 = ungültig)
+		int base = set * ways; // erste Zeile der Menge
+		int victim; // zu verdrängender Weg
+
+		for (int way = 0; way < ways; way++) {
+			if (tags[base + way] == tag) {
+				touch(set, way);
+				return true;
+			}
+		}
+		victim = (policy == LRU) ? lruVictim(base) : plruVictim(set);
+		tags[base + victim] = tag;
+		touch(set, victim);
+		return false;
+	}
+
+	/**
+	 * Alle Zeilen ungültig machen
+	 */
+	public void invalidateAll() {
+		java.util.Arrays.fill(tags, 0);
+		clock = 0;
+	}
+
+	// ----------------------- Hilfsmethoden --------------------------------
+
+	/**
+	 * Weg als zuletzt benutzt markieren
+	 */
+	private void touch(int set, int way) {
+		int node; // Knoten im PLRU-Baum (Blätter = Wege)
+		int parent; // Elternknoten
+		int bits; // Baumbits der Menge
+
+		if (policy == LRU) {
+			stamps[set * ways + way] = ++clock;
+			if (clock == Integer.MAX_VALUE) {
+				rescaleStamps();
+			}
+		} else {
+			// Bits auf dem Pfad zeigen vom benutzten Weg weg
+			bits = treeBits[set];
+			node = way + ways - 1;
+			while (node > 0) {
+				parent = (node - 1) >> 1;
+				if (node == 2 * parent + 1) {
+					bits = bits | (1 << parent); // links benutzt --> rechts
+				} else {
+					bits = bits & ~(1 << parent); // rechts benutzt --> links
+				}
+				node = parent;
+			}
+			treeBits[set] = bits;
+		}
+	}
+
+	/**
+	 * LRU: ungültige Zeile oder Zeile mit dem ältesten Zeitstempel
+	 */
+	private int lruVictim(int base) {
+		int victim = 0; // Auswahl
+
+		for (int way = 0; way < ways; way++) {
+			if (tags[base + way] == 0) {
+				return way;
+			}
+			if (stamps[base + way] < stamps[base + victim]) {
+				victim = way;
+			}
+		}
+		return victim;
+	}
+
+	/**
+	 * PLRU: den Baumbits von der Wurzel bis zu einem Blatt folgen
+	 */
+	private int plruVictim(int set) {
+		int bits = treeBits[set]; // Baumbits der Menge
+		int node = 0; // aktueller Knoten
+
+		while (node < ways - 1) {
+			node = 2 * node + 1 + ((bits >>> node) & 1);
+		}
+		return node - (ways - 1);
+	}
+
+	/**
+	 * LRU: Zeitstempel vor dem Überlauf des Zählers halbieren (Reihenfolge
+	 * bleibt erhalten)
+	 */
+	private void rescaleStamps() {
+		for (int i = 0; i < stamps.length; i++) {
+			stamps[i] = stamps[i] >>> 1;
+		}
+		clock = clock >>> 1;
+	}
+}
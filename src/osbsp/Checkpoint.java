@@ -0,0 +1,281 @@
+package osbsp;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Checkpoint
+ *
+ * Kompaktes Binärformat für Sicherungspunkte des Simulators: alle Werte
+ * werden hintereinander in einen Puffer geschrieben (int/long big-endian,
+ * Felder von Datenworten als Länge + Block) und mit einem einzigen
+ * NIO-Schreibvorgang in die Datei übertragen. Beim Wiederherstellen wird die
+ * Datei in den Speicher eingeblendet und in derselben Reihenfolge gelesen.
+ */
+public class Checkpoint {
+	/**
+	 * Kennung am Dateianfang ("OSCP")
+	 */
+	public static final int MAGIC = 0x4F534350;
+	/**
+	 * Version des Dateiformats
+	 */
+	public static final int VERSION = 13;
+
+	private ByteBuffer buffer; // Inhalt des Sicherungspunkts
+
+	/**
+	 * Konstruktor für einen neuen (leeren) Sicherungspunkt
+	 */
+	public Checkpoint() {
+		buffer = ByteBuffer.allocate(65536);
+	}
+
+	/**
+	 * Konstruktor für das Lesen eines vorhandenen Inhalts
+	 */
+	private Checkpoint(ByteBuffer content) {
+		buffer = content;
+	}
+
+	/**
+	 * Sicherungspunkt aus einer Datei lesen
+	 *
+	 * @param fileName
+	 *            Dateiname
+	 * @return Sicherungspunkt, positioniert hinter Kennung und Version
+	 * @throws IOException
+	 *             bei Lesefehlern oder wenn die Datei kein Sicherungspunkt
+	 *             dieser Version ist
+	 */
+	public static Checkpoint readFrom(String fileName) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(fileName, "r");
+		MappedByteBuffer content; // eingeblendeter Dateiinhalt
+
+		try {
+			content = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0,
+					file.length());
+		} finally {
+			file.close();
+		}
+		if (content.remaining() < 8 || content.getInt() != MAGIC) {
+			throw new IOException(fileName + " ist kein Sicherungspunkt");
+		}
+		if (content.getInt() != VERSION) {
+			throw new IOException(fileName
+					+ " hat eine nicht unterstuetzte Formatversion");
+		}
+		return new Checkpoint(content);
+	}
+
+	/**
+	 * Sicherungspunkt (mit Kennung und Version) in eine Datei schreiben
+	 *
+	 * @param fileName
+	 *            Dateiname
+	 * @throws IOException
+	 *             bei Schreibfehlern
+	 */
+	public void writeTo(String fileName) throws IOException {
+		FileOutputStream file = new FileOutputStream(fileName);
+		FileChannel channel = file.getChannel();
+		ByteBuffer header = ByteBuffer.allocate(8); // Kennung und Version
+		ByteBuffer content = buffer.duplicate(); // geschriebener Inhalt
+
+		header.putInt(MAGIC).putInt(VERSION).flip();
+		content.flip();
+		try {
+			while (header.hasRemaining() || content.hasRemaining()) {
+				channel.write(new ByteBuffer[] { header, content });
+			}
+		} finally {
+			file.close();
+		}
+	}
+
+	// ------------------------- Schreiben -------------------------------
+
+	/**
+	 * @param value
+	 *            zu schreibender Wert
+	 */
+	public void putInt(int value) {
+		ensureCapacity(4);
+		buffer.putInt(value);
+	}
+
+	/**
+	 * @param value
+	 *            zu schreibender Wert
+	 */
+	public void putLong(long value) {
+		ensureCapacity(8);
+		buffer.putLong(value);
+	}
+
+	/**
+	 * @param value
+	 *            zu schreibender Wert
+	 */
+	public void putBoolean(boolean value) {
+		putInt(value ? 1 : 0);
+	}
+
+	/**
+	 * @param value
+	 *            zu schreibende Zeichenkette (oder null)
+	 */
+	public void putString(String value) {
+		byte[] bytes; // UTF-8-Kodierung
+
+		if (value == null) {
+			putInt(-1);
+			return;
+		}
+		try {
+			bytes = value.getBytes("UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+		putInt(bytes.length);
+		ensureCapacity(bytes.length);
+		buffer.put(bytes);
+	}
+
+	/**
+	 * Feld von Datenworten als Block schreiben
+	 *
+	 * @param values
+	 *            zu schreibendes Feld
+	 */
+	public void putInts(int[] values) {
+		putInt(values.length);
+		ensureCapacity(4 * values.length);
+		buffer.asIntBuffer().put(values);
+		buffer.position(buffer.position() + 4 * values.length);
+	}
+
+	/**
+	 * Inhalt eines Puffers (position bis limit) als Block schreiben
+	 *
+	 * @param block
+	 *            zu schreibender Bereich (position steht danach auf limit)
+	 */
+	public void putBlock(ByteBuffer block) {
+		putInt(block.remaining());
+		ensureCapacity(block.remaining());
+		buffer.put(block);
+	}
+
+	/**
+	 * Feld von Bytes als Block schreiben
+	 *
+	 * @param values
+	 *            zu schreibendes Feld
+	 */
+	public void putBytes(byte[] values) {
+		putInt(values.length);
+		ensureCapacity(values.length);
+		buffer.put(values);
+	}
+
+	// ------------------------- Lesen -------------------------------
+
+	/**
+	 * @return nächster Wert
+	 */
+	public int getInt() {
+		return buffer.getInt();
+	}
+
+	/**
+	 * @return nächster Wert
+	 */
+	public long getLong() {
+		return buffer.getLong();
+	}
+
+	/**
+	 * @return nächster Wert
+	 */
+	public boolean getBoolean() {
+		return buffer.getInt() != 0;
+	}
+
+	/**
+	 * @return nächste Zeichenkette (oder null)
+	 */
+	public String getString() {
+		int length = buffer.getInt(); // Länge in Byte
+		byte[] bytes; // UTF-8-Kodierung
+
+		if (length < 0) {
+			return null;
+		}
+		bytes = new byte[length];
+		buffer.get(bytes);
+		try {
+			return new String(bytes, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return nächstes Feld von Datenworten
+	 */
+	public int[] getInts() {
+		int[] values = new int[buffer.getInt()]; // gelesenes Feld
+
+		buffer.asIntBuffer().get(values);
+		buffer.position(buffer.position() + 4 * values.length);
+		return values;
+	}
+
+	/**
+	 * Nächsten Block in einen Puffer übertragen
+	 *
+	 * @param target
+	 *            Ziel, ab position (muss genügend Platz bieten)
+	 */
+	public void getBlock(ByteBuffer target) {
+		int length = buffer.getInt(); // Länge in Byte
+		ByteBuffer block = buffer.duplicate(); // Sicht auf den Block
+
+		block.limit(block.position() + length);
+		buffer.position(block.limit());
+		target.put(block);
+	}
+
+	/**
+	 * @return nächstes Feld von Bytes
+	 */
+	public byte[] getBytes() {
+		byte[] values = new byte[buffer.getInt()]; // gelesenes Feld
+
+		buffer.get(values);
+		return values;
+	}
+
+	// ----------------------- Hilfsmethode --------------------------------
+
+	/**
+	 * Puffer bei Bedarf vergrößern (Verdopplung)
+	 *
+	 * @param bytes
+	 *            Anzahl zusätzlich benötigter Byte
+	 */
+	private void ensureCapacity(int bytes) {
+		ByteBuffer larger; // neuer Puffer
+
+		if (buffer.remaining() < bytes) {
+			larger = ByteBuffer.allocate(Math.max(2 * buffer.capacity(),
+					buffer.position() + bytes));
+			buffer.flip();
+			larger.put(buffer);
+			buffer = larger;
+		}
+	}
+}
@@ -0,0 +1,346 @@
+package osbsp;
+
+import java.util.*;
+
+/**
+ * CompressedSwapCache
+ * 
+ * Komprimierte Auslagerungsstufe zwischen RAM und Platte (nach dem Vorbild
+ * von zswap): verdrängte Seiten werden komprimiert in einem begrenzten Pool
+ * im Hauptspeicher abgelegt und erst auf die Platte geschrieben, wenn der
+ * Pool überläuft (älteste Seite zuerst).
+ * 
+ * Kompressionsverfahren für Datenworte: die Seite wird in Läufe zerlegt,
+ * jeder Lauf beginnt mit einem Token (2 Bit Typ, 30 Bit Länge). Läufe von
+ * Nullworten bestehen nur aus dem Token, arithmetische Folgen (konstante
+ * Werte, Zähler, Adressen) aus Token, Startwert und Differenz, alle übrigen
+ * Worte werden als Literale übernommen. Nullseiten schrumpfen dadurch auf
+ * ein Wort, Zufallsdaten werden nicht komprimiert (und abgelehnt).
+ */
+public class CompressedSwapCache {
+	// Token-Typen der Kompression
+	private static final int ZERO_RUN = 0;
+	private static final int DELTA_RUN = 1;
+	private static final int LITERAL_RUN = 2;
+	private static final int TOKEN_SHIFT = 30;
+	private static final int COUNT_MASK = (1 << TOKEN_SHIFT) - 1;
+	// Mindestlänge einer arithmetischen Folge (sonst als Literale billiger)
+	private static final int MIN_DELTA_RUN = 4;
+
+	/**
+	 * Komprimierte Seite im Pool
+	 */
+	private static class Entry {
+		int[] data; // komprimierte Datenworte
+		int pageSize; // Seitengröße der Originalseite in Byte
+		int pid; // Prozess, dem die Seite gehört
+		int vpn; // virtuelle Seitennummer im Prozess
+	}
+
+	private int capacity; // Poolgröße in Byte
+	private int usedBytes; // belegte Byte im Pool
+	private int nextSlot; // nächste freie Slotnummer
+	private LinkedHashMap<Integer, Entry> entries; // Slot --> Seite, in
+													// Einfügereihenfolge
+
+	/**
+	 * Konstruktor
+	 * 
+	 * @param poolSize
+	 *            Poolgröße in Byte
+	 */
+	public CompressedSwapCache(int poolSize) {
+		capacity = poolSize;
+		usedBytes = 0;
+		nextSlot = 0;
+		entries = new LinkedHashMap<Integer, Entry>();
+	}
+
+	/**
+	 * Datenworte einer Seite komprimieren
+	 * 
+	 * @param words
+	 *            Datenworte der Seite
+	 * @return komprimierte Darstellung (Folge von Token)
+	 */
+	public static int[] compress(int[] words) {
+		int[] buffer = new int[words.length + 4]; // Platz für ein Token mehr
+		int length = 0; // Anzahl belegter Worte in buffer
+		int literalStart = -1; // Token-Index des offenen Literal-Laufs
+		int i = 0; // aktuelles Datenwort
+		int run; // Länge des gefundenen Laufs
+
+		while (i < words.length) {
+			run = zeroRun(words, i);
+			if (run > 0) {
+				buffer[length++] = (ZERO_RUN << TOKEN_SHIFT) | run;
+				literalStart = -1;
+			} else {
+				run = deltaRun(words, i);
+				if (run >= MIN_DELTA_RUN) {
+					buffer[length++] = (DELTA_RUN << TOKEN_SHIFT) | run;
+					buffer[length++] = words[i];
+					buffer[length++] = words[i + 1] - words[i];
+					literalStart = -1;
+				} else {
+					// Einzelnes Wort an offenen Literal-Lauf anhängen
+					run = 1;
+					if (literalStart < 0) {
+						literalStart = length++;
+						buffer[literalStart] = LITERAL_RUN << TOKEN_SHIFT;
+					}
+					buffer[literalStart]++;
+					buffer[length++] = words[i];
+				}
+			}
+			i = i + run;
+			if (length > words.length) {
+				// nicht komprimierbar --> als ein Literal-Lauf ablegen
+				buffer[0] = (LITERAL_RUN << TOKEN_SHIFT) | words.length;
+				System.arraycopy(words, 0, buffer, 1, words.length);
+				return Arrays.copyOf(buffer, words.length + 1);
+			}
+		}
+		return Arrays.copyOf(buffer, length);
+	}
+
+	/**
+	 * Komprimierte Seite in Datenworte entpacken
+	 * 
+	 * @param data
+	 *            komprimierte Darstellung
+	 * @param words
+	 *            Zielpuffer für die Datenworte der Seite
+	 */
+	public static void decompress(int[] data, int[] words) {
+		int i = 0; // Index in words
+		int k = 0; // Index in data
+		int count; // Länge des aktuellen Laufs
+		int value; // Startwert eines Differenz-Laufs
+		int delta; // Differenz eines Differenz-Laufs
+
+		while (k < data.length) {
+			count = data[k] & COUNT_MASK;
+			switch (data[k] >>> TOKEN_SHIFT) {
+			case ZERO_RUN:
+				Arrays.fill(words, i, i + count, 0);
+				k = k + 1;
+				break;
+			case DELTA_RUN:
+				value = data[k + 1];
+				delta = data[k + 2];
+				for (int n = 0; n < count; n++) {
+					words[i + n] = value;
+					value = value + delta;
+				}
+				k = k + 3;
+				break;
+			default:
+				System.arraycopy(data, k + 1, words, i, count);
+				k = k + 1 + count;
+				break;
+			}
+			i = i + count;
+		}
+	}
+
+	/**
+	 * @return Anzahl Nullworte ab Index i
+	 */
+	private static int zeroRun(int[] words, int i) {
+		int n = i;
+
+		while (n < words.length && words[n] == 0) {
+			n++;
+		}
+		return n - i;
+	}
+
+	/**
+	 * @return Länge der arithmetischen Folge ab Index i (mindestens 1)
+	 */
+	private static int deltaRun(int[] words, int i) {
+		int n = i + 1;
+
+		if (n >= words.length) {
+			return 1;
+		}
+		while (n + 1 < words.length
+				&& words[n + 1] - words[n] == words[i + 1] - words[i]) {
+			n++;
+		}
+		return n + 1 - i;
+	}
+
+	/**
+	 * @param bytes
+	 *            Größe einer komprimierten Seite in Byte
+	 * @return true, wenn die Seite ohne Verdrängung in den Pool passt
+	 */
+	public boolean fits(int bytes) {
+		return usedBytes + bytes <= capacity;
+	}
+
+	/**
+	 * Komprimierte Seite im Pool ablegen (vorher mit fits() prüfen!)
+	 * 
+	 * @param data
+	 *            komprimierte Darstellung
+	 * @param pageSize
+	 *            Seitengröße der Originalseite in Byte
+	 * @param pid
+	 *            Prozess, dem die Seite gehört
+	 * @param vpn
+	 *            virtuelle Seitennummer im Prozess
+	 * @return Slotnummer der Seite im Pool
+	 */
+	public int store(int[] data, int pageSize, int pid, int vpn) {
+		Entry entry = new Entry();
+		int slot;
+
+		entry.data = data;
+		entry.pageSize = pageSize;
+		entry.pid = pid;
+		entry.vpn = vpn;
+		do {
+			// Slotnummern zirkular vergeben (nicht negativ, da -1 in der
+			// Seitentabelle "keine Adresse" bedeutet)
+			slot = nextSlot;
+			nextSlot = (nextSlot + 1) & Integer.MAX_VALUE;
+		} while (entries.containsKey(Integer.valueOf(slot)));
+		entries.put(Integer.valueOf(slot), entry);
+		usedBytes = usedBytes + getBytes(data);
+		return slot;
+	}
+
+	/**
+	 * Seite aus dem Pool entfernen
+	 * 
+	 * @param slot
+	 *            Slotnummer
+	 * @return komprimierte Darstellung der Seite
+	 */
+	public int[] remove(int slot) {
+		Entry entry = entries.remove(Integer.valueOf(slot));
+
+		usedBytes = usedBytes - getBytes(entry.data);
+		return entry.data;
+	}
+
+	/**
+	 * @return Slotnummer der ältesten Seite im Pool oder -1, wenn leer
+	 */
+	public int getOldestSlot() {
+		if (entries.isEmpty()) {
+			return -1;
+		}
+		return entries.keySet().iterator().next().intValue();
+	}
+
+	/**
+	 * @return Prozess, dem die Seite im Slot gehört
+	 */
+	public int getOwnerPid(int slot) {
+		return entries.get(Integer.valueOf(slot)).pid;
+	}
+
+	/**
+	 * @return virtuelle Seitennummer der Seite im Slot
+	 */
+	public int getOwnerVpn(int slot) {
+		return entries.get(Integer.valueOf(slot)).vpn;
+	}
+
+	/**
+	 * @return Seitengröße der Originalseite im Slot in Byte
+	 */
+	public int getPageSize(int slot) {
+		return entries.get(Integer.valueOf(slot)).pageSize;
+	}
+
+	/**
+	 * @return Poolgröße in Byte
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @param poolSize
+	 *            neue Poolgröße in Byte (bei Verkleinerung muss der Aufrufer
+	 *            überzählige Seiten zurückschreiben)
+	 */
+	public void setCapacity(int poolSize) {
+		capacity = poolSize;
+	}
+
+	/**
+	 * @return belegte Byte im Pool
+	 */
+	public int getUsedBytes() {
+		return usedBytes;
+	}
+
+	/**
+	 * @return Anzahl Seiten im Pool
+	 */
+	public int getNumOfEntries() {
+		return entries.size();
+	}
+
+	/**
+	 * Inhalt des Pools (in Einfügereihenfolge) in einen Sicherungspunkt
+	 * schreiben
+	 */
+	public void writeCheckpoint(Checkpoint cp) {
+		Entry entry; // komprimierte Seite
+
+		cp.putInt(capacity);
+		cp.putInt(nextSlot);
+		cp.putInt(entries.size());
+		for (Map.Entry<Integer, Entry> slot : entries.entrySet()) {
+			entry = slot.getValue();
+			cp.putInt(slot.getKey().intValue());
+			cp.putInt(entry.pageSize);
+			cp.putInt(entry.pid);
+			cp.putInt(entry.vpn);
+			cp.putInts(entry.data);
+		}
+	}
+
+	/**
+	 * Pool aus einem Sicherungspunkt wiederherstellen (Slotnummern bleiben
+	 * erhalten, da sie in den Seitentabellen stehen)
+	 * 
+	 * @return wiederhergestellter Pool
+	 */
+	public static CompressedSwapCache readCheckpoint(Checkpoint cp) {
+		CompressedSwapCache cache = new CompressedSwapCache(cp.getInt());
+		int entryCount; // Anzahl Seiten im Pool
+		int slot; // Slotnummer
+		Entry entry; // komprimierte Seite
+
+		cache.nextSlot = cp.getInt();
+		entryCount = cp.getInt();
+		for (int i = 0; i < entryCount; i++) {
+			slot = cp.getInt();
+			entry = new Entry();
+			entry.pageSize = cp.getInt();
+			entry.pid = cp.getInt();
+			entry.vpn = cp.getInt();
+			entry.data = cp.getInts();
+			cache.entries.put(Integer.valueOf(slot), entry);
+			cache.usedBytes = cache.usedBytes + getBytes(entry.data);
+		}
+		return cache;
+	}
+
+	/**
+	 * @param data
+	 *            komprimierte Darstellung
+	 * @return Größe in Byte
+	 */
+	public static int getBytes(int[] data) {
+		return data.length * 4;
+	}
+}
@@ -0,0 +1,252 @@
+package osbsp;
+
+import java.util.LinkedList;
+
+/**
+ * Asynchrone Auftragswarteschlange der Platte
+ *
+ * Aufträge werden in eine Warteschlange eingereiht (benachbarte Blöcke
+ * derselben Richtung werden dabei zusammengefasst) und von einem eigenen
+ * Plattenthread in der Reihenfolge der gewählten Plattenstrategie bedient.
+ * Die Bedienzeit ergibt sich aus einem einfachen Plattenmodell:
+ * Positionierzeit (abhängig von der Anzahl überquerter Spuren) + mittlere
+ * Rotationswartezeit + Übertragungszeit. Der Plattenthread wartet diese Zeit
+ * real ab, so dass sich die Reihenfolge direkt auf die Wartezeit der
+ * Prozesse auswirkt.
+ */
+public class DiskQueue implements Runnable {
+	// ------------ Plattenstrategien -----------------------
+	/**
+	 * First Come First Served: Aufträge in Ankunftsreihenfolge
+	 */
+	public static final int FCFS = 0;
+	/**
+	 * Shortest Seek Time First: Auftrag mit der kürzesten Kopfbewegung
+	 */
+	public static final int SSTF = 1;
+	/**
+	 * Aufzugsstrategie: Kopf fährt in einer Richtung bis zum letzten Auftrag
+	 * und kehrt dann um
+	 */
+	public static final int SCAN = 2;
+	/**
+	 * Zyklische Aufzugsstrategie: nur aufwärts, danach Sprung zum kleinsten
+	 * Auftrag
+	 */
+	public static final int CLOOK = 3;
+
+	// ------------ Plattenmodell (Zeiten in µs) -----------------------
+	// Anzahl Plattenblöcke pro Spur
+	private static final int BLOCKS_PER_TRACK = 16;
+	// Anlauf- und Einschwingzeit einer Kopfbewegung
+	private static final int SEEK_START_TIME = 200;
+	// Zusätzliche Positionierzeit pro überquerter Spur
+	private static final int SEEK_TIME_PER_TRACK = 5;
+	// Mittlere Rotationswartezeit (halbe Umdrehung)
+	private static final int ROTATION_TIME = 100;
+	// Übertragungszeit pro Plattenblock
+	private static final int TRANSFER_TIME_PER_BLOCK = 10;
+
+	private int trackSize; // Spurgröße in Byte
+	private int blockSize; // Blockgröße in Byte
+	private int policy; // Plattenstrategie
+	private LinkedList<DiskRequest> queue; // wartende Aufträge
+	private int headTrack; // aktuelle Kopfposition (Spur)
+	private boolean movingUp; // Fahrtrichtung des Kopfs (SCAN)
+	private boolean running; // Plattenthread aktiv?
+	private Thread diskThread; // Plattenthread
+
+	/**
+	 * Konstruktor: startet den Plattenthread
+	 *
+	 * @param blockSize
+	 *            Größe eines Plattenblocks in Byte
+	 * @param policy
+	 *            Plattenstrategie (FCFS, SSTF, SCAN oder CLOOK)
+	 */
+	public DiskQueue(int blockSize, int policy) {
+		this.blockSize = blockSize;
+		this.trackSize = blockSize * BLOCKS_PER_TRACK;
+		this.policy = policy;
+		queue = new LinkedList<DiskRequest>();
+		headTrack = 0;
+		movingUp = true;
+		running = true;
+		diskThread = new Thread(this, "Platte");
+		diskThread.setDaemon(true);
+		diskThread.start();
+	}
+
+	/**
+	 * @return Plattenstrategie
+	 */
+	public synchronized int getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * @param policy
+	 *            Plattenstrategie (FCFS, SSTF, SCAN oder CLOOK)
+	 */
+	public synchronized void setPolicy(int policy) {
+		this.policy = policy;
+	}
+
+	/**
+	 * @return Anzahl wartender Aufträge
+	 */
+	public synchronized int getQueueLength() {
+		return queue.size();
+	}
+
+	/**
+	 * Auftrag einreihen oder mit einem wartenden Auftrag für benachbarte
+	 * Blöcke zusammenfassen
+	 *
+	 * @param request
+	 *            neuer Auftrag
+	 * @return true, wenn der Auftrag zusammengefasst wurde
+	 */
+	public synchronized boolean submit(DiskRequest request) {
+		for (DiskRequest waiting : queue) {
+			if (waiting.merge(request)) {
+				return true;
+			}
+		}
+		queue.add(request);
+		notifyAll();
+		return false;
+	}
+
+	/**
+	 * Plattenthread beenden, nachdem alle wartenden Aufträge bedient wurden
+	 */
+	public synchronized void shutdown() {
+		running = false;
+		notifyAll();
+	}
+
+	/**
+	 * Plattenthread: Aufträge nach der Plattenstrategie bedienen
+	 */
+	public void run() {
+		DiskRequest request; // bediente Anfrage
+		int track; // Zielspur
+		int distance; // Kopfbewegung in Spuren
+		long time; // Bedienzeit in µs
+
+		while (true) {
+			synchronized (this) {
+				while (queue.isEmpty() && running) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (queue.isEmpty()) {
+					return;
+				}
+				request = selectNextRequest();
+				queue.remove(request);
+				track = getTrack(request);
+				distance = Math.abs(track - headTrack);
+				if (track != headTrack) {
+					movingUp = track > headTrack;
+				}
+				headTrack = track;
+			}
+			time = ROTATION_TIME + TRANSFER_TIME_PER_BLOCK
+					* ((request.getSize() + blockSize - 1) / blockSize);
+			if (distance > 0) {
+				time = time + SEEK_START_TIME + SEEK_TIME_PER_TRACK * distance;
+			}
+			try {
+				Thread.sleep(time / 1000, (int) (time % 1000) * 1000);
+			} catch (InterruptedException e) {
+				// Auftrag trotzdem abschließen
+			}
+			request.complete(distance, time);
+		}
+	}
+
+	/**
+	 * @return Spur des Auftrags
+	 */
+	private int getTrack(DiskRequest request) {
+		return request.getDiskAdr() / trackSize;
+	}
+
+	/**
+	 * Nächsten Auftrag nach der Plattenstrategie auswählen (Warteschlange
+	 * ist nicht leer)
+	 *
+	 * @return ausgewählter Auftrag
+	 */
+	private DiskRequest selectNextRequest() {
+		DiskRequest best = null; // bester Auftrag
+		DiskRequest lowest = null; // Auftrag auf der niedrigsten Spur
+		int track; // Spur des betrachteten Auftrags
+
+		switch (policy) {
+		case SSTF:
+			for (DiskRequest request : queue) {
+				if (best == null
+						|| Math.abs(getTrack(request) - headTrack) < Math
+								.abs(getTrack(best) - headTrack)) {
+					best = request;
+				}
+			}
+			return best;
+		case SCAN:
+			best = nearestInDirection(movingUp);
+			if (best == null) {
+				// keine Aufträge mehr in Fahrtrichtung --> umkehren
+				best = nearestInDirection(!movingUp);
+			}
+			return best;
+		case CLOOK:
+			for (DiskRequest request : queue) {
+				track = getTrack(request);
+				if (track >= headTrack
+						&& (best == null || track < getTrack(best))) {
+					best = request;
+				}
+				if (lowest == null || track < getTrack(lowest)) {
+					lowest = request;
+				}
+			}
+			if (best == null) {
+				// Ende erreicht --> zurück zum niedrigsten Auftrag
+				best = lowest;
+			}
+			return best;
+		default:
+			return queue.getFirst();
+		}
+	}
+
+	/**
+	 * @param up
+	 *            Fahrtrichtung
+	 * @return nächstgelegener Auftrag in Fahrtrichtung (inkl. aktueller Spur)
+	 *         oder null
+	 */
+	private DiskRequest nearestInDirection(boolean up) {
+		DiskRequest best = null; // nächstgelegener Auftrag
+		int distance; // Abstand in Fahrtrichtung
+
+		for (DiskRequest request : queue) {
+			distance = getTrack(request) - headTrack;
+			if (!up) {
+				distance = -distance;
+			}
+			if (distance >= 0
+					&& (best == null || distance < Math.abs(getTrack(best)
+							- headTrack))) {
+				best = request;
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,177 @@
+package osbsp;
+
+import java.util.LinkedList;
+
+/**
+ * Auftrag an die Platte (Lesen oder Schreiben eines zusammenhängenden
+ * Bereichs von Plattenblöcken)
+ *
+ * Aufträge für benachbarte Blöcke derselben Richtung werden in der
+ * Warteschlange zu einem Auftrag zusammengefasst; die Teilaufträge werden
+ * gemeinsam abgeschlossen.
+ */
+public class DiskRequest {
+	private int pid; // Auftraggebender Prozess
+	private int diskAdr; // Startadresse auf der Platte
+	private int size; // Länge in Byte
+	private boolean write; // true = Schreiben, false = Lesen
+	private DiskRequestListener listener; // Rückruf bei Abschluss (oder null)
+	private long submitTime; // Zeitpunkt der Erteilung (System.nanoTime)
+	private long completionTime; // Zeitpunkt des Abschlusses
+	private int seekDistance; // Kopfbewegung in Spuren
+	private long serviceTime; // Bedienzeit laut Plattenmodell in µs
+	private boolean done; // Auftrag abgeschlossen?
+	private LinkedList<DiskRequest> mergedRequests; // zusammengefasste Aufträge
+
+	/**
+	 * Konstruktor
+	 *
+	 * @param pid
+	 *            Prozess-Id
+	 * @param diskAdr
+	 *            Startadresse auf der Platte
+	 * @param size
+	 *            Länge in Byte
+	 * @param write
+	 *            true = Schreiben, false = Lesen
+	 * @param listener
+	 *            Rückruf bei Abschluss oder null
+	 */
+	public DiskRequest(int pid, int diskAdr, int size, boolean write,
+			DiskRequestListener listener) {
+		this.pid = pid;
+		this.diskAdr = diskAdr;
+		this.size = size;
+		this.write = write;
+		this.listener = listener;
+		submitTime = System.nanoTime();
+		mergedRequests = new LinkedList<DiskRequest>();
+	}
+
+	/**
+	 * @return Prozess-Id des Auftraggebers
+	 */
+	public int getPid() {
+		return pid;
+	}
+
+	/**
+	 * @return Startadresse auf der Platte
+	 */
+	public int getDiskAdr() {
+		return diskAdr;
+	}
+
+	/**
+	 * @return Länge in Byte (inkl. zusammengefasster Aufträge)
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return true = Schreibauftrag, false = Leseauftrag
+	 */
+	public boolean isWrite() {
+		return write;
+	}
+
+	/**
+	 * @return Wartezeit vom Erteilen bis zum Abschluss in ns (0, solange der
+	 *         Auftrag nicht abgeschlossen ist)
+	 */
+	public long getLatency() {
+		if (!done) {
+			return 0;
+		}
+		return completionTime - submitTime;
+	}
+
+	/**
+	 * @return Kopfbewegung in Spuren (nur beim führenden Auftrag gesetzt)
+	 */
+	public int getSeekDistance() {
+		return seekDistance;
+	}
+
+	/**
+	 * @return Bedienzeit laut Plattenmodell in µs (nur beim führenden
+	 *         Auftrag gesetzt)
+	 */
+	public long getServiceTime() {
+		return serviceTime;
+	}
+
+	/**
+	 * @return true, wenn der Auftrag abgeschlossen ist
+	 */
+	public synchronized boolean isDone() {
+		return done;
+	}
+
+	/**
+	 * Auf den Abschluss des Auftrags warten
+	 *
+	 * @throws InterruptedException
+	 */
+	public synchronized void waitForCompletion() throws InterruptedException {
+		while (!done) {
+			wait();
+		}
+	}
+
+	/**
+	 * Benachbarten Auftrag derselben Richtung anhängen, falls möglich
+	 *
+	 * @param other
+	 *            neuer Auftrag
+	 * @return true, wenn other in diesen Auftrag übernommen wurde
+	 */
+	boolean merge(DiskRequest other) {
+		if (other.write != write) {
+			return false;
+		}
+		if (diskAdr + size == other.diskAdr) {
+			size = size + other.size;
+		} else if (other.diskAdr + other.size == diskAdr) {
+			diskAdr = other.diskAdr;
+			size = size + other.size;
+		} else {
+			return false;
+		}
+		mergedRequests.add(other);
+		return true;
+	}
+
+	/**
+	 * Auftrag und alle zusammengefassten Aufträge abschließen, wartende
+	 * Threads wecken und Rückrufe auslösen (aufgerufen vom Plattenthread)
+	 *
+	 * @param distance
+	 *            Kopfbewegung in Spuren
+	 * @param time
+	 *            Bedienzeit laut Plattenmodell in µs
+	 */
+	void complete(int distance, long time) {
+		seekDistance = distance;
+		serviceTime = time;
+		finish();
+		for (DiskRequest merged : mergedRequests) {
+			merged.finish();
+		}
+	}
+
+	/**
+	 * Einzelnen Auftrag als abgeschlossen markieren
+	 */
+	private void finish() {
+		synchronized (this) {
+			completionTime = System.nanoTime();
+			done = true;
+			notifyAll();
+		}
+		if (listener != null) {
+			listener.requestCompleted(this);
+		}
+	}
+}
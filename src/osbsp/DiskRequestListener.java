@@ -0,0 +1,16 @@
+package osbsp;
+
+/**
+ * Rückruf-Schnittstelle für abgeschlossene Plattenaufträge
+ */
+public interface DiskRequestListener {
+
+	/**
+	 * Wird vom Plattenthread aufgerufen, sobald der Auftrag bedient wurde
+	 * (bei zusammengefassten Aufträgen für jeden Teilauftrag)
+	 *
+	 * @param request
+	 *            abgeschlossener Auftrag
+	 */
+	public void requestCompleted(DiskRequest request);
+}
@@ -0,0 +1,389 @@
+package osbsp;
+
+import java.io.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * EventTrace
+ *
+ * Strukturierte Ereignisaufzeichnung der Speicherverwaltung: typisierte
+ * Ereignisse (Zugriff, TLB-Miss, Seitenfehler, Verdrängung, Belegung,
+ * Freigabe, ...) mit Prozess-Id und zwei int-Argumenten werden binär in einen
+ * Ringpuffer fester Größe geschrieben. Es werden keine Zeichenketten oder
+ * Objekte erzeugt; bei vollem Puffer überschreiben neue Ereignisse die
+ * ältesten.
+ *
+ * Schreiben ist sperrfrei: jeder Schreiber reserviert mit einem atomaren
+ * Zähler eine Sequenznummer und damit einen Platz im Ring. Der Stempel des
+ * Platzes wird erst nach den Daten gesetzt, so dass ein Leser unvollständig
+ * geschriebene oder inzwischen überschriebene Einträge erkennt und
+ * überspringt.
+ *
+ * Die Textform (Testausgaben, Dekodierung einer Dump-Datei) erzeugt
+ * format().
+ */
+public class EventTrace {
+	/**
+	 * Lesezugriff: arg1 = virtuelle Adresse, arg2 = reale Adresse
+	 */
+	public static final int READ = 1;
+	/**
+	 * Schreibzugriff: arg1 = virtuelle Adresse, arg2 = reale Adresse
+	 */
+	public static final int WRITE = 2;
+	/**
+	 * TLB-Miss: arg1 = VPN
+	 */
+	public static final int TLB_MISS = 3;
+	/**
+	 * Erster Zugriff auf eine Seite: arg1 = VPN, arg2 = RAM-Adresse
+	 */
+	public static final int NEW_PAGE = 4;
+	/**
+	 * Seitenfehler: arg1 = VPN, arg2 = Plattenadresse bzw. Slotnummer
+	 */
+	public static final int PAGE_FAULT = 5;
+	/**
+	 * Seite eingelagert: arg1 = VPN, arg2 = RAM-Adresse
+	 */
+	public static final int PAGE_IN = 6;
+	/**
+	 * Seitenfehler in einem gemeinsamen Segment: arg1 = Seite im Segment
+	 */
+	public static final int SHARED_FAULT = 7;
+	/**
+	 * Seite aus der Programmdatei geladen: arg1 = VPN
+	 */
+	public static final int IMAGE_LOAD = 8;
+	/**
+	 * Copy-on-Write-Kopie: arg1 = VPN, arg2 = RAM-Adresse der Kopie
+	 */
+	public static final int COPY_ON_WRITE = 9;
+	/**
+	 * Seite zur Ersetzung ausgewählt: arg1 = VPN, arg2 = Listenplatz in der
+	 * pteRAMlist
+	 */
+	public static final int SELECT = 10;
+	/**
+	 * CLOCK: Seite wegen gesetztem R-Bit übersprungen: arg1 = VPN
+	 */
+	public static final int CLOCK_SKIP = 11;
+	/**
+	 * Seite auf die Platte ausgelagert: arg1 = VPN, arg2 = Plattenadresse
+	 */
+	public static final int EVICT = 12;
+	/**
+	 * Seite komprimiert im Pool abgelegt: arg1 = VPN, arg2 = Größe in Byte
+	 */
+	public static final int COMPRESS = 13;
+	/**
+	 * Seite in die Liste der RAM-Seiten aufgenommen: arg1 = VPN
+	 */
+	public static final int RAM_LIST_INSERT = 14;
+	/**
+	 * RAM-Seite belegt: arg1 = Adresse, arg2 = Größe
+	 */
+	public static final int RAM_ALLOC = 15;
+	/**
+	 * RAM-Seite freigegeben: arg1 = Adresse, arg2 = Größe
+	 */
+	public static final int RAM_FREE = 16;
+	/**
+	 * Plattenblock belegt: arg1 = Adresse, arg2 = Größe
+	 */
+	public static final int DISK_ALLOC = 17;
+	/**
+	 * Plattenblock freigegeben: arg1 = Adresse, arg2 = Größe
+	 */
+	public static final int DISK_FREE = 18;
+	/**
+	 * CAR/2Q: eingelagerte Seite stand in einer Geisterliste: arg1 = VPN,
+	 * arg2 = Liste (3 = B1 bzw. A1out, 4 = B2)
+	 */
+	public static final int GHOST_HIT = 19;
+	/**
+	 * NUMA: Seite auf den Heimatknoten des Prozesses migriert: arg1 = VPN,
+	 * arg2 = neue RAM-Adresse
+	 */
+	public static final int NUMA_MIGRATE = 20;
+	/**
+	 * Prozess beendet: arg1 = freigegebene Seitenrahmen, arg2 = freigegebene
+	 * Plattenblöcke
+	 */
+	public static final int EXIT = 21;
+	/**
+	 * Page Cache: Seite eines Dateisegments aus der Datei gelesen: arg1 =
+	 * Seitennummer in der Datei, arg2 = RAM-Adresse
+	 */
+	public static final int FILE_READ = 22;
+	/**
+	 * Page Cache: geänderte Dateiseite in die Datei zurückgeschrieben: arg1 =
+	 * Seitennummer in der Datei, arg2 = RAM-Adresse
+	 */
+	public static final int FILE_WRITEBACK = 23;
+	/**
+	 * Seitenzusammenlegung: Seite auf einen gleichen, Copy-on-Write geteilten
+	 * Seitenrahmen umgesetzt: arg1 = VPN, arg2 = RAM-Adresse des geteilten
+	 * Rahmens
+	 */
+	public static final int PAGE_MERGE = 24;
+	/**
+	 * Schutzverletzung: Zugriff außerhalb aller Speicherbereiche oder ohne
+	 * das nötige Recht: arg1 = virtuelle Adresse, arg2 = Zugriffsart
+	 * (VMArea.READ, WRITE)
+	 */
+	public static final int PROTECTION_FAULT = 25;
+	/**
+	 * Stack nach unten vergrößert: arg1 = neue Startadresse, arg2 = neue
+	 * Größe in Byte
+	 */
+	public static final int STACK_GROW = 26;
+	/**
+	 * Programmgrenze (brk) verschoben: arg1 = altes, arg2 = neues Heap-Ende
+	 */
+	public static final int BRK = 27;
+
+	/**
+	 * Prozess-Id für Ereignisse ohne Prozessbezug
+	 */
+	public static final int NO_PID = -1;
+
+	/**
+	 * Kennung am Anfang einer Dump-Datei ("OSTR")
+	 */
+	public static final int MAGIC = 0x4F535452;
+
+	private static final String[] NAMES = { "?", "READ", "WRITE", "TLB_MISS",
+			"NEW_PAGE", "PAGE_FAULT", "PAGE_IN", "SHARED_FAULT", "IMAGE_LOAD",
+			"COPY_ON_WRITE", "SELECT", "CLOCK_SKIP", "EVICT", "COMPRESS",
+			"RAM_LIST_INSERT", "RAM_ALLOC", "RAM_FREE", "DISK_ALLOC",
+			"DISK_FREE", "GHOST_HIT", "NUMA_MIGRATE", "EXIT", "FILE_READ",
+			"FILE_WRITEBACK", "PAGE_MERGE", "PROTECTION_FAULT", "STACK_GROW",
+			"BRK" };
+
+	private final int mask; // Kapazität - 1 (Kapazität ist Zweierpotenz)
+	private final long[] times; // Zeitstempel je Platz (ns seit Start)
+	private final long[] headers; // Typ und Prozess-Id je Platz
+	private final long[] args; // arg1 und arg2 je Platz
+	private final AtomicLongArray stamps; // Sequenznummer + 1 des Eintrags
+											// (0 = in Arbeit)
+	private final AtomicLong sequence; // nächste Sequenznummer
+	private final long startTime; // Beginn der Aufzeichnung (System.nanoTime)
+
+	/**
+	 * Konstruktor
+	 *
+	 * @param size
+	 *            Mindestanzahl Ereignisse im Ring (wird auf eine Zweierpotenz
+	 *            aufgerundet)
+	 */
+	public EventTrace(int size) {
+		int capacity = Integer.highestOneBit(Math.max(size, 2) - 1) << 1;
+
+		mask = capacity - 1;
+		times = new long[capacity];
+		headers = new long[capacity];
+		args = new long[capacity];
+		stamps = new AtomicLongArray(capacity);
+		sequence = new AtomicLong();
+		startTime = System.nanoTime();
+	}
+
+	/**
+	 * @return Anzahl Plätze im Ring
+	 */
+	public int getCapacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * @return Anzahl bisher aufgezeichneter Ereignisse (inkl. überschriebener)
+	 */
+	public long getCount() {
+		return sequence.get();
+	}
+
+	/**
+	 * Ereignis aufzeichnen
+	 *
+	 * @param type
+	 *            Ereignistyp (READ, WRITE, ...)
+	 * @param pid
+	 *            Prozess-Id oder NO_PID
+	 * @param arg1
+	 *            erstes Argument (siehe Ereignistyp)
+	 * @param arg2
+	 *            zweites Argument (siehe Ereignistyp)
+	 */
+	public void record(int type, int pid, int arg1, int arg2) {
+		long seq = sequence.getAndIncrement(); // reservierte Sequenznummer
+		int slot = (int) seq & mask; // Platz im Ring
+
+		stamps.set(slot, 0);
+		times[slot] = System.nanoTime() - startTime;
+		headers[slot] = ((long) type << 32) | (pid & 0xFFFFFFFFL);
+		args[slot] = ((long) arg1 << 32) | (arg2 & 0xFFFFFFFFL);
+		stamps.lazySet(slot, seq + 1);
+	}
+
+	/**
+	 * Alle noch im Ring vorhandenen Ereignisse (älteste zuerst) binär in eine
+	 * Datei schreiben. Format: MAGIC, Anzahl, dann je Ereignis Zeitstempel
+	 * (long), Typ, Prozess-Id, arg1, arg2 (int).
+	 *
+	 * @param fileName
+	 *            Dateiname
+	 * @return Anzahl geschriebener Ereignisse
+	 * @throws IOException
+	 *             bei Schreibfehlern
+	 */
+	public int writeTo(String fileName) throws IOException {
+		long end = sequence.get(); // Ende der Momentaufnahme
+		long first = Math.max(0, end - getCapacity()); // ältestes Ereignis
+		long[] snapshot = new long[3 * (int) (end - first)]; // gültige Einträge
+		int count = 0; // Anzahl gültiger Einträge
+		DataOutputStream out;
+		int slot; // Platz im Ring
+		long stamp; // Stempel vor dem Lesen
+
+		for (long seq = first; seq < end; seq++) {
+			slot = (int) seq & mask;
+			stamp = stamps.get(slot);
+			snapshot[3 * count] = times[slot];
+			snapshot[3 * count + 1] = headers[slot];
+			snapshot[3 * count + 2] = args[slot];
+			// nur vollständige, nicht überschriebene Einträge übernehmen
+			if (stamp == seq + 1 && stamps.get(slot) == stamp) {
+				count++;
+			}
+		}
+		out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(fileName)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(count);
+			for (int i = 0; i < count; i++) {
+				out.writeLong(snapshot[3 * i]);
+				out.writeInt((int) (snapshot[3 * i + 1] >>> 32));
+				out.writeInt((int) snapshot[3 * i + 1]);
+				out.writeInt((int) (snapshot[3 * i + 2] >>> 32));
+				out.writeInt((int) snapshot[3 * i + 2]);
+			}
+		} finally {
+			out.close();
+		}
+		return count;
+	}
+
+	/**
+	 * @return Name des Ereignistyps
+	 */
+	public static String getName(int type) {
+		if (type <= 0 || type >= NAMES.length) {
+			return NAMES[0];
+		}
+		return NAMES[type];
+	}
+
+	/**
+	 * @return Anzahl definierter Ereignistypen + 1 (Typen sind 1 ..
+	 *         getNumOfTypes()-1)
+	 */
+	public static int getNumOfTypes() {
+		return NAMES.length;
+	}
+
+	/**
+	 * Ereignis als Textzeile darstellen (Testausgaben und Dekodierung)
+	 *
+	 * @return lesbare Form des Ereignisses
+	 */
+	public static String format(int type, int pid, int arg1, int arg2) {
+		String who = (pid == NO_PID) ? "OS" : "Prozess " + pid;
+
+		switch (type) {
+		case READ:
+			return who + ": read virt. Adresse " + arg1 + " --> RAM-Adresse "
+					+ arg2;
+		case WRITE:
+			return who + ": write virt. Adresse " + arg1 + " --> RAM-Adresse "
+					+ arg2;
+		case TLB_MISS:
+			return who + ": TLB-Miss fuer Seite " + arg1;
+		case NEW_PAGE:
+			return who + ": Neue Seite " + arg1
+					+ " in Seitentabelle eingetragen, RAM-Adresse " + arg2;
+		case PAGE_FAULT:
+			return who + ": Seitenfehler fuer Seite " + arg1
+					+ " (Platte/Slot " + arg2 + ")";
+		case PAGE_IN:
+			return who + ": Seite " + arg1 + " ist wieder im RAM an Adresse "
+					+ arg2;
+		case SHARED_FAULT:
+			return who + ": Seitenfehler fuer Seite " + arg1
+					+ " eines gemeinsamen Segments";
+		case IMAGE_LOAD:
+			return who + ": Seite " + arg1 + " aus der Programmdatei geladen";
+		case COPY_ON_WRITE:
+			return who + ": Copy-on-Write: Seite " + arg1 + " nach RAM-Adresse "
+					+ arg2 + " kopiert";
+		case SELECT:
+			return who + ": Seite " + arg1
+					+ " zur Ersetzung ausgewaehlt, Listenplatz " + arg2;
+		case CLOCK_SKIP:
+			return who + ": CLOCK-Algorithmus: Seite " + arg1
+					+ " referenziert, R-Bit zurueckgesetzt";
+		case EVICT:
+			return who + ": Seite " + arg1
+					+ " ist nun auf der Platte an Adresse " + arg2;
+		case COMPRESS:
+			return who + ": Seite " + arg1 + " komprimiert im Pool (" + arg2
+					+ " Byte)";
+		case RAM_LIST_INSERT:
+			return who + ": Seite " + arg1 + " in pteRAMlist angefuegt";
+		case RAM_ALLOC:
+			return who + ": RAM-Seite belegt an Adresse " + arg1 + " (" + arg2
+					+ " Byte)";
+		case RAM_FREE:
+			return who + ": RAM-Seite freigegeben an Adresse " + arg1 + " ("
+					+ arg2 + " Byte)";
+		case DISK_ALLOC:
+			return who + ": Plattenblock belegt an Adresse " + arg1 + " ("
+					+ arg2 + " Byte)";
+		case DISK_FREE:
+			return who + ": Plattenblock freigegeben an Adresse " + arg1 + " ("
+					+ arg2 + " Byte)";
+		case GHOST_HIT:
+			return who + ": Seite " + arg1 + " aus Geisterliste "
+					+ ((arg2 == 3) ? "B1/A1out" : "B2") + " wieder eingelagert";
+		case NUMA_MIGRATE:
+			return who + ": Seite " + arg1 + " auf Heimatknoten migriert, RAM-Adresse "
+					+ arg2;
+		case EXIT:
+			return who + ": beendet, " + arg1 + " Seitenrahmen und " + arg2
+					+ " Plattenbloecke freigegeben";
+		case FILE_READ:
+			return who + ": Dateiseite " + arg1 + " nach RAM-Adresse " + arg2
+					+ " gelesen";
+		case FILE_WRITEBACK:
+			return who + ": Dateiseite " + arg1 + " von RAM-Adresse " + arg2
+					+ " zurueckgeschrieben";
+		case PAGE_MERGE:
+			return who + ": Seite " + arg1 + " mit gleicher Seite an RAM-Adresse "
+					+ arg2 + " zusammengelegt";
+		case PROTECTION_FAULT:
+			return who + ": Schutzverletzung beim "
+					+ ((arg2 == VMArea.WRITE) ? "Schreiben" : "Lesen")
+					+ " von virt. Adresse " + arg1;
+		case STACK_GROW:
+			return who + ": Stack beginnt nun an virt. Adresse " + arg1 + " ("
+					+ arg2 + " Byte)";
+		case BRK:
+			return who + ": Heap-Ende von virt. Adresse " + arg1 + " nach "
+					+ arg2 + " verschoben";
+		default:
+			return who + ": Ereignis " + type + " (" + arg1 + ", " + arg2 + ")";
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package osbsp;
+
+/**
+ * FramePartitioner
+ *
+ * Aufteilung der Seitenrahmen auf die Prozesse anhand ihrer Miss-Ratio-Kurven
+ * (Utility-Based Partitioning mit Lookahead nach Qureshi/Patt): jeder Prozess
+ * erhält zunächst seine Mindestzahl Rahmen, die übrigen Rahmen werden
+ * schrittweise an den Prozess vergeben, der je zusätzlichem Rahmen die
+ * meisten Seitenfehler einspart. Der Lookahead betrachtet dabei auch
+ * mehrere Rahmen auf einmal, damit Plateaus in der Kurve (erst ab k Rahmen
+ * passt die nächste Schleife in den Speicher) nicht übersehen werden.
+ */
+public class FramePartitioner {
+
+	/**
+	 * Rahmen aufteilen
+	 *
+	 * @param missCurves
+	 *            je Prozess die Seitenfehler bei f Rahmen (Index f = 0 ..
+	 *            Länge-1; über das Ende hinaus bleibt die Zahl konstant)
+	 * @param minFrames
+	 *            Mindestzahl Rahmen je Prozess
+	 * @param budget
+	 *            Anzahl aufzuteilender Rahmen
+	 * @return Anzahl Rahmen je Prozess (Summe = budget, sofern die
+	 *         Mindestzahlen hineinpassen)
+	 */
+	public static int[] partition(long[][] missCurves, int[] minFrames,
+			int budget) {
+		int n = missCurves.length; // Anzahl Prozesse
+		int[] alloc = new int[n]; // Ergebnis
+		int used = 0; // bereits vergebene Rahmen
+		int remaining; // noch zu vergebende Rahmen
+		double bestUtility; // größte Einsparung je Rahmen
+		int bestProcess; // Prozess mit der größten Einsparung
+		int bestFrames; // dafür zusätzlich nötige Rahmen
+		double utility; // Einsparung je Rahmen
+		long[] curve; // Kurve des aktuellen Prozesses
+		int maxFrames; // größte sinnvolle Erhöhung
+
+		if (n == 0) {
+			return alloc;
+		}
+		for (int i = 0; i < n; i++) {
+			used = used + minFrames[i];
+		}
+		if (used > budget) {
+			// Mindestzahlen passen nicht: anteilig kürzen
+			for (int i = 0; i < n; i++) {
+				alloc[i] = Math.max(1, (int) ((long) minFrames[i] * budget / used));
+			}
+			return alloc;
+		}
+		for (int i = 0; i < n; i++) {
+			alloc[i] = minFrames[i];
+		}
+		remaining = budget - used;
+		while (remaining > 0) {
+			bestUtility = 0;
+			bestProcess = -1;
+			bestFrames = 0;
+			for (int i = 0; i < n; i++) {
+				curve = missCurves[i];
+				maxFrames = Math.min(remaining, curve.length - 1 - alloc[i]);
+				for (int k = 1; k <= maxFrames; k++) {
+					utility = (double) (curve[alloc[i]] - curve[alloc[i] + k]) / k;
+					if (utility > bestUtility) {
+						bestUtility = utility;
+						bestProcess = i;
+						bestFrames = k;
+					}
+				}
+			}
+			if (bestProcess < 0) {
+				// kein Prozess profitiert mehr: Rest gleichmäßig verteilen
+				for (int i = 0; remaining > 0; i = (i + 1) % n) {
+					alloc[i]++;
+					remaining--;
+				}
+				break;
+			}
+			alloc[bestProcess] = alloc[bestProcess] + bestFrames;
+			remaining = remaining - bestFrames;
+		}
+		return alloc;
+	}
+
+	/**
+	 * @param missCurves
+	 *            Miss-Ratio-Kurven wie bei partition()
+	 * @param alloc
+	 *            Anzahl Rahmen je Prozess
+	 * @return Summe der laut Kurven zu erwartenden Seitenfehler
+	 */
+	public static long getMisses(long[][] missCurves, int[] alloc) {
+		long misses = 0; // Summe
+
+		for (int i = 0; i < missCurves.length; i++) {
+			misses = misses
+					+ missCurves[i][Math.min(alloc[i], missCurves[i].length - 1)];
+		}
+		return misses;
+	}
+}
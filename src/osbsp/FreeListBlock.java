@@ -2,11 +2,11 @@ package osbsp;
 /**
  * FreeListBlock
  *
- * Datenstrukturelement einer Freibereichsliste, das Adresse und Gre eines freien Blocks angibt
+ * Datenstrukturelement einer Freibereichsliste, das Adresse und Größe eines freien Blocks angibt
  */
 public class FreeListBlock implements Comparable<Object> {
 	private int adress;		// Reale Startadresse des freien Blocks
-	private int size;		// Lnge des freien Blocks in Byte
+	private int size;		// Länge des freien Blocks in Byte
 
 	/**
 	 * Konstruktor
@@ -18,11 +18,11 @@ public class FreeListBlock implements Comparable<Object> {
 	}
 
 	/**
-	 * Vergleichsfunktion fr Sortierung
+	 * Vergleichsfunktion für Sortierung
 	 */	
 
 	public int compareTo(Object otherBlock) {
-		// Vergleiche mit anderem FreeListBlock fr die Sortierung
+		// Vergleiche mit anderem FreeListBlock für die Sortierung
 		int result;
 		FreeListBlock otherFB;
 		
@@ -47,7 +47,7 @@ public class FreeListBlock implements Comparable<Object> {
 	}
 
 	/**
-	 * @return Gre des Blocks
+	 * @return Größe des Blocks
 	 */
 	public int getSize() {
 		return size;
@@ -61,7 +61,7 @@ public class FreeListBlock implements Comparable<Object> {
 	}
 
 	/**
-	 * @param i Gre zuweisen
+	 * @param i Größe zuweisen
 	 */
 	public void setSize(int i) {
 		size = i;
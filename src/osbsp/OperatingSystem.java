@@ -3,6 +3,9 @@ package osbsp;
 /*
  * OperatingSystem.java
  */
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.*;
 
 /**
@@ -19,12 +22,12 @@ public class OperatingSystem {
 	private int MAX_RAM_PAGES_PER_PROCESS = 10;
 
 	/**
-	 * max. Anzahl Prozesse (muss beschr�nkt werden, da kein Swapping
+	 * max. Anzahl Prozesse (muss beschränkt werden, da kein Swapping
 	 * implementiert ist!): (ein Teil des Hauptspeichers muss immer frei bleiben
-	 * (u.a. f�r Caching etc.), daher -PAGE_SIZE)
+	 * (u.a. für Caching etc.), daher -PAGE_SIZE). Wird im Konstruktor aus
+	 * den Maschinenparametern berechnet.
 	 */
-	private int MAX_NUM_OF_PROCESSES = (RAM_SIZE - PAGE_SIZE)
-			/ (MAX_RAM_PAGES_PER_PROCESS * PAGE_SIZE);
+	private int MAX_NUM_OF_PROCESSES;
 
 	/**
 	 * Dieser Faktor bestimmt das "Lokalit�tsverhalten" eines Programms (=
@@ -32,45 +35,250 @@ public class OperatingSystem {
 	 */
 	private int DEFAULT_LOCALITY_FACTOR = 30;
 
-	// ------------ Konfigurierbare maschinenabh�ngige Parameter
+	/**
+	 * Anzahl Einträge im TLB eines Prozesses (TLB-Reichweite = TLB_SIZE *
+	 * Seitengröße des Prozesses)
+	 */
+	private int TLB_SIZE = 16;
+
+	/**
+	 * Automatische Rahmenaufteilung: statt der festen Quote
+	 * MAX_RAM_PAGES_PER_PROCESS werden die freien Seitenrahmen anhand der
+	 * Miss-Ratio-Kurven der Prozesse aufgeteilt (erfordert REUSE_PROFILING)
+	 */
+	private boolean FRAME_PARTITIONING = false;
+
+	/**
+	 * Anzahl Zugriffe (aller Prozesse) zwischen zwei Neuaufteilungen der
+	 * Seitenrahmen
+	 */
+	private int REBALANCE_INTERVAL = 10000;
+
+	/**
+	 * Lastkontrolle: bei Überlastung (Thrashing) werden neue Prozesse in eine
+	 * Warteschlange gestellt und laufende Prozesse deaktiviert (ausgelagert),
+	 * bis der Bedarf wieder in den RAM passt
+	 */
+	private boolean THRASHING_CONTROL = false;
+
+	/**
+	 * Lastkontrolle: Fensterlänge der Überlastungserkennung in Zugriffen
+	 * (aller Prozesse)
+	 */
+	private int THRASHING_WINDOW = 10000;
+
+	/**
+	 * Lastkontrolle: Überlastung ab dieser Seitenfehlerrate im Fenster (in
+	 * Prozent der Zugriffe)
+	 */
+	private int THRASHING_FAULT_RATE = 30;
+
+	/**
+	 * Lastkontrolle: Überlastung ab diesem Anteil der Laufzeit der aktiven
+	 * Prozesse, der in Seitenfehlern verbracht wird (in Prozent)
+	 */
+	private int THRASHING_TIME_SHARE = 50;
+
+	/**
+	 * Seitenzusammenlegung (Kernel Same-page Merging): ein Hintergrundthread
+	 * sucht gleiche Seiten der Prozesse im RAM und legt sie zu einem
+	 * Copy-on-Write geteilten Seitenrahmen zusammen
+	 */
+	private boolean SAME_PAGE_MERGING = false;
+
+	/**
+	 * Seitenzusammenlegung: Anzahl geprüfter Seiten je Durchgang des
+	 * Scanners
+	 */
+	private int MERGE_SCAN_PAGES = 100;
+
+	/**
+	 * Seitenzusammenlegung: Pause zwischen zwei Durchgängen in ms
+	 * (begrenzt die Rechenzeit des Scanners)
+	 */
+	private int MERGE_SCAN_INTERVAL = 20;
+
+	/**
+	 * max. Größe des Stacks eines Prozesses in Byte: der Stack liegt am
+	 * oberen Ende des virtuellen Adressraums und wächst bei Zugriffen
+	 * unterhalb seines Anfangs bis zu dieser Größe nach unten
+	 */
+	private int MAX_STACK_SIZE = 65536;
+
+	/**
+	 * NUMA: Anzahl Speicherknoten (Zweierpotenz). Der RAM wird in gleich
+	 * große, zusammenhängende Knoten aufgeteilt; jeder Prozess hat einen
+	 * Heimatknoten, aus dem seine Seitenrahmen bevorzugt belegt werden.
+	 */
+	private int NUMA_NODES = 1;
+
+	/**
+	 * NUMA: Kosten eines Zugriffs auf den Heimatknoten in ns
+	 */
+	private int NUMA_LOCAL_COST = 100;
+
+	/**
+	 * NUMA: Kosten eines Zugriffs auf einen fremden Knoten in ns
+	 */
+	private int NUMA_REMOTE_COST = 180;
+
+	/**
+	 * NUMA: jeder n-te Zugriff wird als Stichprobe für die Migration
+	 * ausgewertet (0 = keine Migration)
+	 */
+	private int NUMA_SAMPLE_INTERVAL = 64;
+
+	/**
+	 * NUMA: Anzahl aufeinanderfolgender Stichproben vom selben fremden
+	 * Heimatknoten, nach denen eine Seite dorthin migriert wird
+	 */
+	private int NUMA_MIGRATE_THRESHOLD = 2;
+
+	/**
+	 * Cache-Modell: Kapazität des L1-Cache in Byte (0 = kein Cache-Modell,
+	 * alle Zugriffe kosten einen Speicherzugriff)
+	 */
+	private int L1_CACHE_SIZE = 0;
+
+	/**
+	 * Cache-Modell: Kapazität des L2-Cache in Byte (0 = kein L2-Cache)
+	 */
+	private int L2_CACHE_SIZE = 8192;
+
+	/**
+	 * Cache-Modell: Zeilengröße beider Stufen in Byte (Zweierpotenz)
+	 */
+	private int CACHE_LINE_SIZE = 16;
+
+	/**
+	 * Cache-Modell: Anzahl Wege je Menge im L1-Cache
+	 */
+	private int L1_ASSOCIATIVITY = 4;
+
+	/**
+	 * Cache-Modell: Anzahl Wege je Menge im L2-Cache
+	 */
+	private int L2_ASSOCIATIVITY = 8;
+
+	/**
+	 * Cache-Modell: Ersetzungsstrategie beider Stufen (CACHE_LRU oder
+	 * CACHE_PLRU)
+	 */
+	private int CACHE_REPLACEMENT = CacheLevel.LRU;
+
+	/**
+	 * Cache-Modell: Zugriffszeit des L1-Cache in ns
+	 */
+	private int L1_LATENCY = 1;
+
+	/**
+	 * Cache-Modell: zusätzliche Zugriffszeit des L2-Cache in ns (nach einem
+	 * L1-Fehlzugriff). Ein Fehlzugriff in allen Stufen kostet zusätzlich
+	 * einen Speicherzugriff (NUMA_LOCAL_COST bzw. NUMA_REMOTE_COST).
+	 */
+	private int L2_LATENCY = 10;
+
+	// ------------ Voreinstellungen der maschinenabhängigen Parameter
+	// -----------------------
+	/**
+	 * Voreinstellung RAM-Größe: 2^16 Byte = 64 KByte RAM
+	 */
+	public static final int DEFAULT_RAM_SIZE = 65536;
+	/**
+	 * Voreinstellung Seitengröße: 2^8 Byte = 256 Byte --> max. 2^8 = 256
+	 * Seitenrahmen, 64 Worte pro Seitenrahmen
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 256;
+	/**
+	 * Voreinstellung virtueller Adressraum: 2^20 Byte = 1 MByte
+	 */
+	public static final int DEFAULT_VIRT_ADR_SPACE = 1048576;
+
+	// ------------ Konfigurierbare maschinenabhängige Parameter
 	// -----------------------
-	// L�nge eines Datenworts in Byte
+	// Länge eines Datenworts in Byte
 	private static final int WORD_SIZE = 4;
-	// 2^16 Byte = 64 KByte RAM
-	private static final int RAM_SIZE = 65536;
-	// 2^8 Byte = 256 Byte Seitengr��e --> max. 2^8 = 256 Seitenrahmen , 64
-	// Worte pro Seitenrahmen
-	private static final int PAGE_SIZE = 256;
-        // logarithmus PAGE_SIZE, Potenz
-        private static final int PAGE_SIZE_POTENZ = (int)lb(PAGE_SIZE);
-	// Virtueller Adressraum: 2^20 Byte = 1 MByte (max. virt. Adresse)
-	private static final int VIRT_ADR_SPACE = 1048576;
-
-	// ------------ Abgeleitete maschinenabh�ngige Parameter
+	// Größe des Hauptspeichers in Byte (Zweierpotenz)
+	private final int RAM_SIZE;
+	// Seitengröße (Basisseiten) in Byte (Zweierpotenz)
+	private final int PAGE_SIZE;
+	// Virtueller Adressraum in Byte (max. virt. Adresse, Zweierpotenz)
+	private final int VIRT_ADR_SPACE;
+	// Größe einer Huge Page in Byte (Vielfaches von PAGE_SIZE), 0 = keine
+	// Huge Pages
+	private final int HUGE_PAGE_SIZE;
+
+	// ------------ Abgeleitete maschinenabhängige Parameter
 	// -----------------------
-	// Max. Anzahl virtueller Seiten: 2^12 = 4096 Seiten
-	private static final int MAX_NO_OF_PAGES = VIRT_ADR_SPACE / PAGE_SIZE;
+	// Zweierlogarithmus von PAGE_SIZE (Anzahl Offset-Bits)
+	private final int PAGE_SIZE_POTENZ;
+	// Max. Anzahl virtueller Seiten (Standard: 2^12 = 4096 Seiten)
+	private final int MAX_NO_OF_PAGES;
 	// Platteneigenschaften:
-	// Gr��e = virt. Adressraum reicht hier, weil wir keine weiteren Dateien
+	// Größe = virt. Adressraum reicht hier, weil wir keine weiteren Dateien
 	// brauchen
-	private static final int DISK_SIZE = VIRT_ADR_SPACE;
-	// Gr��e eines Plattenblocks
-	private static final int BLOCK_SIZE = PAGE_SIZE;
+	private final int DISK_SIZE;
+	// Größe eines Plattenblocks
+	private final int BLOCK_SIZE;
 
 	// ------------ Hardware-Stubs --------------------------------------
-	// Physikalischer Hauptspeicher
-	private Hashtable<Integer, Integer> physRAM;
-	// Physikalische Festplatte
-	private Hashtable<Integer, Integer> physDisk;
+	// Physikalischer Hauptspeicher (außerhalb des Java-Heaps)
+	private PhysicalMemory physRAM;
+	// Physikalische Festplatte (außerhalb des Java-Heaps)
+	private PhysicalMemory physDisk;
 
 	// ---------- Systemtabellen ----------------------------------------
 	// Freibereichsliste Hauptspeicher
 	private LinkedList<FreeListBlock> ramFreeList;
 	// Freibereichsliste Festplatte
 	private LinkedList<FreeListBlock> diskFreeList;
-	// Liste aller Prozesse
+	// Referenzzähler der Seitenrahmen (Index = RAM-Adresse >> PAGE_SIZE_POTENZ),
+	// > 1 bei Copy-on-Write-Teilung nach fork()
+	private int[] ramFrameRefCount;
+	// NUMA-Stichproben je Seitenrahmen: (Knoten + 1) << 16 | Anzahl
+	// aufeinanderfolgender Stichproben von diesem fremden Knoten (0 = keine)
+	private int[] ramFrameNodeHint;
+	// Referenzzähler der Plattenblöcke (Index = Plattenadresse / BLOCK_SIZE)
+	private int[] diskBlockRefCount;
+	// Gemeinsame Speichersegmente (Name --> Segment), auch Dateisegmente
+	// (Name = SharedSegment.FILE_PREFIX + Dateiname)
+	private HashMap<String, SharedSegment> sharedSegments;
+	// Eingelagerte Seiten der Dateisegmente (mmap)
+	private PageCache pageCache;
+	// Für gemeinsame Segmente und den Pool der komprimierten
+	// Auslagerungsstufe reservierter RAM in Byte
+	private int reservedRAM;
+	// Komprimierte Auslagerungsstufe vor der Platte (null = ausgeschaltet)
+	private CompressedSwapCache swapCache;
+	// Asynchrone Auftragswarteschlange der Platte (null = synchrone
+	// Transfers ohne Zeitmodell)
+	private DiskQueue diskQueue;
+	// Rückruf des Plattenthreads für abgeschlossene Aufträge
+	private DiskRequestListener diskListener;
+	// Liste aller laufenden Prozesse
 	private LinkedList<Process> processList;
+	// Prozesstabelle: Prozess je Prozess-ID (null = frei)
+	private Process[] processTable;
+	// nächste noch nie vergebene Prozess-ID
 	private int processCounter;
+	// Ringpuffer freigewordener Prozess-IDs (älteste wird zuerst neu vergeben)
+	private int[] freePids;
+	// Lastkontrolle: angehaltene Prozesse in Reihenfolge ihrer Aktivierung
+	// (zurückgestellte neue und deaktivierte Prozesse)
+	private LinkedList<Process> suspendedProcesses;
+	// Lastkontrolle: Überlastungserkennung (null = ausgeschaltet)
+	private ThrashingDetector thrashingDetector;
+	// Lastkontrolle: laufende Nummer der letzten Aktivierung
+	private long activationCounter;
+	// Seitenzusammenlegung: Hintergrundthread (null = ausgeschaltet)
+	private SamePageScanner samePageScanner;
+	// Seitenzusammenlegung: Prüfsumme --> erste Seite mit diesem Inhalt im
+	// laufenden Durchlauf (Prozess-ID << 32 | VPN)
+	private HashMap<Integer, Long> mergeCandidates;
+	private int mergeScanPid; // Position des Scanners: Prozess-ID
+	private int mergeScanSlot; // Position des Scanners: Platz in der pteRAMlist
+	private int freePidHead; // Position der ältesten freien Prozess-ID
+	private int freePidCount; // Anzahl freier Prozess-IDs
 
 	/**
 	 * Zeiger auf Statistik-Objekt
@@ -79,6 +287,15 @@ public class OperatingSystem {
 
 	// -------------------------- Teststeuerung -----------------------------
 	private boolean TEST = false; // Testausgaben erw�nscht?
+	private EventTrace eventTrace = null; // Ereignisaufzeichnung (null = aus)
+	private boolean REUSE_PROFILING = false; // Zugriffsprofil je Prozess?
+	private int accessesSinceRebalance = 0; // Zugriffe seit der letzten
+											// Rahmenaufteilung
+	private int numaNodeShift; // Zweierlogarithmus der Knotengröße
+	private int accessesSinceNumaSample = 0; // Zugriffe seit der letzten
+												// NUMA-Stichprobe
+	private CacheLevel l1Cache = null; // Cache-Modell: L1 (null = aus)
+	private CacheLevel l2Cache = null; // Cache-Modell: L2 (null = kein L2)
 
 	// -------------------------- Seitenersetzungs-Algorithmus
 	// -----------------------------
@@ -97,58 +314,297 @@ public class OperatingSystem {
 	 */
 	public final int RANDOM = 2;
 
+	/**
+	 * Symbolische Konstante für CAR (Clock with Adaptive Replacement, die
+	 * Clock-Variante von ARC), Wert = 3
+	 */
+	public final int CAR = 3;
+
+	/**
+	 * Symbolische Konstante für 2Q (FIFO für neue Seiten, Uhr für mehrfach
+	 * benutzte Seiten), Wert = 4
+	 */
+	public final int TWO_Q = 4;
+
+	/**
+	 * Symbolische Konstante für LRU-Ersetzung im Cache-Modell, Wert = 0
+	 */
+	public final int CACHE_LRU = CacheLevel.LRU;
+
+	/**
+	 * Symbolische Konstante für Pseudo-LRU-Ersetzung (Baumbits) im
+	 * Cache-Modell, Wert = 1
+	 */
+	public final int CACHE_PLRU = CacheLevel.PLRU;
+
 	/**
 	 * Auswahl des Seitenersetzungs-Algorithmus
 	 */
 	private int REPLACEMENT_ALGORITHM = CLOCK;
 
+	// -------------------------- Plattenstrategie
+	// -----------------------------
+
+	/**
+	 * Symbolische Konstante für synchrone Plattentransfers ohne
+	 * Warteschlange und Zeitmodell (Voreinstellung), Wert = -1
+	 */
+	public final int DISK_SYNCHRONOUS = -1;
+	/**
+	 * Symbolische Konstante für First Come First Served, Wert = 0
+	 */
+	public final int FCFS = DiskQueue.FCFS;
+	/**
+	 * Symbolische Konstante für Shortest Seek Time First, Wert = 1
+	 */
+	public final int SSTF = DiskQueue.SSTF;
+	/**
+	 * Symbolische Konstante für die Aufzugsstrategie SCAN, Wert = 2
+	 */
+	public final int SCAN = DiskQueue.SCAN;
+	/**
+	 * Symbolische Konstante für die zyklische Aufzugsstrategie C-LOOK, Wert =
+	 * 3
+	 */
+	public final int CLOOK = DiskQueue.CLOOK;
+
 	// ------------------------- Public-Methoden ---------------------------
 	/**
-	 * Konstruktor
-	 */        
+	 * Konstruktor mit den voreingestellten Maschinenparametern (64 KByte RAM,
+	 * 256 Byte Seiten, 1 MByte virtueller Adressraum, keine Huge Pages)
+	 */
 	public OperatingSystem() {
+		this(DEFAULT_RAM_SIZE, DEFAULT_PAGE_SIZE, DEFAULT_VIRT_ADR_SPACE, 0);
+	}
+
+	/**
+	 * Konstruktor mit frei wählbaren Maschinenparametern (ohne Huge Pages)
+	 *
+	 * @param ramSize
+	 *            Größe des Hauptspeichers in Byte (Zweierpotenz)
+	 * @param pageSize
+	 *            Seitengröße in Byte (Zweierpotenz)
+	 * @param virtAdrSpace
+	 *            Größe des virtuellen Adressraums in Byte (Zweierpotenz)
+	 */
+	public OperatingSystem(int ramSize, int pageSize, int virtAdrSpace) {
+		this(ramSize, pageSize, virtAdrSpace, 0);
+	}
+
+	/**
+	 * Konstruktor mit frei wählbaren Maschinenparametern
+	 *
+	 * @param ramSize
+	 *            Größe des Hauptspeichers in Byte (Zweierpotenz)
+	 * @param pageSize
+	 *            Seitengröße der Basisseiten in Byte (Zweierpotenz)
+	 * @param virtAdrSpace
+	 *            Größe des virtuellen Adressraums in Byte (Zweierpotenz)
+	 * @param hugePageSize
+	 *            Größe einer Huge Page in Byte (Zweierpotenz, Vielfaches von
+	 *            pageSize) oder 0, wenn keine Huge Pages unterstützt werden
+	 *            sollen
+	 * @throws IllegalArgumentException
+	 *             bei unzulässiger Parameterkombination
+	 */
+	public OperatingSystem(int ramSize, int pageSize, int virtAdrSpace,
+			int hugePageSize) {
+		// Parameter prüfen: Adressumsetzung per Shift/Maske erfordert
+		// Zweierpotenzen
+		if (!isPowerOfTwo(pageSize) || pageSize < WORD_SIZE) {
+			throw new IllegalArgumentException("Seitengroesse " + pageSize
+					+ " ist keine Zweierpotenz >= " + WORD_SIZE);
+		}
+		if (!isPowerOfTwo(ramSize) || ramSize < 2 * pageSize) {
+			throw new IllegalArgumentException("RAM-Groesse " + ramSize
+					+ " ist keine Zweierpotenz >= 2 Seiten");
+		}
+		if (!isPowerOfTwo(virtAdrSpace) || virtAdrSpace < pageSize) {
+			throw new IllegalArgumentException("Virtueller Adressraum "
+					+ virtAdrSpace + " ist keine Zweierpotenz >= 1 Seite");
+		}
+		if (hugePageSize != 0
+				&& (!isPowerOfTwo(hugePageSize) || hugePageSize <= pageSize
+						|| hugePageSize >= ramSize || hugePageSize > virtAdrSpace)) {
+			throw new IllegalArgumentException("Huge-Page-Groesse "
+					+ hugePageSize
+					+ " ist keine Zweierpotenz zwischen Seitengroesse und RAM-Groesse");
+		}
+		RAM_SIZE = ramSize;
+		PAGE_SIZE = pageSize;
+		VIRT_ADR_SPACE = virtAdrSpace;
+		HUGE_PAGE_SIZE = hugePageSize;
+		PAGE_SIZE_POTENZ = log2(PAGE_SIZE);
+		MAX_NO_OF_PAGES = VIRT_ADR_SPACE / PAGE_SIZE;
+		DISK_SIZE = VIRT_ADR_SPACE;
+		BLOCK_SIZE = PAGE_SIZE;
+		MAX_NUM_OF_PROCESSES = (RAM_SIZE - PAGE_SIZE)
+				/ (MAX_RAM_PAGES_PER_PROCESS * PAGE_SIZE);
+
 		// RAM initialisieren (Zugriffe erfolgen wortweise!)
-		physRAM = new Hashtable<Integer, Integer>(RAM_SIZE / WORD_SIZE);
+		physRAM = new PhysicalMemory(RAM_SIZE);
 		// RAM - Freibereichsliste initialisieren
 		ramFreeList = new LinkedList<FreeListBlock>();
 		FreeListBlock ramFB = new FreeListBlock(0, RAM_SIZE);
 		ramFreeList.add(ramFB);
 
 		// Platte initialisieren (Zugriffe erfolgen blockweise!))
-		physDisk = new Hashtable<Integer, Integer>(DISK_SIZE / BLOCK_SIZE);
+		physDisk = new PhysicalMemory(DISK_SIZE);
 		// Platten - Freibereichsliste initialisieren
 		diskFreeList = new LinkedList<FreeListBlock>();
 		FreeListBlock diskFB = new FreeListBlock(0, DISK_SIZE);
 		diskFreeList.add(diskFB);
 
+		// Referenzzähler für geteilte Seitenrahmen und Plattenblöcke
+		ramFrameRefCount = new int[RAM_SIZE / PAGE_SIZE];
+		ramFrameNodeHint = new int[RAM_SIZE / PAGE_SIZE];
+		numaNodeShift = log2(RAM_SIZE);
+		diskBlockRefCount = new int[DISK_SIZE / BLOCK_SIZE];
+
+		// Verzeichnis der gemeinsamen Segmente initialisieren
+		sharedSegments = new HashMap<String, SharedSegment>();
+		mergeCandidates = new HashMap<Integer, Long>();
+		pageCache = new PageCache();
+		reservedRAM = 0;
+		swapCache = null;
+		diskQueue = null;
+		diskListener = new DiskRequestListener() {
+			public void requestCompleted(DiskRequest request) {
+				diskRequestCompleted(request);
+			}
+		};
+
 		// Prozessliste initialisieren
 		processList = new LinkedList<Process>();
+		suspendedProcesses = new LinkedList<Process>();
+		processTable = new Process[16];
 		processCounter = 0;
+		freePids = new int[16];
+		freePidHead = 0;
+		freePidCount = 0;
 
 		// Statistische Protokollierung aktivieren
 		eventLog = new Statistics();
 	}
 
 	/**
-	 * Prozess-Objekt (Thread) erzeugen und in Prozessliste eintragen
+	 * Prozess-Objekt (Thread) mit Basisseiten erzeugen und in Prozessliste
+	 * eintragen
 	 * 
 	 * @param die
-	 *            Gr��e des Prozess-Hauptspeicherbedarfs in Byte
+	 *            Größe des Prozess-Hauptspeicherbedarfs in Byte
 	 * 
-	 * @return die neue Prozess-ID oder -1, wenn Erzeugung nicht m�glich
+	 * @return die neue Prozess-ID oder -1, wenn Erzeugung nicht möglich
 	 *         (Speichermangel)
 	 */
 	public synchronized int createProcess(int processSize) {
-		if (processList.size() < MAX_NUM_OF_PROCESSES) {
-			// RAM-Platz f�r neuen Prozess vorhanden
-			Process proc = new Process(this, processCounter, processSize);
-			processList.add(proc);
-			System.out.println("Prozess " + proc.pid + " wurde erzeugt!");
-			// Prozess in den Hauptspeicher "laden"
-			loadProcess(processCounter, processSize);
+		return createProcess(processSize, false);
+	}
+
+	/**
+	 * Prozess-Objekt (Thread) erzeugen und in Prozessliste eintragen
+	 * 
+	 * @param die
+	 *            Größe des Prozess-Hauptspeicherbedarfs in Byte
+	 * @param hugePages
+	 *            true = Speicher des Prozesses wird in Huge Pages
+	 *            (HUGE_PAGE_SIZE) statt in Basisseiten (PAGE_SIZE) verwaltet
+	 * 
+	 * @return die neue Prozess-ID oder -1, wenn Erzeugung nicht möglich
+	 *         (Speichermangel oder keine Huge Pages konfiguriert)
+	 */
+	public synchronized int createProcess(int processSize, boolean hugePages) {
+		return createProcess(processSize, hugePages, null);
+	}
+
+	/**
+	 * Prozess-Objekt (Thread) mit Basisseiten erzeugen, dessen Seiten aus einer
+	 * Programmdatei ("executable image") geladen werden
+	 * 
+	 * @param die
+	 *            Größe des Prozess-Hauptspeicherbedarfs in Byte
+	 * @param imageFileName
+	 *            Programmdatei im Dateisystem des Simulationsrechners
+	 * 
+	 * @return die neue Prozess-ID oder -1, wenn Erzeugung nicht möglich
+	 *         (Speichermangel oder Programmdatei nicht lesbar)
+	 */
+	public synchronized int createProcess(int processSize, String imageFileName) {
+		return createProcess(processSize, false, imageFileName);
+	}
+
+	/**
+	 * Prozess-Objekt (Thread) erzeugen und in Prozessliste eintragen. Der
+	 * Prozess wird nicht vorab geladen (Demand Paging): jede Seite wird erst
+	 * beim ersten Zugriff angelegt und mit Nullen gefüllt bzw. aus der
+	 * Programmdatei gelesen. Die Erzeugung kostet daher unabhängig von der
+	 * Prozessgröße konstante Zeit. Der Adressraum besteht aus Code (Inhalt
+	 * der Programmdatei), Heap (bis zur Prozessgröße) und Stack (siehe
+	 * setupAddressSpace).
+	 * 
+	 * @param die
+	 *            Größe des Prozess-Hauptspeicherbedarfs in Byte
+	 * @param hugePages
+	 *            true = Speicher des Prozesses wird in Huge Pages
+	 *            (HUGE_PAGE_SIZE) statt in Basisseiten (PAGE_SIZE) verwaltet
+	 * @param imageFileName
+	 *            Programmdatei, aus der die Seiten geladen werden, oder null
+	 *            für mit Nullen gefüllte Seiten (Demand Zero)
+	 * 
+	 * @return die neue Prozess-ID oder -1, wenn Erzeugung nicht möglich
+	 *         (Speichermangel, keine Huge Pages konfiguriert oder
+	 *         Programmdatei nicht lesbar)
+	 */
+	public synchronized int createProcess(int processSize, boolean hugePages,
+			String imageFileName) {
+		RandomAccessFile image = null; // Programmdatei
+		int codeSize = 0; // Größe des Codes (Programmdatei)
+
+		if (hugePages && HUGE_PAGE_SIZE == 0) {
+			System.err.println("OS: createProcess ERROR: keine Huge Pages konfiguriert!");
+			return -1;
+		}
+		if (canAdmitProcess(hugePages ? HUGE_PAGE_SIZE : PAGE_SIZE)) {
+			if (imageFileName != null) {
+				try {
+					image = new RandomAccessFile(imageFileName, "r");
+					codeSize = (int) Math.min(image.length(), processSize);
+				} catch (IOException e) {
+					System.err.println("OS: createProcess ERROR: Programmdatei "
+							+ imageFileName + " nicht lesbar: " + e.getMessage());
+					return -1;
+				}
+			}
+			// RAM-Platz für neuen Prozess vorhanden
+			Process proc = new Process(this, allocatePid(), processSize,
+					hugePages ? HUGE_PAGE_SIZE : PAGE_SIZE);
+			proc.pageTable.setRAMlistCapacity(getMaxRAMPages(proc));
+			proc.setImage(image, imageFileName);
+			setupAddressSpace(proc, codeSize);
+			// Heimatknoten reihum vergeben
+			proc.setHomeNode(proc.pid % NUMA_NODES);
+			if (REUSE_PROFILING) {
+				proc.setProfiler(new ReuseDistanceProfiler());
+			}
+			addProcess(proc);
+			if (thrashingDetector != null
+					&& (thrashingDetector.isThrashing() || !suspendedProcesses
+							.isEmpty())) {
+				// System überlastet: Prozess wartet auf Zulassung
+				proc.setSuspended(true);
+				suspendedProcesses.add(proc);
+				eventLog.incrementDeferredAdmissions();
+			} else {
+				proc.setActivation(++activationCounter);
+			}
+			if (FRAME_PARTITIONING) {
+				rebalanceFrames();
+			}
+			System.out.println("Prozess " + proc.pid + " wurde erzeugt! ("
+					+ processSize + " Byte, Seiten werden bei Bedarf geladen)"
+					+ (proc.isSuspended() ? " - wartet auf Zulassung" : ""));
 			// Prozess als JAVA-Thread starten
 			proc.start();
-			processCounter++; // Neue Prozess-IDs werden hochgez�hlt
 			return proc.pid;
 		} else {
 			// RAM voll
@@ -156,27 +612,495 @@ public class OperatingSystem {
 		}
 	}
 
-	private void loadProcess(int pid, int processSize) {
-		// Laden des Programmtextes und initialisieren der Datenbereiche
-		// Speicherbelegung durch write - Operationen
-		int item; // Dummy
+	/**
+	 * Kindprozess als Kopie eines bestehenden Prozesses erzeugen (fork). Die
+	 * Seiten des Elternprozesses werden nicht kopiert, sondern Copy-on-Write
+	 * geteilt: Seitenrahmen im RAM und Plattenblöcke erhalten einen
+	 * Referenzzähler, eine private Kopie entsteht erst beim ersten write.
+	 * 
+	 * @param pid
+	 *            Prozess-ID des Elternprozesses
+	 * @return die Prozess-ID des Kindprozesses oder -1, wenn Erzeugung nicht
+	 *         möglich (Elternprozess existiert nicht, Speichermangel)
+	 */
+	public synchronized int fork(int pid) {
+		Process parent; // Elternprozess
+		Process child; // Kindprozess
+		PageTableEntry parentPte; // Eintrag des Elternprozesses
+		PageTableEntry childPte; // Eintrag des Kindprozesses
+		int vpn; // virtuelle Seitennummer
+
+		parent = getCallingProcess(pid, "fork");
+		if (parent == null) {
+			return -1;
+		}
+		if (!canAdmitProcess(parent.pageTable.getPageSize())) {
+			// RAM voll
+			return -1;
+		}
+		child = new Process(this, allocatePid(), parent.getProcessSize(),
+				parent.pageTable.getPageSize());
+		child.setMappingTop(parent.getMappingTop());
+		child.addressSpace = new AddressSpace(parent.addressSpace);
+		child.setImage(parent.getImage(), parent.getImageFileName());
+		// Kind läuft zunächst auf demselben Knoten wie der Elternprozess
+		child.setHomeNode(parent.getHomeNode());
+		if (REUSE_PROFILING) {
+			child.setProfiler(new ReuseDistanceProfiler());
+		}
+		addProcess(child);
+		child.setActivation(++activationCounter);
+
+		// Gemeinsame Segmente: Kind blendet dieselben Segmente ein
+		for (int i = 0; i < parent.pageTable.getNumOfMappedSegments(); i++) {
+			child.pageTable.mapSegment(parent.pageTable.getMappedSegment(i),
+					parent.pageTable.getMappedBaseVpn(i),
+					parent.pageTable.getMappedFirstPage(i),
+					parent.pageTable.getMappedPageCount(i));
+			parent.pageTable.getMappedSegment(i).addMapper(child,
+					parent.pageTable.getMappedBaseVpn(i)
+							- parent.pageTable.getMappedFirstPage(i));
+		}
+		// Seitentabelle kopieren, Seiten Copy-on-Write teilen
+		for (vpn = 0; vpn < parent.pageTable.getMaxSize(); vpn++) {
+			parentPte = parent.pageTable.getPte(vpn);
+			if (parentPte == null || parentPte.getSegment() != null) {
+				continue;
+			}
+			childPte = child.pageTable.createEntry(vpn);
+			childPte.setRealPageFrameAdr(parentPte.getRealPageFrameAdr());
+			childPte.setValid(parentPte.isValid());
+			if (parentPte.isValid()) {
+				// Seitenrahmen im RAM teilen: beide Seiten schreibgeschützt
+				ramFrameRefCount[parentPte.getRealPageFrameAdr() >> PAGE_SIZE_POTENZ]++;
+				parentPte.setCopyOnWrite(true);
+				childPte.setCopyOnWrite(true);
+			} else {
+				if (parentPte.isCompressed()) {
+					// Komprimierte Seiten haben keinen Referenzzähler --> vorher
+					// auf die Platte zurückschreiben
+					swapCacheWriteback(parentPte.getRealPageFrameAdr());
+					childPte.setRealPageFrameAdr(parentPte.getRealPageFrameAdr());
+				}
+				// Plattenblock teilen: beim Einlagern entsteht ohnehin eine
+				// private Kopie im RAM
+				diskBlockRefCount[parentPte.getRealPageFrameAdr() / BLOCK_SIZE]++;
+			}
+		}
+		// Kind erbt die RAM-Seitenliste (Residenzmenge) des Elternprozesses
+		child.pageTable.copyRAMlist(parent.pageTable);
+		if (FRAME_PARTITIONING) {
+			rebalanceFrames();
+		}
+		System.out.println("Prozess " + child.pid + " wurde durch fork von Prozess "
+				+ pid + " erzeugt!");
+		eventLog.incrementForks();
+		// Prozess als JAVA-Thread starten
+		child.start();
+		return child.pid;
+	}
+
+	/**
+	 * Gemeinsames Speichersegment anlegen. Die Seiten werden erst beim ersten
+	 * Zugriff eines einblendenden Prozesses mit Nullen angelegt; für die
+	 * RAM-Seiten des Segments wird Platz wie für einen Prozess reserviert.
+	 * 
+	 * @param name
+	 *            eindeutiger Name des Segments
+	 * @param size
+	 *            Größe in Byte (wird auf ganze Seiten aufgerundet)
+	 * @return 0 bei Erfolg oder -1, wenn der Name bereits vergeben ist oder
+	 *         nicht genug RAM frei ist
+	 */
+	public synchronized int createSharedSegment(String name, int size) {
+		SharedSegment seg; // neues Segment
+		int numOfPages; // Anzahl Seiten des Segments
+
+		if (size <= 0 || sharedSegments.containsKey(name)) {
+			System.err.println("OS: createSharedSegment ERROR: Segment "
+					+ name + " existiert bereits oder Groesse " + size
+					+ " ist unzulaessig!");
+			return -1;
+		}
+		numOfPages = (size + PAGE_SIZE - 1) / PAGE_SIZE;
+		seg = new SharedSegment(this, name, numOfPages, PAGE_SIZE,
+				MAX_RAM_PAGES_PER_PROCESS);
+		if (getProcessRAMReservation() + reservedRAM + seg.getResidentLimit()
+				* PAGE_SIZE > RAM_SIZE - PAGE_SIZE) {
+			// RAM voll
+			return -1;
+		}
+		reservedRAM = reservedRAM + seg.getResidentLimit()
+				* PAGE_SIZE;
+		sharedSegments.put(name, seg);
+		System.out.println("Gemeinsames Segment " + name + " (" + numOfPages
+				+ " Seiten) wurde erzeugt!");
+		return 0;
+	}
+
+	/**
+	 * Gemeinsames Speichersegment in den virtuellen Adressraum eines Prozesses
+	 * einblenden (oberhalb des Heaps bzw. bereits eingeblendeter Bereiche)
+	 * 
+	 * @param pid
+	 *            Prozess-ID
+	 * @param name
+	 *            Name des Segments
+	 * @return virtuelle Startadresse des Segments im Prozess oder -1 bei
+	 *         Fehler
+	 */
+	public synchronized int mapSharedSegment(int pid, String name) {
+		SharedSegment seg; // einzublendendes Segment
+		Process proc; // Aktuelles Prozessobjekt
+		int baseAdr; // virtuelle Startadresse
+		int baseVpn; // VPN der ersten Segmentseite
+
+		seg = sharedSegments.get(name);
+		proc = getCallingProcess(pid, "mapSharedSegment");
+		if (proc == null) {
+			return -1;
+		}
+		if (seg == null || proc.pageTable.getPageSize() != PAGE_SIZE) {
+			System.err.println("OS: mapSharedSegment ERROR " + pid
+					+ ": Segment " + name
+					+ " existiert nicht oder Prozess benutzt Huge Pages!");
+			return -1;
+		}
+		baseAdr = proc.reserveMappingArea(seg.getSize(), PAGE_SIZE);
+		if (!addMappingArea(proc, baseAdr, seg.getSize(), "mapSharedSegment")) {
+			return -1;
+		}
+		baseVpn = baseAdr >> PAGE_SIZE_POTENZ;
+		proc.pageTable.mapSegment(seg, baseVpn);
+		seg.addMapper(proc, baseVpn);
+		testOut("OS: mapSharedSegment " + pid + " Segment " + name
+				+ " an virt. Adresse " + baseAdr + " eingeblendet");
+		return baseAdr;
+	}
+
+	/**
+	 * Datei des Host-Dateisystems in den virtuellen Adressraum eines
+	 * Prozesses einblenden (mmap, gemeinsame Abbildung). Alle Prozesse, die
+	 * dieselbe Datei einblenden, benutzen dieselben Seiten im Page Cache.
+	 * Seiten werden beim ersten Zugriff aus der Datei gelesen; geänderte
+	 * Seiten werden erst beim Verdrängen oder mit sync() zurückgeschrieben
+	 * (bei schreibgeschützten Dateien stattdessen auf die Platte
+	 * ausgelagert). Die Datei wird dabei nicht verlängert.
+	 * 
+	 * @param pid
+	 *            Prozess-ID
+	 * @param fileName
+	 *            Name der Datei
+	 * @param offset
+	 *            Anfang des Bereichs in der Datei (Vielfaches von PAGE_SIZE)
+	 * @param length
+	 *            Länge des Bereichs in Byte (wird auf ganze Seiten
+	 *            aufgerundet und am Dateiende abgeschnitten)
+	 * @return virtuelle Startadresse des Bereichs im Prozess oder -1 bei
+	 *         Fehler
+	 */
+	public synchronized int mmap(int pid, String fileName, int offset,
+			int length) {
+		SharedSegment seg; // Dateisegment
+		Process proc = getProcess(pid); // Aktuelles Prozessobjekt
+		String path; // eindeutiger Name der Datei
+		int firstPage; // erste eingeblendete Seite der Datei
+		int numOfPages; // Anzahl eingeblendeter Seiten
+		int baseAdr; // virtuelle Startadresse
+		int baseVpn; // VPN der ersten eingeblendeten Seite
+
+		if (proc == null || proc.pageTable.getPageSize() != PAGE_SIZE
+				|| offset < 0 || offset % PAGE_SIZE != 0 || length <= 0) {
+			System.err.println("OS: mmap ERROR " + pid
+					+ ": Prozess existiert nicht, benutzt Huge Pages oder "
+					+ "Offset/Laenge " + offset + "/" + length
+					+ " ist unzulaessig!");
+			return -1;
+		}
+		try {
+			path = new File(fileName).getCanonicalPath();
+			seg = sharedSegments.get(SharedSegment.FILE_PREFIX + path);
+			if (seg == null) {
+				if (!new File(path).isFile()) {
+					throw new FileNotFoundException(path);
+				}
+				seg = new SharedSegment(this, path, PAGE_SIZE);
+				sharedSegments.put(seg.getName(), seg);
+			}
+		} catch (IOException e) {
+			System.err.println("OS: mmap ERROR " + pid + ": Datei "
+					+ fileName + " nicht lesbar: " + e.getMessage());
+			return -1;
+		}
+		firstPage = offset / PAGE_SIZE;
+		numOfPages = Math.min((length + PAGE_SIZE - 1) / PAGE_SIZE,
+				seg.getNumOfPages() - firstPage);
+		if (numOfPages <= 0) {
+			System.err.println("OS: mmap ERROR " + pid + ": Offset " + offset
+					+ " liegt hinter dem Dateiende!");
+			return -1;
+		}
+		baseAdr = proc.reserveMappingArea(numOfPages * PAGE_SIZE, PAGE_SIZE);
+		if (!addMappingArea(proc, baseAdr, numOfPages * PAGE_SIZE, "mmap")) {
+			return -1;
+		}
+		baseVpn = baseAdr >> PAGE_SIZE_POTENZ;
+		proc.pageTable.mapSegment(seg, baseVpn, firstPage, numOfPages);
+		seg.addMapper(proc, baseVpn - firstPage);
+		testOut("OS: mmap " + pid + " Datei " + path + " (Seiten "
+				+ firstPage + " bis " + (firstPage + numOfPages - 1)
+				+ ") an virt. Adresse " + baseAdr + " eingeblendet");
+		return baseAdr;
+	}
+
+	/**
+	 * Alle geänderten Seiten beschreibbarer Dateien aus dem Page Cache in
+	 * ihre Dateien zurückschreiben (die Seiten bleiben im RAM)
+	 * 
+	 * @return Anzahl zurückgeschriebener Seiten
+	 */
+	public synchronized int sync() {
+		SharedSegment seg; // Segment der Seite
+		PageTableEntry pte; // Eintrag der Seite
+		int count = 0; // Anzahl zurückgeschriebener Seiten
+
+		for (int slot = 0; slot < pageCache.size(); slot++) {
+			seg = pageCache.getSegment(slot);
+			pte = seg.getPte(pageCache.getPageNum(slot));
+			if (pte.isModified() && seg.isWritable()) {
+				writeFilePage(seg, pte.getVirtPageNum(),
+						pte.getRealPageFrameAdr());
+				pte.setModified(false);
+				eventLog.incrementPageCacheWritebacks();
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Vollständigen Zustand des Simulators (Parameter, RAM- und
+	 * Platteninhalt, Freibereichslisten, Referenzzähler, komprimierter Pool,
+	 * gemeinsame Segmente und Page Cache, Seitentabellen inkl. RAM-Listen
+	 * und Uhrzeiger, Statistik) als Sicherungspunkt in eine Datei schreiben.
+	 * TLBs und Caches werden nicht gesichert (nach dem Wiederherstellen
+	 * leer). Dateisegmente werden beim Wiederherstellen neu geöffnet.
+	 * 
+	 * @param fileName
+	 *            Name der Sicherungsdatei
+	 * @throws IOException
+	 *             bei Schreibfehlern
+	 */
+	public synchronized void checkpoint(String fileName) throws IOException {
+		Checkpoint cp = new Checkpoint(); // Inhalt des Sicherungspunkts
+
+		// Maschinen- und Simulationsparameter
+		cp.putInt(RAM_SIZE);
+		cp.putInt(PAGE_SIZE);
+		cp.putInt(VIRT_ADR_SPACE);
+		cp.putInt(HUGE_PAGE_SIZE);
+		cp.putInt(MAX_RAM_PAGES_PER_PROCESS);
+		cp.putInt(DEFAULT_LOCALITY_FACTOR);
+		cp.putInt(TLB_SIZE);
+		cp.putInt(REPLACEMENT_ALGORITHM);
+		cp.putInt(getDISK_SCHEDULER());
+		cp.putBoolean(FRAME_PARTITIONING);
+		cp.putInt(REBALANCE_INTERVAL);
+		cp.putBoolean(REUSE_PROFILING);
+		cp.putInt(NUMA_NODES);
+		cp.putInt(NUMA_LOCAL_COST);
+		cp.putInt(NUMA_REMOTE_COST);
+		cp.putInt(NUMA_SAMPLE_INTERVAL);
+		cp.putInt(NUMA_MIGRATE_THRESHOLD);
+		cp.putInt(L1_CACHE_SIZE);
+		cp.putInt(L2_CACHE_SIZE);
+		cp.putInt(CACHE_LINE_SIZE);
+		cp.putInt(L1_ASSOCIATIVITY);
+		cp.putInt(L2_ASSOCIATIVITY);
+		cp.putInt(CACHE_REPLACEMENT);
+		cp.putInt(L1_LATENCY);
+		cp.putInt(L2_LATENCY);
+		cp.putBoolean(THRASHING_CONTROL);
+		cp.putInt(THRASHING_WINDOW);
+		cp.putInt(THRASHING_FAULT_RATE);
+		cp.putInt(THRASHING_TIME_SHARE);
+		cp.putBoolean(SAME_PAGE_MERGING);
+		cp.putInt(MERGE_SCAN_PAGES);
+		cp.putInt(MERGE_SCAN_INTERVAL);
+		cp.putInt(MAX_STACK_SIZE);
+		cp.putInt(reservedRAM);
+		// Hardware und Systemtabellen
+		physRAM.writeCheckpoint(cp);
+		physDisk.writeCheckpoint(cp);
+		writeFreeList(cp, ramFreeList);
+		writeFreeList(cp, diskFreeList);
+		cp.putInts(ramFrameRefCount);
+		cp.putInts(ramFrameNodeHint);
+		cp.putInts(diskBlockRefCount);
+		cp.putBoolean(swapCache != null);
+		if (swapCache != null) {
+			swapCache.writeCheckpoint(cp);
+		}
+		// Segmente vor den Prozessen, da Seitentabellen auf sie verweisen
+		cp.putInt(sharedSegments.size());
+		for (SharedSegment seg : sharedSegments.values()) {
+			seg.writeCheckpoint(cp);
+		}
+		pageCache.writeCheckpoint(cp);
+		cp.putInt(processCounter);
+		cp.putInt(processList.size());
+		for (Process proc : processList) {
+			cp.putInt(proc.pid);
+			cp.putInt(proc.getProcessSize());
+			cp.putInt(proc.pageTable.getPageSize());
+			cp.putInt(proc.getMappingTop());
+			cp.putString(proc.getImageFileName());
+			cp.putInt(proc.getFrameQuota());
+			cp.putInt(proc.getHomeNode());
+			cp.putBoolean(proc.isSuspended());
+			proc.addressSpace.writeCheckpoint(cp);
+			proc.pageTable.writeCheckpoint(cp);
+		}
+		eventLog.writeCheckpoint(cp);
+		cp.writeTo(fileName);
+		testOut("OS: Sicherungspunkt " + fileName + " geschrieben");
+	}
+
+	/**
+	 * Simulator aus einem Sicherungspunkt wiederherstellen. Es entsteht ein
+	 * neues Betriebssystem-Objekt, dessen Prozesse (mit denselben
+	 * Prozess-IDs) nach dem Wiederherstellen sofort weiterlaufen. So können
+	 * mehrere Experimente vom selben "warmen" Zustand aus gestartet werden.
+	 * 
+	 * @param fileName
+	 *            Name der Sicherungsdatei
+	 * @return wiederhergestelltes Betriebssystem
+	 * @throws IOException
+	 *             bei Lesefehlern, ungültiger Datei oder nicht lesbarer
+	 *             Programmdatei eines Prozesses
+	 */
+	public static OperatingSystem restore(String fileName) throws IOException {
+		Checkpoint cp = Checkpoint.readFrom(fileName); // Sicherungspunkt
+		OperatingSystem os; // wiederhergestelltes Betriebssystem
+		int diskScheduler; // gesicherte Plattenstrategie
+		int count; // Anzahl Segmente bzw. Prozesse
+		SharedSegment seg; // wiederhergestelltes Segment
+		Process proc; // wiederhergestellter Prozess
+		String imageFileName; // Programmdatei eines Prozesses
 
-		for (int virtAdr = 0; virtAdr < processSize; virtAdr = virtAdr
-				+ getWORD_SIZE()) {
-			// Zu schreibendes Datenwort bestimmen
-			item = (int) (Math.pow(2, 31) * Math.random());
-			// System Call
-			write(pid, virtAdr, item);
+		os = new OperatingSystem(cp.getInt(), cp.getInt(), cp.getInt(),
+				cp.getInt());
+		synchronized (os) {
+			os.setMAX_RAM_PAGES_PER_PROCESS(cp.getInt());
+			os.DEFAULT_LOCALITY_FACTOR = cp.getInt();
+			os.TLB_SIZE = cp.getInt();
+			os.REPLACEMENT_ALGORITHM = cp.getInt();
+			diskScheduler = cp.getInt();
+			os.FRAME_PARTITIONING = cp.getBoolean();
+			os.REBALANCE_INTERVAL = cp.getInt();
+			// Zugriffsprofile beginnen leer
+			os.REUSE_PROFILING = cp.getBoolean();
+			os.setNUMA_NODES(cp.getInt());
+			os.NUMA_LOCAL_COST = cp.getInt();
+			os.NUMA_REMOTE_COST = cp.getInt();
+			os.NUMA_SAMPLE_INTERVAL = cp.getInt();
+			os.NUMA_MIGRATE_THRESHOLD = cp.getInt();
+			os.L1_CACHE_SIZE = cp.getInt();
+			os.L2_CACHE_SIZE = cp.getInt();
+			os.CACHE_LINE_SIZE = cp.getInt();
+			os.L1_ASSOCIATIVITY = cp.getInt();
+			os.L2_ASSOCIATIVITY = cp.getInt();
+			os.CACHE_REPLACEMENT = cp.getInt();
+			os.L1_LATENCY = cp.getInt();
+			os.L2_LATENCY = cp.getInt();
+			os.rebuildCaches();
+			os.THRASHING_CONTROL = cp.getBoolean();
+			os.THRASHING_WINDOW = cp.getInt();
+			os.THRASHING_FAULT_RATE = cp.getInt();
+			os.THRASHING_TIME_SHARE = cp.getInt();
+			os.SAME_PAGE_MERGING = cp.getBoolean();
+			os.MERGE_SCAN_PAGES = cp.getInt();
+			os.MERGE_SCAN_INTERVAL = cp.getInt();
+			os.MAX_STACK_SIZE = cp.getInt();
+			os.reservedRAM = cp.getInt();
+			os.physRAM.readCheckpoint(cp);
+			os.physDisk.readCheckpoint(cp);
+			readFreeList(cp, os.ramFreeList);
+			readFreeList(cp, os.diskFreeList);
+			os.ramFrameRefCount = cp.getInts();
+			os.ramFrameNodeHint = cp.getInts();
+			os.diskBlockRefCount = cp.getInts();
+			if (cp.getBoolean()) {
+				os.swapCache = CompressedSwapCache.readCheckpoint(cp);
+			}
+			count = cp.getInt();
+			for (int i = 0; i < count; i++) {
+				seg = SharedSegment.readCheckpoint(os, cp);
+				os.sharedSegments.put(seg.getName(), seg);
+			}
+			os.pageCache.readCheckpoint(cp, os.sharedSegments);
+			os.processCounter = cp.getInt();
+			count = cp.getInt();
+			for (int n = 0; n < count; n++) {
+				proc = new Process(os, cp.getInt(), cp.getInt(), cp.getInt());
+				proc.setMappingTop(cp.getInt());
+				imageFileName = cp.getString();
+				if (imageFileName != null) {
+					proc.setImage(new RandomAccessFile(imageFileName, "r"),
+							imageFileName);
+				}
+				proc.setFrameQuota(cp.getInt());
+				proc.setHomeNode(cp.getInt());
+				proc.setSuspended(cp.getBoolean());
+				proc.addressSpace.readCheckpoint(cp);
+				proc.pageTable.setRAMlistCapacity(os.getMaxRAMPages(proc));
+				if (os.REUSE_PROFILING) {
+					proc.setProfiler(new ReuseDistanceProfiler());
+				}
+				proc.pageTable.readCheckpoint(cp, os.sharedSegments);
+				// Prozess in den eingeblendeten Segmenten eintragen
+				for (int i = 0; i < proc.pageTable.getNumOfMappedSegments(); i++) {
+					proc.pageTable.getMappedSegment(i).addMapper(proc,
+							proc.pageTable.getMappedBaseVpn(i)
+									- proc.pageTable.getMappedFirstPage(i));
+				}
+				os.addProcess(proc);
+				if (proc.isSuspended()) {
+					os.suspendedProcesses.add(proc);
+				} else {
+					proc.setActivation(++os.activationCounter);
+				}
+			}
+			if (os.THRASHING_CONTROL) {
+				os.thrashingDetector = os.newThrashingDetector();
+			}
+			// nicht belegte Prozess-IDs in aufsteigender Reihenfolge neu vergeben
+			for (int pid = 0; pid < os.processCounter; pid++) {
+				if (os.getProcess(pid) == null) {
+					os.releasePid(pid);
+				}
+			}
+			os.eventLog.readCheckpoint(cp);
+			if (diskScheduler != os.DISK_SYNCHRONOUS) {
+				os.setDISK_SCHEDULER(diskScheduler);
+			}
+			// Prozesse als JAVA-Threads starten
+			for (Process restored : os.processList) {
+				restored.start();
+			}
+			if (os.SAME_PAGE_MERGING) {
+				os.samePageScanner = new SamePageScanner(os);
+			}
 		}
-		System.out.println("Prozess " + pid + ": " + processSize + " Byte ("
-				+ processSize / getPAGE_SIZE()
-				+ " Seiten) in den Speicher geladen!");
-		// Statistikz�hler neu initialisieren
-		eventLog.resetCounter();
+		System.out.println("Sicherungspunkt " + fileName + " mit "
+				+ os.processList.size() + " Prozessen wiederhergestellt!");
+		return os;
 	}
 
 	/**
-	 * Alle aktiven Prozesse aus Prozessliste beenden
+	 * Alle aktiven Prozesse aus Prozessliste beenden (nur die Threads werden
+	 * unterbrochen, Speicher und Statistik bleiben für die Auswertung
+	 * erhalten)
 	 */
 	public synchronized void killAll() {
 		Process proc;
@@ -190,479 +1114,3029 @@ public class OperatingSystem {
 	}
 
 	/**
-	 * Datenwort item auf eine virtuelle Adresse virtAdr im virtuellen Speicher
-	 * schreiben
+	 * Prozess beenden (System Call exit): der Thread wird unterbrochen, alle
+	 * Seitenrahmen, Plattenblöcke und Slots im komprimierten Pool des
+	 * Prozesses werden freigegeben (mit anderen Prozessen geteilte Rahmen und
+	 * Blöcke erst, wenn der letzte Benutzer endet), der Prozess wird aus den
+	 * eingeblendeten Segmenten und der Prozesstabelle ausgetragen. Die
+	 * freien Rahmen und Blöcke werden sortiert und in einem Durchlauf in die
+	 * Freibereichslisten eingefügt. Die Prozess-ID wird später neu vergeben.
+	 * 
+	 * @param pid
+	 *            Prozess-ID
+	 * @return 0 bei Erfolg oder -1, wenn der Prozess nicht existiert
+	 */
+	public synchronized int exit(int pid) {
+		Process proc = getProcess(pid); // zu beendender Prozess
+		PageTable pageTable; // dessen Seitentabelle
+		int pageSize; // dessen Seitengröße
+		int[] ramFrames; // freizugebende Seitenrahmen
+		int ramCount = 0; // Anzahl freizugebender Seitenrahmen
+		int[] diskBlocks; // freizugebende Plattenblöcke
+		int diskCount = 0; // Anzahl freizugebender Plattenblöcke
+		PageTableEntry pte; // aktueller Eintrag
+		int adr; // dessen RAM-, Platten- bzw. Slotadresse
+
+		if (proc == null) {
+			System.err.println("OS: exit ERROR: Prozess " + pid
+					+ " existiert nicht!");
+			return -1;
+		}
+		proc.interrupt();
+		pageTable = proc.pageTable;
+		pageSize = pageTable.getPageSize();
+		ramFrames = new int[pageTable.getSize()];
+		diskBlocks = new int[pageTable.getSize()];
+		for (int vpn = 0; vpn < pageTable.getMaxSize(); vpn++) {
+			pte = pageTable.getPte(vpn);
+			if (pte == null || pte.getSegment() != null
+					|| pte.getRealPageFrameAdr() < 0) {
+				// Seiten der Segmente gehören dem Segment
+				continue;
+			}
+			adr = pte.getRealPageFrameAdr();
+			if (pte.isValid()) {
+				if (ramFrameRefCount[adr >> PAGE_SIZE_POTENZ] > 1) {
+					ramFrameRefCount[adr >> PAGE_SIZE_POTENZ]--;
+				} else {
+					clearRAMPage(adr, pageSize);
+					ramFrameRefCount[adr >> PAGE_SIZE_POTENZ] = 0;
+					ramFrames[ramCount++] = adr;
+					trace(EventTrace.RAM_FREE, EventTrace.NO_PID, adr, pageSize);
+				}
+			} else if (pte.isCompressed()) {
+				swapCache.remove(adr);
+			} else if (diskBlockRefCount[adr / BLOCK_SIZE] > 1) {
+				diskBlockRefCount[adr / BLOCK_SIZE]--;
+			} else {
+				physDisk.clear(adr, pageSize);
+				diskBlockRefCount[adr / BLOCK_SIZE] = 0;
+				diskBlocks[diskCount++] = adr;
+				trace(EventTrace.DISK_FREE, EventTrace.NO_PID, adr, pageSize);
+			}
+		}
+		releaseToFreeList(ramFreeList, ramFrames, ramCount, pageSize);
+		releaseToFreeList(diskFreeList, diskBlocks, diskCount, pageSize);
+		for (int i = 0; i < pageTable.getNumOfMappedSegments(); i++) {
+			pageTable.getMappedSegment(i).removeMapper(proc);
+		}
+		processList.remove(proc);
+		processTable[pid] = null;
+		if (proc.isSuspended()) {
+			// wartenden Thread wecken, damit er endet
+			suspendedProcesses.remove(proc);
+			proc.setSuspended(false);
+			notifyAll();
+		}
+		if (thrashingDetector != null && !suspendedProcesses.isEmpty()
+				&& getActiveProcesses().isEmpty()) {
+			// Die Lastkontrolle läuft nur bei Zugriffen aktiver Prozesse -->
+			// ohne aktiven Prozess den ersten wartenden Prozess zulassen
+			activateProcess(suspendedProcesses.removeFirst());
+		}
+		releasePid(pid);
+		eventLog.addProcessExit(ramCount, diskCount);
+		trace(EventTrace.EXIT, pid, ramCount, diskCount);
+		if (FRAME_PARTITIONING && !processList.isEmpty()) {
+			rebalanceFrames();
+		}
+		System.out.println("Prozess " + pid + " wurde beendet! (" + ramCount
+				+ " Seitenrahmen, " + diskCount + " Plattenbloecke freigegeben)");
+		return 0;
+	}
+
+	/**
+	 * Prozess von außen beenden (System Call kill), Freigabe wie bei exit
+	 * 
+	 * @param pid
+	 *            Prozess-ID
+	 * @return 0 bei Erfolg oder -1, wenn der Prozess nicht existiert
+	 */
+	public synchronized int kill(int pid) {
+		if (getProcess(pid) != null) {
+			System.out.println("Prozess " + pid + " wird beendet!");
+		}
+		return exit(pid);
+	}
+
+	/**
+	 * Datenwort item auf eine virtuelle Adresse virtAdr im virtuellen Speicher
+	 * schreiben
+	 * 
+	 * @param pid
+	 *            Prozess-ID
+	 * @param virtAdr
+	 *            virtuelle Adresse
+	 * @param item
+	 *            Datenwort
+	 * @return 0 wenn Schreiboperation erfolgreich oder -1 bei fehlerhafter
+	 *         Adresse oder Schutzverletzung
+	 */
+	public synchronized int write(int pid, int virtAdr, int item) {
+		int offset; // Offset innerhalb der Seite
+		int realAddressOfItem; // Reale Adresse des Datenworts
+		Process proc; // Aktuelles Prozessobjekt
+		PageTableEntry pte; // Eintrag für die zu schreibende Seite
+
+		// Übergebene Adresse prüfen
+		if ((virtAdr < 0) || (virtAdr > VIRT_ADR_SPACE - WORD_SIZE)) {
+			System.err.println("OS: write ERROR " + pid + ": Adresse "
+					+ virtAdr
+					+ " liegt ausserhalb des virtuellen Adressraums 0 - "
+					+ VIRT_ADR_SPACE);
+			return -1;
+		}
+		// Seitenadresse berechnen (Seitengröße des Prozesses!)
+		proc = getCallingProcess(pid, "write");
+		if (proc == null || !awaitActivation(proc)) {
+			return -1;
+		}
+		offset = getOffset(proc, virtAdr);
+
+		// Seite über TLB bzw. Seitentabelle referenzieren (ggf. Seitenfehler
+		// oder Schutzverletzung)
+		pte = getResidentPte(proc, virtAdr, VMArea.WRITE);
+		if (pte == null) {
+			return -1;
+		}
+		if (pte.isCopyOnWrite() && !handleCopyOnWriteFault(pte, pid)) {
+			// Geteilte Seite: vor dem Schreiben private Kopie anlegen
+			return -1;
+		}
+		// ------ Zustand: Seite ist in Seitentabelle und im RAM vorhanden
+
+		// Reale Adresse des Datenworts berechnen
+		realAddressOfItem = pte.getRealPageFrameAdr() + offset;
+		// Datenwort in RAM eintragen
+		writeToRAM(realAddressOfItem, item);
+		pte.setModified(true);
+		trace(EventTrace.WRITE, pid, virtAdr, realAddressOfItem);
+		if (NUMA_NODES > 1) {
+			recordNodeAccess(proc, pte);
+		}
+		if (l1Cache != null) {
+			accessCaches(proc, realAddressOfItem);
+		}
+		// Seitentabelle bzgl. Zugriffshistorie aktualisieren
+		pte.setReferenced(true);
+		// Statistische Zählung
+		eventLog.incrementWriteAccesses();
+		// auf ggf. erteilte Leseaufträge an die Platte warten
+		awaitDiskRequests(proc);
+		return 0;
+	}
+
+	/**
+	 * Datenwort von einer Adresse im virtuellen Speicher lesen
+	 * 
+	 * @param pid
+	 *            Prozess-ID
+	 * @param virtAdr
+	 *            virtuelle Adresse
+	 * @return Datenwort auf logischer Adresse virtAdr oder -1 bei
+	 *         Zugriffsfehler
+	 */
+	public synchronized int read(int pid, int virtAdr) {
+		Process proc; // Aktuelles Prozessobjekt
+
+		// Übergebene Adresse prüfen
+		if (!checkReadAdr(pid, virtAdr)) {
+			return -1;
+		}
+		proc = getCallingProcess(pid, "read");
+		if (proc == null || !awaitActivation(proc)) {
+			return -1;
+		}
+		return (int) readWord(proc, virtAdr);
+	}
+
+	/**
+	 * Mehrere Datenworte aus dem virtuellen Speicher lesen: ein System Call für
+	 * eine Folge von Zugriffen (z.B. alle Zugriffe eines Lokalitätsbereichs).
+	 * Jeder Zugriff wird wie ein einzelner read-Aufruf behandelt und gezählt.
+	 * 
+	 * @param pid
+	 *            Prozess-ID
+	 * @param virtAdrs
+	 *            virtuelle Adressen; nach dem Aufruf stehen an ihrer Stelle
+	 *            die gelesenen Datenworte
+	 * @param count
+	 *            Anzahl Zugriffe (die ersten count Einträge von virtAdrs)
+	 * @return Anzahl ausgeführter Zugriffe oder -1 bei Zugriffsfehler
+	 *         (fehlerhafte Adresse oder Schutzverletzung)
+	 */
+	public synchronized int read(int pid, int[] virtAdrs, int count) {
+		Process proc; // Aktuelles Prozessobjekt
+		long word; // gelesenes Datenwort oder -1
+		int i; // Zähler
+
+		proc = getCallingProcess(pid, "read");
+		for (i = 0; i < count; i++) {
+			if (!checkReadAdr(pid, virtAdrs[i])) {
+				return -1;
+			}
+			// beim Warten auf die Platte wird der Monitor freigegeben: Prozess
+			// kann inzwischen angehalten oder beendet worden sein
+			if (proc == null || !awaitActivation(proc)) {
+				return -1;
+			}
+			word = readWord(proc, virtAdrs[i]);
+			if (word < 0) {
+				return -1;
+			}
+			virtAdrs[i] = (int) word;
+		}
+		return count;
+	}
+
+	/**
+	 * Programmgrenze (Ende des Heaps) verschieben (System Call brk). Die neue
+	 * Grenze wird auf ganze Seiten aufgerundet. Beim Vergrößern entstehen die
+	 * Seiten erst beim ersten Zugriff (mit Nullen gefüllt), beim Verkleinern
+	 * werden die Seiten oberhalb der neuen Grenze freigegeben.
+	 * 
+	 * @param pid
+	 *            Prozess-ID
+	 * @param adr
+	 *            neue Programmgrenze; bei 0 oder einer Adresse unterhalb
+	 *            des Heap-Anfangs bleibt die Grenze unverändert (Abfrage)
+	 * @return (neue) Programmgrenze oder -1, wenn der Prozess nicht existiert
+	 *         oder der Heap an einen anderen Bereich bzw. das Ende des
+	 *         Adressraums stoßen würde
+	 */
+	public synchronized int brk(int pid, int adr) {
+		Process proc = getCallingProcess(pid, "brk"); // Aktuelles Prozessobjekt
+		VMArea heap; // Heap des Prozesses
+		VMArea other; // Bereich, an den der Heap stößt
+		int pageSize; // Seitengröße des Prozesses
+		int oldEnd; // bisherige Programmgrenze
+		int newEnd; // neue Programmgrenze
+
+		if (proc == null || proc.addressSpace.getHeap() == null) {
+			return -1;
+		}
+		heap = proc.addressSpace.getHeap();
+		pageSize = proc.pageTable.getPageSize();
+		oldEnd = heap.getEnd();
+		if (adr == 0 || adr < heap.getStart()) {
+			return oldEnd;
+		}
+		if (adr > VIRT_ADR_SPACE - pageSize) {
+			System.err.println("OS: brk ERROR " + pid + ": Adresse " + adr
+					+ " liegt ausserhalb des virtuellen Adressraums 0 - "
+					+ VIRT_ADR_SPACE);
+			return -1;
+		}
+		newEnd = (adr + pageSize - 1) & -pageSize;
+		if (newEnd > oldEnd) {
+			// eine freie Seite Abstand zum nächsten Bereich lassen
+			other = proc.addressSpace.findOverlap(oldEnd, newEnd + pageSize);
+			if (other != null) {
+				System.err.println("OS: brk ERROR " + pid
+						+ ": Heap stoesst an Bereich " + other);
+				return -1;
+			}
+		} else if (newEnd < oldEnd) {
+			releasePages(proc, newEnd / pageSize, oldEnd / pageSize);
+		}
+		proc.addressSpace.resize(heap, heap.getStart(), newEnd);
+		trace(EventTrace.BRK, pid, oldEnd, newEnd);
+		return newEnd;
+	}
+
+	// --------------- Private Methoden des Betriebssystems
+	// ---------------------------------
+
+	/**
+	 * @param pid
+	 * @return Prozess-Objekt für die Prozess-ID
+	 */
+	private Process getProcess(int pid) {
+		return (pid >= 0 && pid < processCounter) ? processTable[pid] : null;
+	}
+
+	/**
+	 * Leseadresse prüfen (Fehlermeldung, wenn sie ausserhalb des virtuellen
+	 * Adressraums liegt)
+	 * 
+	 * @return true, wenn die Adresse gültig ist
+	 */
+	private boolean checkReadAdr(int pid, int virtAdr) {
+		if ((virtAdr < 0) || (virtAdr > VIRT_ADR_SPACE - WORD_SIZE)) {
+			System.err.println("OS: read ERROR " + pid + ": Adresse "
+					+ virtAdr
+					+ " liegt ausserhalb des virtuellen Adressraums 0 - "
+					+ VIRT_ADR_SPACE);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Datenwort für einen aktiven Prozess lesen (Adresse ist geprüft)
+	 * 
+	 * @return Datenwort auf logischer Adresse virtAdr (ohne Vorzeichen) oder
+	 *         -1 bei Schutzverletzung
+	 */
+	private long readWord(Process proc, int virtAdr) {
+		int offset; // Offset innerhalb der Seite
+		int realAddressOfItem; // Reale Adresse des Datenworts
+		int item; // item das aus dem Speicher gelesen wird.
+		PageTableEntry pte; // Eintrag für die zu lesende Seite
+
+		// Seitenadresse berechnen (Seitengröße des Prozesses!)
+		offset = getOffset(proc, virtAdr);
+
+		// Seite über TLB bzw. Seitentabelle referenzieren (ggf. Seitenfehler
+		// oder Schutzverletzung)
+		pte = getResidentPte(proc, virtAdr, VMArea.READ);
+		if (pte == null) {
+			return -1;
+		}
+		// ------ Zustand: Seite ist in Seitentabelle und im RAM vorhanden
+
+		// Reale Adresse des Datenworts berechnen
+		realAddressOfItem = pte.getRealPageFrameAdr() + offset;
+
+		// Datenwort aus dem RAM lesen
+		item = readFromRAM(realAddressOfItem);
+		trace(EventTrace.READ, proc.pid, virtAdr, realAddressOfItem);
+		if (NUMA_NODES > 1) {
+			recordNodeAccess(proc, pte);
+		}
+		if (l1Cache != null) {
+			accessCaches(proc, realAddressOfItem);
+		}
+		// Seitentabelle bzgl. Zugriffshistorie aktualisieren
+		pte.setReferenced(true);
+		// Statistische Zählung
+		eventLog.incrementReadAccesses();
+		// auf ggf. erteilte Leseaufträge an die Platte warten
+		awaitDiskRequests(proc);
+		return item & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Prozess eines System Calls bestimmen. Der Thread eines beendeten
+	 * Prozesses kann noch Aufrufe absetzen, bevor er die Unterbrechung
+	 * bemerkt; seine Prozess-ID ist dann evtl. schon neu vergeben.
+	 * 
+	 * @param pid
+	 *            Prozess-ID
+	 * @param call
+	 *            Name des System Calls (für die Fehlermeldung)
+	 * @return Prozess-Objekt oder null, wenn der Prozess nicht (mehr) existiert
+	 */
+	private Process getCallingProcess(int pid, String call) {
+		Process proc = getProcess(pid); // aufgerufener Prozess
+		Thread caller = Thread.currentThread(); // aufrufender Thread
+
+		if (caller instanceof Process && caller != proc) {
+			// Thread eines bereits beendeten Prozesses
+			return null;
+		}
+		if (proc == null) {
+			System.err.println("OS: " + call + " ERROR: Prozess " + pid
+					+ " existiert nicht!");
+		}
+		return proc;
+	}
+
+	/**
+	 * Lastkontrolle: warten, solange der Prozess angehalten ist. Der Monitor
+	 * des Betriebssystems wird dabei freigegeben.
+	 * 
+	 * @param proc
+	 *            Prozessobjekt
+	 * @return true, wenn der Prozess (weiterhin) existiert und aktiv ist
+	 */
+	private boolean awaitActivation(Process proc) {
+		while (proc.isSuspended()) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				// Prozess wurde beendet
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return getProcess(proc.pid) == proc;
+	}
+
+	/**
+	 * Prozess in Prozessliste und Prozesstabelle eintragen
+	 */
+	private void addProcess(Process proc) {
+		if (proc.pid >= processTable.length) {
+			processTable = Arrays.copyOf(processTable, Math.max(proc.pid + 1,
+					2 * processTable.length));
+		}
+		processTable[proc.pid] = proc;
+		processList.add(proc);
+	}
+
+	/**
+	 * @return freie Prozess-ID: die am längsten freie oder eine neue
+	 */
+	private int allocatePid() {
+		int pid; // Ergebnis
+
+		if (freePidCount == 0) {
+			return processCounter++;
+		}
+		pid = freePids[freePidHead];
+		freePidHead = (freePidHead + 1) % freePids.length;
+		freePidCount--;
+		return pid;
+	}
+
+	/**
+	 * Prozess-ID zur späteren Wiederverwendung freigeben
+	 */
+	private void releasePid(int pid) {
+		int[] larger; // vergrößerter Ringpuffer
+
+		if (freePidCount == freePids.length) {
+			larger = new int[2 * freePids.length];
+			for (int i = 0; i < freePidCount; i++) {
+				larger[i] = freePids[(freePidHead + i) % freePids.length];
+			}
+			freePids = larger;
+			freePidHead = 0;
+		}
+		freePids[(freePidHead + freePidCount) % freePids.length] = pid;
+		freePidCount++;
+	}
+
+	/**
+	 * Seitentabelleneintrag für eine virtuelle Seite liefern, deren Seite sich
+	 * im RAM befindet: zuerst im TLB des Prozesses suchen, bei einem TLB-Miss
+	 * in der Seitentabelle. Nicht vorhandene Seiten werden neu angelegt, Seiten
+	 * auf der Platte über einen Seitenfehler eingelagert. Die Zugriffsrechte
+	 * stehen im TLB; bei einem TLB-Miss wird der Speicherbereich der Adresse
+	 * im Intervallbaum des Prozesses gesucht (ggf. wächst der Stack).
+	 * 
+	 * @param proc
+	 *            Prozessobjekt
+	 * @param virtAdr
+	 *            virtuelle Adresse
+	 * @param access
+	 *            Zugriffsart (VMArea.READ oder VMArea.WRITE)
+	 * @return Seitentabelleneintrag einer Seite im RAM oder null bei einer
+	 *         Schutzverletzung
+	 */
+	private PageTableEntry getResidentPte(Process proc, int virtAdr, int access) {
+		PageTableEntry pte; // Eintrag für die gesuchte Seite
+		VMArea area; // Speicherbereich der Seite
+		int virtualPageNum = getVirtualPageNum(proc, virtAdr);
+		int pid = proc.pid;
+
+		if (proc.getProfiler() != null) {
+			proc.getProfiler().access(virtualPageNum);
+		}
+		if (FRAME_PARTITIONING && ++accessesSinceRebalance >= REBALANCE_INTERVAL) {
+			rebalanceFrames();
+		}
+		if (thrashingDetector != null && thrashingDetector.recordAccess()) {
+			controlLoad(proc);
+		}
+		pte = proc.tlb.lookup(virtualPageNum, proc.accessPte);
+		if (pte != null) {
+			eventLog.incrementTlbHits();
+			if ((proc.tlb.getPermissions() & access) == 0) {
+				protectionFault(proc, virtAdr, access);
+				return null;
+			}
+		} else {
+			eventLog.incrementTlbMisses();
+			trace(EventTrace.TLB_MISS, pid, virtualPageNum, 0);
+			area = proc.addressSpace.find(virtAdr);
+			if (area == null) {
+				area = growStack(proc, virtAdr);
+			}
+			if (area == null || !area.permits(access)) {
+				protectionFault(proc, virtAdr, access);
+				return null;
+			}
+			pte = proc.pageTable.getPte(virtualPageNum, proc.accessPte);
+			if (pte == null) {
+				// Seite nicht vorhanden (erster Zugriff --> Seitenfehler):
+				eventLog.incrementPageFaults(); // Statistische Zählung
+				startFaultTiming(proc);
+				// neue Seite in Seitentabelle eintragen
+				pte = proc.pageTable.createEntry(virtualPageNum, proc.accessPte);
+				// Seitenrahmen im RAM für die neue Seite anfordern und reale
+				// (RAM-)SeitenAdresse eintragen
+				pte.setRealPageFrameAdr(getNewRAMPage(pte, pid));
+				if (pte.getRealPageFrameAdr() < 0) {
+					proc.pageTable.removeEntry(virtualPageNum);
+					noFrameAvailable(pid, virtualPageNum);
+					return null;
+				}
+				pte.setValid(true);
+				// Seiteninhalt erzeugen (Nullen oder aus der Programmdatei)
+				loadNewPage(proc, pte);
+				trace(EventTrace.NEW_PAGE, pid, virtualPageNum,
+						pte.getRealPageFrameAdr());
+			}
+			if (pte.getSegment() != null && pte.getSegment().isFileBacked()) {
+				eventLog.addPageCacheLookup(pte.isValid());
+			}
+			proc.tlb.insert(virtualPageNum, pte, area.getPermissions());
+		}
+		// Seite vorhanden: Seite valid (im RAM)?
+		if (!pte.isValid()) {
+			// Seite nicht valid (also auf Platte --> Seitenfehler):
+			startFaultTiming(proc);
+			if (pte.getSegment() != null && pte.getSegment().isFileBacked()) {
+				if (!handleFilePageFault(pte, pid)) {
+					return null;
+				}
+			} else if (pte.getSegment() != null) {
+				if (!handleSharedPageFault(pte, pid)) {
+					return null;
+				}
+			} else {
+				pte = handlePageFault(pte, pid);
+				if (pte == null) {
+					return null;
+				}
+			}
+		}
+		return pte;
+	}
+
+	/**
+	 * @param proc
+	 *            : Prozess, dessen Seitengröße gilt
+	 * @param virtAdr
+	 *            : eine virtuelle Adresse
+	 * @return Die entsprechende virtuelle Seitennummer
+	 */
+	private int getVirtualPageNum(Process proc, int virtAdr) {
+		// Offset-Bits abschneiden: virtAdr / 2^k
+		return virtAdr >>> proc.pageTable.getPageSizePotenz();
+	}
+
+	/**
+	 * @param proc
+	 *            : Prozess, dessen Seitengröße gilt
+	 * @param virtAdr
+	 *            : eine virtuelle Adresse
+	 * @return Den entsprechenden Offset zur Berechnung der realen Adresse
+	 */
+	private int getOffset(Process proc, int virtAdr) {
+		// Nur die Offset-Bits übrig lassen: virtAdr & (2^k - 1)
+		return virtAdr & proc.pageTable.getOffsetMask();
+	}
+
+	/**
+	 * Schutzverletzung (kein Seitenfehler): Zugriff außerhalb aller
+	 * Speicherbereiche des Prozesses oder ohne das nötige Recht. Der Zugriff
+	 * wird abgewiesen, der Prozess läuft weiter.
+	 * 
+	 * @param access
+	 *            Zugriffsart (VMArea.READ oder VMArea.WRITE)
+	 */
+	private void protectionFault(Process proc, int virtAdr, int access) {
+		VMArea area = proc.addressSpace.find(virtAdr); // Bereich oder null
+
+		eventLog.incrementProtectionFaults();
+		trace(EventTrace.PROTECTION_FAULT, proc.pid, virtAdr, access);
+		System.err.println("OS: " + ((access == VMArea.WRITE) ? "write" : "read")
+				+ " ERROR " + proc.pid + ": Schutzverletzung an Adresse "
+				+ virtAdr + ((area == null) ? " (kein Speicherbereich)"
+						: " (" + area + ")"));
+	}
+
+	/**
+	 * Stack bis zur Seite einer Adresse unterhalb seines Anfangs vergrößern,
+	 * wenn er dabei höchstens MAX_STACK_SIZE groß wird und eine freie Seite
+	 * Abstand zum darunterliegenden Bereich bleibt. Die neuen Seiten
+	 * entstehen wie alle Seiten erst beim ersten Zugriff.
+	 * 
+	 * @return Stack oder null, wenn die Adresse nicht zum Stack gehören kann
+	 */
+	private VMArea growStack(Process proc, int virtAdr) {
+		VMArea stack = proc.addressSpace.getStack(); // Stack des Prozesses
+		int pageSize = proc.pageTable.getPageSize(); // Seitengröße
+		int newStart = virtAdr & -pageSize; // neuer Anfang des Stacks
+
+		if (stack == null || virtAdr >= stack.getStart()
+				|| stack.getEnd() - newStart > MAX_STACK_SIZE
+				|| proc.addressSpace.findOverlap(newStart - pageSize,
+						stack.getStart()) != null) {
+			return null;
+		}
+		proc.addressSpace.resize(stack, newStart, stack.getEnd());
+		eventLog.incrementStackExpansions();
+		trace(EventTrace.STACK_GROW, proc.pid, newStart, stack.getSize());
+		return stack;
+	}
+
+	/**
+	 * Speicherbereiche eines neuen Prozesses anlegen: Code (Inhalt der
+	 * Programmdatei, lesen/ausführen) ab Adresse 0, dahinter der Heap
+	 * (lesen/schreiben) bis zur Prozessgröße und eine Stackseite am oberen
+	 * Ende des virtuellen Adressraums. Eingeblendete Bereiche beginnen
+	 * frühestens bei einem Viertel des Adressraums, damit der Heap mit brk
+	 * wachsen kann.
+	 * 
+	 * @param codeSize
+	 *            Größe des Codes in Byte (0 = keine Programmdatei)
+	 */
+	private void setupAddressSpace(Process proc, int codeSize) {
+		int pageSize = proc.pageTable.getPageSize(); // Seitengröße
+		int codeEnd = (codeSize + pageSize - 1) & -pageSize; // Ende Code
+		int heapEnd = (proc.getProcessSize() + pageSize - 1) & -pageSize;
+		int stackStart = VIRT_ADR_SPACE - pageSize; // Anfang Stack
+
+		if (codeEnd > 0) {
+			proc.addressSpace.add(new VMArea(0, codeEnd, VMArea.CODE,
+					VMArea.READ | VMArea.EXECUTE));
+		}
+		proc.addressSpace.add(new VMArea(codeEnd, Math.max(codeEnd, heapEnd),
+				VMArea.HEAP, VMArea.READ | VMArea.WRITE));
+		if (proc.addressSpace.findOverlap(stackStart - pageSize,
+				VIRT_ADR_SPACE) == null) {
+			proc.addressSpace.add(new VMArea(stackStart, VIRT_ADR_SPACE,
+					VMArea.STACK, VMArea.READ | VMArea.WRITE));
+		}
+		proc.setMappingTop(Math.max(heapEnd, VIRT_ADR_SPACE / 4));
+	}
+
+	/**
+	 * Eingeblendeten Bereich (Segment, Datei) in den Adressraum eintragen
+	 * 
+	 * @param call
+	 *            Name des System Calls (für die Fehlermeldung)
+	 * @return true bei Erfolg, false wenn der Bereich nicht in den
+	 *         Adressraum passt oder einen anderen Bereich überlappt
+	 */
+	private boolean addMappingArea(Process proc, int baseAdr, int size,
+			String call) {
+		if (baseAdr < 0 || baseAdr + size > VIRT_ADR_SPACE
+				|| proc.addressSpace.findOverlap(baseAdr, baseAdr + size) != null) {
+			System.err.println("OS: " + call + " ERROR " + proc.pid
+					+ ": virtueller Adressraum voll!");
+			return false;
+		}
+		proc.addressSpace.add(new VMArea(baseAdr, baseAdr + size,
+				VMArea.MAPPING, VMArea.READ | VMArea.WRITE));
+		return true;
+	}
+
+	/**
+	 * Seiten firstVpn .. endVpn-1 eines Prozesses freigeben (brk):
+	 * Seitenrahmen, Plattenblöcke bzw. Slots im komprimierten Pool wie bei
+	 * exit (geteilte erst, wenn der letzte Benutzer sie abgibt), die Einträge
+	 * werden aus Seitentabelle und TLB gelöscht
+	 */
+	private void releasePages(Process proc, int firstVpn, int endVpn) {
+		int pageSize = proc.pageTable.getPageSize(); // Seitengröße
+		PageTableEntry pte; // aktueller Eintrag
+		int adr; // dessen RAM-, Platten- bzw. Slotadresse
+
+		for (int vpn = firstVpn; vpn < endVpn; vpn++) {
+			pte = proc.pageTable.getPte(vpn);
+			if (pte == null || pte.getSegment() != null) {
+				continue;
+			}
+			adr = pte.getRealPageFrameAdr();
+			if (adr < 0) {
+				// noch kein Seitenrahmen zugeordnet
+			} else if (pte.isValid()) {
+				if (ramFrameRefCount[adr >> PAGE_SIZE_POTENZ] > 1) {
+					ramFrameRefCount[adr >> PAGE_SIZE_POTENZ]--;
+				} else {
+					freeRAMPage(adr, pageSize);
+				}
+			} else if (pte.isCompressed()) {
+				swapCache.remove(adr);
+			} else {
+				releaseDiskBlock(adr, pageSize);
+			}
+			proc.pageTable.removeEntry(vpn);
+			proc.tlb.invalidate(vpn);
+		}
+	}
+
+	/**
+	 * @param x
+	 *            eine Zweierpotenz
+	 * @return Zweierlogarithmus von x
+	 */
+	private static int log2(int x) {
+		return Integer.numberOfTrailingZeros(x);
+	}
+
+	/**
+	 * @param x
+	 * @return true, wenn x eine Zweierpotenz > 0 ist
+	 */
+	private static boolean isPowerOfTwo(int x) {
+		return (x > 0) && ((x & (x - 1)) == 0);
+	}
+
+	/**
+	 * Zulassung eines weiteren Prozesses prüfen: jeder Prozess darf bis zu
+	 * MAX_RAM_PAGES_PER_PROCESS Seiten im RAM halten (Prozesse mit Huge
+	 * Pages mindestens eine Huge Page), zusätzlich ist der für gemeinsame
+	 * Segmente und die komprimierte Auslagerungsstufe reservierte RAM
+	 * abzuziehen
+	 * 
+	 * @param pageSize
+	 *            Seitengröße des neuen Prozesses
+	 * @return true, wenn für einen weiteren Prozess genug RAM vorhanden ist
+	 */
+	private boolean canAdmitProcess(int pageSize) {
+		return (processList.size() < MAX_NUM_OF_PROCESSES)
+				&& (getProcessRAMReservation() + getRAMReservation(pageSize)
+						+ reservedRAM <= RAM_SIZE - PAGE_SIZE);
+	}
+
+	/**
+	 * @return Summe der RAM-Reservierungen aller Prozesse in Byte
+	 */
+	private int getProcessRAMReservation() {
+		int sum = 0; // reservierter RAM
+
+		for (Process proc : processList) {
+			sum = sum + getRAMReservation(proc.pageTable.getPageSize());
+		}
+		return sum;
+	}
+
+	/**
+	 * @param pageSize
+	 *            Seitengröße eines Prozesses
+	 * @return für den Prozess reservierter RAM in Byte: die Quote
+	 *         MAX_RAM_PAGES_PER_PROCESS, mindestens aber eine Seite, da ein
+	 *         Prozess mit Huge Pages immer einen ganzen Rahmen erhält
+	 */
+	private int getRAMReservation(int pageSize) {
+		return Math.max(MAX_RAM_PAGES_PER_PROCESS * PAGE_SIZE, pageSize);
+	}
+
+	/**
+	 * Die RAM-Quote MAX_RAM_PAGES_PER_PROCESS ist in Basisseiten angegeben.
+	 * Prozesse mit Huge Pages erhalten dieselbe Speichermenge, also
+	 * entsprechend weniger (mindestens aber eine) Seiten. Bei automatischer
+	 * Rahmenaufteilung gilt statt dessen die Quote des Prozesses.
+	 * 
+	 * @param proc
+	 * @return max. Anzahl Seiten des Prozesses im Hauptspeicher
+	 */
+	private int getMaxRAMPages(Process proc) {
+		int frames = MAX_RAM_PAGES_PER_PROCESS; // Quote in Basisseiten
+
+		if (FRAME_PARTITIONING && proc.getFrameQuota() > 0) {
+			frames = proc.getFrameQuota();
+		}
+		return Math.max(1, frames * PAGE_SIZE / proc.pageTable.getPageSize());
+	}
+
+	/**
+	 * Seitenrahmen neu auf die Prozesse aufteilen (Utility-Based
+	 * Partitioning): aufgeteilt werden alle Rahmen außer der Reserve und dem
+	 * für Segmente und Pool reservierten RAM. Grundlage sind die
+	 * Miss-Ratio-Kurven der Zugriffsprofile; Prozesse ohne aussagekräftiges
+	 * Profil (weniger als REBALANCE_INTERVAL Zugriffe) erhalten mindestens
+	 * die feste Quote. Die neuen Quoten werden erst beim Verdrängen
+	 * durchgesetzt: Prozesse über ihrer Quote verlieren Seiten, sobald ein
+	 * anderer Prozess Rahmen benötigt (reclaimFrameOverQuota). Von der
+	 * Lastkontrolle angehaltene Prozesse erhalten keine Rahmen.
+	 */
+	private void rebalanceFrames() {
+		int budget = (RAM_SIZE - PAGE_SIZE - reservedRAM) >> PAGE_SIZE_POTENZ;
+		List<Process> active = getActiveProcesses(); // aufzuteilende Prozesse
+		int n = active.size(); // Anzahl Prozesse
+		long[][] curves = new long[n][]; // Kurven in Basisseiten
+		int[] minFrames = new int[n]; // Mindestquoten
+		int[] staticFrames = new int[n]; // feste Quoten zum Vergleich
+		int[] quotas; // neue Aufteilung
+		long[] pageCurve; // Kurve in Seiten des Prozesses
+		int ratio; // Basisseiten je Seite des Prozesses
+		Process proc; // aktueller Prozess
+		ReuseDistanceProfiler profiler; // dessen Zugriffsprofil
+
+		accessesSinceRebalance = 0;
+		for (int i = 0; i < n; i++) {
+			proc = active.get(i);
+			profiler = proc.getProfiler();
+			ratio = proc.pageTable.getPageSize() >> PAGE_SIZE_POTENZ;
+			staticFrames[i] = Math.max(1, MAX_RAM_PAGES_PER_PROCESS / ratio)
+					* ratio;
+			if (profiler == null || profiler.getAccesses() < REBALANCE_INTERVAL) {
+				minFrames[i] = staticFrames[i];
+			} else {
+				minFrames[i] = ratio;
+			}
+			// Kurve bis zur Anzahl benutzter Seiten, danach konstant
+			pageCurve = (profiler == null) ? new long[1]
+					: profiler.getRecentMissCurve(Math.min(budget / ratio,
+							profiler.getDistinctPages()));
+			curves[i] = new long[(pageCurve.length - 1) * ratio + 1];
+			for (int f = 0; f < curves[i].length; f++) {
+				curves[i][f] = pageCurve[f / ratio];
+			}
+		}
+		quotas = FramePartitioner.partition(curves, minFrames, budget);
+		eventLog.addFrameRebalance(FramePartitioner.getMisses(curves,
+				staticFrames), FramePartitioner.getMisses(curves, quotas));
+		for (int i = 0; i < n; i++) {
+			proc = active.get(i);
+			proc.setFrameQuota(quotas[i]);
+			proc.pageTable.setRAMlistCapacity(getMaxRAMPages(proc));
+			if (proc.getProfiler() != null) {
+				proc.getProfiler().decay();
+			}
+		}
+	}
+
+	/**
+	 * Rahmenaufteilung durchsetzen: dem Prozess, der seine Quote am weitesten
+	 * überschreitet, eine Seite entziehen (auslagern) und den Seitenrahmen
+	 * freigeben
+	 * 
+	 * @param requester
+	 *            Prozess, der einen Rahmen benötigt
+	 * @return true, wenn eine Seite entzogen wurde
+	 */
+	private boolean reclaimFrameOverQuota(Process requester) {
+		return FRAME_PARTITIONING && reclaimFrame(requester, true);
+	}
+
+	/**
+	 * Einem anderen Prozess eine Seite entziehen (auslagern) und ggf. den
+	 * Seitenrahmen freigeben
+	 * 
+	 * @param requester
+	 *            Prozess, der einen Rahmen benötigt
+	 * @param overQuota
+	 *            true = nur Prozessen über ihrer Quote (den Prozess mit der
+	 *            größten Überschreitung wählen), false = dem Prozess mit den
+	 *            meisten Seiten im RAM
+	 * @return true, wenn eine Seite entzogen wurde
+	 */
+	private boolean reclaimFrame(Process requester, boolean overQuota) {
+		Process victim = null; // Prozess mit der größten Überschreitung
+		int maxExcess = 0; // Überschreitung in Basisseiten
+		int excess; // Überschreitung des aktuellen Prozesses
+		int pageSize; // Seitengröße des Opfers
+		PageTableEntry replacePte; // entzogene Seite
+		int replacePageFrameAdr; // deren Seitenrahmen
+
+		for (Process proc : processList) {
+			excess = (proc.pageTable.getRAMlistSize() - (overQuota ? getMaxRAMPages(proc)
+					: 0))
+					* (proc.pageTable.getPageSize() >> PAGE_SIZE_POTENZ);
+			if (proc != requester && excess > maxExcess) {
+				maxExcess = excess;
+				victim = proc;
+			}
+		}
+		if (victim == null) {
+			return false;
+		}
+		pageSize = victim.pageTable.getPageSize();
+		replacePte = victim.pageTable.selectNextRAMpteAndRemove();
+		replacePageFrameAdr = replacePte.getRealPageFrameAdr();
+		if (swapOutPage(victim, replacePte, replacePageFrameAdr)) {
+			freeRAMPage(replacePageFrameAdr, pageSize);
+		}
+		eventLog.incrementFrameReclaims();
+		return true;
+	}
+
+	/**
+	 * Seiten eines Prozesses auslagern, bis er höchstens maxPages Seiten
+	 * (z.B. seine verkleinerte Quote) im RAM hält, und die Seitenrahmen
+	 * freigeben
+	 * 
+	 * @param proc
+	 *            Prozessobjekt
+	 * @param maxPages
+	 *            max. Anzahl Seiten im RAM danach
+	 */
+	private void trimResidentSet(Process proc, int maxPages) {
+		int pageSize = proc.pageTable.getPageSize(); // Seitengröße
+		PageTableEntry replacePte; // ausgelagerte Seite
+		int replacePageFrameAdr; // deren Seitenrahmen
+
+		while (proc.pageTable.getRAMlistSize() > maxPages) {
+			replacePte = proc.pageTable.selectNextRAMpteAndRemove();
+			replacePageFrameAdr = replacePte.getRealPageFrameAdr();
+			if (swapOutPage(proc, replacePte, replacePageFrameAdr)) {
+				freeRAMPage(replacePageFrameAdr, pageSize);
+			}
+		}
+	}
+
+	/**
+	 * @return alle nicht von der Lastkontrolle angehaltenen Prozesse
+	 */
+	private List<Process> getActiveProcesses() {
+		List<Process> active = new ArrayList<Process>(processList.size());
+
+		for (Process proc : processList) {
+			if (!proc.isSuspended()) {
+				active.add(proc);
+			}
+		}
+		return active;
+	}
+
+	/**
+	 * Lastkontrolle am Ende eines Fensters: bei Überlastung den am längsten
+	 * aktiven Prozess (außer dem aufrufenden) deaktivieren, sonst den ersten
+	 * wartenden Prozess aktivieren. Es bleibt immer mindestens ein Prozess
+	 * aktiv.
+	 * 
+	 * @param caller
+	 *            Prozess, dessen Zugriff das Fenster abgeschlossen hat
+	 */
+	private void controlLoad(Process caller) {
+		List<Process> active = getActiveProcesses(); // aktive Prozesse
+		Process victim = null; // zu deaktivierender Prozess
+
+		if (thrashingDetector.closeWindow(eventLog.getPageFaults(),
+				active.size())) {
+			eventLog.incrementThrashingWindows();
+			testOut("OS: Ueberlastung erkannt (Seitenfehlerrate "
+					+ thrashingDetector.getFaultRate() + ", Zeitanteil "
+					+ thrashingDetector.getTimeShare() + ")");
+			for (Process proc : active) {
+				if (proc != caller
+						&& (victim == null || proc.getActivation() < victim
+								.getActivation())) {
+					victim = proc;
+				}
+			}
+			if (victim != null) {
+				deactivateProcess(victim);
+			}
+		} else if (!suspendedProcesses.isEmpty()) {
+			activateProcess(suspendedProcesses.removeFirst());
+		}
+	}
+
+	/**
+	 * Prozess anhalten, seine gesamte Residenzmenge auslagern und ihn am Ende
+	 * der Warteschlange einreihen
+	 * 
+	 * @param proc
+	 *            Prozessobjekt
+	 */
+	private void deactivateProcess(Process proc) {
+		proc.setSuspended(true);
+		suspendedProcesses.add(proc);
+		trimResidentSet(proc, 0);
+		eventLog.incrementDeactivations();
+		if (FRAME_PARTITIONING) {
+			rebalanceFrames();
+		}
+		testOut("OS: Prozess " + proc.pid
+				+ " wegen Ueberlastung deaktiviert");
+	}
+
+	/**
+	 * Angehaltenen Prozess (aus der Warteschlange bereits entfernt) wieder
+	 * laufen lassen
+	 * 
+	 * @param proc
+	 *            Prozessobjekt
+	 */
+	private void activateProcess(Process proc) {
+		proc.setSuspended(false);
+		proc.setActivation(++activationCounter);
+		eventLog.incrementActivations();
+		if (FRAME_PARTITIONING) {
+			rebalanceFrames();
+		}
+		notifyAll();
+		testOut("OS: Prozess " + proc.pid + " aktiviert");
+	}
+
+	/**
+	 * @return neue Überlastungserkennung mit den aktuellen Parametern
+	 */
+	private ThrashingDetector newThrashingDetector() {
+		return new ThrashingDetector(THRASHING_WINDOW, THRASHING_FAULT_RATE,
+				THRASHING_TIME_SHARE, eventLog.getPageFaults());
+	}
+
+	/**
+	 * Behandlung eines Seitenfehlers f�r die durch den pte beschriebene Seite
+	 * 
+	 * @param pte
+	 *            Seitentabelleneintrag
+	 * @param pid
+	 *            Prozess-Id
+	 * @return modifizierter Seitentabelleneintrag oder null, wenn kein
+	 *         Seitenrahmen frei ist (die Seite bleibt ausgelagert)
+	 */
+	private PageTableEntry handlePageFault(PageTableEntry pte, int pid) {
+		int newPageFrameAdr; // Reale Adresse einer neuen Seite im RAM
+		int pageSize = getProcess(pid).pageTable.getPageSize();
+
+		trace(EventTrace.PAGE_FAULT, pid, pte.getVirtPageNum(),
+				pte.getRealPageFrameAdr());
+		eventLog.incrementPageFaults(); // Statistische Z�hlung
+		// neue Seite im RAM anfordern (ggf. alte Seite verdr�ngen!)
+		newPageFrameAdr = getNewRAMPage(pte, pid);
+		if (newPageFrameAdr < 0) {
+			noFrameAvailable(pid, pte.getVirtPageNum());
+			return null;
+		}
+		if (pte.isCompressed()) {
+			// Seite liegt komprimiert im Pool (realPageAdr ist die
+			// Slotnummer) --> ohne Plattenzugriff entpacken
+			swapInFromCache(pte, newPageFrameAdr, pageSize);
+		} else {
+			// Seite von Platte in neue RAM-Seite lesen (realPageAdr muss
+			// Plattenblockadresse gewesen sein!)
+			dataTransferFromDisk(pid, pte.getRealPageFrameAdr(), newPageFrameAdr,
+					pageSize);
+			// Plattenblock freigeben
+			releaseDiskBlock(pte.getRealPageFrameAdr(), pageSize);
+		}
+		// Seitentabelle aktualisieren
+		pte.setRealPageFrameAdr(newPageFrameAdr);
+		pte.setValid(true);
+		trace(EventTrace.PAGE_IN, pid, pte.getVirtPageNum(),
+				pte.getRealPageFrameAdr());
+
+		return pte;
+	}
+
+	/**
+	 * Inhalt einer beim ersten Zugriff neu angelegten Seite erzeugen: Seiten
+	 * innerhalb der Programmdatei werden aus dieser gelesen (über das
+	 * Dateiende hinaus mit Nullen aufgefüllt), alle übrigen Seiten werden mit
+	 * Nullen gefüllt (Demand Zero)
+	 * 
+	 * @param proc
+	 *            Prozessobjekt
+	 * @param pte
+	 *            neuer Seitentabelleneintrag (Seite im RAM)
+	 */
+	private void loadNewPage(Process proc, PageTableEntry pte) {
+		RandomAccessFile image = proc.getImage(); // Programmdatei
+		int pageSize = proc.pageTable.getPageSize();
+		long fileAdr = (long) pte.getVirtPageNum() * pageSize; // Position in Datei
+		byte[] buffer; // gelesene Seite
+		int length; // Anzahl gelesener Bytes
+
+		// Seite zuerst mit Nullen füllen
+		clearRAMPage(pte.getRealPageFrameAdr(), pageSize);
+		try {
+			if (image == null || fileAdr >= image.length()) {
+				eventLog.incrementZeroFillFaults();
+				return;
+			}
+			buffer = new byte[pageSize];
+			image.seek(fileAdr);
+			length = (int) Math.min(pageSize, image.length() - fileAdr);
+			image.readFully(buffer, 0, length);
+		} catch (IOException e) {
+			System.err.println("OS: " + proc.pid
+					+ " ERROR: Programmdatei nicht lesbar: " + e.getMessage());
+			return;
+		}
+		physRAM.writeWords(pte.getRealPageFrameAdr(), wordsOf(buffer, length));
+		eventLog.incrementImageFaults();
+		trace(EventTrace.IMAGE_LOAD, proc.pid, pte.getVirtPageNum(), 0);
+	}
+
+	/**
+	 * Behandlung eines Seitenfehlers für eine Seite eines gemeinsamen
+	 * Segments: die Seite wird einmal für alle einblendenden Prozesse
+	 * eingelagert, ggf. wird eine andere Seite des Segments verdrängt
+	 * 
+	 * @param pte
+	 *            gemeinsamer Seitentabelleneintrag
+	 * @param pid
+	 *            Prozess-Id (auslösender Prozess)
+	 * @return false, wenn kein Seitenrahmen frei ist
+	 */
+	private boolean handleSharedPageFault(PageTableEntry pte, int pid) {
+		SharedSegment seg = pte.getSegment(); // Segment der Seite
+		PageTableEntry replacePte; // ggf. zu verdrängende Segmentseite
+		int newPageFrameAdr; // Reale Adresse der Seite im RAM
+		int newDiskBlock; // Plattenblock für die verdrängte Seite
+
+		trace(EventTrace.SHARED_FAULT, pid, pte.getVirtPageNum(), 0);
+		eventLog.incrementPageFaults(); // Statistische Zählung
+		eventLog.incrementSharedPageFaults();
+		if (seg.getRAMlistSize() < seg.getResidentLimit()) {
+			// Segment hat noch Platz im RAM (der reservierte Rahmen kann bei
+			// überbuchten Quoten noch von Prozessen belegt sein)
+			newPageFrameAdr = allocateRAMPageReclaiming(getProcess(pid),
+					PAGE_SIZE);
+			if (newPageFrameAdr < 0) {
+				noFrameAvailable(pid, pte.getVirtPageNum());
+				return false;
+			}
+			clearRAMPage(newPageFrameAdr, PAGE_SIZE);
+			seg.pteRAMlistInsert(pte);
+		} else {
+			// Seite des Segments verdrängen, die seit dem letzten
+			// Uhrzeigerdurchlauf von keinem Prozess benutzt wurde
+			replacePte = seg.selectNextRAMpteAndReplace(pte);
+			newPageFrameAdr = replacePte.getRealPageFrameAdr();
+			seg.invalidateTLBs(replacePte.getVirtPageNum());
+			newDiskBlock = allocateDiskBlock(PAGE_SIZE);
+			dataTransferToDisk(pid, newPageFrameAdr, newDiskBlock, PAGE_SIZE);
+			clearRAMPage(newPageFrameAdr, PAGE_SIZE);
+			replacePte.setRealPageFrameAdr(newDiskBlock);
+			replacePte.setValid(false);
+			trace(EventTrace.EVICT, EventTrace.NO_PID,
+					replacePte.getVirtPageNum(), newDiskBlock);
+		}
+		if (pte.getRealPageFrameAdr() >= 0) {
+			// Seite war schon ausgelagert --> von der Platte lesen
+			dataTransferFromDisk(pid, pte.getRealPageFrameAdr(), newPageFrameAdr,
+					PAGE_SIZE);
+			freeDiskBlock(pte.getRealPageFrameAdr(), PAGE_SIZE);
+		}
+		pte.setRealPageFrameAdr(newPageFrameAdr);
+		pte.setValid(true);
+		return true;
+	}
+
+	/**
+	 * Behandlung eines Seitenfehlers für eine Seite eines Dateisegments: die
+	 * Seite wird aus der Datei (bzw. bei einer geänderten Seite einer
+	 * schreibgeschützten Datei von der Platte) in einen freien Seitenrahmen
+	 * gelesen und in den Page Cache eingetragen. Ist kein Rahmen frei, gibt
+	 * allocateRAMPage() die am längsten unbenutzte Seite des Page Cache ab.
+	 * 
+	 * @param pte
+	 *            gemeinsamer Seitentabelleneintrag
+	 * @param pid
+	 *            Prozess-Id (auslösender Prozess)
+	 * @return false, wenn kein Seitenrahmen frei ist
+	 */
+	private boolean handleFilePageFault(PageTableEntry pte, int pid) {
+		SharedSegment seg = pte.getSegment(); // Dateisegment der Seite
+		int pageNum = pte.getVirtPageNum(); // Seitennummer in der Datei
+		int newPageFrameAdr; // Reale Adresse der Seite im RAM
+
+		trace(EventTrace.SHARED_FAULT, pid, pageNum, 0);
+		eventLog.incrementPageFaults(); // Statistische Zählung
+		eventLog.incrementSharedPageFaults();
+		// Ein Rahmen ist frei oder im Page Cache, solange die Quoten der
+		// Prozesse nicht überbucht sind; sonst Seiten anderer Prozesse
+		// entziehen
+		newPageFrameAdr = allocateRAMPageReclaiming(getProcess(pid), PAGE_SIZE);
+		if (newPageFrameAdr < 0) {
+			noFrameAvailable(pid, pageNum);
+			return false;
+		}
+		if (pte.getRealPageFrameAdr() >= 0) {
+			// geänderte Seite einer schreibgeschützten Datei --> von der
+			// Platte lesen, bleibt gegenüber der Datei geändert
+			dataTransferFromDisk(pid, pte.getRealPageFrameAdr(),
+					newPageFrameAdr, PAGE_SIZE);
+			freeDiskBlock(pte.getRealPageFrameAdr(), PAGE_SIZE);
+			pte.setModified(true);
+		} else {
+			readFilePage(seg, pageNum, newPageFrameAdr);
+			pte.setModified(false);
+			trace(EventTrace.FILE_READ, pid, pageNum, newPageFrameAdr);
+		}
+		pageCache.insert(seg, pageNum);
+		pte.setRealPageFrameAdr(newPageFrameAdr);
+		pte.setValid(true);
+		return true;
+	}
+
+	/**
+	 * Page Cache verkleinern: eine Dateiseite nach dem Clock-Algorithmus
+	 * auswählen, ggf. zurückschreiben und ihren Seitenrahmen freigeben
+	 */
+	private void evictPageCachePage() {
+		int slot = pageCache.selectVictim(); // Platz der Seite
+		SharedSegment seg = pageCache.getSegment(slot); // Dateisegment
+		PageTableEntry pte = seg.getPte(pageCache.getPageNum(slot));
+		int frameAdr = pte.getRealPageFrameAdr(); // Seitenrahmen
+		int newDiskBlock; // Plattenblock einer geänderten Seite
+		boolean writeback = false; // in die Datei zurückgeschrieben?
+
+		pageCache.remove(slot);
+		seg.invalidateTLBs(pte.getVirtPageNum());
+		if (pte.isModified() && seg.isWritable()) {
+			writeFilePage(seg, pte.getVirtPageNum(), frameAdr);
+			pte.setRealPageFrameAdr(-1);
+			writeback = true;
+		} else if (pte.isModified()) {
+			// Datei schreibgeschützt: Änderung auf die Platte auslagern
+			newDiskBlock = allocateDiskBlock(PAGE_SIZE);
+			dataTransferToDisk(EventTrace.NO_PID, frameAdr, newDiskBlock,
+					PAGE_SIZE);
+			pte.setRealPageFrameAdr(newDiskBlock);
+			trace(EventTrace.EVICT, EventTrace.NO_PID, pte.getVirtPageNum(),
+					newDiskBlock);
+		} else {
+			// unverändert: wird beim nächsten Zugriff neu gelesen
+			pte.setRealPageFrameAdr(-1);
+		}
+		pte.setModified(false);
+		pte.setReferenced(false);
+		pte.setValid(false);
+		freeRAMPage(frameAdr, PAGE_SIZE);
+		eventLog.addPageCacheEviction(writeback);
+	}
+
+	/**
+	 * Seite eines Dateisegments aus der Datei in einen Seitenrahmen lesen
+	 * (hinter dem Dateiende Nullen)
+	 */
+	private void readFilePage(SharedSegment seg, int pageNum, int ramAdr) {
+		RandomAccessFile file = seg.getFile(); // Datei des Segments
+		long fileAdr = (long) pageNum * PAGE_SIZE; // Position in Datei
+		byte[] buffer = new byte[PAGE_SIZE]; // gelesene Seite
+		int length; // Anzahl gelesener Bytes
+
+		clearRAMPage(ramAdr, PAGE_SIZE);
+		try {
+			if (fileAdr >= file.length()) {
+				return;
+			}
+			file.seek(fileAdr);
+			length = (int) Math.min(PAGE_SIZE, file.length() - fileAdr);
+			file.readFully(buffer, 0, length);
+		} catch (IOException e) {
+			System.err.println("OS: ERROR: Datei " + seg.getFileName()
+					+ " nicht lesbar: " + e.getMessage());
+			return;
+		}
+		physRAM.writeWords(ramAdr, wordsOf(buffer, length));
+	}
+
+	/**
+	 * @param buffer
+	 *            aus einer Datei gelesene Bytes (Länge mind. length,
+	 *            aufgerundet auf ganze Worte)
+	 * @param length
+	 *            Anzahl gültiger Bytes (ein angebrochenes Wort wird mit den
+	 *            folgenden Bytes des Puffers ergänzt)
+	 * @return Sicht auf die Datenworte der Datei (Big Endian)
+	 */
+	private IntBuffer wordsOf(byte[] buffer, int length) {
+		return ByteBuffer.wrap(buffer, 0,
+				(length + WORD_SIZE - 1) & ~(WORD_SIZE - 1)).asIntBuffer();
+	}
+
+	/**
+	 * Seite eines Dateisegments in die Datei zurückschreiben (nur bis zum
+	 * Dateiende)
+	 */
+	private void writeFilePage(SharedSegment seg, int pageNum, int ramAdr) {
+		RandomAccessFile file = seg.getFile(); // Datei des Segments
+		long fileAdr = (long) pageNum * PAGE_SIZE; // Position in Datei
+		ByteBuffer words = ByteBuffer.allocate(PAGE_SIZE); // Seiteninhalt
+		int length; // Anzahl zu schreibender Bytes
+
+		physRAM.readWords(ramAdr, words.asIntBuffer());
+		try {
+			length = (int) Math.min(PAGE_SIZE, file.length() - fileAdr);
+			if (length > 0) {
+				file.seek(fileAdr);
+				file.write(words.array(), 0, length);
+			}
+		} catch (IOException e) {
+			System.err.println("OS: ERROR: Datei " + seg.getFileName()
+					+ " nicht beschreibbar: " + e.getMessage());
+			return;
+		}
+		trace(EventTrace.FILE_WRITEBACK, EventTrace.NO_PID, pageNum, ramAdr);
+	}
+
+	/**
+	 * Seitenzusammenlegung: die nächsten MERGE_SCAN_PAGES Seiten im RAM
+	 * prüfen (Aufruf durch den SamePageScanner). Die Residenzmengen der
+	 * Prozesse werden reihum nach Prozess-ID durchlaufen; nach jedem
+	 * vollständigen Durchlauf werden die Kandidaten verworfen, damit sich
+	 * häufig ändernde Seiten nicht als Kandidaten liegen bleiben.
+	 */
+	synchronized void scanSamePages() {
+		long startTime = System.nanoTime(); // Beginn des Durchgangs
+		int scanned = 0; // Anzahl geprüfter Seiten
+		boolean wrapped = false; // Durchlauf in diesem Durchgang neu begonnen?
+		Process proc; // Prozess unter dem Scanner
+		PageTableEntry pte; // geprüfte Seite
+
+		while (scanned < MERGE_SCAN_PAGES) {
+			if (mergeScanPid >= processTable.length) {
+				if (wrapped) {
+					// keine (weiteren) Seiten im RAM
+					break;
+				}
+				wrapped = true;
+				mergeScanPid = 0;
+				mergeScanSlot = 0;
+				mergeCandidates.clear();
+				continue;
+			}
+			proc = processTable[mergeScanPid];
+			if (proc == null
+					|| mergeScanSlot >= proc.pageTable.getRAMlistSize()) {
+				mergeScanPid++;
+				mergeScanSlot = 0;
+				continue;
+			}
+			pte = proc.pageTable.getPte(proc.pageTable
+					.getRAMlistVpn(mergeScanSlot++));
+			if (isMergeable(proc, pte)) {
+				mergePage(proc, pte);
+			}
+			scanned++;
+		}
+		if (scanned > 0) {
+			eventLog.addMergeScan(scanned, System.nanoTime() - startTime);
+		}
+	}
+
+	/**
+	 * @return true, wenn die Seite zusammengelegt werden darf (private
+	 *         Basisseite im RAM)
+	 */
+	private boolean isMergeable(Process proc, PageTableEntry pte) {
+		return pte != null && pte.isValid() && pte.getSegment() == null
+				&& proc.pageTable.getPageSize() == PAGE_SIZE;
+	}
+
+	/**
+	 * Seitenzusammenlegung: Seite über ihre Prüfsumme mit der ersten Seite
+	 * gleichen Inhalts vergleichen und bei Gleichheit auf einen gemeinsamen
+	 * Seitenrahmen legen. Umgesetzt wird immer eine Seite mit eigenem
+	 * (ungeteiltem) Rahmen; sind beide Rahmen schon geteilt, bleiben sie
+	 * getrennt, da ein Rahmen keine Rückverweise auf seine Seiten hat.
+	 * 
+	 * @param proc
+	 *            Prozess der Seite
+	 * @param pte
+	 *            geprüfte Seite (im RAM)
+	 */
+	private void mergePage(Process proc, PageTableEntry pte) {
+		int adr = pte.getRealPageFrameAdr(); // Rahmen der geprüften Seite
+		Integer checksum = Integer.valueOf(physRAM.checksum(adr, PAGE_SIZE));
+		Long candidate = mergeCandidates.get(checksum); // erste gleiche Seite
+		Process owner = null; // deren Prozess
+		PageTableEntry other = null; // deren Eintrag
+		int otherAdr; // deren Rahmen
+
+		if (candidate != null) {
+			owner = getProcess((int) (candidate.longValue() >>> 32));
+		}
+		if (owner != null) {
+			other = owner.pageTable.getPte((int) candidate.longValue());
+		}
+		if (other == null
+				|| !isMergeable(owner, other)
+				|| !physRAM.isEqual(adr, physRAM, other.getRealPageFrameAdr(),
+						PAGE_SIZE)) {
+			// erste Seite mit diesem Inhalt (oder Kandidat inzwischen
+			// verändert, verdrängt oder beendet)
+			mergeCandidates.put(checksum,
+					Long.valueOf(((long) proc.pid << 32) | pte.getVirtPageNum()));
+			return;
+		}
+		otherAdr = other.getRealPageFrameAdr();
+		if (otherAdr == adr) {
+			// bereits zusammengelegt
+			return;
+		}
+		if (ramFrameRefCount[adr >> PAGE_SIZE_POTENZ] == 1) {
+			shareFrame(proc, pte, other);
+		} else if (ramFrameRefCount[otherAdr >> PAGE_SIZE_POTENZ] == 1) {
+			shareFrame(owner, other, pte);
+		}
+	}
+
+	/**
+	 * Seitenzusammenlegung: Seite auf den Rahmen einer gleichen Seite
+	 * umsetzen, beide Seiten schreibschützen (Copy-on-Write) und den bisher
+	 * allein benutzten Rahmen der Seite freigeben
+	 * 
+	 * @param proc
+	 *            Prozess der umzusetzenden Seite
+	 * @param pte
+	 *            umzusetzende Seite
+	 * @param target
+	 *            gleiche Seite, deren Rahmen künftig geteilt wird
+	 */
+	private void shareFrame(Process proc, PageTableEntry pte,
+			PageTableEntry target) {
+		int oldAdr = pte.getRealPageFrameAdr(); // freizugebender Rahmen
+		int adr = target.getRealPageFrameAdr(); // geteilter Rahmen
+
+		ramFrameRefCount[adr >> PAGE_SIZE_POTENZ]++;
+		target.setCopyOnWrite(true);
+		pte.setCopyOnWrite(true);
+		pte.setRealPageFrameAdr(adr);
+		freeRAMPage(oldAdr, PAGE_SIZE);
+		eventLog.incrementPageMerges();
+		trace(EventTrace.PAGE_MERGE, proc.pid, pte.getVirtPageNum(), adr);
+	}
+
+	/**
+	 * Behandlung eines Copy-on-Write-Fehlers: Schreibzugriff auf eine Seite,
+	 * deren Seitenrahmen nach fork() mit anderen Prozessen geteilt wird
+	 * 
+	 * @param pte
+	 *            Seitentabelleneintrag (Seite im RAM)
+	 * @param pid
+	 *            Prozess-Id
+	 * @return false, wenn für die Kopie kein Seitenrahmen frei ist
+	 */
+	private boolean handleCopyOnWriteFault(PageTableEntry pte, int pid) {
+		Process proc = getProcess(pid); // Aktuelles Prozessobjekt
+		int oldPageFrameAdr = pte.getRealPageFrameAdr(); // geteilter Rahmen
+		int frame = oldPageFrameAdr >> PAGE_SIZE_POTENZ; // Rahmennummer
+		int pageSize = proc.pageTable.getPageSize();
+		int newPageFrameAdr; // Reale Adresse der privaten Kopie
+
+		eventLog.incrementCowFaults(); // Statistische Zählung
+		if (ramFrameRefCount[frame] > 1) {
+			// Rahmen wird noch von anderen Prozessen benutzt --> kopieren.
+			// Die Kopie belegt einen Rahmen wie eine neue Seite (ggf. wird
+			// eine andere Seite verdrängt), die Seite selbst darf dabei nicht
+			// ausgewählt werden.
+			proc.pageTable.pteRAMlistRemove(pte.getVirtPageNum());
+			newPageFrameAdr = getNewRAMPage(pte, pid);
+			if (newPageFrameAdr < 0) {
+				proc.pageTable.pteRAMlistInsert(pte);
+				noFrameAvailable(pid, pte.getVirtPageNum());
+				return false;
+			}
+			copyRAMPage(oldPageFrameAdr, newPageFrameAdr, pageSize);
+			if (ramFrameRefCount[frame] > 1) {
+				ramFrameRefCount[frame]--;
+			} else {
+				// die anderen Benutzer haben den Rahmen inzwischen abgegeben
+				freeRAMPage(oldPageFrameAdr, pageSize);
+			}
+			trace(EventTrace.COPY_ON_WRITE, pid, pte.getVirtPageNum(),
+					newPageFrameAdr);
+			pte.setRealPageFrameAdr(newPageFrameAdr);
+			eventLog.incrementCowCopies();
+		}
+		// Letzter Benutzer (oder private Kopie): Seite wieder beschreibbar
+		pte.setCopyOnWrite(false);
+		return true;
+	}
+
+	/**
+	 * Leere RAM-Seite zur Verf�gung stellen (ggf. alte Seite auslagern)
+	 * 
+	 * @param pid
+	 *            Prozess-Id
+	 * @return Reale RAM-Adresse einer neuen und freien Seite oder -1, wenn
+	 *         weder ein Rahmen frei ist noch eine Seite verdrängt werden kann
+	 *         (newPte ist dann nicht in der pteRAMlist)
+	 */
+	private int getNewRAMPage(PageTableEntry newPte, int pid) {
+		// Algorithmus:
+		// Anforderung einer neuen RAM-Seite f�r die gegebene newPte erf�llbar?
+		// (< MAX_RAM_PAGES_PER_PROCESS)
+		// Ja, Seitenanforderung im RAM ist erf�llbar:
+		// neue Seite belegen und Adresse zur�ckgeben
+		// Nein, Seitenanforderung im RAM ist nicht erf�llbar:
+		// eine alte Seite zur Verdr�ngung ausw�hlen -->
+		// Seitenersetzungs-Algorithmus
+		// alte Seite
+		// auf Platte auslagern (neuen Diskblock anfordern)
+		// im RAM l�schen (mit Nullen �berschreiben)
+		// Adresse als neue Seite zur�ckgeben
+		// ----------- Start ----------------
+		Process proc; // Aktuelles Prozessobjekt
+		int newPageFrameAdr = -1; // Reale Adresse einer neuen Seite im RAM
+		int replacePageFrameAdr = 0; // Reale Adresse einer zu ersetzenden Seite
+		PageTableEntry replacePte; // Eintrag f�r eine ggf. zu ersetzende Seite
+		int pageSize; // Seitengröße des Prozesses (Basis- oder Huge Page)
+
+		proc = getProcess(pid);
+		pageSize = proc.pageTable.getPageSize();
+		// Anforderung einer neuen RAM-Seite erf�llbar?
+		if (proc.pageTable.getRAMlistSize() < getMaxRAMPages(proc)) {
+			// Ja, Seitenanforderung im RAM ist erf�llbar:
+			// neue Seite belegen und Adresse zur�ckgeben
+			newPageFrameAdr = allocateRAMPage(pageSize, proc.getHomeNode());
+			// Rahmenaufteilung: die Rahmen der Quote werden ggf. noch von
+			// Prozessen über ihrer (verkleinerten) Quote gehalten
+			while (newPageFrameAdr < 0 && reclaimFrameOverQuota(proc)) {
+				newPageFrameAdr = allocateRAMPage(pageSize, proc.getHomeNode());
+			}
+		}
+		if (newPageFrameAdr < 0 && proc.pageTable.getRAMlistSize() == 0) {
+			// keine eigene Seite zum Verdrängen (die Quote ist z.B. durch
+			// Copy-on-Write geteilte Rahmen erschöpft) --> Rahmen anderer
+			// Prozesse verwenden
+			newPageFrameAdr = allocateRAMPageReclaiming(proc, pageSize);
+			if (newPageFrameAdr < 0) {
+				return -1;
+			}
+		}
+		if (newPageFrameAdr >= 0) {
+			// Liste der RAM-Seiten f�r den Prozess erweitern
+			proc.pageTable.pteRAMlistInsert(newPte);
+		} else {
+			// Nein, Seitenanforderung im RAM ist nicht erf�llbar:
+			// eine alte Seite zur Verdr�ngung ausw�hlen -->
+			// Seitenersetzungs-Algorithmus
+			replacePte = proc.pageTable.selectNextRAMpteAndReplace(newPte);
+			replacePageFrameAdr = replacePte.getRealPageFrameAdr();
+			if (swapOutPage(proc, replacePte, replacePageFrameAdr)) {
+				// alte Seite im RAM l�schen (der Seitenrahmen bleibt belegt
+				// und wird direkt für die neue Seite weiterverwendet!)
+				clearRAMPage(replacePageFrameAdr, pageSize);
+				// Adresse als neue Seite zur�ckgeben
+				newPageFrameAdr = replacePageFrameAdr;
+			} else {
+				// Seitenrahmen wird noch von anderen Prozessen benutzt
+				// (Copy-on-Write) --> neuen Rahmen belegen
+				newPageFrameAdr = allocateRAMPageReclaiming(proc, pageSize);
+				if (newPageFrameAdr < 0) {
+					proc.pageTable.pteRAMlistRemove(newPte.getVirtPageNum());
+				}
+			}
+		}
+		return newPageFrameAdr;
+	}
+
+	/**
+	 * RAM-Seite für einen Prozess belegen, der keine eigene Seite dafür
+	 * abgeben kann: ist kein Rahmen frei, werden zuerst Prozessen über ihrer
+	 * Quote, danach den Prozessen mit den meisten Seiten im RAM Seiten
+	 * entzogen
+	 * 
+	 * @param proc
+	 *            anfordernder Prozess
+	 * @param size
+	 *            Seitengröße in Byte
+	 * @return reale Adresse der RAM-Seite oder -1, wenn kein anderer Prozess
+	 *         mehr Seiten im RAM hält
+	 */
+	private int allocateRAMPageReclaiming(Process proc, int size) {
+		int newPageFrameAdr = allocateRAMPage(size, proc.getHomeNode());
+
+		while (newPageFrameAdr < 0
+				&& (reclaimFrameOverQuota(proc) || reclaimFrame(proc, false))) {
+			newPageFrameAdr = allocateRAMPage(size, proc.getHomeNode());
+		}
+		return newPageFrameAdr;
+	}
+
+	/**
+	 * Fehlermeldung, wenn für eine Seite kein Seitenrahmen beschafft werden
+	 * kann (der Zugriff wird abgewiesen)
+	 */
+	private void noFrameAvailable(int pid, int vpn) {
+		System.err.println("OS: ERROR " + pid + ": kein Seitenrahmen fuer Seite "
+				+ vpn + " frei");
+	}
+
+	/**
+	 * Ausgewählte Seite eines Prozesses verdrängen: komprimiert im Pool
+	 * ablegen oder auf die Platte auslagern und den Seitentabelleneintrag
+	 * ungültig machen
+	 * 
+	 * @param proc
+	 *            Prozess, dem die Seite gehört
+	 * @param replacePte
+	 *            Eintrag der zu verdrängenden Seite
+	 * @param replacePageFrameAdr
+	 *            deren Seitenrahmen im RAM
+	 * @return true, wenn der Seitenrahmen danach unbenutzt ist; false, wenn
+	 *         er noch von anderen Prozessen benutzt wird (Copy-on-Write, die
+	 *         eigene Referenz wurde abgegeben)
+	 */
+	private boolean swapOutPage(Process proc, PageTableEntry replacePte,
+			int replacePageFrameAdr) {
+		int pageSize = proc.pageTable.getPageSize(); // Seitengröße
+		int newDiskBlock; // Reale Adresse eines neuen Plattenblocks
+		boolean replaceFrameShared; // Rahmen der Seite ist Copy-on-Write geteilt
+
+		replaceFrameShared = ramFrameRefCount[replacePageFrameAdr >> PAGE_SIZE_POTENZ] > 1;
+		// TLB-Eintrag der verdrängten Seite ungültig machen
+		proc.tlb.invalidate(replacePte.getVirtPageNum());
+		// alte Seite komprimiert im Pool ablegen oder auf Platte
+		// auslagern (vorher neuen Diskblock anfordern)
+		// hier: IMMER zur�ckschreiben, weil keine Kopie auf der Platte
+		// bleibt
+		// (M-Bit wird also nicht benutzt!)
+		if (!swapOutToCache(proc.pid, replacePte, replacePageFrameAdr, pageSize)) {
+			newDiskBlock = allocateDiskBlock(pageSize);
+			dataTransferToDisk(proc.pid, replacePageFrameAdr, newDiskBlock,
+					pageSize);
+			// Plattenadresse in Seitentabelle eintragen (die Kopie auf
+			// der Platte gehört nur diesem Prozess)
+			replacePte.setRealPageFrameAdr(newDiskBlock);
+			trace(EventTrace.EVICT, proc.pid, replacePte.getVirtPageNum(),
+					newDiskBlock);
+		}
+		replacePte.setValid(false);
+		replacePte.setCopyOnWrite(false);
+		if (replaceFrameShared) {
+			// nur Referenz abgeben
+			ramFrameRefCount[replacePageFrameAdr >> PAGE_SIZE_POTENZ]--;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Cache-Modell: Zugriff eines Prozesses auf eine physikalische Adresse
+	 * durch L1- und L2-Cache führen und Treffer sowie modellierte
+	 * Zugriffszeit zählen. Ein Fehlzugriff in allen Stufen kostet einen
+	 * Speicherzugriff, bei NUMA abhängig vom Knoten der Adresse.
+	 * 
+	 * @param proc
+	 *            zugreifender Prozess
+	 * @param adr
+	 *            physikalische Adresse
+	 */
+	private void accessCaches(Process proc, int adr) {
+		int time = L1_LATENCY; // modellierte Zugriffszeit in ns
+
+		if (l1Cache.access(adr)) {
+			eventLog.addCacheLookup(1, true);
+		} else {
+			eventLog.addCacheLookup(1, false);
+			if (l2Cache != null) {
+				time = time + L2_LATENCY;
+				if (l2Cache.access(adr)) {
+					eventLog.addCacheLookup(2, true);
+					eventLog.addCacheAccessTime(time);
+					return;
+				}
+				eventLog.addCacheLookup(2, false);
+			}
+			if ((adr >> numaNodeShift) == proc.getHomeNode()) {
+				time = time + NUMA_LOCAL_COST;
+			} else {
+				time = time + NUMA_REMOTE_COST;
+			}
+		}
+		eventLog.addCacheAccessTime(time);
+	}
+
+	/**
+	 * Cache-Modell nach einer Parameteränderung neu (leer) aufbauen
+	 */
+	private void rebuildCaches() {
+		if (L1_CACHE_SIZE == 0) {
+			l1Cache = null;
+			l2Cache = null;
+			return;
+		}
+		l1Cache = new CacheLevel(L1_CACHE_SIZE, CACHE_LINE_SIZE,
+				L1_ASSOCIATIVITY, CACHE_REPLACEMENT);
+		l2Cache = (L2_CACHE_SIZE == 0) ? null : new CacheLevel(L2_CACHE_SIZE,
+				CACHE_LINE_SIZE, L2_ASSOCIATIVITY, CACHE_REPLACEMENT);
+	}
+
+	/**
+	 * NUMA: Zugriff eines Prozesses auf eine Seite im RAM als lokal oder
+	 * entfernt zählen und jeden NUMA_SAMPLE_INTERVAL-ten Zugriff als
+	 * Stichprobe für die Migration auswerten. Liefern mehrere
+	 * aufeinanderfolgende Stichproben eines Seitenrahmens denselben fremden
+	 * Heimatknoten, wird die Seite dorthin migriert.
+	 * 
+	 * @param proc
+	 *            zugreifender Prozess
+	 * @param pte
+	 *            Eintrag der Seite (im RAM)
+	 */
+	private void recordNodeAccess(Process proc, PageTableEntry pte) {
+		int frameAdr = pte.getRealPageFrameAdr(); // Seitenrahmen
+		int frame = frameAdr >> PAGE_SIZE_POTENZ; // Rahmennummer
+		int home = proc.getHomeNode(); // Heimatknoten des Prozesses
+		int hint; // bisherige Stichproben des Rahmens
+		int samples; // Stichproben vom Knoten home in Folge
+
+		if ((frameAdr >> numaNodeShift) == home) {
+			eventLog.addNodeAccess(true, NUMA_LOCAL_COST);
+		} else {
+			eventLog.addNodeAccess(false, NUMA_REMOTE_COST);
+		}
+		if (NUMA_SAMPLE_INTERVAL == 0
+				|| ++accessesSinceNumaSample < NUMA_SAMPLE_INTERVAL) {
+			return;
+		}
+		accessesSinceNumaSample = 0;
+		if ((frameAdr >> numaNodeShift) == home) {
+			ramFrameNodeHint[frame] = 0;
+			return;
+		}
+		hint = ramFrameNodeHint[frame];
+		samples = ((hint >>> 16) == home + 1) ? (hint & 0xFFFF) + 1 : 1;
+		ramFrameNodeHint[frame] = ((home + 1) << 16) | Math.min(samples, 0xFFFF);
+		if (samples >= NUMA_MIGRATE_THRESHOLD) {
+			migratePage(proc, pte, home);
+		}
+	}
+
+	/**
+	 * NUMA: Seite in einen freien Seitenrahmen des Knotens node kopieren und
+	 * den alten Rahmen freigeben. Seiten gemeinsamer Segmente und nach fork()
+	 * geteilte Rahmen bleiben, wo sie sind, ebenso Seiten, für die im
+	 * Zielknoten kein Rahmen frei ist.
+	 */
+	private void migratePage(Process proc, PageTableEntry pte, int node) {
+		int oldAdr = pte.getRealPageFrameAdr(); // bisheriger Seitenrahmen
+		int pageSize = proc.pageTable.getPageSize(); // Seitengröße
+		int newAdr; // Seitenrahmen im Zielknoten
+
+		if (pte.getSegment() != null
+				|| ramFrameRefCount[oldAdr >> PAGE_SIZE_POTENZ] != 1) {
+			return;
+		}
+		newAdr = allocateFromFreeList(ramFreeList, pageSize,
+				node << numaNodeShift, (node + 1) << numaNodeShift);
+		if (newAdr < 0) {
+			return;
+		}
+		ramFrameRefCount[newAdr >> PAGE_SIZE_POTENZ] = 1;
+		ramFrameNodeHint[newAdr >> PAGE_SIZE_POTENZ] = 0;
+		trace(EventTrace.RAM_ALLOC, EventTrace.NO_PID, newAdr, pageSize);
+		copyRAMPage(oldAdr, newAdr, pageSize);
+		pte.setRealPageFrameAdr(newAdr);
+		freeRAMPage(oldAdr, pageSize);
+		eventLog.incrementNumaMigrations();
+		trace(EventTrace.NUMA_MIGRATE, proc.pid, pte.getVirtPageNum(), newAdr);
+	}
+
+	/**
+	 * Verdrängte Seite komprimiert im Pool ablegen. Läuft der Pool über,
+	 * werden die ältesten Seiten auf die Platte zurückgeschrieben.
+	 * 
+	 * @param pid
+	 *            Prozess-Id
+	 * @param pte
+	 *            Seitentabelleneintrag der verdrängten Seite
+	 * @param ramAdr
+	 *            reale RAM-Adresse der Seite
+	 * @param pageSize
+	 *            Seitengröße in Byte
+	 * @return true, wenn die Seite im Pool abgelegt wurde (pte enthält dann
+	 *         die Slotnummer), false, wenn sie auf die Platte muss
+	 */
+	private boolean swapOutToCache(int pid, PageTableEntry pte, int ramAdr,
+			int pageSize) {
+		int[] words; // Datenworte der Seite
+		int[] data; // komprimierte Seite
+		long startTime; // Beginn der Kompression
+
+		if (swapCache == null) {
+			return false;
+		}
+		words = new int[pageSize / WORD_SIZE];
+		physRAM.readWords(ramAdr, IntBuffer.wrap(words));
+		startTime = System.nanoTime();
+		data = CompressedSwapCache.compress(words);
+		eventLog.addCompressionTime(System.nanoTime() - startTime);
+		if (CompressedSwapCache.getBytes(data) >= pageSize
+				|| CompressedSwapCache.getBytes(data) > swapCache.getCapacity()) {
+			// Kompression lohnt nicht --> direkt auf die Platte
+			eventLog.incrementSwapCacheRejects();
+			return false;
+		}
+		while (!swapCache.fits(CompressedSwapCache.getBytes(data))) {
+			// Pool voll --> älteste Seite auf die Platte
+			swapCacheWriteback(swapCache.getOldestSlot());
+		}
+		pte.setRealPageFrameAdr(swapCache.store(data, pageSize, pid,
+				pte.getVirtPageNum()));
+		pte.setCompressed(true);
+		eventLog.incrementSwapCacheStores();
+		trace(EventTrace.COMPRESS, pid, pte.getVirtPageNum(),
+				CompressedSwapCache.getBytes(data));
+		return true;
+	}
+
+	/**
+	 * Komprimierte Seite aus dem Pool entpacken und in den RAM schreiben
+	 * 
+	 * @param pte
+	 *            Seitentabelleneintrag (realPageFrameAdr = Slotnummer)
+	 * @param ramAdr
+	 *            reale RAM-Adresse der neuen Seite
+	 * @param pageSize
+	 *            Seitengröße in Byte
+	 */
+	private void swapInFromCache(PageTableEntry pte, int ramAdr, int pageSize) {
+		int[] words = new int[pageSize / WORD_SIZE]; // Datenworte der Seite
+		int[] data; // komprimierte Seite
+		long startTime; // Beginn der Dekompression
+
+		data = swapCache.remove(pte.getRealPageFrameAdr());
+		startTime = System.nanoTime();
+		CompressedSwapCache.decompress(data, words);
+		eventLog.addDecompressionTime(System.nanoTime() - startTime);
+		physRAM.writeWords(ramAdr, IntBuffer.wrap(words));
+		pte.setCompressed(false);
+		eventLog.incrementSwapCacheFaults();
+	}
+
+	/**
+	 * Komprimierte Seite aus dem Pool entpacken und auf die Platte schreiben;
+	 * der Seitentabelleneintrag des Besitzers erhält die Plattenadresse
+	 * 
+	 * @param slot
+	 *            Slotnummer der Seite im Pool
+	 */
+	private void swapCacheWriteback(int slot) {
+		PageTableEntry pte; // Eintrag des Besitzers
+		int ownerPid = swapCache.getOwnerPid(slot); // Besitzer der Seite
+		int pageSize = swapCache.getPageSize(slot);
+		int[] words = new int[pageSize / WORD_SIZE]; // Datenworte der Seite
+		int diskAdr; // neuer Plattenblock
+		long startTime; // Beginn der Dekompression
+
+		pte = getProcess(ownerPid).pageTable
+				.getPte(swapCache.getOwnerVpn(slot));
+		startTime = System.nanoTime();
+		CompressedSwapCache.decompress(swapCache.remove(slot), words);
+		eventLog.addDecompressionTime(System.nanoTime() - startTime);
+		diskAdr = allocateDiskBlock(pageSize);
+		physDisk.writeWords(diskAdr, IntBuffer.wrap(words));
+		eventLog.incrementDiskWrites();
+		submitDiskRequest(ownerPid, diskAdr, pageSize, true);
+		eventLog.incrementSwapCacheWritebacks();
+		pte.setRealPageFrameAdr(diskAdr);
+		pte.setCompressed(false);
+	}
+
+	/**
+	 * Schreibe das item an der realen Adresse ramAdr in den RAM
+	 * 
+	 * @param ramAdr
+	 * @param item
+	 */
+	private void writeToRAM(int ramAdr, int item) {
+		physRAM.writeWord(ramAdr, item);
+	}
+
+	/**
+	 * Lies das item an der realen Adresse ramAdr aus dem RAM
+	 * 
+	 * @param ramAdr
+	 * @return das item (0, falls die Adresse noch nie beschrieben wurde)
+	 */
+	private int readFromRAM(int ramAdr) {
+		return physRAM.readWord(ramAdr);
+	}
+
+	/**
+	 * Schreibe die Seite an der realen RAM-Adresse ramAdr auf die Platte unter
+	 * der Adresse diskAdr
+	 * 
+	 * @param pid
+	 *            Prozess-Id (Auftraggeber)
+	 * @param ramAdr
+	 * @param diskAdr
+	 * @param size
+	 *            Seitengröße in Byte
+	 */
+	private void dataTransferToDisk(int pid, int ramAdr, int diskAdr, int size) {
+		eventLog.incrementDiskWrites();
+		submitDiskRequest(pid, diskAdr, size, true);
+		physRAM.copy(ramAdr, physDisk, diskAdr, size);
+	}
+
+	/**
+	 * Schreibe den Plattenblock an der realen Plattenadresse diskAdr in den RAM
+	 * unter der Adresse ramAdr
+	 * 
+	 * @param pid
+	 *            Prozess-Id (Auftraggeber)
+	 * @param diskAdr
+	 * @param ramAdr
+	 * @param size
+	 *            Seitengröße in Byte
+	 */
+	private void dataTransferFromDisk(int pid, int diskAdr, int ramAdr,
+			int size) {
+		eventLog.incrementDiskReads();
+		submitDiskRequest(pid, diskAdr, size, false);
+		physDisk.copy(diskAdr, physRAM, ramAdr, size);
+	}
+
+	/**
+	 * Plattenauftrag an die asynchrone Warteschlange erteilen (nur bei
+	 * eingeschalteter Plattenstrategie). Die Daten werden von den
+	 * Hardware-Stubs sofort übertragen, die Warteschlange bestimmt nur die
+	 * Reihenfolge und Dauer der Bedienung. Schreibaufträge laufen im
+	 * Hintergrund, auf Leseaufträge wartet der Prozess am Ende des System
+	 * Calls.
+	 * 
+	 * @param pid
+	 *            Prozess-Id (Auftraggeber)
+	 * @param diskAdr
+	 *            Plattenadresse
+	 * @param size
+	 *            Länge in Byte
+	 * @param write
+	 *            true = Schreiben, false = Lesen
+	 */
+	private void submitDiskRequest(int pid, int diskAdr, int size,
+			boolean write) {
+		DiskRequest request; // neuer Auftrag
+		boolean merged; // mit wartendem Auftrag zusammengefasst?
+
+		if (diskQueue == null) {
+			return;
+		}
+		request = new DiskRequest(pid, diskAdr, size, write, diskListener);
+		merged = diskQueue.submit(request);
+		eventLog.incrementDiskRequests(merged, diskQueue.getQueueLength());
+		if (!write) {
+			getProcess(pid).addPendingDiskRequest(request);
+		}
+	}
+
+	/**
+	 * Auf alle erteilten Leseaufträge des Prozesses warten. Der Monitor des
+	 * Betriebssystems wird dabei freigegeben, so dass andere Prozesse
+	 * weiterarbeiten und eigene Aufträge erteilen können.
+	 * 
+	 * @param proc
+	 *            Prozessobjekt
+	 */
+	private void awaitDiskRequests(Process proc) {
+		DiskRequest request; // abzuwartender Auftrag
+		long latency; // Dauer des Seitenfehlers in ns
+
+		while ((request = proc.pollPendingDiskRequest()) != null) {
+			while (!request.isDone()) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					// Prozess wurde beendet
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+		if (proc.getFaultStartTime() != 0) {
+			// Seitenfehler inkl. Warten auf die Platte abgeschlossen
+			latency = System.nanoTime() - proc.getFaultStartTime();
+			if (proc.getProfiler() != null) {
+				proc.getProfiler().recordFaultLatency(latency);
+			}
+			if (thrashingDetector != null) {
+				thrashingDetector.recordFaultTime(latency);
+			}
+			proc.setFaultStartTime(0);
+		}
+	}
+
+	/**
+	 * Beginn eines Seitenfehlers für das Zugriffsprofil bzw. die
+	 * Lastkontrolle festhalten (die Messung endet in awaitDiskRequests, also
+	 * nach dem Einlagern)
+	 * 
+	 * @param proc
+	 *            Prozessobjekt
+	 */
+	private void startFaultTiming(Process proc) {
+		if (proc.getProfiler() != null || thrashingDetector != null) {
+			proc.setFaultStartTime(System.nanoTime());
+		}
+	}
+
+	/**
+	 * Abschluss eines Plattenauftrags erfassen und wartende Prozesse wecken
+	 * (Rückruf aus dem Plattenthread)
+	 * 
+	 * @param request
+	 *            abgeschlossener Auftrag
+	 */
+	private synchronized void diskRequestCompleted(DiskRequest request) {
+		if (request.getServiceTime() > 0) {
+			// führender Auftrag: Bedienung durch die Platte erfassen
+			eventLog.addDiskService(request.getSeekDistance(),
+					request.getServiceTime());
+		}
+		if (!request.isWrite()) {
+			eventLog.addDiskReadLatency(request.getLatency());
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Freibereichsliste als Blöcke für Adressen und Größen in einen
+	 * Sicherungspunkt schreiben
+	 */
+	private static void writeFreeList(Checkpoint cp,
+			LinkedList<FreeListBlock> freeList) {
+		int[] adrs = new int[freeList.size()]; // Startadressen
+		int[] sizes = new int[freeList.size()]; // Blockgrößen
+		int i = 0; // Index
+
+		for (FreeListBlock block : freeList) {
+			adrs[i] = block.getAdress();
+			sizes[i] = block.getSize();
+			i++;
+		}
+		cp.putInts(adrs);
+		cp.putInts(sizes);
+	}
+
+	/**
+	 * Freibereichsliste aus einem Sicherungspunkt wiederherstellen (alter
+	 * Inhalt wird ersetzt)
+	 */
+	private static void readFreeList(Checkpoint cp,
+			LinkedList<FreeListBlock> freeList) {
+		int[] adrs = cp.getInts(); // Startadressen
+		int[] sizes = cp.getInts(); // Blockgrößen
+
+		freeList.clear();
+		for (int i = 0; i < adrs.length; i++) {
+			freeList.add(new FreeListBlock(adrs[i], sizes[i]));
+		}
+	}
+
+	/**
+	 * Liefere eine freie RAM-Seite und lösche sie aus der RAM-Freibereichsliste.
+	 * Bei mehreren NUMA-Knoten wird zuerst im angegebenen Knoten gesucht, erst
+	 * danach im übrigen RAM. Ist kein passender Block frei, werden Seiten aus
+	 * dem Page Cache verdrängt.
+	 * 
+	 * @param size
+	 *            Seitengröße in Byte (PAGE_SIZE oder HUGE_PAGE_SIZE)
+	 * @param node
+	 *            bevorzugter Knoten (Heimatknoten des Prozesses)
+	 * @return reale Adresse einer freien RAM-Seite (ausgerichtet auf size)
+	 *         oder -1, wenn kein ausreichend großer Block frei ist
+	 */
+	private int allocateRAMPage(int size, int node) {
+		int freePageAdr = -1; // Rückgabeadresse
+
+		if (NUMA_NODES > 1) {
+			freePageAdr = allocateFromFreeList(ramFreeList, size,
+					node << numaNodeShift, (node + 1) << numaNodeShift);
+		}
+		if (freePageAdr < 0) {
+			freePageAdr = allocateFromFreeList(ramFreeList, size);
+		}
+		// Page Cache gibt Rahmen ab, bis die Anforderung erfüllbar ist
+		while (freePageAdr < 0 && pageCache.size() > 0) {
+			evictPageCachePage();
+			freePageAdr = allocateFromFreeList(ramFreeList, size);
+		}
+		if (freePageAdr >= 0) {
+			ramFrameRefCount[freePageAdr >> PAGE_SIZE_POTENZ] = 1;
+			ramFrameNodeHint[freePageAdr >> PAGE_SIZE_POTENZ] = 0;
+		}
+		trace(EventTrace.RAM_ALLOC, EventTrace.NO_PID, freePageAdr, size);
+		return freePageAdr;
+	}
+
+	/**
+	 * Lösche eine RAM-Seite und trage sie in die RAM-Freibereichsliste ein
+	 * 
+	 * @param ramAdr
+	 * @param size
+	 *            Seitengröße in Byte
+	 */
+	private void freeRAMPage(int ramAdr, int size) {
+		// Algorithmus:
+		// RAM-Seite mit Nullen überschreiben (Security!) und in die
+		// Freibereichsliste eintragen (benachbarte Blöcke werden dabei
+		// zusammengefasst, damit wieder Huge Pages belegt werden können)
+
+		// RAM-Seite überschreiben
+		clearRAMPage(ramAdr, size);
+		// In Freibereichsliste eintragen
+		ramFrameRefCount[ramAdr >> PAGE_SIZE_POTENZ] = 0;
+		releaseToFreeList(ramFreeList, ramAdr, size);
+		trace(EventTrace.RAM_FREE, EventTrace.NO_PID, ramAdr, size);
+	}
+
+	/**
+	 * Kopiere die Seite an der realen RAM-Adresse fromAdr nach toAdr
+	 * 
+	 * @param fromAdr
+	 * @param toAdr
+	 * @param size
+	 *            Seitengröße in Byte
+	 */
+	private void copyRAMPage(int fromAdr, int toAdr, int size) {
+		physRAM.copy(fromAdr, physRAM, toAdr, size);
+	}
+
+	/**
+	 * RAM-Seite mit Nullen überschreiben, ohne sie freizugeben
+	 * 
+	 * @param ramAdr
+	 * @param size
+	 *            Seitengröße in Byte
+	 */
+	private void clearRAMPage(int ramAdr, int size) {
+		physRAM.clear(ramAdr, size);
+	}
+
+	/**
+	 * Liefere einen freien Plattenblock und lösche ihn aus der
+	 * Platten-Freibereichsliste
+	 * 
+	 * @param size
+	 *            Blockgröße in Byte (= Seitengröße des Prozesses)
+	 * @return reale Adresse eines freien Plattenblocks oder -1, wenn die Platte
+	 *         voll ist
+	 */
+	private int allocateDiskBlock(int size) {
+		int freeBlockAdr; // Rückgabeadresse
+
+		freeBlockAdr = allocateFromFreeList(diskFreeList, size);
+		if (freeBlockAdr < 0) {
+			testOut("OS: allocateDiskBlock: Platte ist voll! --------------------------------------- ");
+		} else {
+			diskBlockRefCount[freeBlockAdr / BLOCK_SIZE] = 1;
+			trace(EventTrace.DISK_ALLOC, EventTrace.NO_PID, freeBlockAdr, size);
+		}
+		return freeBlockAdr;
+	}
+
+	/**
+	 * Lösche einen Plattenblock und trage ihn in die Platten-Freibereichsliste
+	 * ein
+	 * 
+	 * @param diskAdr
+	 * @param size
+	 *            Blockgröße in Byte
+	 */
+	private void freeDiskBlock(int diskAdr, int size) {
+		// Algorithmus:
+		// Plattenblock mit Nullen überschreiben (Security!) und in die
+		// Freibereichsliste eintragen (mit Zusammenfassung benachbarter Blöcke)
+
+		// Plattenblock überschreiben
+		physDisk.clear(diskAdr, size);
+		// In Freibereichsliste eintragen
+		diskBlockRefCount[diskAdr / BLOCK_SIZE] = 0;
+		releaseToFreeList(diskFreeList, diskAdr, size);
+		trace(EventTrace.DISK_FREE, EventTrace.NO_PID, diskAdr, size);
+	}
+
+	/**
+	 * Referenz auf einen Plattenblock abgeben: der Block wird erst gelöscht
+	 * und freigegeben, wenn ihn kein Prozess mehr benutzt
+	 * 
+	 * @param diskAdr
+	 * @param size
+	 *            Blockgröße in Byte
+	 */
+	private void releaseDiskBlock(int diskAdr, int size) {
+		if (diskBlockRefCount[diskAdr / BLOCK_SIZE] > 1) {
+			diskBlockRefCount[diskAdr / BLOCK_SIZE]--;
+		} else {
+			freeDiskBlock(diskAdr, size);
+		}
+	}
+
+	/**
+	 * First-Fit-Belegung eines auf size ausgerichteten Bereichs aus einer
+	 * (nach Adressen sortierten) Freibereichsliste. Der gefundene Block wird
+	 * in einen Rest davor und einen Rest dahinter aufgeteilt.
+	 * 
+	 * @param freeList
+	 *            Freibereichsliste
+	 * @param size
+	 *            Größe des Bereichs (Zweierpotenz)
+	 * @return Startadresse des Bereichs oder -1, wenn kein Block passt
+	 */
+	private int allocateFromFreeList(LinkedList<FreeListBlock> freeList,
+			int size) {
+		return allocateFromFreeList(freeList, size, 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Wie allocateFromFreeList(freeList, size), der Bereich muss aber
+	 * vollständig in lowAdr .. highAdr-1 liegen (NUMA-Knoten)
+	 * 
+	 * @param lowAdr
+	 *            kleinste zulässige Adresse
+	 * @param highAdr
+	 *            Ende des zulässigen Adressbereichs (exklusiv)
+	 */
+	private int allocateFromFreeList(LinkedList<FreeListBlock> freeList,
+			int size, int lowAdr, int highAdr) {
+		ListIterator<FreeListBlock> it = freeList.listIterator();
+		FreeListBlock fb; // aktuell untersuchter Block
+		int alignedAdr; // auf size ausgerichtete Adresse im Block
+		int endAdr; // Endadresse des Blocks (exklusiv)
+		int frontSize; // Restgröße vor dem belegten Bereich
+		int backSize; // Restgröße hinter dem belegten Bereich
+
+		while (it.hasNext()) {
+			fb = it.next();
+			if (fb.getAdress() >= highAdr) {
+				// Liste ist sortiert: alle weiteren Blöcke liegen dahinter
+				break;
+			}
+			alignedAdr = (Math.max(fb.getAdress(), lowAdr) + size - 1)
+					& ~(size - 1);
+			endAdr = fb.getAdress() + fb.getSize();
+			if (alignedAdr + size <= Math.min(endAdr, highAdr)) {
+				// Passender Block gefunden --> aufteilen
+				frontSize = alignedAdr - fb.getAdress();
+				backSize = endAdr - alignedAdr - size;
+				if (frontSize > 0) {
+					// Rest vor dem belegten Bereich bleibt im Block, Rest
+					// dahinter wird ein neuer Block
+					fb.setSize(frontSize);
+					if (backSize > 0) {
+						it.add(new FreeListBlock(alignedAdr + size, backSize));
+					}
+				} else if (backSize > 0) {
+					fb.setAdress(alignedAdr + size);
+					fb.setSize(backSize);
+				} else {
+					// Block wäre anschließend leer --> Löschen
+					it.remove();
+				}
+				return alignedAdr;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Bereich sortiert in eine Freibereichsliste eintragen und mit direkt
+	 * angrenzenden freien Blöcken zusammenfassen
+	 * 
+	 * @param freeList
+	 *            Freibereichsliste
+	 * @param adr
+	 *            Startadresse des Bereichs
+	 * @param size
+	 *            Größe des Bereichs
+	 */
+	private void releaseToFreeList(LinkedList<FreeListBlock> freeList,
+			int adr, int size) {
+		releaseToFreeList(freeList, new int[] { adr }, 1, size);
+	}
+
+	/**
+	 * Mehrere gleich große Bereiche auf einmal freigeben: die Adressen werden
+	 * sortiert und in einem einzigen Durchlauf durch die Liste eingefügt
+	 * 
+	 * @param freeList
+	 *            Freibereichsliste
+	 * @param adrs
+	 *            Startadressen der Bereiche (werden sortiert)
+	 * @param count
+	 *            Anzahl gültiger Einträge in adrs
+	 * @param size
+	 *            Größe jedes Bereichs
+	 */
+	private void releaseToFreeList(LinkedList<FreeListBlock> freeList,
+			int[] adrs, int count, int size) {
+		ListIterator<FreeListBlock> it = freeList.listIterator();
+		FreeListBlock prev = null; // Vorgänger des neuen Blocks
+		FreeListBlock next; // Nachfolger des neuen Blocks
+		int adr; // aktueller Bereich
+
+		Arrays.sort(adrs, 0, count);
+		for (int i = 0; i < count; i++) {
+			adr = adrs[i];
+			next = null;
+			// Einfügeposition suchen (ab der Position des vorigen Bereichs)
+			while (it.hasNext()) {
+				next = it.next();
+				if (next.getAdress() > adr) {
+					it.previous();
+					break;
+				}
+				prev = next;
+				next = null;
+			}
+			if (prev != null && prev.getAdress() + prev.getSize() == adr) {
+				// Mit Vorgänger zusammenfassen
+				prev.setSize(prev.getSize() + size);
+				if (next != null && adr + size == next.getAdress()) {
+					// ... und zusätzlich mit dem Nachfolger
+					prev.setSize(prev.getSize() + next.getSize());
+					it.next();
+					it.remove();
+				}
+			} else if (next != null && adr + size == next.getAdress()) {
+				// Mit Nachfolger zusammenfassen
+				next.setAdress(adr);
+				next.setSize(next.getSize() + size);
+			} else {
+				prev = new FreeListBlock(adr, size);
+				it.add(prev);
+			}
+		}
+	}
+
+	// ------------------------- Komprimierte Auslagerungsstufe
+	// -------------------------------
+
+	/**
+	 * @return Größe des Pools der komprimierten Auslagerungsstufe in Byte (0 =
+	 *         ausgeschaltet)
+	 */
+	public synchronized int getSWAP_CACHE_SIZE() {
+		return (swapCache == null) ? 0 : swapCache.getCapacity();
+	}
+
+	/**
+	 * Komprimierte Auslagerungsstufe (zswap) ein-, aus- oder umschalten. Der
+	 * Pool liegt im Hauptspeicher und wird wie ein gemeinsames Segment vom
+	 * für Prozesse verfügbaren RAM abgezogen; die Größe wird auf den noch
+	 * freien Anteil begrenzt. Bei Verkleinerung werden überzählige Seiten auf
+	 * die Platte zurückgeschrieben.
+	 * 
+	 * @param i
+	 *            Poolgröße in Byte, 0 = ausschalten
+	 */
+	public synchronized void setSWAP_CACHE_SIZE(int i) {
+		int oldSize = getSWAP_CACHE_SIZE();
+
+		i = Math.max(0, i);
+		i = Math.min(i, RAM_SIZE - PAGE_SIZE - getProcessRAMReservation()
+				- (reservedRAM - oldSize));
+		reservedRAM = reservedRAM - oldSize + i;
+		if (swapCache == null) {
+			swapCache = new CompressedSwapCache(i);
+		}
+		swapCache.setCapacity(i);
+		while (swapCache.getUsedBytes() > i) {
+			swapCacheWriteback(swapCache.getOldestSlot());
+		}
+		if (i == 0) {
+			swapCache = null;
+		}
+		testOut("OS: SWAP_CACHE_SIZE: " + i);
+	}
+
+	// ------------------------- Plattenstrategie
+	// -------------------------------
+
+	/**
+	 * @return Plattenstrategie (DISK_SYNCHRONOUS, FCFS, SSTF, SCAN oder
+	 *         CLOOK)
+	 */
+	public synchronized int getDISK_SCHEDULER() {
+		return (diskQueue == null) ? DISK_SYNCHRONOUS : diskQueue.getPolicy();
+	}
+
+	/**
+	 * Plattenstrategie wählen. Mit FCFS, SSTF, SCAN oder CLOOK werden
+	 * Plattentransfers über eine asynchrone Warteschlange mit Zeitmodell
+	 * bedient, DISK_SYNCHRONOUS schaltet die Warteschlange wieder ab (noch
+	 * wartende Aufträge werden vorher bedient).
+	 * 
+	 * @param i
+	 *            os.DISK_SYNCHRONOUS, os.FCFS, os.SSTF, os.SCAN oder os.CLOOK
+	 * @throws IllegalArgumentException
+	 *             bei einem anderen Wert
+	 */
+	public synchronized void setDISK_SCHEDULER(int i) {
+		if (i != DISK_SYNCHRONOUS && i != FCFS && i != SSTF && i != SCAN
+				&& i != CLOOK) {
+			throw new IllegalArgumentException("Plattenstrategie " + i
+					+ " ist nicht DISK_SYNCHRONOUS, FCFS, SSTF, SCAN oder CLOOK");
+		}
+		if (i == DISK_SYNCHRONOUS) {
+			if (diskQueue != null) {
+				diskQueue.shutdown();
+				diskQueue = null;
+			}
+		} else if (diskQueue == null) {
+			diskQueue = new DiskQueue(BLOCK_SIZE, i);
+		} else {
+			diskQueue.setPolicy(i);
+		}
+		testOut("OS: DISK_SCHEDULER: " + i);
+	}
+
+	// ------------------------- NUMA
+	// -----------------------------
+
+	/**
+	 * @return Anzahl NUMA-Speicherknoten
+	 */
+	public int getNUMA_NODES() {
+		return NUMA_NODES;
+	}
+
+	/**
+	 * Anzahl NUMA-Speicherknoten festlegen (wird auf eine Zweierpotenz
+	 * zwischen 1 und der Anzahl Seitenrahmen abgerundet). Bereits belegte
+	 * Seitenrahmen bleiben, wo sie sind; Heimatknoten außerhalb des neuen
+	 * Bereichs werden umgerechnet.
+	 * 
+	 * @param i
+	 *            Anzahl Knoten (1 = kein NUMA)
+	 */
+	public synchronized void setNUMA_NODES(int i) {
+		i = Math.max(1, Math.min(i, RAM_SIZE / PAGE_SIZE));
+		NUMA_NODES = Integer.highestOneBit(i);
+		numaNodeShift = log2(RAM_SIZE / NUMA_NODES);
+		for (Process proc : processList) {
+			proc.setHomeNode(proc.getHomeNode() % NUMA_NODES);
+		}
+		testOut("OS: NUMA_NODES: " + NUMA_NODES);
+	}
+
+	/**
+	 * @return Kosten eines Zugriffs auf den Heimatknoten in ns
+	 */
+	public int getNUMA_LOCAL_COST() {
+		return NUMA_LOCAL_COST;
+	}
+
+	/**
+	 * @param i
+	 *            Kosten eines Zugriffs auf den Heimatknoten in ns
+	 */
+	public void setNUMA_LOCAL_COST(int i) {
+		NUMA_LOCAL_COST = Math.max(0, i);
+	}
+
+	/**
+	 * @return Kosten eines Zugriffs auf einen fremden Knoten in ns
+	 */
+	public int getNUMA_REMOTE_COST() {
+		return NUMA_REMOTE_COST;
+	}
+
+	/**
+	 * @param i
+	 *            Kosten eines Zugriffs auf einen fremden Knoten in ns
+	 */
+	public void setNUMA_REMOTE_COST(int i) {
+		NUMA_REMOTE_COST = Math.max(0, i);
+	}
+
+	/**
+	 * @return jeder wievielte Zugriff als Stichprobe für die Migration
+	 *         ausgewertet wird (0 = keine Migration)
+	 */
+	public int getNUMA_SAMPLE_INTERVAL() {
+		return NUMA_SAMPLE_INTERVAL;
+	}
+
+	/**
+	 * @param i
+	 *            jeder wievielte Zugriff als Stichprobe für die Migration
+	 *            ausgewertet wird (0 = keine Migration)
+	 */
+	public void setNUMA_SAMPLE_INTERVAL(int i) {
+		NUMA_SAMPLE_INTERVAL = Math.max(0, i);
+	}
+
+	/**
+	 * @return Anzahl Stichproben in Folge vom selben fremden Knoten bis zur
+	 *         Migration
+	 */
+	public int getNUMA_MIGRATE_THRESHOLD() {
+		return NUMA_MIGRATE_THRESHOLD;
+	}
+
+	/**
+	 * @param i
+	 *            Anzahl Stichproben in Folge vom selben fremden Knoten bis
+	 *            zur Migration
+	 */
+	public void setNUMA_MIGRATE_THRESHOLD(int i) {
+		NUMA_MIGRATE_THRESHOLD = Math.max(1, i);
+	}
+
+	/**
+	 * @param pid
+	 *            Prozess-ID
+	 * @return Heimatknoten des Prozesses oder -1, wenn der Prozess nicht
+	 *         existiert
+	 */
+	public synchronized int getHomeNode(int pid) {
+		Process proc = getProcess(pid); // Prozessobjekt
+
+		if (proc == null) {
+			System.err.println("OS: getHomeNode ERROR: Prozess " + pid
+					+ " existiert nicht!");
+			return -1;
+		}
+		return proc.getHomeNode();
+	}
+
+	/**
+	 * Prozess auf eine CPU eines anderen Knotens verlegen: neue Seiten werden
+	 * dort belegt, häufig benutzte Seiten wandern über die Stichproben nach
+	 * 
+	 * @param pid
+	 *            Prozess-ID
+	 * @param node
+	 *            neuer Heimatknoten (0 .. NUMA_NODES-1)
+	 */
+	public synchronized void setHomeNode(int pid, int node) {
+		Process proc = getProcess(pid); // Prozessobjekt
+
+		if (proc == null) {
+			System.err.println("OS: setHomeNode ERROR: Prozess " + pid
+					+ " existiert nicht!");
+			return;
+		}
+		proc.setHomeNode(Math.max(0, Math.min(node, NUMA_NODES - 1)));
+	}
+
+	/**
+	 * @param node
+	 *            Knoten (0 .. NUMA_NODES-1)
+	 * @return freier RAM im Knoten in Byte
+	 */
+	public synchronized int getFreeRAMSize(int node) {
+		int low = node << numaNodeShift; // Beginn des Knotens
+		int high = (node + 1) << numaNodeShift; // Ende des Knotens
+		int free = 0; // Summe
+
+		for (FreeListBlock fb : ramFreeList) {
+			free = free
+					+ Math.max(0, Math.min(fb.getAdress() + fb.getSize(), high)
+							- Math.max(fb.getAdress(), low));
+		}
+		return free;
+	}
+
+	// ------------------------- Cache-Modell
+	// -----------------------------
+
+	/**
+	 * @return Kapazität des L1-Cache in Byte (0 = kein Cache-Modell)
+	 */
+	public int getL1_CACHE_SIZE() {
+		return L1_CACHE_SIZE;
+	}
+
+	/**
+	 * Cache-Modell ein- bzw. ausschalten. Jede Änderung der Cache-Parameter
+	 * leert beide Stufen.
+	 * 
+	 * @param i
+	 *            Kapazität des L1-Cache in Byte (0 = kein Cache-Modell)
+	 */
+	public synchronized void setL1_CACHE_SIZE(int i) {
+		L1_CACHE_SIZE = Math.max(0, i);
+		rebuildCaches();
+		testOut("OS: L1_CACHE_SIZE: " + L1_CACHE_SIZE);
+	}
+
+	/**
+	 * @return Kapazität des L2-Cache in Byte (0 = kein L2-Cache)
+	 */
+	public int getL2_CACHE_SIZE() {
+		return L2_CACHE_SIZE;
+	}
+
+	/**
+	 * @param i
+	 *            Kapazität des L2-Cache in Byte (0 = kein L2-Cache)
+	 */
+	public synchronized void setL2_CACHE_SIZE(int i) {
+		L2_CACHE_SIZE = Math.max(0, i);
+		rebuildCaches();
+	}
+
+	/**
+	 * @return Zeilengröße in Byte
+	 */
+	public int getCACHE_LINE_SIZE() {
+		return CACHE_LINE_SIZE;
+	}
+
+	/**
+	 * @param i
+	 *            Zeilengröße in Byte (wird auf eine Zweierpotenz abgerundet)
+	 */
+	public synchronized void setCACHE_LINE_SIZE(int i) {
+		CACHE_LINE_SIZE = Integer.highestOneBit(Math.max(WORD_SIZE, i));
+		rebuildCaches();
+	}
+
+	/**
+	 * @return Anzahl Wege je Menge im L1-Cache
+	 */
+	public int getL1_ASSOCIATIVITY() {
+		return L1_ASSOCIATIVITY;
+	}
+
+	/**
+	 * @param i
+	 *            Anzahl Wege je Menge im L1-Cache (Zweierpotenz bis 32)
+	 */
+	public synchronized void setL1_ASSOCIATIVITY(int i) {
+		L1_ASSOCIATIVITY = Math.max(1, i);
+		rebuildCaches();
+	}
+
+	/**
+	 * @return Anzahl Wege je Menge im L2-Cache
+	 */
+	public int getL2_ASSOCIATIVITY() {
+		return L2_ASSOCIATIVITY;
+	}
+
+	/**
+	 * @param i
+	 *            Anzahl Wege je Menge im L2-Cache (Zweierpotenz bis 32)
+	 */
+	public synchronized void setL2_ASSOCIATIVITY(int i) {
+		L2_ASSOCIATIVITY = Math.max(1, i);
+		rebuildCaches();
+	}
+
+	/**
+	 * @return Ersetzungsstrategie der Caches (CACHE_LRU oder CACHE_PLRU)
+	 */
+	public int getCACHE_REPLACEMENT() {
+		return CACHE_REPLACEMENT;
+	}
+
+	/**
+	 * @param i
+	 *            Ersetzungsstrategie der Caches (CACHE_LRU oder CACHE_PLRU)
+	 */
+	public synchronized void setCACHE_REPLACEMENT(int i) {
+		if (i == CACHE_LRU || i == CACHE_PLRU) {
+			CACHE_REPLACEMENT = i;
+			rebuildCaches();
+		}
+	}
+
+	/**
+	 * @return Zugriffszeit des L1-Cache in ns
+	 */
+	public int getL1_LATENCY() {
+		return L1_LATENCY;
+	}
+
+	/**
+	 * @param i
+	 *            Zugriffszeit des L1-Cache in ns
+	 */
+	public void setL1_LATENCY(int i) {
+		L1_LATENCY = Math.max(0, i);
+	}
+
+	/**
+	 * @return zusätzliche Zugriffszeit des L2-Cache in ns
+	 */
+	public int getL2_LATENCY() {
+		return L2_LATENCY;
+	}
+
+	/**
+	 * @param i
+	 *            zusätzliche Zugriffszeit des L2-Cache in ns
+	 */
+	public void setL2_LATENCY(int i) {
+		L2_LATENCY = Math.max(0, i);
+	}
+
+	// ------------------------- Zugriffsprofil
+	// -----------------------------
+
+	/**
+	 * @return true, wenn für jeden Prozess Wiederverwendungsdistanzen und
+	 *         Dauer der Seitenfehler erfasst werden
+	 */
+	public boolean isREUSE_PROFILING() {
+		return REUSE_PROFILING;
+	}
+
+	/**
+	 * Profilierung der Seitenzugriffe ein- bzw. ausschalten. Eingeschaltet
+	 * erhält jeder (auch jeder bereits laufende) Prozess ein leeres Profil,
+	 * aus dem sich die Miss-Ratio-Kurve (Seitenfehler je Anzahl
+	 * Seitenrahmen) ablesen lässt. Kosten je Zugriff O(log n).
+	 * 
+	 * @param b
+	 *            true = profilieren
+	 */
+	public synchronized void setREUSE_PROFILING(boolean b) {
+		REUSE_PROFILING = b;
+		for (Process proc : processList) {
+			proc.setProfiler(b ? new ReuseDistanceProfiler() : null);
+			proc.setFaultStartTime(0);
+		}
+		testOut("OS: REUSE_PROFILING: " + b);
+	}
+
+	/**
+	 * @return Automatische Rahmenaufteilung eingeschaltet?
+	 */
+	public boolean isFRAME_PARTITIONING() {
+		return FRAME_PARTITIONING;
+	}
+
+	/**
+	 * Automatische Rahmenaufteilung ein- oder ausschalten. Beim Einschalten
+	 * werden bei Bedarf die Zugriffsprofile (REUSE_PROFILING) eingeschaltet;
+	 * beim Ausschalten gilt wieder die feste Quote MAX_RAM_PAGES_PER_PROCESS:
+	 * Prozesse über der Quote lagern überzählige Seiten sofort aus, damit
+	 * verkleinerte Prozesse wieder Rahmen erhalten.
+	 * 
+	 * @param b
+	 */
+	public synchronized void setFRAME_PARTITIONING(boolean b) {
+		FRAME_PARTITIONING = b;
+		if (b) {
+			if (!REUSE_PROFILING) {
+				setREUSE_PROFILING(true);
+			}
+			rebalanceFrames();
+		} else {
+			for (Process proc : processList) {
+				proc.setFrameQuota(0);
+				proc.pageTable.setRAMlistCapacity(getMaxRAMPages(proc));
+				trimResidentSet(proc, getMaxRAMPages(proc));
+			}
+		}
+		testOut("OS: FRAME_PARTITIONING: " + b);
+	}
+
+	/**
+	 * @return Anzahl Zugriffe zwischen zwei Neuaufteilungen der Seitenrahmen
+	 */
+	public int getREBALANCE_INTERVAL() {
+		return REBALANCE_INTERVAL;
+	}
+
+	/**
+	 * @param i
+	 *            Anzahl Zugriffe zwischen zwei Neuaufteilungen der
+	 *            Seitenrahmen
+	 */
+	public synchronized void setREBALANCE_INTERVAL(int i) {
+		REBALANCE_INTERVAL = Math.max(1, i);
+		testOut("OS: REBALANCE_INTERVAL: " + REBALANCE_INTERVAL);
+	}
+
+	// ------------------------- Lastkontrolle
+	// -----------------------------
+
+	/**
+	 * @return Lastkontrolle eingeschaltet?
+	 */
+	public boolean isTHRASHING_CONTROL() {
+		return THRASHING_CONTROL;
+	}
+
+	/**
+	 * Lastkontrolle ein- oder ausschalten. Beim Ausschalten werden alle
+	 * angehaltenen Prozesse aktiviert.
 	 * 
-	 * @param pid
-	 *            Prozess-ID
-	 * @param virtAdr
-	 *            virtuelle Adresse
-	 * @param item
-	 *            Datenwort
-	 * @return 0 wenn Schreiboperation erfolgreich oder -1 bei fehlerhafter
-	 *         Adresse
+	 * @param b
 	 */
-	public synchronized int write(int pid, int virtAdr, int item) {
-		int virtualPageNum; // Virtuelle Seitennummer
-		int offset; // Offset innerhalb der Seite
-		int realAddressOfItem; // Reale Adresse des Datenworts
-		Process proc; // Aktuelles Prozessobjekt
-		PageTableEntry pte; // Eintrag f�r die zu schreibende Seite
-
-		// �bergebene Adresse pr�fen
-		if ((virtAdr < 0) || (virtAdr > VIRT_ADR_SPACE - WORD_SIZE)) {
-			System.err.println("OS: write ERROR " + pid + ": Adresse "
-					+ virtAdr
-					+ " liegt au�erhalb des virtuellen Adressraums 0 - "
-					+ VIRT_ADR_SPACE);
-			return -1;
-		}
-		// Seitenadresse berechnen
-		virtualPageNum = getVirtualPageNum(virtAdr);
-		offset = getOffset(virtAdr);
-		testOut("OS: write " + pid + " " + virtAdr + " " + item
-				+ " +++ Seitennr.: " + virtualPageNum + " Offset: " + offset);
-
-		// Seite in Seitentabelle referenzieren
-		proc = getProcess(pid);
-		pte = proc.pageTable.getPte(virtualPageNum);
-		if (pte == null) {
-			// Seite nicht vorhanden:
-			testOut("OS: write " + pid + " +++ Seitennr.: " + virtualPageNum
-					+ " in Seitentabelle nicht vorhanden");
-			pte = new PageTableEntry();
-			pte.virtPageNum = virtualPageNum;
-			// Seitenrahmen im RAM f�r die neue Seite anfordern und reale
-			// (RAM-)SeitenAdresse eintragen
-			pte.realPageFrameAdr = getNewRAMPage(pte, pid);
-			pte.valid = true;
-			// neue Seite in Seitentabelle eintragen
-			proc.pageTable.addEntry(pte);
-			testOut("OS: write " + pid + " Neue Seite " + virtualPageNum
-					+ " in Seitentabelle eingetragen! RAM-Adr.: "
-					+ pte.realPageFrameAdr);
+	public synchronized void setTHRASHING_CONTROL(boolean b) {
+		THRASHING_CONTROL = b;
+		if (b) {
+			thrashingDetector = newThrashingDetector();
 		} else {
-			// Seite vorhanden: Seite valid (im RAM)?
-			if (!pte.valid) {
-				// Seite nicht valid (also auf Platte --> Seitenfehler):
-				pte = handlePageFault(pte, pid);
+			thrashingDetector = null;
+			while (!suspendedProcesses.isEmpty()) {
+				activateProcess(suspendedProcesses.removeFirst());
 			}
 		}
-		// ------ Zustand: Seite ist in Seitentabelle und im RAM vorhanden
-
-		// Reale Adresse des Datenworts berechnen
-		realAddressOfItem = pte.realPageFrameAdr + offset;
-		// Datenwort in RAM eintragen
-		writeToRAM(realAddressOfItem, item);
-		testOut("OS: write " + pid + " +++ item: " + item
-				+ " erfolgreich an virt. Adresse " + virtAdr
-				+ " geschrieben! RAM-Adresse: " + realAddressOfItem + " \n");
-		// Seitentabelle bzgl. Zugriffshistorie aktualisieren
-		pte.referenced = true;
-		// Statistische Z�hlung
-		eventLog.incrementWriteAccesses();
-		return 0;
+		testOut("OS: THRASHING_CONTROL: " + b);
 	}
 
 	/**
-	 * Datenwort von einer Adresse im virtuellen Speicher lesen
-	 * 
-	 * @param pid
-	 *            Prozess-ID
-	 * @param virtAdr
-	 *            virtuelle Adresse
-	 * @return Datenwort auf logischer Adresse virtAdr oder -1 bei
-	 *         Zugriffsfehler
+	 * @return Fensterlänge der Überlastungserkennung in Zugriffen
 	 */
-	public synchronized int read(int pid, int virtAdr) {
-		int virtualPageNum; // Virtuelle Seitennummer
-		int offset; // Offset innerhalb der Seite
-		int realAddressOfItem; // Reale Adresse des Datenworts
-                int item; // item das aus dem Speicher gelesen wird.
-		Process proc; // Aktuelles Prozessobjekt
-		PageTableEntry pte; // Eintrag f�r die zu schreibende Seite
+	public int getTHRASHING_WINDOW() {
+		return THRASHING_WINDOW;
+	}
 
-		// �bergebene Adresse pr�fen
-		if ((virtAdr < 0) || (virtAdr > VIRT_ADR_SPACE - WORD_SIZE)) {
-			System.err.println("OS: write ERROR " + pid + ": Adresse "
-					+ virtAdr
-					+ " liegt au�erhalb des virtuellen Adressraums 0 - "
-					+ VIRT_ADR_SPACE);
-			return -1;
+	/**
+	 * @param i
+	 *            Fensterlänge der Überlastungserkennung in Zugriffen
+	 */
+	public synchronized void setTHRASHING_WINDOW(int i) {
+		THRASHING_WINDOW = Math.max(1, i);
+		if (thrashingDetector != null) {
+			thrashingDetector = newThrashingDetector();
 		}
-		// Seitenadresse berechnen
-		virtualPageNum = getVirtualPageNum(virtAdr);
-		offset = getOffset(virtAdr);
-		testOut("OS: read " + pid + " " + virtAdr + " "
-				+ " +++ Seitennr.: " + virtualPageNum + " Offset: " + offset);
+	}
 
-		// Seite in Seitentabelle referenzieren
-		proc = getProcess(pid);
-		pte = proc.pageTable.getPte(virtualPageNum);
-		if (pte == null) {
-			// Seite nicht vorhanden:
-			testOut("OS: write " + pid + " +++ Seitennr.: " + virtualPageNum
-					+ " in Seitentabelle nicht vorhanden");
-			pte = new PageTableEntry();
-			pte.virtPageNum = virtualPageNum;
-			// Seitenrahmen im RAM f�r die neue Seite anfordern und reale
-			// (RAM-)SeitenAdresse eintragen
-			pte.realPageFrameAdr = getNewRAMPage(pte, pid);
-			pte.valid = true;
-			// neue Seite in Seitentabelle eintragen
-			proc.pageTable.addEntry(pte);
-			testOut("OS: write " + pid + " Neue Seite " + virtualPageNum
-					+ " in Seitentabelle eingetragen! RAM-Adr.: "
-					+ pte.realPageFrameAdr);
-		} else {
-			// Seite vorhanden: Seite valid (im RAM)?
-			if (!pte.valid) {
-				// Seite nicht valid (also auf Platte --> Seitenfehler):
-				pte = handlePageFault(pte, pid);
-			}
-		}
-		// ------ Zustand: Seite ist in Seitentabelle und im RAM vorhanden
-                
-                // Reale Adresse des Datenworts berechnen
-		realAddressOfItem = pte.realPageFrameAdr + offset;
-                
-                // Datenwort in RAM eintragen
-		item = readFromRAM(realAddressOfItem);
-		testOut("OS: read " + pid + " +++ item: " + item
-				+ " erfolgreich an virt. Adresse " + virtAdr
-				+ " geschrieben! RAM-Adresse: " + realAddressOfItem + " \n");
-		// Seitentabelle bzgl. Zugriffshistorie aktualisieren
-		pte.referenced = true;
-		// Statistische Z�hlung
-		eventLog.incrementReadAccesses();
-		return item;
-	}
-        
-        private static double lb( double x ) 
-        { 
-            return Math.log( x ) / Math.log( 2.0 ); 
-        }
-        
-	// --------------- Private Methoden des Betriebssystems
-	// ---------------------------------
+	/**
+	 * @return Schwellwert der Seitenfehlerrate in Prozent
+	 */
+	public int getTHRASHING_FAULT_RATE() {
+		return THRASHING_FAULT_RATE;
+	}
 
 	/**
-	 * @param pid
-	 * @return Prozess-Objekt f�r die Prozess-ID
+	 * @param i
+	 *            Schwellwert der Seitenfehlerrate in Prozent
 	 */
-	private Process getProcess(int pid) {
-		return (Process) processList.get(pid);
+	public synchronized void setTHRASHING_FAULT_RATE(int i) {
+		THRASHING_FAULT_RATE = Math.max(0, Math.min(100, i));
+		if (thrashingDetector != null) {
+			thrashingDetector = newThrashingDetector();
+		}
 	}
 
 	/**
-	 * @param virtAdr
-	 *            : eine virtuelle Adresse
-	 * @return Die entsprechende virtuelle Seitennummer
+	 * @return Schwellwert des Zeitanteils in Seitenfehlern in Prozent
 	 */
-	private int getVirtualPageNum(int virtAdr) {
-                    
-                int pagenum = virtAdr >> PAGE_SIZE_POTENZ;
-                
-                //int pagenum = virtAdr / PAGE_SIZE; // Virtuelle Seite errechnen. Offset wird automatisch abgeschnitten. 
-                
-                return pagenum;
+	public int getTHRASHING_TIME_SHARE() {
+		return THRASHING_TIME_SHARE;
 	}
 
 	/**
-	 * @param virtAdr
-	 *            : eine virtuelle Adresse
-	 * @return Den entsprechenden Offset zur Berechnung der realen Adresse
+	 * @param i
+	 *            Schwellwert des Zeitanteils in Seitenfehlern in Prozent
 	 */
-	private int getOffset(int virtAdr) {
-                
-                int offset = virtAdr & (int)(Math.pow(2, PAGE_SIZE_POTENZ));
-      		//int offset = virtAdr % PAGE_SIZE; // Offset berechnen. Durch den Modulo-Operator bleibt nur der Offset über.
-                
-                return offset;
+	public synchronized void setTHRASHING_TIME_SHARE(int i) {
+		THRASHING_TIME_SHARE = Math.max(0, Math.min(100, i));
+		if (thrashingDetector != null) {
+			thrashingDetector = newThrashingDetector();
+		}
 	}
 
 	/**
-	 * Behandlung eines Seitenfehlers f�r die durch den pte beschriebene Seite
-	 * 
-	 * @param pte
-	 *            Seitentabelleneintrag
-	 * @param pid
-	 *            Prozess-Id
-	 * @return modifizierter Seitentabelleneintrag
+	 * @return Anzahl von der Lastkontrolle angehaltener Prozesse
 	 */
-	private PageTableEntry handlePageFault(PageTableEntry pte, int pid) {
-		int newPageFrameAdr; // Reale Adresse einer neuen Seite im RAM
+	public synchronized int getSuspendedProcesses() {
+		return suspendedProcesses.size();
+	}
 
-		testOut("OS: " + pid + " +++ Seitenfehler f�r Seite " + pte.virtPageNum);
-		eventLog.incrementPageFaults(); // Statistische Z�hlung
-		// neue Seite im RAM anfordern (ggf. alte Seite verdr�ngen!)
-		newPageFrameAdr = getNewRAMPage(pte, pid);
-		// Seite von Platte in neue RAM-Seite lesen (realPageAdr muss
-		// Plattenblockadresse gewesen sein!)
-		dataTransferFromDisk(pte.realPageFrameAdr, newPageFrameAdr);
-		// Plattenblock freigeben
-		freeDiskBlock(pte.realPageFrameAdr);
-		// Seitentabelle aktualisieren
-		pte.realPageFrameAdr = newPageFrameAdr;
-		pte.valid = true;
-		testOut("OS: " + pid + " +++ Seite " + pte.virtPageNum
-				+ " ist wieder im RAM an Adresse " + pte.realPageFrameAdr);
+	// ------------------------- Seitenzusammenlegung
+	// -----------------------------
 
-		return pte;
+	/**
+	 * @return Seitenzusammenlegung eingeschaltet?
+	 */
+	public boolean isSAME_PAGE_MERGING() {
+		return SAME_PAGE_MERGING;
 	}
 
 	/**
-	 * Leere RAM-Seite zur Verf�gung stellen (ggf. alte Seite auslagern)
+	 * Seitenzusammenlegung ein- oder ausschalten (startet bzw. beendet den
+	 * Scannerthread). Bereits zusammengelegte Seiten bleiben geteilt, bis
+	 * sie beschrieben werden.
 	 * 
-	 * @param pid
-	 *            Prozess-Id
-	 * @return Reale RAM-Adresse einer neuen und freien Seite
+	 * @param b
 	 */
-	private int getNewRAMPage(PageTableEntry newPte, int pid) {
-		// Algorithmus:
-		// Anforderung einer neuen RAM-Seite f�r die gegebene newPte erf�llbar?
-		// (< MAX_RAM_PAGES_PER_PROCESS)
-		// Ja, Seitenanforderung im RAM ist erf�llbar:
-		// neue Seite belegen und Adresse zur�ckgeben
-		// Nein, Seitenanforderung im RAM ist nicht erf�llbar:
-		// eine alte Seite zur Verdr�ngung ausw�hlen -->
-		// Seitenersetzungs-Algorithmus
-		// alte Seite
-		// auf Platte auslagern (neuen Diskblock anfordern)
-		// im RAM l�schen (mit Nullen �berschreiben)
-		// Adresse als neue Seite zur�ckgeben
-		// ----------- Start ----------------
-		Process proc; // Aktuelles Prozessobjekt
-		int newPageFrameAdr = 0; // Reale Adresse einer neuen Seite im RAM
-		int replacePageFrameAdr = 0; // Reale Adresse einer zu ersetzenden Seite
-		int newDiskBlock = 0; // Reale Adresse eines neuen Plattenblocks
-		PageTableEntry replacePte; // Eintrag f�r eine ggf. zu ersetzende Seite
-
-		proc = getProcess(pid);
-		// Anforderung einer neuen RAM-Seite erf�llbar?
-		if (proc.pageTable.getSize() < MAX_RAM_PAGES_PER_PROCESS) {
-			// Ja, Seitenanforderung im RAM ist erf�llbar:
-			// neue Seite belegen und Adresse zur�ckgeben
-			newPageFrameAdr = allocateRAMPage();
-			// Liste der RAM-Seiten f�r den Prozess erweitern
-			proc.pageTable.pteRAMlistInsert(newPte);
-		} else {
-			// Nein, Seitenanforderung im RAM ist nicht erf�llbar:
-			testOut("OS: getNewRAMPage " + pid + " ++ Seitenfehler f�r Seite "
-					+ newPte.virtPageNum + " --> Seitenersetzungs-Algorithmus!");
-			// eine alte Seite zur Verdr�ngung ausw�hlen -->
-			// Seitenersetzungs-Algorithmus
-			replacePte = proc.pageTable.selectNextRAMpteAndReplace(newPte);
-			replacePageFrameAdr = replacePte.realPageFrameAdr;
-			// alte Seite auf Platte auslagern (vorher neuen Diskblock
-			// anfordern)
-			// hier: IMMER zur�ckschreiben, weil keine Kopie auf der Platte
-			// bleibt
-			// (M-Bit wird also nicht benutzt!)
-			newDiskBlock = allocateDiskBlock();
-			dataTransferToDisk(replacePageFrameAdr, newDiskBlock);
-			// alte Seite im RAM l�schen
-			freeRAMPage(replacePageFrameAdr);
-			// Plattenadresse in Seitentabelle eintragen
-			replacePte.realPageFrameAdr = newDiskBlock;
-			replacePte.valid = false;
-
-			testOut("OS: getNewRAMPage " + pid + " ++ Seite "
-					+ replacePte.virtPageNum
-					+ " ist nun auf der Platte an Adresse "
-					+ replacePte.realPageFrameAdr);
-			// Adresse als neue Seite zur�ckgeben
-			newPageFrameAdr = replacePageFrameAdr;
+	public synchronized void setSAME_PAGE_MERGING(boolean b) {
+		SAME_PAGE_MERGING = b;
+		if (b && samePageScanner == null) {
+			samePageScanner = new SamePageScanner(this);
+		} else if (!b && samePageScanner != null) {
+			samePageScanner.shutdown();
+			samePageScanner = null;
+			mergeCandidates.clear();
 		}
-		return newPageFrameAdr;
+		testOut("OS: SAME_PAGE_MERGING: " + b);
 	}
 
 	/**
-	 * Schreibe das item an der realen Adresse ramAdr in den RAM
-	 * 
-	 * @param ramAdr
-	 * @param item
+	 * @return Anzahl geprüfter Seiten je Durchgang des Scanners
 	 */
-	private void writeToRAM(int ramAdr, int item) {
-		physRAM.put(new Integer(ramAdr), new Integer(item));
+	public int getMERGE_SCAN_PAGES() {
+		return MERGE_SCAN_PAGES;
 	}
 
 	/**
-	 * Lies das item an der realen Adresse ramAdr aus dem RAM
-	 * 
-	 * @param ramAdr
-	 * @return das item als positive Integerzahl oder -1, falls Adresse nicht
-	 *         belegt
+	 * @param i
+	 *            Anzahl geprüfter Seiten je Durchgang des Scanners
 	 */
-	private int readFromRAM(int ramAdr) {
-		Integer itemObject;
-		int result;
+	public synchronized void setMERGE_SCAN_PAGES(int i) {
+		MERGE_SCAN_PAGES = Math.max(1, i);
+	}
 
-		itemObject = (Integer) physRAM.get(new Integer(ramAdr));
-		if (itemObject == null) {
-			result = -1;
-		} else {
-			result = itemObject.intValue();
-		}
-		return result;
+	/**
+	 * @return Pause zwischen zwei Durchgängen des Scanners in ms
+	 */
+	public int getMERGE_SCAN_INTERVAL() {
+		return MERGE_SCAN_INTERVAL;
 	}
 
 	/**
-	 * Schreibe die Seite an der realen RAM-Adresse ramAdr auf die Platte unter
-	 * der Adresse diskAdr
-	 * 
-	 * @param ramAdr
-	 * @param diskAdr
+	 * @param i
+	 *            Pause zwischen zwei Durchgängen des Scanners in ms
 	 */
-	private void dataTransferToDisk(int ramAdr, int diskAdr) {
+	public synchronized void setMERGE_SCAN_INTERVAL(int i) {
+		MERGE_SCAN_INTERVAL = Math.max(1, i);
+	}
 
-		Integer currentWord; // aktuelles Speicherwort
-		int ri; // aktuelle Speicherwortadresse im RAM
-		int di; // aktuelle Speicherwortadresse auf der Platte
+	// ------------------------- Adressraum
+	// -----------------------------
 
-		di = diskAdr;
-		for (ri = ramAdr; ri < ramAdr + PAGE_SIZE; ri = ri + WORD_SIZE) {
-			currentWord = (Integer) physRAM.get(new Integer(ri));
-			physDisk.put(new Integer(di), currentWord);
-			di = di + WORD_SIZE;
-		}
+	/**
+	 * @return max. Größe des Stacks eines Prozesses in Byte
+	 */
+	public int getMAX_STACK_SIZE() {
+		return MAX_STACK_SIZE;
 	}
 
 	/**
-	 * Schreibe den Plattenblock an der realen Plattenadresse diskAdr in den RAM
-	 * unter der Adresse ramAdr
+	 * @param i
+	 *            max. Größe des Stacks eines Prozesses in Byte (gilt für
+	 *            künftiges Wachstum, vorhandene Stacks bleiben erhalten)
+	 */
+	public synchronized void setMAX_STACK_SIZE(int i) {
+		MAX_STACK_SIZE = Math.max(0, i);
+	}
+
+	/**
+	 * Speicherbereiche eines Prozesses ausgeben (wie /proc/pid/maps)
 	 * 
-	 * @param diskAdr
-	 * @param ramAdr
+	 * @param pid
+	 *            Prozess-ID
 	 */
-	private void dataTransferFromDisk(int diskAdr, int ramAdr) {
-		Integer currentWord; // aktuelles Speicherwort
-		int ri; // aktuelle Speicherwortadresse im RAM
-		int di; // aktuelle Speicherwortadresse auf der Platte
+	public synchronized void showAddressSpace(int pid) {
+		Process proc = getProcess(pid); // Prozessobjekt
 
-		ri = ramAdr;
-		for (di = diskAdr; di < diskAdr + BLOCK_SIZE; di = di + WORD_SIZE) {
-			currentWord = (Integer) physDisk.get(new Integer(di));
-			physRAM.put(new Integer(ri), currentWord);
-			ri = ri + WORD_SIZE;
+		if (proc == null) {
+			System.err.println("OS: showAddressSpace ERROR: Prozess " + pid
+					+ " existiert nicht!");
+			return;
+		}
+		System.out.println("Adressraum von Prozess " + pid + ":");
+		for (VMArea area : proc.addressSpace.getAreas()) {
+			System.out.println("  " + area);
 		}
 	}
 
 	/**
-	 * Liefere eine freie RAM-Seite und l�sche sie aus der RAM-Freibereichsliste
-	 * 
-	 * @return reale Adresse einer freien RAM-Seite
+	 * @param pid
+	 *            Prozess-ID
+	 * @return Zugriffsprofil des Prozesses oder null, wenn nicht profiliert
+	 *         wird oder der Prozess nicht existiert
 	 */
-	private int allocateRAMPage() {
-		// Algorithmus:
-		// 1. Block der Freibereichsliste um PAGE_SIZE verkleinern.
-		// Falls size = 0 --> l�schen!
-		FreeListBlock ramFB; // Erster Block aus Freibereichsliste
-		int freePageAdr; // R�ckgabeadresse
-
-		ramFB = (FreeListBlock) ramFreeList.getFirst();
-		freePageAdr = ramFB.getAdress();
-		// Block in Freibereichsliste aktualisieren
-		if (ramFB.getSize() == PAGE_SIZE) {
-			// Block w�re anschlie�end leer --> L�schen
-			ramFreeList.removeFirst();
-		} else {
-			ramFB.setAdress(freePageAdr + PAGE_SIZE);
-			ramFB.setSize(ramFB.getSize() - PAGE_SIZE);
-		}
-		testOut("OS: new RAM Page allocated at adress: " + freePageAdr);
-		return freePageAdr;
+	public synchronized ReuseDistanceProfiler getProfiler(int pid) {
+		Process proc = getProcess(pid); // Prozessobjekt
+
+		return (proc == null) ? null : proc.getProfiler();
 	}
 
 	/**
-	 * L�sche eine RAM-Seite und trage sie in die RAM-Freibereichsliste ein
-	 * 
-	 * @param ramAdr
+	 * Miss-Ratio-Kurve und Dauer der Seitenfehler aller profilierten
+	 * Prozesse ausgeben
 	 */
-	private void freeRAMPage(int ramAdr) {
-		// Algorithmus:
-		// RAM-Seite mit Nullen �berschreiben (Security!) und neuen
-		// Freibereichsblock erzeugen
-		// (Eine Zusammenfassung von Freibereichsbl�cken (Bereinigen der
-		// Fragmentierung) m�sste
-		// zus�tzlich implementiert werden!)
-		Integer nullWord; // Null-Speicherwort
-		int ri; // aktuelle Speicherwortadresse im RAM
-		FreeListBlock ramFB; // neuer FreeListBlock
-
-		// RAM-Seite �berschreiben
-		nullWord = new Integer(0);
-		for (ri = ramAdr; ri < ramAdr + PAGE_SIZE; ri = ri + WORD_SIZE) {
-			physRAM.put(new Integer(ri), nullWord);
+	public synchronized void showProfiles() {
+		for (Process proc : processList) {
+			if (proc.getProfiler() != null) {
+				proc.getProfiler().showReport(proc.pid, getMaxRAMPages(proc));
+			}
 		}
-		// In Freibereichsliste eintragen
-		ramFB = new FreeListBlock(ramAdr, PAGE_SIZE);
-		ramFreeList.add(ramFB);
-		Collections.sort(ramFreeList);
-		testOut("OS: RAM page released at adress: " + ramAdr);
 	}
 
+	// ------------------------- Ereignisaufzeichnung
+	// -----------------------------
+
 	/**
-	 * Liefere einen freien Plattenblock und l�sche ihn aus der
-	 * Platten-Freibereichsliste
+	 * @return Anzahl Plätze im Ringpuffer der Ereignisaufzeichnung (0 =
+	 *         Aufzeichnung ausgeschaltet)
+	 */
+	public int getTRACE_SIZE() {
+		return (eventTrace == null) ? 0 : eventTrace.getCapacity();
+	}
+
+	/**
+	 * Ereignisaufzeichnung einschalten (neuer, leerer Ringpuffer) bzw. mit 0
+	 * ausschalten. Ausgeschaltet kostet die Aufzeichnung nur eine Abfrage je
+	 * Ereignis.
 	 * 
-	 * @return reale Adresse eines freien Plattenblocks oder -1, wenn die Platte
-	 *         voll ist
+	 * @param i
+	 *            Mindestanzahl aufbewahrter Ereignisse (wird auf eine
+	 *            Zweierpotenz aufgerundet) oder 0
 	 */
-	private int allocateDiskBlock() {
-		// Algorithmus:
-		// 1. Block der Freibereichsliste um BLOCK_SIZE verkleinern. Falls size
-		// = 0 --> l�schen!
-		FreeListBlock diskFB; // Erster Block aus Freibereichsliste
-		int freeBlockAdr; // R�ckgabeadresse
-
-		diskFB = (FreeListBlock) diskFreeList.getFirst();
-		if ((diskFreeList.size() == 1) && (diskFB.getSize() == BLOCK_SIZE)) {
-			// Nur noch ein freier Block vorhanden --> Platte voll!
-			testOut("OS: allocateDiskBlock: Platte ist voll! --------------------------------------- ");
-			return -1;
-		} else {
-			freeBlockAdr = diskFB.getAdress();
-			// Block in Freibereichsliste aktualisieren
-			if (diskFB.getSize() == BLOCK_SIZE) {
-				// Block w�re anschlie�end leer --> L�schen
-				diskFreeList.removeFirst();
-			} else {
-				diskFB.setAdress(freeBlockAdr + BLOCK_SIZE);
-				diskFB.setSize(diskFB.getSize() - BLOCK_SIZE);
-			}
-			testOut("OS: new disk Block allocated at adress: " + freeBlockAdr);
-			return freeBlockAdr;
-		}
+	public synchronized void setTRACE_SIZE(int i) {
+		eventTrace = (i > 0) ? new EventTrace(i) : null;
+		testOut("OS: TRACE_SIZE: " + getTRACE_SIZE());
 	}
 
 	/**
-	 * L�sche einen Plattenblock und trage ihn in die Platten-Freibereichsliste
-	 * ein
+	 * Die noch im Ringpuffer vorhandenen Ereignisse binär in eine Datei
+	 * schreiben (Auswertung mit simulation.TraceDump)
 	 * 
-	 * @param diskAdr
+	 * @param fileName
+	 *            Dateiname
+	 * @return Anzahl geschriebener Ereignisse (0, wenn die Aufzeichnung
+	 *         ausgeschaltet ist)
+	 * @throws IOException
+	 *             bei Schreibfehlern
 	 */
-	private void freeDiskBlock(int diskAdr) {
-		// Algorithmus:
-		// Plattenblock mit Nullen �berschreiben (Security!) und neuen
-		// Freibereichsblock erzeugen
-		// (Eine Zusammenfassung von Freibereichsbl�cken (Bereinigen der
-		// Fragmentierung) m�sste
-		// zus�tzlich implementiert werden!)
-		Integer nullWord; // Null-Speicherwort
-		int di; // aktuelle Speicherwortadresse auf der Platte
-		FreeListBlock diskFB; // neuer FreeListBlock
-
-		// Plattenblock �berschreiben
-		nullWord = new Integer(0);
-		for (di = diskAdr; di < diskAdr + BLOCK_SIZE; di = di + WORD_SIZE) {
-			physDisk.put(new Integer(di), nullWord);
+	public int dumpTrace(String fileName) throws IOException {
+		EventTrace current = eventTrace; // aktueller Ringpuffer
+
+		if (current == null) {
+			return 0;
 		}
-		// In Freibereichsliste eintragen
-		diskFB = new FreeListBlock(diskAdr, BLOCK_SIZE);
-		diskFreeList.add(diskFB);
-		Collections.sort(diskFreeList);
-		testOut("OS: disk Block released at adress: " + diskAdr);
+		return current.writeTo(fileName);
 	}
 
 	// ------------------------- getter-Methoden f�r Konstanten
@@ -679,14 +4153,31 @@ public class OperatingSystem {
 	/**
 	 * @param i
 	 *            max. Anzahl Seiten pro Prozess im Hauptspeicher (sonst
-	 *            Verdr�ngung eigener Seiten)
+	 *            Verdrängung eigener Seiten). Auch während der Simulation
+	 *            änderbar: die Quote wird so begrenzt, dass alle laufenden
+	 *            Prozesse weiterhin Platz haben; Prozesse über einer
+	 *            verkleinerten Quote lagern überzählige Seiten sofort aus.
 	 */
-	public void setMAX_RAM_PAGES_PER_PROCESS(int i) {
+	public synchronized void setMAX_RAM_PAGES_PER_PROCESS(int i) {
 		i = Math.max(1, i);
 		i = Math.min(i, MAX_NO_OF_PAGES);
+		if (!processList.isEmpty()) {
+			i = Math.max(1, Math.min(i, (RAM_SIZE - PAGE_SIZE - reservedRAM)
+					/ (processList.size() * PAGE_SIZE)));
+		}
 		MAX_RAM_PAGES_PER_PROCESS = i;
+		// Prozesse mit Huge Pages belegen mindestens eine Huge Page
+		while (MAX_RAM_PAGES_PER_PROCESS > 1
+				&& getProcessRAMReservation() + reservedRAM > RAM_SIZE
+						- PAGE_SIZE) {
+			MAX_RAM_PAGES_PER_PROCESS--;
+		}
 		MAX_NUM_OF_PROCESSES = (RAM_SIZE - PAGE_SIZE)
 				/ (MAX_RAM_PAGES_PER_PROCESS * PAGE_SIZE);
+		for (Process proc : processList) {
+			proc.pageTable.setRAMlistCapacity(getMaxRAMPages(proc));
+			trimResidentSet(proc, getMaxRAMPages(proc));
+		}
 		testOut("OS: MAX_RAM_PAGES_PER_PROCESS: " + MAX_RAM_PAGES_PER_PROCESS
 				+ " MAX_NUM_OF_PROCESSES:" + MAX_NUM_OF_PROCESSES);
 	}
@@ -714,6 +4205,23 @@ public class OperatingSystem {
 		DEFAULT_LOCALITY_FACTOR = i;
 	}
 
+	/**
+	 * @return Anzahl Einträge im TLB eines Prozesses
+	 */
+	public int getTLB_SIZE() {
+		return TLB_SIZE;
+	}
+
+	/**
+	 * @param i
+	 *            Anzahl Einträge im TLB eines Prozesses (gilt für danach
+	 *            erzeugte Prozesse)
+	 */
+	public void setTLB_SIZE(int i) {
+		i = Math.max(1, i);
+		TLB_SIZE = i;
+	}
+
 	/**
 	 * @return Die L�nge eines Datenworts (in Byte)
 	 */
@@ -728,6 +4236,21 @@ public class OperatingSystem {
 		return PAGE_SIZE;
 	}
 
+	/**
+	 * @return Zweierlogarithmus der Seitengröße (Anzahl Offset-Bits)
+	 */
+	public int getPAGE_SIZE_POTENZ() {
+		return PAGE_SIZE_POTENZ;
+	}
+
+	/**
+	 * @return Die Größe einer Huge Page (in Byte) oder 0, wenn keine Huge
+	 *         Pages konfiguriert sind
+	 */
+	public int getHUGE_PAGE_SIZE() {
+		return HUGE_PAGE_SIZE;
+	}
+
 	/**
 	 * @return Die Gr��e des Hauptspeichers (in Byte)
 	 */
@@ -735,6 +4258,40 @@ public class OperatingSystem {
 		return RAM_SIZE;
 	}
 
+	/**
+	 * @return Freier Hauptspeicher laut RAM-Freibereichsliste (in Byte)
+	 */
+	public synchronized int getFreeRAMSize() {
+		int free = 0;
+
+		for (FreeListBlock fb : ramFreeList) {
+			free = free + fb.getSize();
+		}
+		return free;
+	}
+
+	/**
+	 * @return Anzahl wartender Aufträge der Plattenwarteschlange (0 bei
+	 *         synchronen Transfers)
+	 */
+	public synchronized int getDiskQueueLength() {
+		return (diskQueue == null) ? 0 : diskQueue.getQueueLength();
+	}
+
+	/**
+	 * @return Anzahl Seiten im RAM je Prozess (Prozess-ID --> Seiten, in
+	 *         aufsteigender Reihenfolge der IDs)
+	 */
+	public synchronized Map<Integer, Integer> getResidentPages() {
+		Map<Integer, Integer> pages = new TreeMap<Integer, Integer>(); // Ergebnis
+
+		for (Process proc : processList) {
+			pages.put(Integer.valueOf(proc.pid), Integer.valueOf(proc.pageTable
+					.getRAMlistSize()));
+		}
+		return pages;
+	}
+
 	/**
 	 * @return Die Gr��e des virtuellen Adressraums (in Byte)
 	 */
@@ -758,7 +4315,7 @@ public class OperatingSystem {
 	}
 
 	/**
-	 * @return 0 = CLOCK, 1 = FIFO, 2 = RANDOM
+	 * @return 0 = CLOCK, 1 = FIFO, 2 = RANDOM, 3 = CAR, 4 = TWO_Q
 	 */
 	public int getREPLACEMENT_ALGORITHM() {
 		return REPLACEMENT_ALGORITHM;
@@ -766,10 +4323,20 @@ public class OperatingSystem {
 
 	/**
 	 * @param i
-	 *            0 = CLOCK, 1 = FIFO, 2 = RANDOM
+	 *            0 = CLOCK, 1 = FIFO, 2 = RANDOM, 3 = CAR, 4 = TWO_Q. Auch
+	 *            während der Simulation änderbar: die Listen von CAR/2Q
+	 *            werden bei der nächsten Ersetzung aus der Residenzmenge
+	 *            aufgebaut.
+	 * @throws IllegalArgumentException
+	 *             bei einem anderen Wert
 	 */
-	public void setREPLACEMENT_ALGORITHM(int i) {
+	public synchronized void setREPLACEMENT_ALGORITHM(int i) {
+		if (i < CLOCK || i > TWO_Q) {
+			throw new IllegalArgumentException("Ersetzungsstrategie " + i
+					+ " ist nicht CLOCK, FIFO, RANDOM, CAR oder TWO_Q");
+		}
 		REPLACEMENT_ALGORITHM = i;
+		testOut("OS: REPLACEMENT_ALGORITHM: " + REPLACEMENT_ALGORITHM);
 	}
 
 	/**
@@ -798,4 +4365,29 @@ public class OperatingSystem {
 			System.err.println(ausgabe);
 		}
 	}
+
+	/**
+	 * Ereignis aufzeichnen (falls eingeschaltet) und im TEST-Modus als Text
+	 * ausgeben. Übergeben werden nur int-Werte, der Text entsteht erst bei
+	 * der Ausgabe.
+	 * 
+	 * @param type
+	 *            Ereignistyp (EventTrace.READ, ...)
+	 * @param pid
+	 *            Prozess-Id oder EventTrace.NO_PID
+	 * @param arg1
+	 *            erstes Argument (siehe Ereignistyp)
+	 * @param arg2
+	 *            zweites Argument (siehe Ereignistyp)
+	 */
+	void trace(int type, int pid, int arg1, int arg2) {
+		EventTrace current = eventTrace; // aktueller Ringpuffer
+
+		if (current != null) {
+			current.record(type, pid, arg1, arg2);
+		}
+		if (TEST == true) {
+			System.err.println(EventTrace.format(type, pid, arg1, arg2));
+		}
+	}
 }
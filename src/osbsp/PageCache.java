@@ -0,0 +1,125 @@
+package osbsp;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * PageCache
+ *
+ * Systemweiter Page Cache für die Seiten der Dateisegmente (mmap): alle
+ * eingelagerten Dateiseiten stehen in einem gemeinsamen Ringpuffer und
+ * werden mit dem Clock-Algorithmus verdrängt (Annäherung an LRU über das von
+ * allen einblendenden Prozessen gesetzte R-Bit). Der Page Cache hat keine
+ * feste Größe: er belegt freie Seitenrahmen und gibt sie wieder ab, sobald
+ * eine Anforderung aus der Freibereichsliste nicht mehr erfüllt werden kann.
+ */
+class PageCache {
+	private SharedSegment[] segments; // Segment der Seite je Platz
+	private int[] pageNums; // Seitennummer im Segment je Platz
+	private int size; // Anzahl belegter Plätze
+	private int hand; // Uhrzeiger
+
+	/**
+	 * Konstruktor: leerer Page Cache
+	 */
+	PageCache() {
+		segments = new SharedSegment[16];
+		pageNums = new int[16];
+		size = 0;
+		hand = 0;
+	}
+
+	/**
+	 * @return Anzahl Dateiseiten im RAM
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return Segment der Seite auf dem Platz slot
+	 */
+	SharedSegment getSegment(int slot) {
+		return segments[slot];
+	}
+
+	/**
+	 * @return Seitennummer (im Segment) der Seite auf dem Platz slot
+	 */
+	int getPageNum(int slot) {
+		return pageNums[slot];
+	}
+
+	/**
+	 * Eingelagerte Dateiseite eintragen
+	 */
+	void insert(SharedSegment seg, int pageNum) {
+		if (size == segments.length) {
+			segments = Arrays.copyOf(segments, 2 * size);
+			pageNums = Arrays.copyOf(pageNums, 2 * size);
+		}
+		segments[size] = seg;
+		pageNums[size] = pageNum;
+		size++;
+	}
+
+	/**
+	 * CLOCK-Algorithmus: Seiten mit gesetztem R-Bit erhalten eine zweite
+	 * Chance (R-Bit wird zurückgesetzt)
+	 *
+	 * @return Platz der zu verdrängenden Seite (Page Cache nicht leer)
+	 */
+	int selectVictim() {
+		PageTableEntry pte; // Eintrag der Seite unter dem Uhrzeiger
+
+		while (true) {
+			pte = segments[hand].getPte(pageNums[hand]);
+			if (!pte.isReferenced()) {
+				return hand;
+			}
+			pte.setReferenced(false);
+			hand = (hand + 1) % size;
+		}
+	}
+
+	/**
+	 * Seite austragen: der letzte Platz rückt an ihre Stelle
+	 */
+	void remove(int slot) {
+		size--;
+		segments[slot] = segments[size];
+		pageNums[slot] = pageNums[size];
+		segments[size] = null;
+		if (hand >= size) {
+			hand = 0;
+		}
+	}
+
+	/**
+	 * Ringpuffer und Uhrzeiger in einen Sicherungspunkt schreiben
+	 */
+	void writeCheckpoint(Checkpoint cp) {
+		cp.putInt(size);
+		for (int i = 0; i < size; i++) {
+			cp.putString(segments[i].getName());
+			cp.putInt(pageNums[i]);
+		}
+		cp.putInt(hand);
+	}
+
+	/**
+	 * Ringpuffer und Uhrzeiger aus einem Sicherungspunkt wiederherstellen
+	 *
+	 * @param sharedSegments
+	 *            bereits wiederhergestellte Segmente (Name --> Segment)
+	 */
+	void readCheckpoint(Checkpoint cp, Map<String, SharedSegment> sharedSegments) {
+		int count = cp.getInt(); // Anzahl Seiten
+
+		size = 0;
+		for (int i = 0; i < count; i++) {
+			insert(sharedSegments.get(cp.getString()), cp.getInt());
+		}
+		hand = cp.getInt();
+	}
+}
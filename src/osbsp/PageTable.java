@@ -3,34 +3,104 @@ import java.util.*;
 
 /**
  * PageTable.java
- * 
- * Eine Seitentabelle eines Prozesses, implementiert als Array von
- * PageTableEntry-Elementen (pte)
- * 
+ *
+ * Eine Seitentabelle eines Prozesses, implementiert als Struct of Arrays:
+ * je virtueller Seite die reale Adresse (int) und die Zustandsbits (byte)
+ * in primitiven Feldern, die Liste der Seiten im RAM als Ringpuffer von
+ * VPNs (int-Feld fester Kapazität mit Uhrzeiger). Alle Ersetzungsstrategien
+ * tauschen die ausgewählte Seite am selben Ringplatz gegen die neue Seite
+ * aus, so dass eine Ersetzung unabhängig von der Zahl der RAM-Seiten O(1)
+ * kostet (CLOCK: amortisiert). Die scan-resistenten Strategien CAR und 2Q
+ * führen zusätzlich ihre Listen in ReplacementQueues.
+ * Die Felder wachsen bei Bedarf bis zur höchsten benutzten VPN, so dass ein
+ * Prozess nur Platz für seinen tatsächlich benutzten Adressbereich belegt.
+ * PageTableEntry-Objekte (pte) sind nur Sichten auf einen Index dieser
+ * Felder. Die Seiten eines gemeinsamen Segments liegen in einer eigenen
+ * PageTable des Segments.
+ *
  */
 public class PageTable {
-	private static final int PAGETABLE_MAX_SIZE = 1000;
+	// Zustandsbits eines Eintrags
+	static final int PRESENT = 1; // Eintrag existiert
+	static final int VALID = 2; // im Hauptspeicher
+	static final int REFERENCED = 4; // Zugriff erfolgt
+	static final int MODIFIED = 8; // geändert
+	static final int COPY_ON_WRITE = 16; // Seitenrahmen nach fork() geteilt
+	static final int COMPRESSED = 32; // komprimiert im Pool
+	static final int SHARED = 64; // Seite eines eingeblendeten Segments
 
-	private PageTableEntry[] pageTableArray; // die Seitentabelle
-	private int index; // Index des ersten leeren Eintrags im Array
-	private LinkedList<PageTableEntry> pteRAMlist; // Liste aller Seiten, die
-													// sich im RAM befinden
-	private int pteRAMlistIndex; // Uhrzeiger f�r Clock-Algorithmus
+	private final int pageTableMaxSize; // max. Anzahl virtueller Seiten
+	private final int pageSize; // Seitengröße des Prozesses in Byte
+	private final int pageSizePotenz; // Zweierlogarithmus der Seitengröße
+
+	private int[] frameAdrs; // reale Adresse je Seite (bei SHARED:
+								// Seitennummer im Segment)
+	private byte[] flags; // Zustandsbits je Seite (Länge wie frameAdrs)
+	private int index; // Anzahl belegter Einträge
+	private int[] pteRAMlist; // Ringpuffer: VPNs aller Seiten im RAM
+	private int pteRAMlistSize; // Länge der pteRAMlist
+	private int pteRAMlistIndex; // Uhrzeiger f�r Clock-Algorithmus (bei FIFO:
+									// Platz der ältesten Seite)
+	private final Random random; // Zufallsgenerator für RANDOM
+	private ReplacementQueues queues; // Listen für CAR und 2Q (sonst null)
+	private SharedSegment[] mappedSegments; // eingeblendete Segmente
+	private int[] mappedBaseVpns; // Start-VPN je Segment
+	private int[] mappedFirstPages; // erste eingeblendete Segmentseite
+	private int[] mappedPageCounts; // Anzahl eingeblendeter Seiten
+	private int numOfMappedSegments; // belegte Plätze der mapped-Felder
+	private final PageTableEntry victim; // Sicht auf die zuletzt zur
+											// Verdrängung ausgewählte Seite
+	private SharedSegment segment; // Segment, dessen Seiten hier liegen
+									// (null = Seitentabelle eines Prozesses)
 
 	private OperatingSystem os;
 	private int pid;
 
 	/**
 	 * Konstruktor
+	 *
+	 * @param pageSize
+	 *            Seitengröße in Byte (Zweierpotenz: Basisseite oder Huge Page)
+	 */
+	public PageTable(OperatingSystem currentOS, int myPID, int myPageSize) {
+		this(currentOS, myPID, myPageSize, currentOS.getVIRT_ADR_SPACE()
+				/ myPageSize, null);
+	}
+
+	/**
+	 * Konstruktor für die Seiten eines gemeinsamen Segments
+	 *
+	 * @param numOfPages
+	 *            Anzahl Seiten des Segments
+	 * @param seg
+	 *            Segment, dessen Seiten die Tabelle speichert
 	 */
-	public PageTable(OperatingSystem currentOS, int myPID) {
+	PageTable(OperatingSystem currentOS, int myPageSize, int numOfPages,
+			SharedSegment seg) {
+		this(currentOS, -1, myPageSize, numOfPages, seg);
+	}
+
+	private PageTable(OperatingSystem currentOS, int myPID, int myPageSize,
+			int maxSize, SharedSegment seg) {
 		os = currentOS;
 		pid = myPID;
-		pageTableArray = new PageTableEntry[PAGETABLE_MAX_SIZE]; // die
-																	// Seitentabelle
-		index = 0; // Index auf das n�chste Element
-		pteRAMlist = new LinkedList<PageTableEntry>();
+		pageSize = myPageSize;
+		pageSizePotenz = Integer.numberOfTrailingZeros(pageSize);
+		pageTableMaxSize = maxSize;
+		frameAdrs = new int[Math.min(pageTableMaxSize, 16)]; // die
+																// Seitentabelle
+		flags = new byte[frameAdrs.length];
+		index = 0; // Anzahl Einträge
+		pteRAMlist = new int[16];
+		pteRAMlistSize = 0;
 		pteRAMlistIndex = 0;
+		random = new Random();
+		mappedSegments = new SharedSegment[0];
+		mappedBaseVpns = new int[0];
+		mappedFirstPages = new int[0];
+		mappedPageCounts = new int[0];
+		victim = new PageTableEntry();
+		segment = seg;
 	}
 
 	/**
@@ -38,30 +108,129 @@ public class PageTable {
 	 * virtuelle Seitennummer (VPN = Virtual Page Number) oder null
 	 */
 	public PageTableEntry getPte(int vpn) {
+		return getPte(vpn, null);
+	}
 
-		if ((vpn < 0) || (vpn >= index)) {
+	/**
+	 * Wie getPte(vpn), aber die übergebene Sicht wird auf den Eintrag
+	 * umgesetzt statt eine neue zu erzeugen (Zugriffspfad)
+	 *
+	 * @param view
+	 *            wiederverwendbare Sicht oder null (neue Sicht erzeugen)
+	 */
+	PageTableEntry getPte(int vpn, PageTableEntry view) {
+		if ((vpn < 0) || (vpn >= flags.length) || (flags[vpn] & PRESENT) == 0) {
 			// os.testOut("PageTable.getPte() in Prozess "+pid+": R�ckgabe null,
 			// da Seite "+vpn+" noch nicht existiert!");
 			return null;
-		} else {
-			return pageTableArray[vpn];
 		}
+		if ((flags[vpn] & SHARED) != 0) {
+			// Seite eines Segments: Eintrag liegt in der Tabelle des Segments
+			for (int i = 0; i < numOfMappedSegments; i++) {
+				if (vpn >= mappedBaseVpns[i]
+						&& vpn < mappedBaseVpns[i] + mappedPageCounts[i]) {
+					return mappedSegments[i].getPte(frameAdrs[vpn], view);
+				}
+			}
+		}
+		return view(vpn, view);
+	}
+
+	/**
+	 * Einen neuen Eintrag für die virtuelle Seitennummer vpn anlegen (valid,
+	 * noch ohne Adresse)
+	 *
+	 * @return Sicht auf den neuen Eintrag oder null bei ungültiger VPN
+	 */
+	public PageTableEntry createEntry(int vpn) {
+		return createEntry(vpn, null);
 	}
 
 	/**
-	 * Einen Eintrag (PageTableEntry) an die Seitentabelle anh�ngen. Die
-	 * Seitentabelle darf nicht sortiert werden!
+	 * Wie createEntry(vpn), setzt aber die übergebene Sicht um
+	 *
+	 * @param view
+	 *            wiederverwendbare Sicht oder null (neue Sicht erzeugen)
 	 */
-	public void addEntry(PageTableEntry pte) {
-		if (index < PAGETABLE_MAX_SIZE) {
-			pageTableArray[index] = pte;
+	PageTableEntry createEntry(int vpn, PageTableEntry view) {
+		if ((vpn >= 0) && (vpn < pageTableMaxSize)) {
+			ensureCapacity(vpn + 1);
+			if ((flags[vpn] & PRESENT) == 0) {
+				index++;
+			}
+			flags[vpn] = PRESENT | VALID;
+			frameAdrs[vpn] = -1;
 			// os.testOut("PageTable in Prozess "+pid+": Eintrag f�r Index
-			// "+index+" erfolgreich erzeugt!");
-			index++;
+			// "+vpn+" erfolgreich erzeugt!");
+			return view(vpn, view);
 		} else {
 			System.out.println("--------- Schwerer Fehler in Prozess " + pid
 					+ ": PageTable overflow!!!!");
+			return null;
+		}
+	}
+
+	/**
+	 * Gemeinsames Segment ab der virtuellen Seitennummer baseVpn einblenden:
+	 * die Einträge verweisen auf die Seiten in der Tabelle des Segments
+	 */
+	public void mapSegment(SharedSegment seg, int baseVpn) {
+		mapSegment(seg, baseVpn, 0, seg.getNumOfPages());
+	}
+
+	/**
+	 * Ausschnitt eines gemeinsamen Segments (z.B. einer Datei) einblenden:
+	 * die Seiten firstPage .. firstPage + numOfPages - 1 des Segments liegen
+	 * ab der virtuellen Seitennummer baseVpn
+	 */
+	public void mapSegment(SharedSegment seg, int baseVpn, int firstPage,
+			int numOfPages) {
+		ensureCapacity(baseVpn + numOfPages);
+		for (int i = 0; i < numOfPages; i++) {
+			if ((flags[baseVpn + i] & PRESENT) == 0) {
+				index++;
+			}
+			flags[baseVpn + i] = PRESENT | SHARED;
+			frameAdrs[baseVpn + i] = firstPage + i;
 		}
+		addMapping(seg, baseVpn, firstPage, numOfPages);
+	}
+
+	/**
+	 * Rückgabe: Anzahl eingeblendeter Segmente
+	 */
+	public int getNumOfMappedSegments() {
+		return numOfMappedSegments;
+	}
+
+	/**
+	 * Rückgabe: i-tes eingeblendetes Segment
+	 */
+	public SharedSegment getMappedSegment(int i) {
+		return mappedSegments[i];
+	}
+
+	/**
+	 * Rückgabe: VPN der ersten Seite des i-ten eingeblendeten Segments
+	 */
+	public int getMappedBaseVpn(int i) {
+		return mappedBaseVpns[i];
+	}
+
+	/**
+	 * Rückgabe: erste eingeblendete Seite (Nr. im Segment) des i-ten
+	 * eingeblendeten Segments
+	 */
+	public int getMappedFirstPage(int i) {
+		return mappedFirstPages[i];
+	}
+
+	/**
+	 * Rückgabe: Anzahl eingeblendeter Seiten des i-ten eingeblendeten
+	 * Segments
+	 */
+	public int getMappedPageCount(int i) {
+		return mappedPageCounts[i];
 	}
 
 	/**
@@ -71,111 +240,456 @@ public class PageTable {
 		return index;
 	}
 
+	/**
+	 * Rückgabe: Max. Anzahl Einträge (= größte VPN + 1)
+	 */
+	public int getMaxSize() {
+		return pageTableMaxSize;
+	}
+
+	/**
+	 * Rückgabe: Anzahl Seiten des Prozesses im RAM (Länge der pteRAMlist)
+	 */
+	public int getRAMlistSize() {
+		return pteRAMlistSize;
+	}
+
+	/**
+	 * Rückgabe: VPN der Seite auf dem Listenplatz slot der pteRAMlist (0 <=
+	 * slot < getRAMlistSize(); die Plätze ändern sich beim Ersetzen)
+	 */
+	public int getRAMlistVpn(int slot) {
+		return pteRAMlist[slot];
+	}
+
+	/**
+	 * Rückgabe: Seitengröße dieser Seitentabelle in Byte
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * Rückgabe: Anzahl Offset-Bits (virtuelle Seitennummer = virtAdr >>
+	 * pageSizePotenz)
+	 */
+	public int getPageSizePotenz() {
+		return pageSizePotenz;
+	}
+
+	/**
+	 * Rückgabe: Maske für den Offset innerhalb einer Seite (2^k - 1)
+	 */
+	public int getOffsetMask() {
+		return pageSize - 1;
+	}
+
+	/**
+	 * Rückgabe: Segment, dessen Seiten in dieser Tabelle liegen (null =
+	 * Seitentabelle eines Prozesses)
+	 */
+	public SharedSegment getSegment() {
+		return segment;
+	}
+
+	/**
+	 * Kapazität der pteRAMlist auf die max. Anzahl Seiten im RAM festlegen,
+	 * damit der Ringpuffer im Betrieb nicht mehr vergrößert werden muss
+	 */
+	public void setRAMlistCapacity(int capacity) {
+		if (capacity > pteRAMlist.length) {
+			pteRAMlist = Arrays.copyOf(pteRAMlist, capacity);
+		}
+	}
+
 	/**
 	 * Pte in pteRAMlist eintragen, wenn sich die Zahl der RAM-Seiten des
-	 * Prozesses erh�ht hat.
+	 * Prozesses erh�ht hat. Die neue Seite wird als jüngste direkt vor
+	 * dem Uhrzeiger eingefügt, damit die zyklische Reihenfolge ab dem Zeiger
+	 * für FIFO und CLOCK erhalten bleibt (auch nach removeRAMlistSlot).
 	 */
 	public void pteRAMlistInsert(PageTableEntry pte) {
-		os.testOut("pteRAMlistInsert in Prozess " + pid + ": pte mit vpn "
-				+ pte.virtPageNum + " angef�gt!");
-		pteRAMlist.add(pte);
+		boolean queued = getQueues() != null; // Listen von CAR/2Q führen?
+		int slot; // Listenplatz der neuen Seite
+
+		os.trace(EventTrace.RAM_LIST_INSERT, pid, pte.getVirtPageNum(), 0);
+		if (pteRAMlistSize == pteRAMlist.length) {
+			// nur falls die RAM-Quote zur Laufzeit erhöht wurde
+			pteRAMlist = Arrays.copyOf(pteRAMlist, 2 * pteRAMlist.length);
+		}
+		if (pteRAMlistIndex == 0) {
+			// Zeiger am Anfang: Platz vor dem Zeiger ist das Listenende
+			slot = pteRAMlistSize;
+		} else {
+			// Nachfolger ab dem Zeiger aufrücken lassen, der Zeiger bleibt
+			// auf der ältesten Seite
+			slot = pteRAMlistIndex;
+			System.arraycopy(pteRAMlist, slot, pteRAMlist, slot + 1,
+					pteRAMlistSize - slot);
+			if (queued) {
+				for (int i = slot + 1; i <= pteRAMlistSize; i++) {
+					queues.setSlot(pteRAMlist[i], i);
+				}
+			}
+			pteRAMlistIndex++;
+		}
+		pteRAMlistSize++;
+		pteRAMlist[slot] = pte.getVirtPageNum();
+		if (queued) {
+			queuesInsert(pte.getVirtPageNum(), slot, false);
+		}
+	}
+
+	/**
+	 * RAM-Seitenliste und Uhrzeiger einer anderen Seitentabelle übernehmen
+	 * (fork: Kind erbt die Residenzmenge des Elternprozesses)
+	 */
+	public void copyRAMlist(PageTable parent) {
+		pteRAMlist = Arrays.copyOf(parent.pteRAMlist, parent.pteRAMlist.length);
+		pteRAMlistSize = parent.pteRAMlistSize;
+		pteRAMlistIndex = parent.pteRAMlistIndex;
+		queues = (parent.queues == null) ? null : new ReplacementQueues(this,
+				parent.queues);
 	}
 
 	/**
 	 * Eine Seite, die sich im RAM befindet, anhand der pteRAMlist ausw�hlen und
-	 * zur�ckgeben
+	 * zur�ckgeben. Die neue Seite nimmt den Listenplatz der ausgewählten ein.
+	 * Die Seiten eines gemeinsamen Segments werden immer mit dem
+	 * Clock-Algorithmus verdrängt. Die zurückgegebene Sicht wird bei der
+	 * nächsten Auswahl in dieser Tabelle wiederverwendet.
 	 */
 	public PageTableEntry selectNextRAMpteAndReplace(PageTableEntry newPte) {
-		if (os.getREPLACEMENT_ALGORITHM() == os.CLOCK) {
-			return clockAlgorithm(newPte);
+		int slot; // Listenplatz der ausgewählten Seite
+		int vpn; // VPN der ausgewählten Seite
+
+		slot = selectRAMlistSlot();
+		vpn = pteRAMlist[slot];
+		// Alte Seite gegen neue in pteRAMlist austauschen
+		pteRAMlist[slot] = newPte.getVirtPageNum();
+		os.trace(EventTrace.SELECT, pid, vpn, slot);
+		if (queues != null) {
+			queuesInsert(newPte.getVirtPageNum(), slot, true);
+		}
+		return victim.moveTo(this, vpn);
+	}
+
+	/**
+	 * Eine Seite, die sich im RAM befindet, wie bei selectNextRAMpteAndReplace
+	 * auswählen, aber ohne Nachfolger aus der pteRAMlist entfernen (die
+	 * Residenzmenge schrumpft, z.B. wenn der Prozess seine Rahmenquote
+	 * überschreitet); die Sicht wird ebenso wiederverwendet
+	 */
+	public PageTableEntry selectNextRAMpteAndRemove() {
+		int slot; // Listenplatz der ausgewählten Seite
+		int vpn; // VPN der ausgewählten Seite
+
+		slot = selectRAMlistSlot();
+		vpn = pteRAMlist[slot];
+		removeRAMlistSlot(slot);
+		os.trace(EventTrace.SELECT, pid, vpn, slot);
+		return victim.moveTo(this, vpn);
+	}
+
+	/**
+	 * Eintrag einer virtuellen Seite löschen (z.B. wenn brk den Heap
+	 * verkleinert): die Seite wird aus der pteRAMlist und den Listen von
+	 * CAR/2Q entfernt. Seitenrahmen bzw. Plattenblock muss der Aufrufer
+	 * vorher freigeben.
+	 */
+	public void removeEntry(int vpn) {
+		if ((vpn < 0) || (vpn >= flags.length) || (flags[vpn] & PRESENT) == 0) {
+			return;
+		}
+		pteRAMlistRemove(vpn);
+		flags[vpn] = 0;
+		frameAdrs[vpn] = 0;
+		index--;
+	}
+
+	/**
+	 * Seite aus der pteRAMlist und den Listen von CAR/2Q entfernen, der
+	 * Eintrag selbst bleibt erhalten (z.B. wenn eine Seite einen neuen
+	 * Seitenrahmen erhält oder kein Rahmen für sie frei ist)
+	 */
+	public void pteRAMlistRemove(int vpn) {
+		for (int slot = 0; slot < pteRAMlistSize; slot++) {
+			if (pteRAMlist[slot] == vpn) {
+				removeRAMlistSlot(slot);
+				break;
+			}
+		}
+		if (queues != null) {
+			queues.remove(vpn);
+		}
+	}
+
+	/**
+	 * Rückgabe: Listenplatz der nach der Ersetzungsstrategie zu verdrängenden
+	 * Seite
+	 */
+	private int selectRAMlistSlot() {
+		if (getQueues() != null) {
+			return queues.getSlot(queues.selectVictim());
+		}
+		if (segment != null || os.getREPLACEMENT_ALGORITHM() == os.CLOCK) {
+			return clockAlgorithm();
 		} else {
 			if (os.getREPLACEMENT_ALGORITHM() == os.FIFO) {
-				return fifoAlgorithm(newPte);
+				return fifoAlgorithm();
 			} else {
-				return randomAlgorithm(newPte);
+				return randomAlgorithm();
 			}
 		}
 	}
 
 	/**
-	 * FIFO-Algorithmus: Auswahl = Listenkopf (1. Element) Anschlie�end
-	 * Listenkopf l�schen, neue Seite (newPte) an Liste anh�ngen
+	 * FIFO-Algorithmus: Auswahl = älteste Seite. Da die Liste bei einer
+	 * Ersetzung voll ist, steht die älteste Seite immer am Uhrzeiger; die neue
+	 * Seite nimmt ihren Platz ein und wird damit zur jüngsten, der Zeiger
+	 * rückt auf die nächstälteste Seite weiter (kein Verschieben der Liste).
 	 */
-	private PageTableEntry fifoAlgorithm(PageTableEntry newPte) {
-		PageTableEntry pte; // Auswahl
+	private int fifoAlgorithm() {
+		int slot = pteRAMlistIndex; // Auswahl
 
-		pte = (PageTableEntry) pteRAMlist.getFirst();
-		os.testOut("Prozess " + pid + ": FIFO-Algorithmus hat pte ausgew�hlt: "
-				+ pte.virtPageNum);
-		pteRAMlist.removeFirst();
-		pteRAMlist.add(newPte);
-		return pte;
+		incrementPteRAMlistIndex();
+		return slot;
 	}
 
 	/**
 	 * CLOCK-Algorithmus (Second-Chance): N�chstes Listenelement, ausgehend vom
 	 * aktuellen Index, mit Referenced-Bit = 0 (false) ausw�hlen Sonst R-Bit auf
-	 * 0 setzen und n�chstes Element in der pteRAMlist untersuchen. Anschlie�end
-	 * die ausgew�hlte Seite durch die neue Seite (newPte) am selben Listenplatz
-	 * ersetzen
+	 * 0 setzen und n�chstes Element in der pteRAMlist untersuchen. Die neue
+	 * Seite ersetzt anschlie�end die ausgew�hlte am selben Listenplatz.
 	 */
-	private PageTableEntry clockAlgorithm(PageTableEntry newPte) {
-		PageTableEntry pte; // Aktuell untersuchter Seitentabelleneintrag
+	private int clockAlgorithm() {
+		int vpn; // Aktuell untersuchte Seite
+		int slot; // Auswahl
 
 		// Immer ab altem "Uhrzeigerstand" weitersuchen
-		pte = (PageTableEntry) pteRAMlist.get(pteRAMlistIndex);
+		vpn = pteRAMlist[pteRAMlistIndex];
 
 		// Suche den n�chsten Eintrag mit referenced == false (R-Bit = 0)
-		while (pte.referenced == true) {
+		while ((flags[vpn] & REFERENCED) != 0) {
 			// Seite wurde referenziert, also nicht ausw�hlen, sondern R-Bit
 			// zur�cksetzen
-			os.testOut("Prozess " + pid + ": CLOCK-Algorithmus! --- pte.vpn: "
-					+ pte.virtPageNum + " ref: " + pte.referenced);
-			pte.referenced = false;
+			os.trace(EventTrace.CLOCK_SKIP, pid, vpn, 0);
+			flags[vpn] = (byte) (flags[vpn] & ~REFERENCED);
 			incrementPteRAMlistIndex();
-			pte = (PageTableEntry) pteRAMlist.get(pteRAMlistIndex);
+			vpn = pteRAMlist[pteRAMlistIndex];
 		}
 
 		// Seite ausgew�hlt! (--> pteRAMlistIndex)
-		// Alte Seite gegen neue in pteRAMlist austauschen
-		pteRAMlist.remove(pteRAMlistIndex);
-		pteRAMlist.add(pteRAMlistIndex, newPte);
+		slot = pteRAMlistIndex;
 		// Index auf Nachfolger setzen
 		incrementPteRAMlistIndex();
-		os.testOut("Prozess " + pid
-				+ ": CLOCK-Algorithmus hat pte ausgew�hlt: " + pte.virtPageNum
-				+ "  Neuer pteRAMlistIndex ist " + pteRAMlistIndex);
+		return slot;
+	}
 
-		return pte;
+	/**
+	 * RANDOM-Algorithmus: Zuf�llige Auswahl
+	 */
+	private int randomAlgorithm() {
+		return random.nextInt(pteRAMlistSize);
 	}
 
 	/**
-	 * RANDOM-Algorithmus: Zuf�llige Auswahl 
+	 * Rückgabe: Listen der Strategie CAR bzw. 2Q oder null bei den übrigen
+	 * Strategien und für gemeinsame Segmente. Nach einem Wechsel der
+	 * Strategie werden die Listen aus der pteRAMlist neu aufgebaut (alle
+	 * Seiten gelten als einmal benutzt, keine Geister).
 	 */
-	private PageTableEntry randomAlgorithm(PageTableEntry newPte) {
-		PageTableEntry pte; // Aktuell untersuchter Seitentabelleneintrag
-                
+	private ReplacementQueues getQueues() {
+		int algorithm = os.getREPLACEMENT_ALGORITHM(); // aktuelle Strategie
 
+		if (segment != null || (algorithm != os.CAR && algorithm != os.TWO_Q)) {
+			queues = null;
+		} else if (queues == null || queues.getAlgorithm() != algorithm) {
+			queues = new ReplacementQueues(this, algorithm,
+					algorithm == os.TWO_Q, pteRAMlist, pteRAMlistSize);
+		}
+		return queues;
+	}
 
-		// Seite ausgew�hlt! (--> pteRAMlistIndex)
-		// Alte Seite gegen neue in pteRAMlist austauschen
-                Random randomPageNum = new Random();
-                int randomIndex = randomPageNum.nextInt(pteRAMlist.size());
-                pte = (PageTableEntry) pteRAMlist.get(randomIndex);
-		pteRAMlist.remove(randomIndex);
-		pteRAMlist.add(randomIndex, newPte);
+	/**
+	 * Neu eingelagerte Seite in die Listen von CAR bzw. 2Q aufnehmen
+	 */
+	private void queuesInsert(int vpn, int slot, boolean replacing) {
+		int ghost = queues.insert(vpn, slot, replacing); // Geisterliste
 
-		os.testOut("Prozess " + pid
-				+ ": Rand-Algorithmus hat pte ausgew�hlt: " + pte.virtPageNum
-				+ "  Neuer pteRAMlistIndex ist " + pteRAMlistIndex);
+		if (ghost != ReplacementQueues.NONE) {
+			os.trace(EventTrace.GHOST_HIT, pid, vpn, ghost);
+		}
+	}
 
-		return pte;
+	/**
+	 * Überspringen einer referenzierten Seite durch eine Uhr von CAR bzw. 2Q
+	 * aufzeichnen
+	 */
+	void traceClockSkip(int vpn) {
+		os.trace(EventTrace.CLOCK_SKIP, pid, vpn, 0);
 	}
-	
+
+	// ----------------------- Zugriff für PageTableEntry ------------------
+
+	/**
+	 * Rückgabe: reale Adresse des Eintrags
+	 */
+	int getFrameAdr(int vpn) {
+		return frameAdrs[vpn];
+	}
+
+	/**
+	 * Reale Adresse des Eintrags setzen
+	 */
+	void setFrameAdr(int vpn, int adr) {
+		frameAdrs[vpn] = adr;
+	}
+
+	/**
+	 * Rückgabe: true, wenn das Zustandsbit flag des Eintrags gesetzt ist
+	 */
+	boolean hasFlag(int vpn, int flag) {
+		return (flags[vpn] & flag) != 0;
+	}
+
+	/**
+	 * Zustandsbit flag des Eintrags setzen bzw. löschen
+	 */
+	void setFlag(int vpn, int flag, boolean b) {
+		if (b) {
+			flags[vpn] = (byte) (flags[vpn] | flag);
+		} else {
+			flags[vpn] = (byte) (flags[vpn] & ~flag);
+		}
+	}
+
+	// ----------------------- Sicherungspunkte ----------------------------
+
+	/**
+	 * Zustand der Seitentabelle (Adress- und Zustandsfelder, RAM-Liste,
+	 * Uhrzeiger, Listen von CAR/2Q und eingeblendete Segmente) in einen Sicherungspunkt
+	 * schreiben
+	 */
+	public void writeCheckpoint(Checkpoint cp) {
+		cp.putInt(index);
+		cp.putInts(frameAdrs);
+		cp.putBytes(flags);
+		cp.putInts(Arrays.copyOf(pteRAMlist, pteRAMlistSize));
+		cp.putInt(pteRAMlistIndex);
+		cp.putInt((queues == null) ? -1 : queues.getAlgorithm());
+		if (queues != null) {
+			queues.writeCheckpoint(cp);
+		}
+		cp.putInt(numOfMappedSegments);
+		for (int i = 0; i < numOfMappedSegments; i++) {
+			cp.putString(mappedSegments[i].getName());
+			cp.putInt(mappedBaseVpns[i]);
+			cp.putInt(mappedFirstPages[i]);
+			cp.putInt(mappedPageCounts[i]);
+		}
+	}
+
+	/**
+	 * Zustand der (leeren) Seitentabelle aus einem Sicherungspunkt
+	 * wiederherstellen
+	 *
+	 * @param segments
+	 *            bereits wiederhergestellte gemeinsame Segmente (Name -->
+	 *            Segment)
+	 */
+	public void readCheckpoint(Checkpoint cp, Map<String, SharedSegment> segments) {
+		int count; // Anzahl eingeblendeter Segmente
+		int[] ramPages; // VPNs der Seiten im RAM
+		int algorithm; // Strategie der gesicherten Listen (-1 = keine)
+
+		index = cp.getInt();
+		frameAdrs = cp.getInts();
+		flags = cp.getBytes();
+		// Kapazität des Ringpuffers beibehalten
+		ramPages = cp.getInts();
+		pteRAMlistSize = ramPages.length;
+		pteRAMlist = Arrays.copyOf(ramPages, Math.max(ramPages.length,
+				pteRAMlist.length));
+		pteRAMlistIndex = cp.getInt();
+		algorithm = cp.getInt();
+		if (algorithm >= 0) {
+			queues = new ReplacementQueues(this, algorithm,
+					algorithm == os.TWO_Q, pteRAMlist, 0);
+			queues.readCheckpoint(cp);
+		}
+		count = cp.getInt();
+		for (int i = 0; i < count; i++) {
+			addMapping(segments.get(cp.getString()), cp.getInt(), cp.getInt(),
+					cp.getInt());
+		}
+	}
+
 	// ----------------------- Hilfsmethode --------------------------------
+	private void ensureCapacity(int size) {
+		// Felder verdoppeln, bis Einträge 0 .. size-1 Platz haben
+		int newLength = flags.length;
+
+		if (size > newLength) {
+			while (newLength < size) {
+				newLength = 2 * newLength;
+			}
+			newLength = Math.min(newLength, pageTableMaxSize);
+			frameAdrs = Arrays.copyOf(frameAdrs, newLength);
+			flags = Arrays.copyOf(flags, newLength);
+		}
+	}
+
+	private PageTableEntry view(int vpn, PageTableEntry view) {
+		// übergebene Sicht umsetzen, ohne Sicht eine neue erzeugen
+		return (view == null) ? new PageTableEntry(this, vpn) : view.moveTo(
+				this, vpn);
+	}
+
+	private void addMapping(SharedSegment seg, int baseVpn, int firstPage,
+			int numOfPages) {
+		// mapped-Felder bei Bedarf um einen Platz verlängern
+		if (numOfMappedSegments == mappedSegments.length) {
+			mappedSegments = Arrays.copyOf(mappedSegments,
+					numOfMappedSegments + 1);
+			mappedBaseVpns = Arrays.copyOf(mappedBaseVpns,
+					numOfMappedSegments + 1);
+			mappedFirstPages = Arrays.copyOf(mappedFirstPages,
+					numOfMappedSegments + 1);
+			mappedPageCounts = Arrays.copyOf(mappedPageCounts,
+					numOfMappedSegments + 1);
+		}
+		mappedSegments[numOfMappedSegments] = seg;
+		mappedBaseVpns[numOfMappedSegments] = baseVpn;
+		mappedFirstPages[numOfMappedSegments] = firstPage;
+		mappedPageCounts[numOfMappedSegments] = numOfPages;
+		numOfMappedSegments++;
+	}
+
+	private void removeRAMlistSlot(int slot) {
+		// Nachfolger aufrücken lassen (Reihenfolge bleibt für FIFO erhalten)
+		System.arraycopy(pteRAMlist, slot + 1, pteRAMlist, slot,
+				pteRAMlistSize - slot - 1);
+		pteRAMlistSize--;
+		if (queues != null) {
+			for (int i = slot; i < pteRAMlistSize; i++) {
+				queues.setSlot(pteRAMlist[i], i);
+			}
+		}
+		if (pteRAMlistIndex > slot) {
+			pteRAMlistIndex--;
+		}
+		if (pteRAMlistIndex >= pteRAMlistSize) {
+			pteRAMlistIndex = 0;
+		}
+	}
+
 	private void incrementPteRAMlistIndex() {
 		// ramPteIndex zirkular hochz�hlen zwischen 0 .. Listengr��e-1
-		pteRAMlistIndex = (pteRAMlistIndex + 1) % pteRAMlist.size();
+		pteRAMlistIndex++;
+		if (pteRAMlistIndex >= pteRAMlistSize) {
+			pteRAMlistIndex = 0;
+		}
 	}
 
 }
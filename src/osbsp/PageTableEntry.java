@@ -2,33 +2,176 @@ package osbsp;
 
 /**
  * PageTableEntry (pte)
- * 
- * Daten eines Seitentabelleneintrags
- * 
+ *
+ * Sicht auf einen Seitentabelleneintrag. Die Daten selbst liegen kompakt in
+ * den Feldern der Seitentabelle (Adresse als int, Zustandsbits als byte je
+ * Seite); ein PageTableEntry-Objekt verweist nur auf Tabelle und Index und
+ * kann jederzeit neu erzeugt werden. Alle Sichten auf denselben Eintrag
+ * sehen denselben Zustand. Auf den häufigen Wegen (Zugriff, Seitenfehler,
+ * Auswahl der zu verdrängenden Seite) werden wiederverwendbare Sichten
+ * umgesetzt statt neu erzeugt; eine solche Sicht gilt nur bis zum nächsten
+ * Umsetzen.
+ *
  */
 public class PageTableEntry {
-	// virtPageNum: Virtuelle Seitennummer (VSN - engl. VPN)
-	public int virtPageNum;
-	// realPageFrameAdr: reale RAM- oder Plattenblockadresse des Seitenrahmens;
-	// auf die Verwendung von Seitenrahmennummern oder eine gesonderte
-	// Plattenblockverwaltung wird hier einfachheitshalber verzichtet
-	public int realPageFrameAdr;
-	// valid: true = im Hauptspeicher, false = auf Platte
-	public boolean valid;
-	// referenced: Referenziert, d.h. Zugriff erfolgt?
-	public boolean referenced;
-	// modified: Hier nicht verwendet, da keine Kopie einer Seite auf der Platte
-	// gehalten wird
-	public boolean modified;
-
-	/**
-	 * Konstruktor: Belegung mit Default-Werten
-	 */
-	public PageTableEntry() {
-		virtPageNum = 0;
-		realPageFrameAdr = -1;
-		valid = true;
-		referenced = false;
-		modified = false;
+	private PageTable table; // Tabelle, in der der Eintrag liegt
+	private int index; // Index in der Tabelle (VPN bzw. Seite im Segment)
+
+	/**
+	 * Konstruktor (nur für die Seitentabelle)
+	 *
+	 * @param table
+	 *            Tabelle, in der der Eintrag liegt
+	 * @param index
+	 *            Index in der Tabelle
+	 */
+	PageTableEntry(PageTable table, int index) {
+		this.table = table;
+		this.index = index;
+	}
+
+	/**
+	 * Konstruktor für eine wiederverwendbare Sicht, die noch auf keinen
+	 * Eintrag zeigt (erst nach moveTo benutzbar)
+	 */
+	PageTableEntry() {
+	}
+
+	/**
+	 * Sicht auf einen anderen Eintrag umsetzen
+	 *
+	 * @param table
+	 *            Tabelle, in der der Eintrag liegt
+	 * @param index
+	 *            Index in der Tabelle
+	 * @return diese Sicht
+	 */
+	PageTableEntry moveTo(PageTable table, int index) {
+		this.table = table;
+		this.index = index;
+		return this;
+	}
+
+	/**
+	 * @return Tabelle, in der der Eintrag liegt
+	 */
+	PageTable getTable() {
+		return table;
+	}
+
+	/**
+	 * @return Virtuelle Seitennummer (VSN - engl. VPN); bei Seiten eines
+	 *         gemeinsamen Segments die Seitennummer im Segment
+	 */
+	public int getVirtPageNum() {
+		return index;
+	}
+
+	/**
+	 * @return reale RAM- oder Plattenblockadresse des Seitenrahmens (bzw.
+	 *         Slotnummer im komprimierten Pool); auf die Verwendung von
+	 *         Seitenrahmennummern oder eine gesonderte Plattenblockverwaltung
+	 *         wird hier einfachheitshalber verzichtet
+	 */
+	public int getRealPageFrameAdr() {
+		return table.getFrameAdr(index);
+	}
+
+	/**
+	 * @param adr
+	 *            reale RAM- oder Plattenblockadresse bzw. Slotnummer
+	 */
+	public void setRealPageFrameAdr(int adr) {
+		table.setFrameAdr(index, adr);
+	}
+
+	/**
+	 * @return true = im Hauptspeicher, false = auf Platte
+	 */
+	public boolean isValid() {
+		return table.hasFlag(index, PageTable.VALID);
+	}
+
+	/**
+	 * @param b
+	 *            true = im Hauptspeicher, false = auf Platte
+	 */
+	public void setValid(boolean b) {
+		table.setFlag(index, PageTable.VALID, b);
+	}
+
+	/**
+	 * @return Referenziert, d.h. Zugriff erfolgt?
+	 */
+	public boolean isReferenced() {
+		return table.hasFlag(index, PageTable.REFERENCED);
+	}
+
+	/**
+	 * @param b
+	 *            Referenziert-Bit
+	 */
+	public void setReferenced(boolean b) {
+		table.setFlag(index, PageTable.REFERENCED, b);
+	}
+
+	/**
+	 * @return Modified-Bit (hier nicht verwendet, da keine Kopie einer Seite
+	 *         auf der Platte gehalten wird)
+	 */
+	public boolean isModified() {
+		return table.hasFlag(index, PageTable.MODIFIED);
+	}
+
+	/**
+	 * @param b
+	 *            Modified-Bit
+	 */
+	public void setModified(boolean b) {
+		table.setFlag(index, PageTable.MODIFIED, b);
+	}
+
+	/**
+	 * @return true, wenn der Seitenrahmen nach fork() mit anderen Prozessen
+	 *         geteilt ist (vor dem ersten Schreibzugriff muss eine private
+	 *         Kopie angelegt werden)
+	 */
+	public boolean isCopyOnWrite() {
+		return table.hasFlag(index, PageTable.COPY_ON_WRITE);
+	}
+
+	/**
+	 * @param b
+	 *            Copy-on-Write-Bit
+	 */
+	public void setCopyOnWrite(boolean b) {
+		table.setFlag(index, PageTable.COPY_ON_WRITE, b);
+	}
+
+	/**
+	 * @return true, wenn die Seite komprimiert im Pool der
+	 *         Auslagerungsstufe liegt (realPageFrameAdr ist dann die
+	 *         Slotnummer, nur bei valid = false)
+	 */
+	public boolean isCompressed() {
+		return table.hasFlag(index, PageTable.COMPRESSED);
+	}
+
+	/**
+	 * @param b
+	 *            Kennzeichen "komprimiert im Pool"
+	 */
+	public void setCompressed(boolean b) {
+		table.setFlag(index, PageTable.COMPRESSED, b);
+	}
+
+	/**
+	 * @return gemeinsames Segment, zu dem die Seite gehört (null = private
+	 *         Seite). Der Eintrag erscheint dann in den Seitentabellen aller
+	 *         einblendenden Prozesse, getVirtPageNum() ist die Seitennummer
+	 *         im Segment.
+	 */
+	public SharedSegment getSegment() {
+		return table.getSegment();
 	}
 }
@@ -0,0 +1,259 @@
+package osbsp;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * PhysicalMemory
+ *
+ * Hardware-Stub für physikalischen Speicher (RAM oder Platte): ein
+ * zusammenhängender Bereich außerhalb des Java-Heaps (direkter ByteBuffer in
+ * nativer Bytereihenfolge), auf den wortweise über die Byteadresse
+ * zugegriffen wird. Da weder Schlüssel- noch Wertobjekte entstehen, bleiben
+ * Heap-Belegung und GC-Pausen unabhängig von der simulierten Speichergröße;
+ * Größen bis knapp 2 GB sind möglich (der direkte Speicher der JVM muss
+ * ggf. mit -XX:MaxDirectMemorySize vergrößert werden).
+ *
+ * Der Speicher ist beim Anlegen mit Nullen gefüllt. Ganze Seiten werden als
+ * Block kopiert (copy, auch zwischen RAM und Platte), gelöscht (clear) und
+ * verglichen (isEqual); Folgen von Datenworten werden mit readWords und
+ * writeWords übertragen. Die Blockoperationen der NIO-Puffer arbeiten intern
+ * mit memcpy bzw. vektorisierten Vergleichen statt wortweise.
+ */
+public class PhysicalMemory {
+	/**
+	 * Blockgröße, in der der Inhalt in Sicherungspunkte geschrieben wird
+	 * (nur Blöcke mit Inhalt ungleich Null)
+	 */
+	public static final int CHECKPOINT_BLOCK_SIZE = 4096;
+
+	/**
+	 * Länge des Null-Blocks, aus dem clear() und isZero() abschnittsweise
+	 * arbeiten
+	 */
+	private static final int ZERO_BLOCK_SIZE = 4096;
+
+	/**
+	 * Block aus Nullen (gemeinsam für alle Speicher, nur gelesen)
+	 */
+	private static final ByteBuffer ZERO_BLOCK = ByteBuffer
+			.allocateDirect(ZERO_BLOCK_SIZE);
+
+	private final ByteBuffer memory; // Speicherinhalt
+	private final ByteBuffer source; // Sicht für Blockkopien (Quelle)
+	private final ByteBuffer target; // Sicht für Blockkopien (Ziel)
+	private final IntBuffer words; // Sicht als Datenworte (Index = adr / 4)
+	private final ByteBuffer zeros; // eigene Sicht auf ZERO_BLOCK
+
+	/**
+	 * Konstruktor
+	 *
+	 * @param size
+	 *            Größe in Byte
+	 */
+	public PhysicalMemory(int size) {
+		memory = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+		source = memory.duplicate();
+		target = memory.duplicate();
+		words = memory.asIntBuffer();
+		zeros = ZERO_BLOCK.duplicate();
+	}
+
+	/**
+	 * @return Größe in Byte
+	 */
+	public int getSize() {
+		return memory.capacity();
+	}
+
+	/**
+	 * @param adr
+	 *            Byteadresse (Vielfaches der Wortgröße)
+	 * @return Datenwort an der Adresse
+	 */
+	public int readWord(int adr) {
+		return memory.getInt(adr);
+	}
+
+	/**
+	 * @param adr
+	 *            Byteadresse (Vielfaches der Wortgröße)
+	 * @param item
+	 *            Datenwort
+	 */
+	public void writeWord(int adr, int item) {
+		memory.putInt(adr, item);
+	}
+
+	/**
+	 * Bereich als Block in einen (anderen oder denselben) Speicher kopieren
+	 *
+	 * @param fromAdr
+	 *            Quelladresse in diesem Speicher
+	 * @param dest
+	 *            Zielspeicher
+	 * @param toAdr
+	 *            Zieladresse im Zielspeicher
+	 * @param size
+	 *            Länge in Byte (Quell- und Zielbereich dürfen sich nicht
+	 *            überlappen)
+	 */
+	public void copy(int fromAdr, PhysicalMemory dest, int toAdr, int size) {
+		source.limit(fromAdr + size).position(fromAdr);
+		dest.target.limit(toAdr + size).position(toAdr);
+		dest.target.put(source);
+		source.clear();
+		dest.target.clear();
+	}
+
+	/**
+	 * Bereich mit Nullen überschreiben
+	 *
+	 * @param adr
+	 *            Anfangsadresse
+	 * @param size
+	 *            Länge in Byte (Vielfaches der Wortgröße)
+	 */
+	public void clear(int adr, int size) {
+		int length; // Länge des aktuellen Abschnitts
+
+		for (int a = adr; a < adr + size; a = a + length) {
+			length = Math.min(ZERO_BLOCK_SIZE, adr + size - a);
+			zeros.limit(length).position(0);
+			target.limit(a + length).position(a);
+			target.put(zeros);
+		}
+		zeros.clear();
+		target.clear();
+	}
+
+	/**
+	 * Bereich mit einem Bereich eines (anderen oder desselben) Speichers
+	 * vergleichen
+	 *
+	 * @param adr
+	 *            Adresse in diesem Speicher
+	 * @param other
+	 *            Vergleichsspeicher
+	 * @param otherAdr
+	 *            Adresse im Vergleichsspeicher
+	 * @param size
+	 *            Länge in Byte
+	 * @return true, wenn beide Bereiche denselben Inhalt haben
+	 */
+	public boolean isEqual(int adr, PhysicalMemory other, int otherAdr,
+			int size) {
+		boolean equal; // Ergebnis
+
+		source.limit(adr + size).position(adr);
+		other.target.limit(otherAdr + size).position(otherAdr);
+		equal = source.equals(other.target);
+		source.clear();
+		other.target.clear();
+		return equal;
+	}
+
+	/**
+	 * Prüfsumme eines Bereichs (gleicher Inhalt ergibt dieselbe Prüfsumme)
+	 *
+	 * @param adr
+	 *            Anfangsadresse
+	 * @param size
+	 *            Länge in Byte (Vielfaches von 8)
+	 * @return Prüfsumme
+	 */
+	public int checksum(int adr, int size) {
+		long sum = size; // Prüfsumme
+
+		for (int a = adr; a < adr + size; a = a + 8) {
+			// Doppelwort einmischen (Multiplikation mit ungerader Konstante)
+			sum = (sum + memory.getLong(a)) * 0x9E3779B97F4A7C15L;
+			sum = sum ^ (sum >>> 29);
+		}
+		return (int) (sum ^ (sum >>> 32));
+	}
+
+	/**
+	 * Datenworte ab einer Adresse lesen
+	 *
+	 * @param adr
+	 *            Anfangsadresse (Vielfaches der Wortgröße)
+	 * @param dest
+	 *            Ziel; gelesen werden dest.remaining() Worte
+	 */
+	public void readWords(int adr, IntBuffer dest) {
+		words.limit(adr / 4 + dest.remaining()).position(adr / 4);
+		dest.put(words);
+		words.clear();
+	}
+
+	/**
+	 * Datenworte ab einer Adresse schreiben
+	 *
+	 * @param adr
+	 *            Anfangsadresse (Vielfaches der Wortgröße)
+	 * @param src
+	 *            Quelle; geschrieben werden src.remaining() Worte (in der
+	 *            Bytereihenfolge der Quelle interpretiert)
+	 */
+	public void writeWords(int adr, IntBuffer src) {
+		words.position(adr / 4);
+		words.put(src);
+		words.clear();
+	}
+
+	/**
+	 * Inhalt in einen Sicherungspunkt schreiben: Größe, danach je Block mit
+	 * Inhalt ungleich Null Adresse und Inhalt, abgeschlossen mit -1
+	 */
+	public void writeCheckpoint(Checkpoint cp) {
+		int blockSize = Math.min(CHECKPOINT_BLOCK_SIZE, getSize()); // Blocklänge
+
+		cp.putInt(getSize());
+		for (int adr = 0; adr + blockSize <= getSize(); adr = adr + blockSize) {
+			if (!isZero(adr, blockSize)) {
+				cp.putInt(adr);
+				source.limit(adr + blockSize).position(adr);
+				cp.putBlock(source);
+				source.clear();
+			}
+		}
+		cp.putInt(-1);
+	}
+
+	/**
+	 * Inhalt aus einem Sicherungspunkt lesen (Größe muss übereinstimmen)
+	 */
+	public void readCheckpoint(Checkpoint cp) {
+		int adr; // Adresse des nächsten Blocks
+
+		cp.getInt();
+		clear(0, getSize());
+		for (adr = cp.getInt(); adr >= 0; adr = cp.getInt()) {
+			target.position(adr);
+			cp.getBlock(target);
+			target.clear();
+		}
+	}
+
+	// ----------------------- Hilfsmethoden --------------------------------
+
+	/**
+	 * @return true, wenn der Bereich nur Nullen enthält
+	 */
+	private boolean isZero(int adr, int size) {
+		boolean zero = true; // Ergebnis
+		int length; // Länge des aktuellen Abschnitts
+
+		for (int a = adr; zero && a < adr + size; a = a + length) {
+			length = Math.min(ZERO_BLOCK_SIZE, adr + size - a);
+			zeros.limit(length).position(0);
+			source.limit(a + length).position(a);
+			zero = source.equals(zeros);
+		}
+		zeros.clear();
+		source.clear();
+		return zero;
+	}
+}
@@ -1,39 +1,106 @@
 package osbsp;
 
+import java.io.RandomAccessFile;
+import java.util.LinkedList;
+
 /*
  * Process
  *
- * Reprsentation eines unabhngigen Prozess-Objekts
+ * Repräsentation eines unabhängigen Prozess-Objekts
  */
 
 /**
  * Programm-Simulation:
  * 
  * Daten eines Prozesses verwalten (PCB) sowie Laufzeitverhalten simulieren, d.h.
- * read-Operationen im eigenen virtuellen Speicher ausfhren
+ * read-Operationen im eigenen virtuellen Speicher ausführen
  * (Pseudo-Zufallszahlengeneratorgesteuert) mit mehreren Operationen im selben
- * Seitenbereich (gem "Lokalittsfaktor")
+ * Seitenbereich (gemäß "Lokalitätsfaktor")
  */
 public class Process extends Thread {
 
 	/**
-	 * Speicherbedarf fr das gesamte Programm (in Byte)
+	 * Speicherbedarf für das gesamte Programm (in Byte)
 	 */
 	private int processSize;
 
 	/**
-	 * Dieser Faktor bestimmt das "Lokalittsverhalten" eines Programms (=
-	 * Anzahl Operationen innerhalb eines Seitenbereichs) Setzen ber
+	 * Dieser Faktor bestimmt das "Lokalitätsverhalten" eines Programms (=
+	 * Anzahl Operationen innerhalb eines Seitenbereichs) Setzen über
 	 * os.getDEFAULT_LOCALITY_FACTOR()
 	 */
 	private int localityFactor;
 
 	/**
-	 * Dieser Faktor bestimmt das "Lokalittsverhalten" eines Programms = max.
+	 * Dieser Faktor bestimmt das "Lokalitätsverhalten" eines Programms = max.
 	 * Streuung (+/-) bei lokalen Operationen in Anzahl Seiten
 	 */
 	private static final int BIAS_FACTOR = 2;
 
+	/**
+	 * Zustand des prozesseigenen Zufallszahlengenerators (xorshift64*): jeder
+	 * Prozess erzeugt seine Adressen ohne den gemeinsamen, synchronisierten
+	 * Generator von Math.random()
+	 */
+	private long randomState;
+
+	/**
+	 * Nächste freie virtuelle Adresse oberhalb des Heaps für eingeblendete
+	 * Bereiche (z.B. gemeinsame Segmente)
+	 */
+	private int mappingTop;
+
+	/**
+	 * Programmdatei, aus der Seiten beim ersten Zugriff geladen werden (null =
+	 * Seiten werden mit Nullen gefüllt)
+	 */
+	private RandomAccessFile image;
+
+	/**
+	 * Name der Programmdatei (für Sicherungspunkte) oder null
+	 */
+	private String imageFileName;
+
+	/**
+	 * Erteilte, noch nicht abgewartete Leseaufträge an die Platte
+	 */
+	private LinkedList<DiskRequest> pendingDiskRequests;
+
+	/**
+	 * Profil der Seitenzugriffe (Wiederverwendungsdistanzen, Dauer der
+	 * Seitenfehler) oder null, wenn nicht profiliert wird
+	 */
+	private ReuseDistanceProfiler profiler;
+
+	/**
+	 * Beginn des laufenden Seitenfehlers (System.nanoTime) oder 0
+	 */
+	private long faultStartTime;
+
+	/**
+	 * Rahmenquote in Basisseiten bei automatischer Rahmenaufteilung (0 =
+	 * feste Quote MAX_RAM_PAGES_PER_PROCESS)
+	 */
+	private int frameQuota;
+
+	/**
+	 * Heimatknoten (NUMA): Speicherknoten der CPU, auf der der Prozess läuft
+	 */
+	private int homeNode;
+
+	/**
+	 * Lastkontrolle: Prozess ist angehalten (wartet auf Zulassung oder wurde
+	 * wegen Überlastung deaktiviert), seine System Calls blockieren bis zur
+	 * Aktivierung
+	 */
+	private boolean suspended;
+
+	/**
+	 * Lastkontrolle: laufende Nummer der letzten Aktivierung (der am längsten
+	 * aktive Prozess hat die kleinste Nummer)
+	 */
+	private long activation;
+
 	// --------------- Process Control Block (PCB) -------------------
 	/**
 	 * Eigene Prozess-ID:
@@ -45,50 +112,279 @@ public class Process extends Thread {
 	 */
 	public PageTable pageTable;
 
+	/**
+	 * Eigener TLB (Translation Lookaside Buffer)
+	 */
+	public TLB tlb;
+
+	/**
+	 * Speicherbereiche (Code, Heap, Stack, eingeblendete Bereiche)
+	 */
+	public AddressSpace addressSpace;
+
+	/**
+	 * Wiederverwendbare Sicht auf den Seitentabelleneintrag des laufenden
+	 * Speicherzugriffs (TLB-Treffer, Tabellensuche, Seitenfehler)
+	 */
+	final PageTableEntry accessPte = new PageTableEntry();
+
 	// ---------- Prozess-Variablen ------------------------------
-	private OperatingSystem os; // Handle fr System Calls
+	private OperatingSystem os; // Handle für System Calls
 
 	/**
 	 * Konstruktor
+	 * 
+	 * @param pageSize
+	 *            Seitengröße des Prozesses (Basisseite oder Huge Page)
 	 */
-	public Process(OperatingSystem currentOS, int newPID, int newProcessSize) {
+	public Process(OperatingSystem currentOS, int newPID, int newProcessSize,
+			int pageSize) {
 		os = currentOS;
 		pid = newPID;
 		processSize = newProcessSize;
-		pageTable = new PageTable(os, pid);
+		mappingTop = processSize;
+		pendingDiskRequests = new LinkedList<DiskRequest>();
+		pageTable = new PageTable(os, pid, pageSize);
+		tlb = new TLB(os.getTLB_SIZE());
+		addressSpace = new AddressSpace();
 		localityFactor = os.getDEFAULT_LOCALITY_FACTOR();
+		randomState = System.nanoTime() ^ (0x9E3779B97F4A7C15L * (pid + 1));
+		if (randomState == 0) {
+			randomState = 1;
+		}
+	}
+
+	/**
+	 * @return Speicherbedarf für das gesamte Programm (in Byte)
+	 */
+	public int getProcessSize() {
+		return processSize;
+	}
+
+	/**
+	 * @return Nächste freie virtuelle Adresse für eingeblendete Bereiche
+	 */
+	public int getMappingTop() {
+		return mappingTop;
 	}
 
 	/**
-	 * Programmcode eines Prozesses
+	 * @param adr
+	 *            Nächste freie virtuelle Adresse für eingeblendete Bereiche
+	 *            (fork: vom Elternprozess übernehmen)
+	 */
+	public void setMappingTop(int adr) {
+		mappingTop = adr;
+	}
+
+	/**
+	 * Virtuellen Adressbereich für eingeblendete Bereiche reservieren
 	 * 
+	 * @param size
+	 *            Größe in Byte
+	 * @param alignment
+	 *            Ausrichtung der Startadresse (Zweierpotenz)
+	 * @return virtuelle Startadresse des Bereichs
+	 */
+	public int reserveMappingArea(int size, int alignment) {
+		int baseAdr = (mappingTop + alignment - 1) & ~(alignment - 1);
+
+		mappingTop = baseAdr + size;
+		return baseAdr;
+	}
+
+	/**
+	 * @return Programmdatei des Prozesses oder null
+	 */
+	public RandomAccessFile getImage() {
+		return image;
+	}
+
+	/**
+	 * @return Name der Programmdatei des Prozesses oder null
+	 */
+	public String getImageFileName() {
+		return imageFileName;
+	}
+
+	/**
+	 * @param file
+	 *            Programmdatei des Prozesses oder null (Demand Zero)
+	 * @param fileName
+	 *            Name der Programmdatei oder null
+	 */
+	public void setImage(RandomAccessFile file, String fileName) {
+		image = file;
+		imageFileName = fileName;
+	}
+
+	/**
+	 * @param request
+	 *            erteilter Leseauftrag, auf den der Prozess warten muss
+	 */
+	public void addPendingDiskRequest(DiskRequest request) {
+		pendingDiskRequests.add(request);
+	}
+
+	/**
+	 * @return ältester noch nicht abgewarteter Leseauftrag (wird aus der
+	 *         Liste entfernt) oder null
+	 */
+	public DiskRequest pollPendingDiskRequest() {
+		return pendingDiskRequests.poll();
+	}
+
+	/**
+	 * @return Profil der Seitenzugriffe oder null
+	 */
+	public ReuseDistanceProfiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * @param p
+	 *            Profil der Seitenzugriffe oder null (keine Profilierung)
+	 */
+	public void setProfiler(ReuseDistanceProfiler p) {
+		profiler = p;
+	}
+
+	/**
+	 * @return Heimatknoten (NUMA)
+	 */
+	public int getHomeNode() {
+		return homeNode;
+	}
+
+	/**
+	 * @param node
+	 *            Heimatknoten (NUMA)
+	 */
+	public void setHomeNode(int node) {
+		homeNode = node;
+	}
+
+	/**
+	 * @return Rahmenquote in Basisseiten (0 = feste Quote)
+	 */
+	public int getFrameQuota() {
+		return frameQuota;
+	}
+
+	/**
+	 * @param frames
+	 *            Rahmenquote in Basisseiten (0 = feste Quote)
+	 */
+	public void setFrameQuota(int frames) {
+		frameQuota = frames;
+	}
+
+	/**
+	 * @return Beginn des laufenden Seitenfehlers (System.nanoTime) oder 0
+	 */
+	public long getFaultStartTime() {
+		return faultStartTime;
+	}
+
+	/**
+	 * @param time
+	 *            Beginn des laufenden Seitenfehlers oder 0
+	 */
+	public void setFaultStartTime(long time) {
+		faultStartTime = time;
+	}
+
+	/**
+	 * @return true, wenn der Prozess von der Lastkontrolle angehalten ist
+	 */
+	public boolean isSuspended() {
+		return suspended;
+	}
+
+	/**
+	 * @param b
+	 *            true = Prozess anhalten, false = Prozess aktivieren
+	 */
+	public void setSuspended(boolean b) {
+		suspended = b;
+	}
+
+	/**
+	 * @return laufende Nummer der letzten Aktivierung
+	 */
+	public long getActivation() {
+		return activation;
+	}
+
+	/**
+	 * @param number
+	 *            laufende Nummer der letzten Aktivierung
+	 */
+	public void setActivation(long number) {
+		activation = number;
+	}
+
+	/**
+	 * Programmcode eines Prozesses: die Zugriffe eines Lokalitätsbereichs
+	 * werden in einem wiederverwendeten Feld erzeugt und mit einem System Call
+	 * gelesen (keine Objekterzeugung und kein gemeinsamer Zustand je Zugriff).
+	 * Die Adressen liegen unterhalb der aktuellen Programmgrenze, die mit brk
+	 * verschoben werden kann.
 	 */
 	public void run() {
-		int median; // Mittelwert fr virtuelle Adressen
-		int bias; // Streuung um den Mittelwert
+		int wordSize = os.getWORD_SIZE(); // Wortgröße
+		int wordMask = -wordSize; // Ausrichtung auf Wortgrenze
+		int limit; // aktuelle Programmgrenze
+		int bias = BIAS_FACTOR * os.getPAGE_SIZE(); // Streuung um den Mittelwert
+		int[] batch = new int[localityFactor]; // Adressen eines Bereichs
+		int median; // Mittelwert für virtuelle Adressen
 		int virtAdr; // Virtuelle Adresse
-		int i; // Zhler
+		int i; // Zähler
 
 		// Zugriff auf Speicherseiten (read)
-		// Lokalittsverhalten wird berechnet!!
-		bias = BIAS_FACTOR * os.getPAGE_SIZE();
+		// Lokalitätsverhalten wird berechnet!!
 		while (!isInterrupted()) {
-			// median als virtuelle Adresse bestimmen (muss im bereits
-			// geschriebenen Bereich liegen!)
-			median = (int) (processSize * Math.random());
-			for (i = 0; i < localityFactor; i++) {
-				// Virtuelle Adresse in der "Nhe" des medians bestimmen
-				virtAdr = ((int) (2 * bias * Math.random() - bias)) + median;
-				// Grenzen setzen: 0 <= virtAdr <= PROGRAM_SIZE -
+			// median als virtuelle Adresse bestimmen (Seiten werden beim
+			// ersten Zugriff vom Betriebssystem angelegt)
+			limit = Math.max(getProgramBreak(), wordSize);
+			median = nextRandom(limit);
+			for (i = 0; i < batch.length; i++) {
+				// Virtuelle Adresse in der "Nähe" des medians bestimmen
+				virtAdr = median + nextRandom(2 * bias) - bias;
+				// Grenzen setzen: 0 <= virtAdr <= Programmgrenze -
 				// os.getWORD_SIZE() !!
-				virtAdr = Math.min(virtAdr, processSize - os.getWORD_SIZE());
-				virtAdr = Math.max(virtAdr, 0);
+				virtAdr = Math.max(Math.min(virtAdr, limit - wordSize), 0);
 				// Virt. Adresse auf Wortgrenze ausrichten
-				virtAdr = virtAdr - (virtAdr % os.getWORD_SIZE());
-				// Read System Call (Returnwert wird hier nicht ausgwertet)
-				os.read(pid, virtAdr);
+				batch[i] = virtAdr & wordMask;
 			}
+			// Read System Call für alle Adressen (Returnwert wird hier nicht
+			// ausgewertet)
+			os.read(pid, batch, batch.length);
 		}
 
 	}
+
+	/**
+	 * @return aktuelle Programmgrenze (Ende des Heaps, siehe brk), ohne Heap
+	 *         die Prozessgröße
+	 */
+	private int getProgramBreak() {
+		VMArea heap = addressSpace.getHeap(); // Heap des Prozesses
+
+		return (heap == null) ? processSize : heap.getEnd();
+	}
+
+	/**
+	 * Nächste Zufallszahl des Prozesses (xorshift64*)
+	 * 
+	 * @param bound
+	 *            obere Grenze (exklusiv, > 0)
+	 * @return Zufallszahl aus [0, bound)
+	 */
+	private int nextRandom(int bound) {
+		randomState ^= randomState >>> 12;
+		randomState ^= randomState << 25;
+		randomState ^= randomState >>> 27;
+		return (int) (((randomState * 0x2545F4914F6CDD1DL) >>> 33) * bound >>> 31);
+	}
 }
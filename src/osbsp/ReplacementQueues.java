@@ -0,0 +1,375 @@
+package osbsp;
+
+import java.util.Arrays;
+
+/**
+ * ReplacementQueues
+ *
+ * Listen der scan-resistenten Ersetzungsstrategien einer Seitentabelle:
+ *
+ * CAR (Clock with Adaptive Replacement, Bansal/Modha) ist die Clock-Variante
+ * von ARC: T1 enthält Seiten, die seit dem Einlagern nicht erneut benutzt
+ * wurden, T2 mehrfach benutzte Seiten, beide als Uhr mit R-Bit. Die
+ * Geisterlisten B1 und B2 merken sich die VPNs zuletzt aus T1 bzw. T2
+ * verdrängter Seiten; ein Seitenfehler auf eine Geisterseite verschiebt die
+ * Zielgröße p von T1 in Richtung der Liste, die zu klein war. Ein
+ * einmaliger Durchlauf (Scan) verdrängt so nur Seiten aus T1.
+ *
+ * 2Q (Johnson/Shasha): neue Seiten kommen in die FIFO-Warteschlange A1in;
+ * wer aus A1in verdrängt wird, landet als Geist in A1out. Ein erneuter
+ * Seitenfehler auf eine Seite in A1out oder ein gesetztes R-Bit am Ende von
+ * A1in bringt eine Seite in die Hauptliste Am, die hier als Uhr mit R-Bit
+ * verwaltet wird (statt LRU).
+ *
+ * Alle Listen sind intrusive, zyklisch doppelt verkettete Listen über VPNs
+ * (Felder next/prev je VPN); der Kopf ist der Uhrzeiger bzw. das älteste
+ * Element, der Vorgänger des Kopfs das jüngste. Jede Operation kostet O(1)
+ * (Uhr: amortisiert). Zusätzlich wird je residenter Seite ihr Platz in der
+ * pteRAMlist der Seitentabelle gespeichert, damit die neue Seite wie bei den
+ * übrigen Strategien am Platz der verdrängten eingetragen werden kann.
+ *
+ * Das Betriebssystem setzt das R-Bit bei jedem Zugriff, also auch bei den
+ * Zugriffen direkt nach dem Einlagern. Damit diese nicht als Wiederbenutzung
+ * zählen, wird das R-Bit der zuletzt eingelagerten Seite beim nächsten
+ * Einlagern gelöscht.
+ */
+class ReplacementQueues {
+	// Listen (Werte von list[vpn]); CAR und 2Q benutzen dieselben Nummern
+	static final int NONE = 0;
+	static final int T1 = 1; // CAR: einmal benutzt, 2Q: A1in
+	static final int T2 = 2; // CAR: mehrfach benutzt, 2Q: Am
+	static final int B1 = 3; // Geister aus T1 (2Q: A1out)
+	static final int B2 = 4; // Geister aus T2 (nur CAR)
+
+	private final PageTable pageTable; // zugehörige Seitentabelle
+	private final int algorithm; // os.CAR oder os.TWO_Q
+	private final boolean twoQ; // 2Q statt CAR?
+
+	private int[] next; // Nachfolger je VPN
+	private int[] prev; // Vorgänger je VPN
+	private byte[] list; // Liste je VPN (NONE, T1, T2, B1, B2)
+	private int[] slot; // Platz in der pteRAMlist je residenter VPN
+	private final int[] heads = { -1, -1, -1, -1, -1 }; // Kopf je Liste
+	private final int[] sizes = new int[5]; // Länge je Liste
+	private int p; // CAR: Zielgröße von T1
+	private int lastInserted = -1; // zuletzt eingelagerte VPN
+
+	/**
+	 * Konstruktor: alle Seiten der pteRAMlist kommen nach T1 (A1in)
+	 *
+	 * @param ramPages
+	 *            VPNs der Seiten im RAM, Index = Platz in der pteRAMlist
+	 * @param count
+	 *            Anzahl Seiten im RAM
+	 */
+	ReplacementQueues(PageTable table, int algorithmId, boolean isTwoQ,
+			int[] ramPages, int count) {
+		pageTable = table;
+		algorithm = algorithmId;
+		twoQ = isTwoQ;
+		next = new int[16];
+		prev = new int[16];
+		list = new byte[16];
+		slot = new int[16];
+		for (int i = 0; i < count; i++) {
+			append(T1, ramPages[i]);
+			slot[ramPages[i]] = i;
+		}
+	}
+
+	/**
+	 * Kopierkonstruktor (fork: Kind erbt die Listen des Elternprozesses)
+	 */
+	ReplacementQueues(PageTable table, ReplacementQueues parent) {
+		pageTable = table;
+		algorithm = parent.algorithm;
+		twoQ = parent.twoQ;
+		next = parent.next.clone();
+		prev = parent.prev.clone();
+		list = parent.list.clone();
+		slot = parent.slot.clone();
+		System.arraycopy(parent.heads, 0, heads, 0, heads.length);
+		System.arraycopy(parent.sizes, 0, sizes, 0, sizes.length);
+		p = parent.p;
+		lastInserted = parent.lastInserted;
+	}
+
+	/**
+	 * @return Strategie, für die die Listen geführt werden
+	 */
+	int getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * @return Platz der residenten Seite vpn in der pteRAMlist
+	 */
+	int getSlot(int vpn) {
+		return slot[vpn];
+	}
+
+	/**
+	 * Platz der residenten Seite vpn in der pteRAMlist ändern (Aufrücken beim
+	 * Entfernen einer Seite)
+	 */
+	void setSlot(int vpn, int newSlot) {
+		slot[vpn] = newSlot;
+	}
+
+	/**
+	 * Seite aus allen Listen (auch den Geisterlisten) entfernen, z.B. wenn
+	 * sie freigegeben wird
+	 */
+	void remove(int vpn) {
+		if (vpn < list.length && list[vpn] != NONE) {
+			unlink(vpn);
+		}
+	}
+
+	/**
+	 * Eine residente Seite zur Verdrängung auswählen. Sie wird aus T1/T2
+	 * entfernt und (außer bei 2Q aus Am) als Geist gemerkt.
+	 *
+	 * @return VPN der ausgewählten Seite
+	 */
+	int selectVictim() {
+		return twoQ ? selectTwoQ() : selectCar();
+	}
+
+	/**
+	 * Neu eingelagerte Seite aufnehmen
+	 *
+	 * @param vpn
+	 *            VPN der Seite
+	 * @param ramSlot
+	 *            ihr Platz in der pteRAMlist
+	 * @param replacing
+	 *            true, wenn zuvor mit selectVictim() eine Seite verdrängt
+	 *            wurde (Speicher voll: Geisterlisten begrenzen)
+	 * @return Geisterliste, in der die Seite gefunden wurde (B1, B2) oder
+	 *         NONE
+	 */
+	int insert(int vpn, int ramSlot, boolean replacing) {
+		int ghost; // Geisterliste der Seite
+		int capacity; // Anzahl Seiten im RAM (Kapazität bei vollem Speicher)
+
+		ensureCapacity(vpn + 1);
+		// Zugriffe direkt nach dem Einlagern zählen nicht als Wiederbenutzung
+		if (lastInserted >= 0 && lastInserted != vpn
+				&& (list[lastInserted] == T1 || list[lastInserted] == T2)) {
+			pageTable.setFlag(lastInserted, PageTable.REFERENCED, false);
+		}
+		lastInserted = vpn;
+		ghost = list[vpn];
+		if (ghost == T1 || ghost == T2) {
+			// darf nicht vorkommen: Seite ist schon resident
+			unlink(vpn);
+			ghost = NONE;
+		}
+		capacity = sizes[T1] + sizes[T2] + 1;
+		if (twoQ) {
+			if (ghost == B1) {
+				unlink(vpn);
+				append(T2, vpn);
+			} else {
+				append(T1, vpn);
+			}
+		} else {
+			if (ghost == NONE && replacing) {
+				// Verzeichnis (Seiten + Geister) auf 2c begrenzen
+				if (sizes[T1] + sizes[B1] >= capacity) {
+					while (sizes[B1] > 0 && sizes[T1] + sizes[B1] >= capacity) {
+						unlink(heads[B1]);
+					}
+				} else {
+					while (sizes[B2] > 0
+							&& sizes[T1] + sizes[T2] + sizes[B1] + sizes[B2] >= 2 * capacity) {
+						unlink(heads[B2]);
+					}
+				}
+			}
+			if (ghost == B1) {
+				// T1 war zu klein
+				p = Math.min(p + Math.max(1, sizes[B2] / sizes[B1]), capacity);
+				unlink(vpn);
+				append(T2, vpn);
+			} else if (ghost == B2) {
+				// T2 war zu klein
+				p = Math.max(p - Math.max(1, sizes[B1] / sizes[B2]), 0);
+				unlink(vpn);
+				append(T2, vpn);
+			} else {
+				append(T1, vpn);
+			}
+		}
+		slot[vpn] = ramSlot;
+		return ghost;
+	}
+
+	// ----------------------- Sicherungspunkte ----------------------------
+
+	/**
+	 * Listen in einen Sicherungspunkt schreiben
+	 */
+	void writeCheckpoint(Checkpoint cp) {
+		cp.putInts(next);
+		cp.putInts(prev);
+		cp.putBytes(list);
+		cp.putInts(slot);
+		cp.putInts(heads);
+		cp.putInts(sizes);
+		cp.putInt(p);
+		cp.putInt(lastInserted);
+	}
+
+	/**
+	 * Listen aus einem Sicherungspunkt lesen
+	 */
+	void readCheckpoint(Checkpoint cp) {
+		int[] values; // gelesenes Feld
+
+		next = cp.getInts();
+		prev = cp.getInts();
+		list = cp.getBytes();
+		slot = cp.getInts();
+		values = cp.getInts();
+		System.arraycopy(values, 0, heads, 0, heads.length);
+		values = cp.getInts();
+		System.arraycopy(values, 0, sizes, 0, sizes.length);
+		p = cp.getInt();
+		lastInserted = cp.getInt();
+	}
+
+	// ----------------------- Strategien ----------------------------------
+
+	/**
+	 * CAR: T1 verdrängen, solange T1 mindestens p Seiten hat, sonst T2. Eine
+	 * referenzierte Seite aus T1 wandert nach T2, eine referenzierte Seite in
+	 * T2 erhält eine zweite Chance (Uhr).
+	 */
+	private int selectCar() {
+		int vpn; // untersuchte Seite
+
+		while (true) {
+			if (sizes[T1] > 0 && (sizes[T1] >= Math.max(1, p) || sizes[T2] == 0)) {
+				vpn = heads[T1];
+				unlink(vpn);
+				if (!isReferenced(vpn)) {
+					append(B1, vpn);
+					return vpn;
+				}
+				append(T2, vpn);
+			} else {
+				vpn = heads[T2];
+				if (!isReferenced(vpn)) {
+					unlink(vpn);
+					append(B2, vpn);
+					return vpn;
+				}
+				heads[T2] = next[vpn];
+			}
+			pageTable.traceClockSkip(vpn);
+			pageTable.setFlag(vpn, PageTable.REFERENCED, false);
+		}
+	}
+
+	/**
+	 * 2Q: ist A1in länger als ein Viertel der Seiten im RAM (oder Am leer),
+	 * wird die älteste Seite aus A1in verdrängt und als Geist in A1out
+	 * (höchstens halb so viele Einträge wie Seiten im RAM) gemerkt; sonst
+	 * wählt die Uhr über Am. Abweichend vom Original wird eine Seite, die in
+	 * A1in nach dem Einlagern erneut benutzt wurde (R-Bit), nicht verdrängt,
+	 * sondern nach Am übernommen: ohne LRU-Liste erfährt die Seitentabelle
+	 * von Treffern nur über das R-Bit, und ein Hot Set, das nur durch Scans
+	 * verdrängt wird, erreicht A1out sonst nie rechtzeitig.
+	 */
+	private int selectTwoQ() {
+		int capacity = sizes[T1] + sizes[T2]; // Seiten im RAM
+		int vpn; // untersuchte Seite
+
+		while (sizes[T1] > 0
+				&& (sizes[T2] == 0 || sizes[T1] > Math.max(1, capacity / 4))) {
+			vpn = heads[T1];
+			unlink(vpn);
+			if (!isReferenced(vpn)) {
+				append(B1, vpn);
+				while (sizes[B1] > Math.max(1, capacity / 2)) {
+					unlink(heads[B1]);
+				}
+				return vpn;
+			}
+			pageTable.traceClockSkip(vpn);
+			pageTable.setFlag(vpn, PageTable.REFERENCED, false);
+			append(T2, vpn);
+		}
+		vpn = heads[T2];
+		while (isReferenced(vpn)) {
+			pageTable.traceClockSkip(vpn);
+			pageTable.setFlag(vpn, PageTable.REFERENCED, false);
+			heads[T2] = next[vpn];
+			vpn = heads[T2];
+		}
+		unlink(vpn);
+		return vpn;
+	}
+
+	// ----------------------- Hilfsmethoden --------------------------------
+
+	private boolean isReferenced(int vpn) {
+		return pageTable.hasFlag(vpn, PageTable.REFERENCED);
+	}
+
+	/**
+	 * vpn als jüngstes Element (vor dem Kopf) in die Liste listId einfügen
+	 */
+	private void append(int listId, int vpn) {
+		int head = heads[listId]; // Kopf der Liste
+
+		ensureCapacity(vpn + 1);
+		if (head < 0) {
+			next[vpn] = vpn;
+			prev[vpn] = vpn;
+			heads[listId] = vpn;
+		} else {
+			next[vpn] = head;
+			prev[vpn] = prev[head];
+			next[prev[head]] = vpn;
+			prev[head] = vpn;
+		}
+		list[vpn] = (byte) listId;
+		sizes[listId]++;
+	}
+
+	/**
+	 * vpn aus seiner Liste entfernen
+	 */
+	private void unlink(int vpn) {
+		int listId = list[vpn]; // Liste der Seite
+
+		if (next[vpn] == vpn) {
+			heads[listId] = -1;
+		} else {
+			next[prev[vpn]] = next[vpn];
+			prev[next[vpn]] = prev[vpn];
+			if (heads[listId] == vpn) {
+				heads[listId] = next[vpn];
+			}
+		}
+		list[vpn] = NONE;
+		sizes[listId]--;
+	}
+
+	private void ensureCapacity(int size) {
+		int newLength = list.length; // neue Feldlänge
+
+		if (size > newLength) {
+			while (newLength < size) {
+				newLength = 2 * newLength;
+			}
+			next = Arrays.copyOf(next, newLength);
+			prev = Arrays.copyOf(prev, newLength);
+			list = Arrays.copyOf(list, newLength);
+			slot = Arrays.copyOf(slot, newLength);
+		}
+	}
+}
@@ -0,0 +1,342 @@
+package osbsp;
+
+import java.util.Arrays;
+
+/**
+ * ReuseDistanceProfiler
+ *
+ * Online-Profil der Seitenzugriffe eines Prozesses: für jeden Zugriff wird
+ * die Wiederverwendungsdistanz bestimmt (Anzahl verschiedener anderer Seiten
+ * seit dem letzten Zugriff auf dieselbe Seite = Position im LRU-Stapel) und
+ * in einem Histogramm gezählt. Ein Zugriff mit Distanz d ist bei LRU-Ersetzung
+ * genau dann ein Treffer, wenn der Prozess mehr als d Seitenrahmen hat; aus
+ * dem Histogramm ergibt sich daher in einem Durchlauf die komplette
+ * Miss-Ratio-Kurve (Seitenfehler in Abhängigkeit von der Anzahl
+ * Seitenrahmen).
+ *
+ * Die Distanz wird nicht durch Absuchen des LRU-Stapels bestimmt, sondern
+ * mit einem Fenwick-Baum über die Zugriffszeitpunkte (Bennett/Kruskal): für
+ * jede Seite ist nur ihr letzter Zugriffszeitpunkt markiert, die Distanz ist
+ * die Anzahl Markierungen zwischen letztem und aktuellem Zugriff. Kosten je
+ * Zugriff O(log n). Läuft die Zeitachse voll, werden die Zeitpunkte
+ * zusammengeschoben (Reihenfolge bleibt erhalten).
+ *
+ * Für die Rahmenaufteilung wird ein zweites, gealtertes Histogramm geführt
+ * (decay, getRecentMissCurve), in dem jüngere Zugriffe stärker zählen; das
+ * Gesamtprofil bleibt davon unberührt.
+ *
+ * Zusätzlich wird die Dauer der Seitenfehler des Prozesses (inkl. Warten
+ * auf die Platte) in einem logarithmischen Histogramm erfasst.
+ */
+public class ReuseDistanceProfiler {
+	/**
+	 * Anzahl Klassen des Latenzhistogramms (Klasse k: 2^k .. 2^(k+1)-1 ns)
+	 */
+	public static final int LATENCY_CLASSES = 40;
+
+	private int[] lastAccess; // letzter Zugriffszeitpunkt je VPN (0 = nie)
+	private int[] tree; // Fenwick-Baum über die Zeitpunkte 1 .. tree.length-1
+	private int now; // aktueller Zeitpunkt
+	private int distinctPages; // Anzahl verschiedener Seiten (= Markierungen)
+	private long[] histogram; // Anzahl Zugriffe je Wiederverwendungsdistanz
+	private long coldMisses; // Erstzugriffe (Distanz unendlich)
+	private long accesses; // Anzahl Zugriffe
+	private long[] recentHistogram; // gealtertes Histogramm (Rahmenaufteilung)
+	private long recentColdMisses; // gealterte Erstzugriffe
+
+	private long[] latencyHistogram; // Seitenfehler je Latenzklasse
+	private long faults; // Anzahl gemessener Seitenfehler
+	private long totalFaultLatency; // Summe der Latenzen in ns
+	private long maxFaultLatency; // max. Latenz in ns
+
+	/**
+	 * Konstruktor
+	 */
+	public ReuseDistanceProfiler() {
+		lastAccess = new int[16];
+		tree = new int[1025];
+		now = 0;
+		distinctPages = 0;
+		histogram = new long[16];
+		recentHistogram = new long[16];
+		latencyHistogram = new long[LATENCY_CLASSES];
+	}
+
+	/**
+	 * Zugriff auf eine Seite erfassen
+	 *
+	 * @param vpn
+	 *            virtuelle Seitennummer
+	 */
+	public void access(int vpn) {
+		int previous; // letzter Zugriffszeitpunkt der Seite
+		int distance; // Wiederverwendungsdistanz
+
+		if (vpn >= lastAccess.length) {
+			lastAccess = Arrays.copyOf(lastAccess, Math.max(vpn + 1,
+					2 * lastAccess.length));
+		}
+		if (now == tree.length - 1) {
+			compact();
+		}
+		now++;
+		accesses++;
+		previous = lastAccess[vpn];
+		if (previous == 0) {
+			coldMisses++;
+			recentColdMisses++;
+			distinctPages++;
+		} else {
+			// Markierungen im Intervall (previous, now)
+			distance = prefixSum(now - 1) - prefixSum(previous);
+			if (distance >= histogram.length) {
+				histogram = Arrays.copyOf(histogram, Math.max(distance + 1,
+						2 * histogram.length));
+				recentHistogram = Arrays.copyOf(recentHistogram,
+						histogram.length);
+			}
+			histogram[distance]++;
+			recentHistogram[distance]++;
+			add(previous, -1);
+		}
+		add(now, 1);
+		lastAccess[vpn] = now;
+	}
+
+	/**
+	 * Alterung: das gealterte Histogramm halbieren, damit ältere Zugriffe in
+	 * getRecentMissCurve weniger Gewicht haben als jüngere (für die
+	 * periodische Neuaufteilung der Seitenrahmen). Die Wiederverwendungs-
+	 * distanzen selbst und das Gesamtprofil bleiben exakt.
+	 */
+	public void decay() {
+		for (int d = 0; d < recentHistogram.length; d++) {
+			recentHistogram[d] = recentHistogram[d] / 2;
+		}
+		recentColdMisses = recentColdMisses / 2;
+	}
+
+	/**
+	 * Dauer eines Seitenfehlers erfassen
+	 *
+	 * @param latency
+	 *            Dauer in ns
+	 */
+	public void recordFaultLatency(long latency) {
+		int latencyClass = 63 - Long.numberOfLeadingZeros(Math.max(latency, 1));
+
+		latencyHistogram[Math.min(latencyClass, LATENCY_CLASSES - 1)]++;
+		faults++;
+		totalFaultLatency = totalFaultLatency + latency;
+		maxFaultLatency = Math.max(maxFaultLatency, latency);
+	}
+
+	/**
+	 * @return Anzahl erfasster Zugriffe
+	 */
+	public long getAccesses() {
+		return accesses;
+	}
+
+	/**
+	 * @return Anzahl verschiedener Seiten (= Seitenfehler bei beliebig vielen
+	 *         Seitenrahmen)
+	 */
+	public int getDistinctPages() {
+		return distinctPages;
+	}
+
+	/**
+	 * @return Anzahl Zugriffe mit Wiederverwendungsdistanz distance
+	 */
+	public long getReuseCount(int distance) {
+		return (distance < histogram.length) ? histogram[distance] : 0;
+	}
+
+	/**
+	 * @param frames
+	 *            Anzahl Seitenrahmen
+	 * @return Anzahl Seitenfehler bei LRU-Ersetzung mit frames Seitenrahmen
+	 */
+	public long getMisses(int frames) {
+		long misses = coldMisses; // Erstzugriffe sind immer Fehler
+
+		for (int d = Math.max(frames, 0); d < histogram.length; d++) {
+			misses = misses + histogram[d];
+		}
+		return misses;
+	}
+
+	/**
+	 * Miss-Ratio-Kurve in einem Durchlauf über das Histogramm berechnen
+	 *
+	 * @param maxFrames
+	 *            größte betrachtete Anzahl Seitenrahmen
+	 * @return Feld m mit m[c] = Seitenfehler bei c Seitenrahmen (c = 0 ..
+	 *         maxFrames)
+	 */
+	public long[] getMissCurve(int maxFrames) {
+		return missCurve(histogram, coldMisses, maxFrames);
+	}
+
+	/**
+	 * Miss-Ratio-Kurve aus dem gealterten Histogramm (siehe decay)
+	 *
+	 * @param maxFrames
+	 *            größte betrachtete Anzahl Seitenrahmen
+	 * @return Feld m mit m[c] = gewichtete Seitenfehler bei c Seitenrahmen
+	 */
+	public long[] getRecentMissCurve(int maxFrames) {
+		return missCurve(recentHistogram, recentColdMisses, maxFrames);
+	}
+
+	/**
+	 * @return Anzahl gemessener Seitenfehler
+	 */
+	public long getFaults() {
+		return faults;
+	}
+
+	/**
+	 * @return mittlere Dauer eines Seitenfehlers in ns
+	 */
+	public long getAvgFaultLatency() {
+		return (faults == 0) ? 0 : totalFaultLatency / faults;
+	}
+
+	/**
+	 * @return max. Dauer eines Seitenfehlers in ns
+	 */
+	public long getMaxFaultLatency() {
+		return maxFaultLatency;
+	}
+
+	/**
+	 * @return Anzahl Seitenfehler in der Latenzklasse latencyClass (2^k ..
+	 *         2^(k+1)-1 ns)
+	 */
+	public long getFaultLatencyCount(int latencyClass) {
+		return latencyHistogram[latencyClass];
+	}
+
+	/**
+	 * Miss-Ratio-Kurve und Latenzhistogramm ausgeben
+	 *
+	 * @param pid
+	 *            Prozess-Id
+	 * @param frames
+	 *            aktuelle Anzahl Seitenrahmen des Prozesses (wird in der Kurve
+	 *            markiert)
+	 */
+	public void showReport(int pid, int frames) {
+		long[] curve = getMissCurve(Math.max(distinctPages, frames));
+
+		System.out.println("\n*** Profil Prozess " + pid + ": " + accesses
+				+ " Zugriffe auf " + distinctPages + " Seiten");
+		System.out.println("*** Seitenrahmen   Seitenfehler (LRU)   Fehlerrate");
+		for (int c = 1, next; c < curve.length; c = next) {
+			next = (c < 8) ? c + 1 : c + c / 4;
+			if (c < curve.length - 1) {
+				// letzter Punkt (alle Seiten im RAM) immer ausgeben
+				next = Math.min(next, curve.length - 1);
+			}
+			printCurvePoint(c, curve[c], c == frames);
+			if (frames > c && frames < next && frames < curve.length) {
+				printCurvePoint(frames, curve[frames], true);
+			}
+		}
+		System.out.println("*** Seitenfehler:    " + faults + ", Dauer mittel "
+				+ getAvgFaultLatency() / 1000 + " us, max. " + maxFaultLatency
+				/ 1000 + " us");
+		for (int k = 0; k < LATENCY_CLASSES; k++) {
+			if (latencyHistogram[k] > 0) {
+				System.out.println("***   >= " + (1L << k) + " ns: "
+						+ latencyHistogram[k]);
+			}
+		}
+	}
+
+	// ----------------------- Hilfsmethoden --------------------------------
+
+	/**
+	 * Miss-Ratio-Kurve eines Histogramms: m[c] = Erstzugriffe + Zugriffe mit
+	 * Distanz >= c
+	 */
+	private static long[] missCurve(long[] histogram, long coldMisses,
+			int maxFrames) {
+		long[] misses = new long[maxFrames + 1]; // Ergebnis
+		long tail = coldMisses; // Fehler bei c Rahmen
+
+		for (int d = maxFrames; d < histogram.length; d++) {
+			tail = tail + histogram[d];
+		}
+		for (int c = maxFrames; c >= 0; c--) {
+			misses[c] = tail;
+			if (c > 0 && c - 1 < histogram.length) {
+				tail = tail + histogram[c - 1];
+			}
+		}
+		return misses;
+	}
+
+	private void printCurvePoint(int frames, long misses, boolean current) {
+		System.out.printf("*** %13d   %18d   %10.6f%s%n", frames, misses,
+				(accesses == 0) ? 0.0 : (double) misses / accesses,
+				current ? "  <-- aktuelle Quote" : "");
+	}
+
+	/**
+	 * Fenwick-Baum: Wert an Zeitpunkt t ändern
+	 */
+	private void add(int t, int delta) {
+		for (int i = t; i < tree.length; i = i + (i & -i)) {
+			tree[i] = tree[i] + delta;
+		}
+	}
+
+	/**
+	 * Fenwick-Baum: Anzahl Markierungen in 1 .. t
+	 */
+	private int prefixSum(int t) {
+		int sum = 0;
+
+		for (int i = t; i > 0; i = i - (i & -i)) {
+			sum = sum + tree[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * Zeitachse zusammenschieben: die markierten Zeitpunkte (einer je Seite)
+	 * werden unter Beibehaltung der Reihenfolge auf 1 .. distinctPages
+	 * abgebildet; der Baum wird bei Bedarf vergrößert, damit danach
+	 * mindestens so viele freie wie belegte Zeitpunkte bleiben
+	 */
+	private void compact() {
+		int[] pageAt = new int[tree.length]; // VPN + 1 je markiertem Zeitpunkt
+		int newTime = 0; // neuer Zeitpunkt
+
+		for (int vpn = 0; vpn < lastAccess.length; vpn++) {
+			if (lastAccess[vpn] > 0) {
+				pageAt[lastAccess[vpn]] = vpn + 1;
+			}
+		}
+		for (int t = 1; t < pageAt.length; t++) {
+			if (pageAt[t] > 0) {
+				newTime++;
+				lastAccess[pageAt[t] - 1] = newTime;
+			}
+		}
+		if (2 * distinctPages > tree.length - 1) {
+			tree = new int[2 * (tree.length - 1) + 1];
+		}
+		// Baum mit Markierungen an 1 .. distinctPages neu aufbauen
+		for (int i = 1; i < tree.length; i++) {
+			tree[i] = Math.min(i, distinctPages) - (i - (i & -i));
+			if (tree[i] < 0) {
+				tree[i] = 0;
+			}
+		}
+		now = newTime;
+	}
+}
@@ -0,0 +1,65 @@
+package osbsp;
+
+/**
+ * SamePageScanner
+ *
+ * Hintergrundthread der Seitenzusammenlegung (Kernel Same-page Merging):
+ * prüft reihum die Seiten aller Prozesse im RAM (scanSamePages) und legt
+ * gleiche Seiten zu einem Copy-on-Write geteilten Seitenrahmen zusammen. Je
+ * Durchgang werden höchstens MERGE_SCAN_PAGES Seiten geprüft, danach ruht
+ * der Thread MERGE_SCAN_INTERVAL ms. Da jeder Durchgang unter dem Monitor
+ * des Betriebssystems läuft, begrenzt dies den Anteil der Rechenzeit, den
+ * der Scanner den Prozessen entzieht.
+ */
+class SamePageScanner implements Runnable {
+	private final OperatingSystem os; // Betriebssystem mit den Seiten
+	private boolean running; // Scanner aktiv?
+	private Thread scanThread; // Scannerthread
+
+	/**
+	 * Konstruktor: startet den Scannerthread
+	 *
+	 * @param os
+	 *            Betriebssystem
+	 */
+	SamePageScanner(OperatingSystem os) {
+		this.os = os;
+		running = true;
+		scanThread = new Thread(this, "Seitenzusammenlegung");
+		scanThread.setDaemon(true);
+		scanThread.start();
+	}
+
+	/**
+	 * Scannerthread nach dem laufenden Durchgang beenden
+	 */
+	synchronized void shutdown() {
+		running = false;
+		notifyAll();
+	}
+
+	/**
+	 * Scannerthread: Durchgänge im Abstand von MERGE_SCAN_INTERVAL ms
+	 */
+	public void run() {
+		while (isRunning()) {
+			os.scanSamePages();
+			synchronized (this) {
+				try {
+					if (running) {
+						wait(Math.max(1, os.getMERGE_SCAN_INTERVAL()));
+					}
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return true, solange der Scanner nicht beendet wurde
+	 */
+	private synchronized boolean isRunning() {
+		return running;
+	}
+}
@@ -0,0 +1,304 @@
+package osbsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.*;
+
+/**
+ * SharedSegment
+ * 
+ * Benanntes gemeinsames Speichersegment (Shared Memory, gemeinsam genutzte
+ * Bibliothek), das in die virtuellen Adressräume mehrerer Prozesse
+ * eingeblendet werden kann. Die Seiten liegen in einer eigenen PageTable des
+ * Segments, auf die die Seitentabellen aller einblendenden Prozesse
+ * verweisen; alle Prozesse benutzen damit dieselben Einträge und
+ * Seitenrahmen.
+ * 
+ * Die Seiten eines Segments zählen nicht zur RAM-Quote der Prozesse, sondern
+ * werden über eine eigene Liste der RAM-Seiten mit dem Clock-Algorithmus
+ * verdrängt. Da das R-Bit von allen Prozessen gesetzt wird, wird eine Seite
+ * erst ausgelagert, wenn sie seit dem letzten Uhrzeigerdurchlauf von keinem
+ * der Prozesse mehr benutzt wurde.
+ * 
+ * Ein Dateisegment (mmap) gehört zu einer Datei des Host-Dateisystems: die
+ * Seiten werden beim ersten Zugriff aus der Datei gelesen und liegen im
+ * systemweiten Page Cache des Betriebssystems, der statt der eigenen
+ * RAM-Liste des Segments über die Verdrängung entscheidet.
+ */
+public class SharedSegment {
+	private String name; // Name des Segments
+	private int size; // Größe in Byte (Vielfaches der Seitengröße)
+	private PageTable pages; // Seiten (Index = Nr. im Segment) mit Liste
+								// der Seiten im RAM und Uhrzeiger
+	private int residentLimit; // max. Anzahl Seiten im RAM
+	private ArrayList<Process> mappers; // einblendende Prozesse
+	private ArrayList<Integer> mapperBaseVpns; // VPN der Segmentseite 0 je
+												// Prozess
+	private String fileName; // Datei eines Dateisegments (sonst null)
+	private RandomAccessFile file; // geöffnete Datei (sonst null)
+	private boolean writable; // Datei beschreibbar (Zurückschreiben möglich)
+
+	/**
+	 * Präfix der Namen von Dateisegmenten (vor dem Dateinamen)
+	 */
+	public static final String FILE_PREFIX = "file:";
+
+	/**
+	 * Konstruktor: Alle Seiten sind zunächst weder im RAM noch auf der Platte
+	 * (realPageFrameAdr = -1) und werden beim ersten Zugriff mit Nullen
+	 * angelegt.
+	 * 
+	 * @param os
+	 *            Betriebssystem
+	 * @param segName
+	 *            Name des Segments
+	 * @param numOfPages
+	 *            Anzahl Seiten
+	 * @param pageSize
+	 *            Seitengröße in Byte
+	 * @param maxRAMPages
+	 *            max. Anzahl Seiten des Segments im RAM
+	 */
+	public SharedSegment(OperatingSystem os, String segName, int numOfPages,
+			int pageSize, int maxRAMPages) {
+		name = segName;
+		size = numOfPages * pageSize;
+		pages = new PageTable(os, pageSize, numOfPages, this);
+		for (int i = 0; i < numOfPages; i++) {
+			pages.createEntry(i).setValid(false);
+		}
+		residentLimit = Math.max(1, Math.min(numOfPages, maxRAMPages));
+		pages.setRAMlistCapacity(residentLimit);
+		mappers = new ArrayList<Process>();
+		mapperBaseVpns = new ArrayList<Integer>();
+	}
+
+	/**
+	 * Konstruktor für ein Dateisegment: Seite i enthält die Bytes ab
+	 * i * pageSize der Datei; alle Seiten sind zunächst nicht eingelagert.
+	 * 
+	 * @param os
+	 *            Betriebssystem
+	 * @param path
+	 *            Name der Datei
+	 * @param pageSize
+	 *            Seitengröße in Byte
+	 * @throws IOException
+	 *             wenn die Datei nicht geöffnet werden kann
+	 */
+	public SharedSegment(OperatingSystem os, String path, int pageSize)
+			throws IOException {
+		this(os, FILE_PREFIX + path, pageCount(path, pageSize), pageSize,
+				pageCount(path, pageSize));
+		File host = new File(path); // Datei im Host-System
+
+		fileName = path;
+		writable = host.canWrite();
+		file = new RandomAccessFile(host, writable ? "rw" : "r");
+	}
+
+	/**
+	 * @return Anzahl Seiten, die den Inhalt der Datei aufnehmen (mind. 1)
+	 */
+	private static int pageCount(String path, int pageSize) {
+		long length = new File(path).length(); // Dateilänge
+
+		return (int) Math.max(1, (length + pageSize - 1) / pageSize);
+	}
+
+	/**
+	 * @return Name des Segments
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return true bei einem Dateisegment (mmap)
+	 */
+	public boolean isFileBacked() {
+		return file != null;
+	}
+
+	/**
+	 * @return Name der Datei eines Dateisegments oder null
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * @return geöffnete Datei eines Dateisegments oder null
+	 */
+	public RandomAccessFile getFile() {
+		return file;
+	}
+
+	/**
+	 * @return true, wenn geänderte Seiten in die Datei zurückgeschrieben
+	 *         werden können
+	 */
+	public boolean isWritable() {
+		return writable;
+	}
+
+	/**
+	 * @return Größe des Segments in Byte
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return Anzahl Seiten des Segments
+	 */
+	public int getNumOfPages() {
+		return pages.getMaxSize();
+	}
+
+	/**
+	 * @param pageNum
+	 *            Seitennummer im Segment
+	 * @return gemeinsamer Seitentabelleneintrag der Seite
+	 */
+	public PageTableEntry getPte(int pageNum) {
+		return pages.getPte(pageNum);
+	}
+
+	/**
+	 * Wie getPte(pageNum), setzt aber die übergebene Sicht um
+	 * 
+	 * @param view
+	 *            wiederverwendbare Sicht oder null (neue Sicht erzeugen)
+	 */
+	PageTableEntry getPte(int pageNum, PageTableEntry view) {
+		return pages.getPte(pageNum, view);
+	}
+
+	/**
+	 * @return max. Anzahl Seiten des Segments im RAM
+	 */
+	public int getResidentLimit() {
+		return residentLimit;
+	}
+
+	/**
+	 * @return Anzahl Seiten des Segments im RAM
+	 */
+	public int getRAMlistSize() {
+		return pages.getRAMlistSize();
+	}
+
+	/**
+	 * @return Anzahl Prozesse, die das Segment eingeblendet haben
+	 */
+	public int getMapCount() {
+		return mappers.size();
+	}
+
+	/**
+	 * Prozess als Benutzer des Segments eintragen
+	 * 
+	 * @param proc
+	 *            einblendender Prozess
+	 * @param baseVpn
+	 *            VPN, an der Seite 0 des Segments im Adressraum des Prozesses
+	 *            läge (bei einem Ausschnitt ab Seite k: Start-VPN - k)
+	 */
+	public void addMapper(Process proc, int baseVpn) {
+		mappers.add(proc);
+		mapperBaseVpns.add(Integer.valueOf(baseVpn));
+	}
+
+	/**
+	 * Beendeten Prozess als Benutzer des Segments austragen
+	 * 
+	 * @param proc
+	 *            beendeter Prozess
+	 */
+	public void removeMapper(Process proc) {
+		int i = mappers.indexOf(proc); // Position des Prozesses
+
+		if (i >= 0) {
+			mappers.remove(i);
+			mapperBaseVpns.remove(i);
+		}
+	}
+
+	/**
+	 * Pte in die Liste der RAM-Seiten eintragen (Segment noch unter seiner
+	 * RAM-Grenze)
+	 */
+	public void pteRAMlistInsert(PageTableEntry pte) {
+		pages.pteRAMlistInsert(pte);
+	}
+
+	/**
+	 * CLOCK-Algorithmus über die RAM-Seiten des Segments: die ausgewählte
+	 * Seite wird am selben Listenplatz durch newPte ersetzt
+	 * 
+	 * @return die zu verdrängende Seite
+	 */
+	public PageTableEntry selectNextRAMpteAndReplace(PageTableEntry newPte) {
+		// Von mindestens einem Prozess benutzte Seiten (R-Bit) erhalten eine
+		// zweite Chance
+		return pages.selectNextRAMpteAndReplace(newPte);
+	}
+
+	/**
+	 * Zustand des Segments (Seiten, RAM-Liste und Uhrzeiger) in einen
+	 * Sicherungspunkt schreiben. Die einblendenden Prozesse ergeben sich
+	 * beim Wiederherstellen aus deren Seitentabellen.
+	 */
+	public void writeCheckpoint(Checkpoint cp) {
+		cp.putString(name);
+		cp.putInt(getNumOfPages());
+		cp.putInt(size / getNumOfPages());
+		cp.putInt(residentLimit);
+		cp.putString(fileName);
+		pages.writeCheckpoint(cp);
+	}
+
+	/**
+	 * Segment (ohne einblendende Prozesse) aus einem Sicherungspunkt
+	 * wiederherstellen
+	 * 
+	 * @return wiederhergestelltes Segment
+	 * @throws IOException
+	 *             wenn die Datei eines Dateisegments nicht mehr geöffnet
+	 *             werden kann
+	 */
+	public static SharedSegment readCheckpoint(OperatingSystem os,
+			Checkpoint cp) throws IOException {
+		SharedSegment seg; // wiederhergestelltes Segment
+		String segName = cp.getString();
+		int numOfPages = cp.getInt();
+		int pageSize = cp.getInt();
+		int maxRAMPages = cp.getInt();
+		String path = cp.getString(); // Datei eines Dateisegments
+
+		seg = new SharedSegment(os, segName, numOfPages, pageSize, maxRAMPages);
+		if (path != null) {
+			seg.fileName = path;
+			seg.writable = new File(path).canWrite();
+			seg.file = new RandomAccessFile(path, seg.writable ? "rw" : "r");
+		}
+		seg.pages.readCheckpoint(cp, Collections.<String, SharedSegment> emptyMap());
+		return seg;
+	}
+
+	/**
+	 * TLB-Einträge einer verdrängten Seite in allen einblendenden Prozessen
+	 * ungültig machen
+	 * 
+	 * @param pageNum
+	 *            Seitennummer im Segment
+	 */
+	public void invalidateTLBs(int pageNum) {
+		for (int i = 0; i < mappers.size(); i++) {
+			mappers.get(i).tlb.invalidate(mapperBaseVpns.get(i).intValue()
+					+ pageNum);
+		}
+	}
+}
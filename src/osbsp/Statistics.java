@@ -1,12 +1,67 @@
 package osbsp;
 /**
- * Sammlung und Auswertung statistischer Daten eines Simulationslaufs
+ * Sammlung und Auswertung statistischer Daten eines Simulationslaufs. Die
+ * wichtigsten Kennzahlen sind über StatisticsMBean auch per JMX abfragbar.
  */
-public class Statistics {
+public class Statistics implements StatisticsMBean {
 
 	private int pageFaults;			// Anzahl Seitenfehler
 	private int writeAccesses;		// Anzahl Schreibzugriffe
 	private int readAccesses;		// Anzahl Lesezugriffe
+	private int tlbHits;			// Anzahl TLB-Treffer
+	private int tlbMisses;			// Anzahl TLB-Fehlzugriffe
+	private int forks;				// Anzahl fork-Aufrufe
+	private int exits;				// Anzahl beendeter Prozesse (exit/kill)
+	private long reclaimedFrames;	// bei Prozessende freigegebene Seitenrahmen
+	private long reclaimedBlocks;	// bei Prozessende freigegebene Plattenblöcke
+	private int cowFaults;			// Anzahl Copy-on-Write-Fehler
+	private int cowCopies;			// davon: Anzahl kopierter Seiten
+	private int sharedPageFaults;	// Seitenfehler in gemeinsamen Segmenten
+	private int zeroFillFaults;		// Erstzugriffe auf mit Nullen gefüllte Seiten
+	private int imageFaults;		// Erstzugriffe auf Seiten der Programmdatei
+	private int diskReads;			// Seitentransfers von der Platte
+	private int diskWrites;			// Seitentransfers auf die Platte
+	private int swapCacheStores;	// komprimiert abgelegte Seiten
+	private int swapCacheRejects;	// nicht komprimierbare Seiten
+	private int swapCacheFaults;	// aus dem Pool bediente Seitenfehler
+	private int swapCacheWritebacks;	// aus dem Pool auf die Platte geschrieben
+	private long compressionTime;	// Rechenzeit für Kompression in ns
+	private long decompressionTime;	// Rechenzeit für Dekompression in ns
+	private int diskRequests;		// erteilte Plattenaufträge
+	private int diskRequestMerges;	// davon mit wartendem Auftrag zusammengefasst
+	private int maxDiskQueueLength;	// max. Länge der Plattenwarteschlange
+	private long diskSeekDistance;	// Kopfbewegung insgesamt in Spuren
+	private long diskServiceTime;	// Bedienzeit der Platte laut Modell in µs
+	private int diskReadWaits;		// abgeschlossene Leseaufträge
+	private long diskReadLatency;	// Wartezeit der Leseaufträge insgesamt in ns
+	private long maxDiskReadLatency;	// max. Wartezeit eines Leseauftrags in ns
+	private int frameRebalances;	// Neuaufteilungen der Seitenrahmen
+	private int frameReclaims;		// Seiten, die Prozessen über ihrer Quote entzogen wurden
+	private long staticMissEstimate;	// geschätzte Seitenfehler bei fester Quote
+	private long partitionMissEstimate;	// geschätzte Seitenfehler bei Aufteilung
+	private int localAccesses;		// NUMA: Zugriffe auf den Heimatknoten
+	private int remoteAccesses;		// NUMA: Zugriffe auf fremde Knoten
+	private long numaAccessCost;	// NUMA: gewichtete Zugriffskosten in ns
+	private int numaMigrations;		// NUMA: auf den Heimatknoten migrierte Seiten
+	private long l1Hits;			// Cache-Modell: L1-Treffer
+	private long l1Misses;			// Cache-Modell: L1-Fehlzugriffe
+	private long l2Hits;			// Cache-Modell: L2-Treffer
+	private long l2Misses;			// Cache-Modell: L2-Fehlzugriffe
+	private long cacheAccessTime;	// Cache-Modell: Zugriffszeit insgesamt in ns
+	private long pageCacheHits;		// Page Cache: Dateiseite bei TLB-Miss im RAM
+	private long pageCacheMisses;	// Page Cache: Dateiseite eingelagert
+	private long pageCacheEvictions;	// Page Cache: verdrängte Dateiseiten
+	private long pageCacheWritebacks;	// Page Cache: in die Datei geschriebene Seiten
+	private int thrashingWindows;	// Lastkontrolle: Fenster mit Überlastung
+	private int deferredAdmissions;	// Lastkontrolle: zurückgestellte neue Prozesse
+	private int deactivations;		// Lastkontrolle: deaktivierte Prozesse
+	private int activations;		// Lastkontrolle: (wieder) aktivierte Prozesse
+	private long mergeScannedPages;	// Seitenzusammenlegung: geprüfte Seiten
+	private int pageMerges;			// Seitenzusammenlegung: eingesparte Seitenrahmen
+	private long mergeScanTime;		// Seitenzusammenlegung: Rechenzeit des Scanners in ns
+	private int protectionFaults;	// Schutzverletzungen (keine Seitenfehler)
+	private int stackExpansions;	// Vergrößerungen des Stacks
+	private long startTime;			// Zeitpunkt des letzten Zurücksetzens in ns
 
 	//	Seitenfehlerrrate = Anzahl Seitenfehler / Anzahl Zugriffe
 	private float pageFaultRate;	
@@ -19,13 +74,67 @@ public class Statistics {
 	}
 
 	/**
-	 * Alle Statistik-Zhler zurcksetzen
+	 * Alle Statistik-Zähler zurücksetzen
 	 */
 	public void resetCounter() {
 		pageFaults = 0;
 		writeAccesses = 0;
 		readAccesses = 0;
+		tlbHits = 0;
+		tlbMisses = 0;
+		forks = 0;
+		exits = 0;
+		reclaimedFrames = 0;
+		reclaimedBlocks = 0;
+		cowFaults = 0;
+		cowCopies = 0;
+		sharedPageFaults = 0;
+		zeroFillFaults = 0;
+		imageFaults = 0;
+		diskReads = 0;
+		diskWrites = 0;
+		swapCacheStores = 0;
+		swapCacheRejects = 0;
+		swapCacheFaults = 0;
+		swapCacheWritebacks = 0;
+		compressionTime = 0;
+		decompressionTime = 0;
+		diskRequests = 0;
+		diskRequestMerges = 0;
+		maxDiskQueueLength = 0;
+		diskSeekDistance = 0;
+		diskServiceTime = 0;
+		diskReadWaits = 0;
+		diskReadLatency = 0;
+		maxDiskReadLatency = 0;
+		frameRebalances = 0;
+		frameReclaims = 0;
+		staticMissEstimate = 0;
+		partitionMissEstimate = 0;
+		localAccesses = 0;
+		remoteAccesses = 0;
+		numaAccessCost = 0;
+		numaMigrations = 0;
+		l1Hits = 0;
+		l1Misses = 0;
+		l2Hits = 0;
+		l2Misses = 0;
+		cacheAccessTime = 0;
+		pageCacheHits = 0;
+		pageCacheMisses = 0;
+		pageCacheEvictions = 0;
+		pageCacheWritebacks = 0;
+		thrashingWindows = 0;
+		deferredAdmissions = 0;
+		deactivations = 0;
+		activations = 0;
+		mergeScannedPages = 0;
+		pageMerges = 0;
+		mergeScanTime = 0;
+		protectionFaults = 0;
+		stackExpansions = 0;
 		pageFaultRate = 0;		
+		startTime = System.nanoTime();
 	}
 	
 	/**
@@ -49,6 +158,16 @@ public class Statistics {
 	public int getTotalAccesses() {
 		return readAccesses + writeAccesses;
 	}
+
+	/**
+	 * @return mittlere Anzahl Zugriffe je Sekunde seit dem Start bzw. dem
+	 *         letzten Zurücksetzen der Zähler
+	 */
+	public float getAccessesPerSecond() {
+		long time = Math.max(1, System.nanoTime() - startTime); // Dauer in ns
+
+		return (float) (getTotalAccesses() * 1e9 / time);
+	}
 	
 	/**
 	 * @return Anzahl Lesezugriffe
@@ -65,26 +184,921 @@ public class Statistics {
 	}
 
 	/**
-	 * Seitenfehler zhlen
+	 * @return Anzahl TLB-Treffer
+	 */
+	public int getTlbHits() {
+		return tlbHits;
+	}
+
+	/**
+	 * @return Anzahl TLB-Fehlzugriffe
+	 */
+	public int getTlbMisses() {
+		return tlbMisses;
+	}
+
+	/**
+	 * @return TLB-Trefferrate = Anzahl TLB-Treffer / Anzahl TLB-Zugriffe
+	 */
+	public float getTlbHitRate() {
+		return (float) tlbHits / (tlbHits + tlbMisses);
+	}
+
+	/**
+	 * @return Anzahl fork-Aufrufe
+	 */
+	public int getForks() {
+		return forks;
+	}
+
+	/**
+	 * @return Anzahl beendeter Prozesse (exit/kill)
+	 */
+	public int getExits() {
+		return exits;
+	}
+
+	/**
+	 * @return Anzahl bei Prozessende freigegebener Seitenrahmen
+	 */
+	public long getReclaimedFrames() {
+		return reclaimedFrames;
+	}
+
+	/**
+	 * @return Anzahl bei Prozessende freigegebener Plattenblöcke
+	 */
+	public long getReclaimedBlocks() {
+		return reclaimedBlocks;
+	}
+
+	/**
+	 * @return Anzahl Copy-on-Write-Fehler (Schreibzugriffe auf geteilte Seiten)
+	 */
+	public int getCowFaults() {
+		return cowFaults;
+	}
+
+	/**
+	 * @return Anzahl Seiten, die bei Copy-on-Write-Fehlern kopiert wurden
+	 */
+	public int getCowCopies() {
+		return cowCopies;
+	}
+
+	/**
+	 * @return Anzahl Seitenfehler in gemeinsamen Segmenten (in
+	 *         getPageFaults() enthalten)
+	 */
+	public int getSharedPageFaults() {
+		return sharedPageFaults;
+	}
+
+	/**
+	 * @return Anzahl Seitenfehler beim ersten Zugriff auf eine mit Nullen
+	 *         gefüllte Seite (in getPageFaults() enthalten)
+	 */
+	public int getZeroFillFaults() {
+		return zeroFillFaults;
+	}
+
+	/**
+	 * @return Anzahl Seitenfehler beim ersten Zugriff auf eine Seite der
+	 *         Programmdatei (in getPageFaults() enthalten)
+	 */
+	public int getImageFaults() {
+		return imageFaults;
+	}
+
+	/**
+	 * @return Anzahl Seitentransfers von der Platte
+	 */
+	public int getDiskReads() {
+		return diskReads;
+	}
+
+	/**
+	 * @return Anzahl Seitentransfers auf die Platte
+	 */
+	public int getDiskWrites() {
+		return diskWrites;
+	}
+
+	/**
+	 * @return Anzahl komprimiert im Pool abgelegter Seiten
+	 */
+	public int getSwapCacheStores() {
+		return swapCacheStores;
+	}
+
+	/**
+	 * @return Anzahl verdrängter Seiten, die sich nicht komprimieren ließen
+	 */
+	public int getSwapCacheRejects() {
+		return swapCacheRejects;
+	}
+
+	/**
+	 * @return Anzahl Seitenfehler, die aus dem komprimierten Pool bedient
+	 *         wurden (in getPageFaults() enthalten)
+	 */
+	public int getSwapCacheFaults() {
+		return swapCacheFaults;
+	}
+
+	/**
+	 * @return Anzahl Seiten, die bei Überlauf aus dem Pool auf die Platte
+	 *         geschrieben wurden
+	 */
+	public int getSwapCacheWritebacks() {
+		return swapCacheWritebacks;
+	}
+
+	/**
+	 * @return Rechenzeit für Kompression in ns
+	 */
+	public long getCompressionTime() {
+		return compressionTime;
+	}
+
+	/**
+	 * @return Rechenzeit für Dekompression in ns
+	 */
+	public long getDecompressionTime() {
+		return decompressionTime;
+	}
+
+	/**
+	 * @return Anzahl erteilter Plattenaufträge (asynchrone Warteschlange)
+	 */
+	public int getDiskRequests() {
+		return diskRequests;
+	}
+
+	/**
+	 * @return Anzahl Plattenaufträge, die mit einem wartenden Auftrag für
+	 *         benachbarte Blöcke zusammengefasst wurden
+	 */
+	public int getDiskRequestMerges() {
+		return diskRequestMerges;
+	}
+
+	/**
+	 * @return max. Länge der Plattenwarteschlange
+	 */
+	public int getMaxDiskQueueLength() {
+		return maxDiskQueueLength;
+	}
+
+	/**
+	 * @return Kopfbewegung insgesamt in Spuren
+	 */
+	public long getDiskSeekDistance() {
+		return diskSeekDistance;
+	}
+
+	/**
+	 * @return Bedienzeit der Platte laut Plattenmodell in µs
+	 */
+	public long getDiskServiceTime() {
+		return diskServiceTime;
+	}
+
+	/**
+	 * @return mittlere Wartezeit eines Leseauftrags (Seitenfehler) in ns
+	 */
+	public long getAvgDiskReadLatency() {
+		return (diskReadWaits == 0) ? 0 : diskReadLatency / diskReadWaits;
+	}
+
+	/**
+	 * @return max. Wartezeit eines Leseauftrags (Seitenfehler) in ns
+	 */
+	public long getMaxDiskReadLatency() {
+		return maxDiskReadLatency;
+	}
+
+	/**
+	 * Seitenfehler zählen
 	 */
 	public void incrementPageFaults() {
 		pageFaults++;
 	}
 
 	/**
-	 * Lesezugriff zhlen
+	 * Lesezugriff zählen
 	 */
 	public void incrementReadAccesses() {
 		readAccesses++;
 	}
 
 	/**
-	 * Schreibzugriff zhlen
+	 * Schreibzugriff zählen
 	 */
 	public void incrementWriteAccesses() {
 		writeAccesses++;
 	}
 
+	/**
+	 * TLB-Treffer zählen
+	 */
+	public void incrementTlbHits() {
+		tlbHits++;
+	}
+
+	/**
+	 * TLB-Fehlzugriff zählen
+	 */
+	public void incrementTlbMisses() {
+		tlbMisses++;
+	}
+
+	/**
+	 * fork-Aufruf zählen
+	 */
+	public void incrementForks() {
+		forks++;
+	}
+
+	/**
+	 * Prozessende zählen
+	 * 
+	 * @param frames
+	 *            freigegebene Seitenrahmen
+	 * @param blocks
+	 *            freigegebene Plattenblöcke
+	 */
+	public void addProcessExit(int frames, int blocks) {
+		exits++;
+		reclaimedFrames += frames;
+		reclaimedBlocks += blocks;
+	}
+
+	/**
+	 * Copy-on-Write-Fehler zählen
+	 */
+	public void incrementCowFaults() {
+		cowFaults++;
+	}
+
+	/**
+	 * Kopie bei Copy-on-Write-Fehler zählen
+	 */
+	public void incrementCowCopies() {
+		cowCopies++;
+	}
+
+	/**
+	 * Seitenfehler in einem gemeinsamen Segment zählen
+	 */
+	public void incrementSharedPageFaults() {
+		sharedPageFaults++;
+	}
+
+	/**
+	 * Erstzugriff auf eine mit Nullen gefüllte Seite zählen
+	 */
+	public void incrementZeroFillFaults() {
+		zeroFillFaults++;
+	}
+
+	/**
+	 * Erstzugriff auf eine Seite der Programmdatei zählen
+	 */
+	public void incrementImageFaults() {
+		imageFaults++;
+	}
+
+	/**
+	 * Seitentransfer von der Platte zählen
+	 */
+	public void incrementDiskReads() {
+		diskReads++;
+	}
+
+	/**
+	 * Seitentransfer auf die Platte zählen
+	 */
+	public void incrementDiskWrites() {
+		diskWrites++;
+	}
+
+	/**
+	 * Komprimiert abgelegte Seite zählen
+	 */
+	public void incrementSwapCacheStores() {
+		swapCacheStores++;
+	}
+
+	/**
+	 * Nicht komprimierbare Seite zählen
+	 */
+	public void incrementSwapCacheRejects() {
+		swapCacheRejects++;
+	}
+
+	/**
+	 * Aus dem Pool bedienten Seitenfehler zählen
+	 */
+	public void incrementSwapCacheFaults() {
+		swapCacheFaults++;
+	}
+
+	/**
+	 * Rückschreiben aus dem Pool auf die Platte zählen
+	 */
+	public void incrementSwapCacheWritebacks() {
+		swapCacheWritebacks++;
+	}
+
+	/**
+	 * @param ns
+	 *            Rechenzeit einer Kompression in ns
+	 */
+	public void addCompressionTime(long ns) {
+		compressionTime += ns;
+	}
+
+	/**
+	 * @param ns
+	 *            Rechenzeit einer Dekompression in ns
+	 */
+	public void addDecompressionTime(long ns) {
+		decompressionTime += ns;
+	}
+
+	/**
+	 * Plattenauftrag zählen
+	 * 
+	 * @param merged
+	 *            true, wenn der Auftrag zusammengefasst wurde
+	 * @param queueLength
+	 *            aktuelle Länge der Warteschlange
+	 */
+	public void incrementDiskRequests(boolean merged, int queueLength) {
+		diskRequests++;
+		if (merged) {
+			diskRequestMerges++;
+		}
+		maxDiskQueueLength = Math.max(maxDiskQueueLength, queueLength);
+	}
+
+	/**
+	 * Bedienung eines (ggf. zusammengefassten) Plattenauftrags erfassen
+	 * 
+	 * @param distance
+	 *            Kopfbewegung in Spuren
+	 * @param us
+	 *            Bedienzeit laut Plattenmodell in µs
+	 */
+	public void addDiskService(int distance, long us) {
+		diskSeekDistance += distance;
+		diskServiceTime += us;
+	}
+
+	/**
+	 * @param ns
+	 *            Wartezeit eines Leseauftrags vom Erteilen bis zum Abschluss
+	 */
+	public void addDiskReadLatency(long ns) {
+		diskReadWaits++;
+		diskReadLatency += ns;
+		maxDiskReadLatency = Math.max(maxDiskReadLatency, ns);
+	}
+
+	/**
+	 * @return Anzahl Neuaufteilungen der Seitenrahmen
+	 */
+	public int getFrameRebalances() {
+		return frameRebalances;
+	}
+
+	/**
+	 * @return Anzahl Seiten, die Prozessen über ihrer Rahmenquote entzogen
+	 *         wurden
+	 */
+	public int getFrameReclaims() {
+		return frameReclaims;
+	}
+
+	/**
+	 * @return laut Miss-Ratio-Kurven zu erwartende Seitenfehler bei fester
+	 *         Quote MAX_RAM_PAGES_PER_PROCESS (Summe über alle
+	 *         Neuaufteilungen)
+	 */
+	public long getStaticMissEstimate() {
+		return staticMissEstimate;
+	}
+
+	/**
+	 * @return laut Miss-Ratio-Kurven zu erwartende Seitenfehler bei der
+	 *         berechneten Aufteilung (Summe über alle Neuaufteilungen)
+	 */
+	public long getPartitionMissEstimate() {
+		return partitionMissEstimate;
+	}
+
+	/**
+	 * Neuaufteilung der Seitenrahmen zählen
+	 * 
+	 * @param staticMisses
+	 *            geschätzte Seitenfehler bei fester Quote
+	 * @param partitionMisses
+	 *            geschätzte Seitenfehler bei der neuen Aufteilung
+	 */
+	public void addFrameRebalance(long staticMisses, long partitionMisses) {
+		frameRebalances++;
+		staticMissEstimate += staticMisses;
+		partitionMissEstimate += partitionMisses;
+	}
+
+	/**
+	 * Entzug einer Seite (Prozess über seiner Rahmenquote) zählen
+	 */
+	public void incrementFrameReclaims() {
+		frameReclaims++;
+	}
+
+	/**
+	 * @return Anzahl Zugriffe auf Seiten im Heimatknoten des Prozesses
+	 */
+	public int getLocalAccesses() {
+		return localAccesses;
+	}
+
+	/**
+	 * @return Anzahl Zugriffe auf Seiten in fremden Knoten
+	 */
+	public int getRemoteAccesses() {
+		return remoteAccesses;
+	}
+
+	/**
+	 * @return Summe der Zugriffskosten laut NUMA-Modell in ns
+	 */
+	public long getNumaAccessCost() {
+		return numaAccessCost;
+	}
+
+	/**
+	 * @return mittlere Kosten eines Zugriffs laut NUMA-Modell in ns
+	 */
+	public float getAvgNumaAccessCost() {
+		int accesses = localAccesses + remoteAccesses;
+
+		return (accesses == 0) ? 0 : (float) numaAccessCost / accesses;
+	}
+
+	/**
+	 * @return Anzahl auf den Heimatknoten migrierter Seiten
+	 */
+	public int getNumaMigrations() {
+		return numaMigrations;
+	}
+
+	/**
+	 * Zugriff im NUMA-Modell zählen
+	 * 
+	 * @param local
+	 *            true, wenn die Seite im Heimatknoten liegt
+	 * @param cost
+	 *            Kosten des Zugriffs in ns
+	 */
+	public void addNodeAccess(boolean local, int cost) {
+		if (local) {
+			localAccesses++;
+		} else {
+			remoteAccesses++;
+		}
+		numaAccessCost += cost;
+	}
+
+	/**
+	 * Migration einer Seite auf den Heimatknoten zählen
+	 */
+	public void incrementNumaMigrations() {
+		numaMigrations++;
+	}
+
+	/**
+	 * @return Anzahl L1-Treffer im Cache-Modell
+	 */
+	public long getL1Hits() {
+		return l1Hits;
+	}
+
+	/**
+	 * @return Anzahl L1-Fehlzugriffe im Cache-Modell
+	 */
+	public long getL1Misses() {
+		return l1Misses;
+	}
+
+	/**
+	 * @return Anzahl L2-Treffer im Cache-Modell
+	 */
+	public long getL2Hits() {
+		return l2Hits;
+	}
+
+	/**
+	 * @return Anzahl L2-Fehlzugriffe im Cache-Modell
+	 */
+	public long getL2Misses() {
+		return l2Misses;
+	}
+
+	/**
+	 * @return Trefferrate des L1-Cache
+	 */
+	public float getL1HitRate() {
+		long lookups = l1Hits + l1Misses;
+
+		return (lookups == 0) ? 0 : (float) l1Hits / lookups;
+	}
+
+	/**
+	 * @return Trefferrate des L2-Cache (bezogen auf L1-Fehlzugriffe)
+	 */
+	public float getL2HitRate() {
+		long lookups = l2Hits + l2Misses;
+
+		return (lookups == 0) ? 0 : (float) l2Hits / lookups;
+	}
+
+	/**
+	 * @return mittlere Speicherzugriffszeit (AMAT) laut Cache-Modell in ns
+	 */
+	public float getAvgMemoryAccessTime() {
+		long lookups = l1Hits + l1Misses;
+
+		return (lookups == 0) ? 0 : (float) cacheAccessTime / lookups;
+	}
+
+	/**
+	 * Suche in einer Cache-Stufe zählen
+	 * 
+	 * @param level
+	 *            1 = L1, 2 = L2
+	 * @param hit
+	 *            true bei einem Treffer
+	 */
+	public void addCacheLookup(int level, boolean hit) {
+		if (level == 1) {
+			if (hit) {
+				l1Hits++;
+			} else {
+				l1Misses++;
+			}
+		} else if (hit) {
+			l2Hits++;
+		} else {
+			l2Misses++;
+		}
+	}
+
+	/**
+	 * Modellierte Zugriffszeit eines Zugriffs addieren
+	 * 
+	 * @param time
+	 *            Zugriffszeit in ns
+	 */
+	public void addCacheAccessTime(int time) {
+		cacheAccessTime += time;
+	}
+
+	/**
+	 * @return Anzahl Zugriffe auf Dateiseiten, die im Page Cache lagen
+	 */
+	public long getPageCacheHits() {
+		return pageCacheHits;
+	}
+
+	/**
+	 * @return Anzahl eingelagerter Dateiseiten (Page-Cache-Fehlzugriffe)
+	 */
+	public long getPageCacheMisses() {
+		return pageCacheMisses;
+	}
+
+	/**
+	 * @return Anzahl aus dem Page Cache verdrängter Dateiseiten
+	 */
+	public long getPageCacheEvictions() {
+		return pageCacheEvictions;
+	}
+
+	/**
+	 * @return Anzahl in ihre Datei zurückgeschriebener Seiten
+	 */
+	public long getPageCacheWritebacks() {
+		return pageCacheWritebacks;
+	}
+
+	/**
+	 * @return Trefferrate des Page Cache (bezogen auf TLB-Misses auf
+	 *         Dateiseiten)
+	 */
+	public float getPageCacheHitRate() {
+		long lookups = pageCacheHits + pageCacheMisses;
+
+		return (lookups == 0) ? 0 : (float) pageCacheHits / lookups;
+	}
+
+	/**
+	 * Suche einer Dateiseite im Page Cache zählen
+	 * 
+	 * @param hit
+	 *            true, wenn die Seite im RAM lag
+	 */
+	public void addPageCacheLookup(boolean hit) {
+		if (hit) {
+			pageCacheHits++;
+		} else {
+			pageCacheMisses++;
+		}
+	}
+
+	/**
+	 * Verdrängung einer Dateiseite zählen
+	 * 
+	 * @param writeback
+	 *            true, wenn die Seite in die Datei zurückgeschrieben wurde
+	 */
+	public void addPageCacheEviction(boolean writeback) {
+		pageCacheEvictions++;
+		if (writeback) {
+			pageCacheWritebacks++;
+		}
+	}
+
+	/**
+	 * Zurückschreiben einer Dateiseite ohne Verdrängung (sync) zählen
+	 */
+	public void incrementPageCacheWritebacks() {
+		pageCacheWritebacks++;
+	}
+
+	/**
+	 * @return Anzahl Fenster, in denen die Lastkontrolle Überlastung erkannt
+	 *         hat
+	 */
+	public int getThrashingWindows() {
+		return thrashingWindows;
+	}
+
+	/**
+	 * @return Anzahl neuer Prozesse, deren Zulassung zurückgestellt wurde
+	 */
+	public int getDeferredAdmissions() {
+		return deferredAdmissions;
+	}
+
+	/**
+	 * @return Anzahl wegen Überlastung deaktivierter Prozesse
+	 */
+	public int getDeactivations() {
+		return deactivations;
+	}
+
+	/**
+	 * @return Anzahl aktivierter wartender Prozesse
+	 */
+	public int getActivations() {
+		return activations;
+	}
+
+	/**
+	 * Fenster mit Überlastung zählen
+	 */
+	public void incrementThrashingWindows() {
+		thrashingWindows++;
+	}
+
+	/**
+	 * Zurückgestellte Zulassung zählen
+	 */
+	public void incrementDeferredAdmissions() {
+		deferredAdmissions++;
+	}
+
+	/**
+	 * Deaktivierung zählen
+	 */
+	public void incrementDeactivations() {
+		deactivations++;
+	}
+
+	/**
+	 * Aktivierung zählen
+	 */
+	public void incrementActivations() {
+		activations++;
+	}
+
+	/**
+	 * @return Anzahl von der Seitenzusammenlegung geprüfter Seiten
+	 */
+	public long getMergeScannedPages() {
+		return mergeScannedPages;
+	}
+
+	/**
+	 * @return Anzahl zusammengelegter Seiten (= eingesparte Seitenrahmen,
+	 *         solange die Seiten nicht beschrieben werden)
+	 */
+	public int getPageMerges() {
+		return pageMerges;
+	}
+
+	/**
+	 * @return Rechenzeit des Scanners in ns
+	 */
+	public long getMergeScanTime() {
+		return mergeScanTime;
+	}
+
+	/**
+	 * @return mittlere Rechenzeit des Scanners je geprüfter Seite in ns
+	 */
+	public float getMergeCostPerPage() {
+		return (mergeScannedPages == 0) ? 0 : (float) mergeScanTime
+				/ mergeScannedPages;
+	}
+
+	/**
+	 * Durchgang des Scanners erfassen
+	 * 
+	 * @param pages
+	 *            Anzahl geprüfter Seiten
+	 * @param nanos
+	 *            Dauer in ns
+	 */
+	public void addMergeScan(int pages, long nanos) {
+		mergeScannedPages = mergeScannedPages + pages;
+		mergeScanTime = mergeScanTime + nanos;
+	}
+
+	/**
+	 * Zusammengelegte Seite zählen
+	 */
+	public void incrementPageMerges() {
+		pageMerges++;
+	}
+
+	/**
+	 * @return Anzahl Schutzverletzungen (Zugriff außerhalb aller
+	 *         Speicherbereiche oder ohne das nötige Recht)
+	 */
+	public int getProtectionFaults() {
+		return protectionFaults;
+	}
+
+	/**
+	 * @return Anzahl Vergrößerungen des Stacks
+	 */
+	public int getStackExpansions() {
+		return stackExpansions;
+	}
+
+	/**
+	 * Schutzverletzung zählen
+	 */
+	public void incrementProtectionFaults() {
+		protectionFaults++;
+	}
+
+	/**
+	 * Vergrößerung des Stacks zählen
+	 */
+	public void incrementStackExpansions() {
+		stackExpansions++;
+	}
+
+	/**
+	 * Alle Zähler in einen Sicherungspunkt schreiben
+	 */
+	public void writeCheckpoint(Checkpoint cp) {
+		cp.putInt(pageFaults);
+		cp.putInt(writeAccesses);
+		cp.putInt(readAccesses);
+		cp.putInt(tlbHits);
+		cp.putInt(tlbMisses);
+		cp.putInt(forks);
+		cp.putInt(exits);
+		cp.putLong(reclaimedFrames);
+		cp.putLong(reclaimedBlocks);
+		cp.putInt(cowFaults);
+		cp.putInt(cowCopies);
+		cp.putInt(sharedPageFaults);
+		cp.putInt(zeroFillFaults);
+		cp.putInt(imageFaults);
+		cp.putInt(diskReads);
+		cp.putInt(diskWrites);
+		cp.putInt(swapCacheStores);
+		cp.putInt(swapCacheRejects);
+		cp.putInt(swapCacheFaults);
+		cp.putInt(swapCacheWritebacks);
+		cp.putLong(compressionTime);
+		cp.putLong(decompressionTime);
+		cp.putInt(diskRequests);
+		cp.putInt(diskRequestMerges);
+		cp.putInt(maxDiskQueueLength);
+		cp.putLong(diskSeekDistance);
+		cp.putLong(diskServiceTime);
+		cp.putInt(diskReadWaits);
+		cp.putLong(diskReadLatency);
+		cp.putLong(maxDiskReadLatency);
+		cp.putInt(frameRebalances);
+		cp.putInt(frameReclaims);
+		cp.putLong(staticMissEstimate);
+		cp.putLong(partitionMissEstimate);
+		cp.putInt(localAccesses);
+		cp.putInt(remoteAccesses);
+		cp.putLong(numaAccessCost);
+		cp.putInt(numaMigrations);
+		cp.putLong(l1Hits);
+		cp.putLong(l1Misses);
+		cp.putLong(l2Hits);
+		cp.putLong(l2Misses);
+		cp.putLong(cacheAccessTime);
+		cp.putLong(pageCacheHits);
+		cp.putLong(pageCacheMisses);
+		cp.putLong(pageCacheEvictions);
+		cp.putLong(pageCacheWritebacks);
+		cp.putInt(thrashingWindows);
+		cp.putInt(deferredAdmissions);
+		cp.putInt(deactivations);
+		cp.putInt(activations);
+		cp.putLong(mergeScannedPages);
+		cp.putInt(pageMerges);
+		cp.putLong(mergeScanTime);
+		cp.putInt(protectionFaults);
+		cp.putInt(stackExpansions);
+	}
+
+	/**
+	 * Alle Zähler aus einem Sicherungspunkt wiederherstellen
+	 */
+	public void readCheckpoint(Checkpoint cp) {
+		pageFaults = cp.getInt();
+		writeAccesses = cp.getInt();
+		readAccesses = cp.getInt();
+		tlbHits = cp.getInt();
+		tlbMisses = cp.getInt();
+		forks = cp.getInt();
+		exits = cp.getInt();
+		reclaimedFrames = cp.getLong();
+		reclaimedBlocks = cp.getLong();
+		cowFaults = cp.getInt();
+		cowCopies = cp.getInt();
+		sharedPageFaults = cp.getInt();
+		zeroFillFaults = cp.getInt();
+		imageFaults = cp.getInt();
+		diskReads = cp.getInt();
+		diskWrites = cp.getInt();
+		swapCacheStores = cp.getInt();
+		swapCacheRejects = cp.getInt();
+		swapCacheFaults = cp.getInt();
+		swapCacheWritebacks = cp.getInt();
+		compressionTime = cp.getLong();
+		decompressionTime = cp.getLong();
+		diskRequests = cp.getInt();
+		diskRequestMerges = cp.getInt();
+		maxDiskQueueLength = cp.getInt();
+		diskSeekDistance = cp.getLong();
+		diskServiceTime = cp.getLong();
+		diskReadWaits = cp.getInt();
+		diskReadLatency = cp.getLong();
+		maxDiskReadLatency = cp.getLong();
+		frameRebalances = cp.getInt();
+		frameReclaims = cp.getInt();
+		staticMissEstimate = cp.getLong();
+		partitionMissEstimate = cp.getLong();
+		localAccesses = cp.getInt();
+		remoteAccesses = cp.getInt();
+		numaAccessCost = cp.getLong();
+		numaMigrations = cp.getInt();
+		l1Hits = cp.getLong();
+		l1Misses = cp.getLong();
+		l2Hits = cp.getLong();
+		l2Misses = cp.getLong();
+		cacheAccessTime = cp.getLong();
+		pageCacheHits = cp.getLong();
+		pageCacheMisses = cp.getLong();
+		pageCacheEvictions = cp.getLong();
+		pageCacheWritebacks = cp.getLong();
+		thrashingWindows = cp.getInt();
+		deferredAdmissions = cp.getInt();
+		deactivations = cp.getInt();
+		activations = cp.getInt();
+		mergeScannedPages = cp.getLong();
+		pageMerges = cp.getInt();
+		mergeScanTime = cp.getLong();
+		protectionFaults = cp.getInt();
+		stackExpansions = cp.getInt();
+	}
+
 	/**
 	 *  Statistik-Bericht auf der Console ausgeben
 	 *
@@ -94,6 +1108,75 @@ public class Statistics {
 		System.out.println("*** Anzahl Seitenfehler: "+getPageFaults());
 		System.out.println("*** Anzahl Zugriffe:     "+getTotalAccesses());
 		System.out.println("*** Seitenfehlerrate:    "+getPageFaultRate());
+		System.out.println("*** TLB-Trefferrate:     "+getTlbHitRate());
+		System.out.println("*** davon Erstzugriffe:  "+(getZeroFillFaults()+getImageFaults())
+				+" (Nullseiten: "+getZeroFillFaults()+", Programmdatei: "+getImageFaults()+")");
+		if (getProtectionFaults() + getStackExpansions() > 0) {
+			System.out.println("*** Schutzverletzungen:  "+getProtectionFaults()+" (Stack vergroessert: "
+					+getStackExpansions()+" mal)");
+		}
+		System.out.println("*** Plattenzugriffe:     "+(getDiskReads()+getDiskWrites())
+				+" (lesend: "+getDiskReads()+", schreibend: "+getDiskWrites()+")");
+		if (getDiskRequests() > 0) {
+			System.out.println("*** Plattenauftraege:   "+getDiskRequests()+" (zusammengefasst: "
+					+getDiskRequestMerges()+", max. Warteschlange: "+getMaxDiskQueueLength()+")");
+			System.out.println("*** Kopfbewegung:        "+getDiskSeekDistance()+" Spuren, Bedienzeit: "
+					+getDiskServiceTime()+" us");
+			System.out.println("*** Wartezeit Lesen:     "+getAvgDiskReadLatency()/1000+" us (max. "
+					+getMaxDiskReadLatency()/1000+" us)");
+		}
+		if (getSwapCacheStores() + getSwapCacheRejects() > 0) {
+			System.out.println("*** Komprimierter Pool:  "+getSwapCacheFaults()+" Seitenfehler bedient, "
+					+getSwapCacheStores()+" abgelegt, "+getSwapCacheRejects()+" abgelehnt, "
+					+getSwapCacheWritebacks()+" auf Platte");
+			System.out.println("*** Kompressionszeit:    "+getCompressionTime()/1000+" us (Dekompression: "
+					+getDecompressionTime()/1000+" us)");
+		}
+		if (getSharedPageFaults() > 0) {
+			System.out.println("*** davon gem. Segmente: "+getSharedPageFaults());
+		}
+		if (getFrameRebalances() > 0) {
+			System.out.println("*** Rahmenaufteilung:    "+getFrameRebalances()+" Neuaufteilungen, "
+					+getFrameReclaims()+" Seiten entzogen");
+			System.out.println("*** Seitenfehler (LRU-Schaetzung): fest "+getStaticMissEstimate()
+					+", aufgeteilt "+getPartitionMissEstimate()+" (Gewinn: "
+					+(getStaticMissEstimate()-getPartitionMissEstimate())+")");
+		}
+		if (getLocalAccesses() + getRemoteAccesses() > 0) {
+			System.out.println("*** NUMA-Zugriffe:       "+getLocalAccesses()+" lokal, "+getRemoteAccesses()
+					+" entfernt (Anteil lokal: "+(float) getLocalAccesses()/(getLocalAccesses()+getRemoteAccesses())+")");
+			System.out.println("*** NUMA-Kosten:         "+getAvgNumaAccessCost()+" ns je Zugriff, "
+					+getNumaMigrations()+" Seiten migriert");
+		}
+		if (getL1Hits() + getL1Misses() > 0) {
+			System.out.println("*** L1-Trefferrate:      "+getL1HitRate()+" ("+getL1Misses()+" Fehlzugriffe)");
+			if (getL2Hits() + getL2Misses() > 0) {
+				System.out.println("*** L2-Trefferrate:      "+getL2HitRate()+" ("+getL2Misses()+" Fehlzugriffe)");
+			}
+			System.out.println("*** Mittl. Zugriffszeit: "+getAvgMemoryAccessTime()+" ns (Cache-Modell)");
+		}
+		if (getPageCacheHits() + getPageCacheMisses() > 0) {
+			System.out.println("*** Page-Cache-Treffer:  "+getPageCacheHitRate()+" ("+getPageCacheMisses()
+					+" Dateiseiten eingelagert, "+getPageCacheEvictions()+" verdraengt, "
+					+getPageCacheWritebacks()+" zurueckgeschrieben)");
+		}
+		if (getThrashingWindows() + getDeferredAdmissions() > 0) {
+			System.out.println("*** Lastkontrolle:       "+getThrashingWindows()+" Fenster ueberlastet, "
+					+getDeferredAdmissions()+" Zulassungen zurueckgestellt, "+getDeactivations()
+					+" Prozesse deaktiviert, "+getActivations()+" aktiviert");
+		}
+		if (getMergeScannedPages() > 0) {
+			System.out.println("*** Seitenzusammenlegung: "+getMergeScannedPages()+" Seiten geprueft, "
+					+getPageMerges()+" Seitenrahmen eingespart ("+getMergeCostPerPage()+" ns je Seite)");
+		}
+		if (getForks() > 0) {
+			System.out.println("*** Anzahl fork:         "+getForks());
+			System.out.println("*** Copy-on-Write-Fehler:"+getCowFaults()+" (davon kopiert: "+getCowCopies()+")");
+		}
+		if (getExits() > 0) {
+			System.out.println("*** Beendete Prozesse:   "+getExits()+" ("+getReclaimedFrames()+" Seitenrahmen, "
+					+getReclaimedBlocks()+" Plattenbloecke freigegeben)");
+		}
 		System.out.println("****************************************************");
 	}
 }
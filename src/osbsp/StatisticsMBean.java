@@ -0,0 +1,129 @@
+package osbsp;
+
+/**
+ * StatisticsMBean
+ *
+ * JMX-Schnittstelle der Statistik (Standard-MBean): die Zähler können
+ * während einer laufenden Simulation z.B. mit jconsole beobachtet werden.
+ * Gelesen wird ohne den Monitor des Betriebssystems, die Werte sind also
+ * Momentaufnahmen.
+ */
+public interface StatisticsMBean {
+
+	/**
+	 * @return Anzahl Seitenfehler
+	 */
+	public int getPageFaults();
+
+	/**
+	 * @return Anzahl Lesezugriffe
+	 */
+	public int getReadAccesses();
+
+	/**
+	 * @return Anzahl Schreibzugriffe
+	 */
+	public int getWriteAccesses();
+
+	/**
+	 * @return Anzahl Zugriffe insgesamt
+	 */
+	public int getTotalAccesses();
+
+	/**
+	 * @return mittlere Anzahl Zugriffe je Sekunde
+	 */
+	public float getAccessesPerSecond();
+
+	/**
+	 * @return Seitenfehlerrate = Anzahl Seitenfehler / Anzahl Zugriffe
+	 */
+	public float getPageFaultRate();
+
+	/**
+	 * @return Anzahl TLB-Treffer
+	 */
+	public int getTlbHits();
+
+	/**
+	 * @return Anzahl TLB-Fehlzugriffe
+	 */
+	public int getTlbMisses();
+
+	/**
+	 * @return TLB-Trefferrate
+	 */
+	public float getTlbHitRate();
+
+	/**
+	 * @return Anzahl Seitenfehler in gemeinsamen Segmenten
+	 */
+	public int getSharedPageFaults();
+
+	/**
+	 * @return Anzahl Copy-on-Write-Fehler
+	 */
+	public int getCowFaults();
+
+	/**
+	 * @return Anzahl Lesezugriffe auf die Platte
+	 */
+	public int getDiskReads();
+
+	/**
+	 * @return Anzahl Schreibzugriffe auf die Platte
+	 */
+	public int getDiskWrites();
+
+	/**
+	 * @return max. Länge der Plattenwarteschlange
+	 */
+	public int getMaxDiskQueueLength();
+
+	/**
+	 * @return Trefferrate des Page Cache
+	 */
+	public float getPageCacheHitRate();
+
+	/**
+	 * @return Anzahl Fenster, in denen die Lastkontrolle Überlastung erkannt
+	 *         hat
+	 */
+	public int getThrashingWindows();
+
+	/**
+	 * @return Anzahl wegen Überlastung deaktivierter Prozesse
+	 */
+	public int getDeactivations();
+
+	/**
+	 * @return Anzahl zusammengelegter Seiten (eingesparte Seitenrahmen)
+	 */
+	public int getPageMerges();
+
+	/**
+	 * @return mittlere Rechenzeit der Seitenzusammenlegung je geprüfter
+	 *         Seite in ns
+	 */
+	public float getMergeCostPerPage();
+
+	/**
+	 * @return Anzahl Schutzverletzungen
+	 */
+	public int getProtectionFaults();
+
+	/**
+	 * @return Anzahl fork-Aufrufe
+	 */
+	public int getForks();
+
+	/**
+	 * @return Anzahl beendeter Prozesse
+	 */
+	public int getExits();
+
+	/**
+	 * Alle Statistik-Zähler zurücksetzen
+	 */
+	public void resetCounter();
+}
@@ -0,0 +1,125 @@
+package osbsp;
+
+/**
+ * TLB (Translation Lookaside Buffer)
+ * 
+ * Vollassoziativer Puffer für die zuletzt benutzten Seitentabelleneinträge
+ * eines Prozesses mit LRU-Ersetzung. Die TLB-Reichweite ergibt sich aus
+ * Anzahl Einträge * Seitengröße, daher profitieren Prozesse mit Huge Pages
+ * von deutlich weniger TLB-Misses. Jeder Eintrag enthält die Zugriffsrechte
+ * des Speicherbereichs der Seite, so dass bei einem TLB-Treffer ohne Suche
+ * im Adressraum auf Schutzverletzungen geprüft werden kann.
+ */
+public class TLB {
+	private int[] virtPageNums; // Virtuelle Seitennummern der Einträge
+	private PageTable[] tables; // Tabelle des Eintrags (null = frei)
+	private int[] indices; // Index des Eintrags in seiner Tabelle
+	private int[] permissions; // Zugriffsrechte je Eintrag (VMArea)
+	private int hit; // Index des zuletzt gefundenen Eintrags
+	private long[] lastUse; // Zeitpunkt des letzten Zugriffs (für LRU)
+	private long clock; // Logische Uhr, wird bei jedem Zugriff erhöht
+
+	/**
+	 * Konstruktor
+	 * 
+	 * @param size
+	 *            Anzahl TLB-Einträge
+	 */
+	public TLB(int size) {
+		virtPageNums = new int[size];
+		tables = new PageTable[size];
+		indices = new int[size];
+		permissions = new int[size];
+		lastUse = new long[size];
+		clock = 0;
+	}
+
+	/**
+	 * Eintrag für eine virtuelle Seitennummer suchen. Der TLB hält nur
+	 * Tabelle und Index, bei einem Treffer wird die übergebene Sicht auf den
+	 * Eintrag umgesetzt (kein neues Objekt je Zugriff).
+	 * 
+	 * @param vpn
+	 *            virtuelle Seitennummer
+	 * @param view
+	 *            wiederverwendbare Sicht für das Ergebnis
+	 * @return view oder null bei einem TLB-Miss
+	 */
+	public PageTableEntry lookup(int vpn, PageTableEntry view) {
+		for (int i = 0; i < tables.length; i++) {
+			if (tables[i] != null && virtPageNums[i] == vpn) {
+				lastUse[i] = ++clock;
+				hit = i;
+				return view.moveTo(tables[i], indices[i]);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return Zugriffsrechte des zuletzt mit lookup gefundenen Eintrags
+	 */
+	public int getPermissions() {
+		return permissions[hit];
+	}
+
+	/**
+	 * Eintrag aufnehmen, ggf. den am längsten nicht benutzten verdrängen
+	 * 
+	 * @param vpn
+	 *            virtuelle Seitennummer
+	 * @param pte
+	 *            Seitentabelleneintrag
+	 * @param rights
+	 *            Zugriffsrechte des Speicherbereichs der Seite
+	 */
+	public void insert(int vpn, PageTableEntry pte, int rights) {
+		int victim = 0; // Index des zu ersetzenden Eintrags
+
+		for (int i = 0; i < tables.length; i++) {
+			if (tables[i] == null) {
+				victim = i;
+				break;
+			}
+			if (lastUse[i] < lastUse[victim]) {
+				victim = i;
+			}
+		}
+		virtPageNums[victim] = vpn;
+		tables[victim] = pte.getTable();
+		indices[victim] = pte.getVirtPageNum();
+		permissions[victim] = rights;
+		lastUse[victim] = ++clock;
+	}
+
+	/**
+	 * Eintrag für eine virtuelle Seitennummer ungültig machen (z.B. nach
+	 * Verdrängung der Seite)
+	 * 
+	 * @param vpn
+	 *            virtuelle Seitennummer
+	 */
+	public void invalidate(int vpn) {
+		for (int i = 0; i < tables.length; i++) {
+			if (tables[i] != null && virtPageNums[i] == vpn) {
+				tables[i] = null;
+			}
+		}
+	}
+
+	/**
+	 * Alle Einträge ungültig machen
+	 */
+	public void flush() {
+		for (int i = 0; i < tables.length; i++) {
+			tables[i] = null;
+		}
+	}
+
+	/**
+	 * @return Anzahl TLB-Einträge
+	 */
+	public int getSize() {
+		return tables.length;
+	}
+}
@@ -0,0 +1,117 @@
+package osbsp;
+
+/**
+ * ThrashingDetector
+ *
+ * Erkennung von Überlastung (Thrashing) über ein gleitendes Fenster von
+ * Zugriffen: am Ende jedes Fensters werden die Seitenfehlerrate und der
+ * Anteil der Zeit, den die aktiven Prozesse in Seitenfehlern (inkl. Warten
+ * auf die Platte) verbracht haben, mit den Schwellwerten verglichen. Das
+ * System gilt als überlastet, sobald einer der Werte seinen Schwellwert
+ * erreicht, und erst wieder als normal, wenn beide unter die Hälfte ihres
+ * Schwellwerts gefallen sind (Hysterese gegen ständiges Umschalten).
+ */
+class ThrashingDetector {
+	private final int window; // Fensterlänge in Zugriffen
+	private final float faultRateLimit; // Schwellwert Seitenfehlerrate
+	private final float timeShareLimit; // Schwellwert Zeitanteil
+	private int accesses; // Zugriffe im laufenden Fenster
+	private int startFaults; // Seitenfehlerzähler bei Fensterbeginn
+	private long faultTime; // Dauer der Seitenfehler im Fenster in ns
+	private long startTime; // Fensterbeginn (System.nanoTime)
+	private float faultRate; // Seitenfehlerrate des letzten Fensters
+	private float timeShare; // Zeitanteil des letzten Fensters
+	private boolean thrashing; // Zustand nach dem letzten Fenster
+
+	/**
+	 * Konstruktor
+	 *
+	 * @param window
+	 *            Fensterlänge in Zugriffen
+	 * @param faultRatePercent
+	 *            Schwellwert der Seitenfehlerrate in Prozent
+	 * @param timeSharePercent
+	 *            Schwellwert des Zeitanteils in Seitenfehlern in Prozent
+	 * @param pageFaults
+	 *            aktueller Stand des Seitenfehlerzählers
+	 */
+	ThrashingDetector(int window, int faultRatePercent, int timeSharePercent,
+			int pageFaults) {
+		this.window = Math.max(1, window);
+		faultRateLimit = faultRatePercent / 100f;
+		timeShareLimit = timeSharePercent / 100f;
+		startFaults = pageFaults;
+		startTime = System.nanoTime();
+	}
+
+	/**
+	 * Zugriff zählen
+	 *
+	 * @return true, wenn das Fenster voll ist (closeWindow aufrufen)
+	 */
+	boolean recordAccess() {
+		return ++accesses >= window;
+	}
+
+	/**
+	 * Dauer eines abgeschlossenen Seitenfehlers erfassen
+	 *
+	 * @param nanos
+	 *            Dauer in ns
+	 */
+	void recordFaultTime(long nanos) {
+		faultTime = faultTime + nanos;
+	}
+
+	/**
+	 * Fenster auswerten und neues Fenster beginnen
+	 *
+	 * @param pageFaults
+	 *            aktueller Stand des Seitenfehlerzählers
+	 * @param activeProcesses
+	 *            Anzahl aktiver (nicht angehaltener) Prozesse
+	 * @return true, wenn das System überlastet ist
+	 */
+	boolean closeWindow(int pageFaults, int activeProcesses) {
+		long now = System.nanoTime(); // Fensterende
+		long elapsed = Math.max(1, now - startTime); // Fensterdauer
+
+		faultRate = (float) (pageFaults - startFaults) / Math.max(1, accesses);
+		timeShare = Math.min(1f, (float) faultTime
+				/ (elapsed * Math.max(1, activeProcesses)));
+		if (thrashing) {
+			thrashing = faultRate >= faultRateLimit / 2
+					|| timeShare >= timeShareLimit / 2;
+		} else {
+			thrashing = faultRate >= faultRateLimit
+					|| timeShare >= timeShareLimit;
+		}
+		accesses = 0;
+		startFaults = pageFaults;
+		faultTime = 0;
+		startTime = now;
+		return thrashing;
+	}
+
+	/**
+	 * @return true, wenn das System nach dem letzten Fenster überlastet ist
+	 */
+	boolean isThrashing() {
+		return thrashing;
+	}
+
+	/**
+	 * @return Seitenfehlerrate des letzten Fensters
+	 */
+	float getFaultRate() {
+		return faultRate;
+	}
+
+	/**
+	 * @return Anteil der Laufzeit der aktiven Prozesse in Seitenfehlern
+	 *         (letztes Fenster)
+	 */
+	float getTimeShare() {
+		return timeShare;
+	}
+}
@@ -0,0 +1,128 @@
+package osbsp;
+
+/**
+ * VMArea
+ *
+ * Speicherbereich (Virtual Memory Area) eines Prozesses: zusammenhängender,
+ * auf Seiten ausgerichteter Bereich virtueller Adressen mit einer Art (Code,
+ * Heap, Stack, eingeblendetes Segment) und Zugriffsrechten. Zugriffe
+ * außerhalb aller Bereiche oder ohne das nötige Recht sind
+ * Schutzverletzungen, keine Seitenfehler.
+ *
+ * Die Bereiche eines Prozesses liegen in einem Intervallbaum (AddressSpace);
+ * die Baumverweise sind daher Teil des Bereichs.
+ */
+public class VMArea {
+	// Zugriffsrechte (Bitmaske)
+	public static final int READ = 1; // lesen
+	public static final int WRITE = 2; // schreiben
+	public static final int EXECUTE = 4; // ausführen
+
+	// Arten von Bereichen
+	public static final int CODE = 0; // Programmcode (aus der Programmdatei)
+	public static final int HEAP = 1; // Daten, wächst mit brk nach oben
+	public static final int STACK = 2; // Stack, wächst bei Bedarf nach unten
+	public static final int MAPPING = 3; // gemeinsames Segment oder Datei
+
+	private static final String[] TYPE_NAMES = { "Code", "Heap", "Stack",
+			"Einblendung" };
+
+	private int start; // erste virtuelle Adresse
+	private int end; // erste Adresse hinter dem Bereich
+	private final int type; // Art des Bereichs
+	private final int permissions; // Zugriffsrechte
+
+	// Knoten des Intervallbaums (nur für AddressSpace)
+	VMArea left; // Teilbaum mit kleineren Startadressen
+	VMArea right; // Teilbaum mit größeren Startadressen
+	int height; // Höhe des Teilbaums (AVL)
+	int maxEnd; // größtes Bereichsende im Teilbaum
+
+	/**
+	 * Konstruktor
+	 *
+	 * @param start
+	 *            erste virtuelle Adresse (Seitengrenze)
+	 * @param end
+	 *            erste Adresse hinter dem Bereich (Seitengrenze)
+	 * @param type
+	 *            CODE, HEAP, STACK oder MAPPING
+	 * @param permissions
+	 *            Zugriffsrechte (READ, WRITE, EXECUTE)
+	 */
+	public VMArea(int start, int end, int type, int permissions) {
+		this.start = start;
+		this.end = end;
+		this.type = type;
+		this.permissions = permissions;
+	}
+
+	/**
+	 * @return erste virtuelle Adresse des Bereichs
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * @return erste Adresse hinter dem Bereich
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * @return Größe des Bereichs in Byte
+	 */
+	public int getSize() {
+		return end - start;
+	}
+
+	/**
+	 * @return Art des Bereichs (CODE, HEAP, STACK oder MAPPING)
+	 */
+	public int getType() {
+		return type;
+	}
+
+	/**
+	 * @return Zugriffsrechte (READ, WRITE, EXECUTE)
+	 */
+	public int getPermissions() {
+		return permissions;
+	}
+
+	/**
+	 * @param access
+	 *            READ, WRITE oder EXECUTE
+	 * @return true, wenn der Zugriff erlaubt ist
+	 */
+	public boolean permits(int access) {
+		return (permissions & access) == access;
+	}
+
+	/**
+	 * @return true, wenn die virtuelle Adresse im Bereich liegt
+	 */
+	public boolean contains(int adr) {
+		return adr >= start && adr < end;
+	}
+
+	/**
+	 * Grenzen ändern (nur für AddressSpace, der den Baum dabei neu ordnet)
+	 */
+	void setBounds(int newStart, int newEnd) {
+		start = newStart;
+		end = newEnd;
+	}
+
+	/**
+	 * @return Textform wie /proc/pid/maps: Adressbereich, Rechte, Art
+	 */
+	public String toString() {
+		return String.format("%08x-%08x %c%c%c %s", start, end,
+				(permissions & READ) != 0 ? 'r' : '-',
+				(permissions & WRITE) != 0 ? 'w' : '-',
+				(permissions & EXECUTE) != 0 ? 'x' : '-', TYPE_NAMES[type]);
+	}
+}
@@ -0,0 +1,120 @@
+package simulation;
+import java.lang.management.ManagementFactory;
+
+import osbsp.OperatingSystem;
+import osbsp.Statistics;
+
+/**
+ * Benchmark der Zugriffserzeugung der Prozesse: mehrere Prozesse, deren
+ * Seiten vollständig in ihre Rahmenquote passen, laufen ohne Seitenfehler
+ * (nach dem Aufwärmen). Die Prozessgröße entspricht der Voreinstellung von
+ * SimulationEnv und übersteigt die TLB-Reichweite, so dass auch TLB-Misses
+ * (Suche in Adressraum und Seitentabelle) mitgemessen werden. Gemessen
+ * werden die Zugriffe je Sekunde und die je Zugriff von den Prozessthreads
+ * angelegten Bytes (Objekterzeugung im Zugriffspfad von Prozess und
+ * Betriebssystem).
+ *
+ * Aufruf: java simulation.AccessRateBenchmark [SCHLUESSEL=wert ...] mit den
+ * Schlüsseln von SimulationConfig, z.B. NUM_OF_PROCESSES=8 oder
+ * TLB_SIZE=4.
+ */
+public class AccessRateBenchmark {
+
+	/**
+	 * Voreinstellung Anzahl Prozesse
+	 */
+	public static final int NUM_OF_PROCESSES = 4;
+
+	/**
+	 * Voreinstellung Prozessgröße in Byte (wie SimulationEnv: 20 Seiten zu
+	 * 256 Byte, mehr als die 16 TLB-Einträge)
+	 */
+	public static final int PROCESS_SIZE = 5120;
+
+	/**
+	 * Voreinstellung Rahmenquote je Prozess (alle Seiten passen ins RAM)
+	 */
+	public static final int MAX_RAM_PAGES_PER_PROCESS = 20;
+
+	/**
+	 * Voreinstellung Dauer der Messung in ms
+	 */
+	public static final int SIMULATION_TIME = 5000;
+
+	/**
+	 * Dauer des Aufwärmens (JIT, erste Seitenfehler) in ms
+	 */
+	public static final int WARMUP_TIME = 2000;
+
+	/**
+	 * Main-Methode zum Start des Benchmarks
+	 *
+	 * @param args
+	 *            Konfiguration (SCHLUESSEL=wert oder Dateien)
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		SimulationConfig config = new SimulationConfig();
+		OperatingSystem os; // simuliertes Betriebssystem
+		Statistics stats; // Zähler
+		int processes; // Anzahl Prozesse
+		long startAccesses; // Zugriffe bei Beginn der Messung
+		long startMisses; // TLB-Misses bei Beginn der Messung
+		long startBytes; // angelegte Bytes bei Beginn der Messung
+		long startTime; // Beginn der Messung (System.nanoTime)
+		long accesses; // Zugriffe während der Messung
+		long misses; // TLB-Misses während der Messung
+		long bytes; // angelegte Bytes während der Messung
+		double seconds; // Dauer der Messung
+
+		config.put("MAX_RAM_PAGES_PER_PROCESS",
+				String.valueOf(MAX_RAM_PAGES_PER_PROCESS));
+		config.parseArgs(args);
+		os = config.createOperatingSystem();
+		stats = os.eventLog;
+		processes = config.getInt("NUM_OF_PROCESSES", NUM_OF_PROCESSES);
+		for (int i = 0; i < processes; i++) {
+			os.createProcess(config.getInt("PROCESS_SIZE", PROCESS_SIZE));
+		}
+		Thread.sleep(WARMUP_TIME);
+
+		synchronized (os) {
+			startAccesses = stats.getTotalAccesses();
+			startMisses = stats.getTlbMisses();
+			startBytes = allocatedBytes();
+			startTime = System.nanoTime();
+		}
+		Thread.sleep(config.getInt("SIMULATION_TIME", SIMULATION_TIME));
+		synchronized (os) {
+			accesses = stats.getTotalAccesses() - startAccesses;
+			misses = stats.getTlbMisses() - startMisses;
+			bytes = allocatedBytes() - startBytes;
+			seconds = (System.nanoTime() - startTime) / 1e9;
+		}
+		os.killAll();
+
+		System.out.printf("Prozesse:            %d%n", processes);
+		System.out.printf("Zugriffe/s:          %.0f%n", accesses / seconds);
+		System.out.printf("TLB-Misses/Zugriff:  %.4f%n", (double) misses
+				/ Math.max(1, accesses));
+		System.out.printf("Seitenfehler:        %d%n", stats.getPageFaults());
+		System.out.printf("Bytes je Zugriff:    %.4f%n", (double) bytes
+				/ Math.max(1, accesses));
+	}
+
+	/**
+	 * @return Summe der von allen Prozessthreads angelegten Bytes
+	 */
+	private static long allocatedBytes() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long sum = 0; // Summe aller Prozessthreads
+
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread instanceof osbsp.Process) {
+				sum = sum + threads.getThreadAllocatedBytes(thread.getId());
+			}
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,134 @@
+package simulation;
+import java.util.Random;
+
+import osbsp.CacheLevel;
+
+/**
+ * Mikro-Benchmark für das Cache-Modell: spielt Adressfolgen mit
+ * unterschiedlicher Lokalität durch eine L1/L2-Hierarchie (LRU und
+ * Pseudo-LRU) und gibt Trefferraten sowie den Durchsatz des Modells in
+ * Millionen Zugriffen je Sekunde aus. Die Adressen werden vorab erzeugt,
+ * gemessen wird also nur die Suche in den Cache-Stufen.
+ */
+public class CacheBenchmark {
+
+	/**
+	 * Länge der Adressfolgen
+	 */
+	public static final int ACCESSES = 4000000;
+
+	/**
+	 * Größe des physikalischen Adressraums der Folgen in Byte
+	 */
+	public static final int MEMORY_SIZE = 1 << 20;
+
+	/**
+	 * Main-Methode zum Start des Benchmarks
+	 *
+	 * @param args
+	 *            [L1-Größe L2-Größe Zeilengröße] in Byte
+	 */
+	public static void main(String[] args) {
+		int l1Size = 1024; // L1-Kapazität
+		int l2Size = 8192; // L2-Kapazität
+		int lineSize = 16; // Zeilengröße
+		Random random = new Random(4711);
+		int[][] loads = { sequential(), strided(4096), hotSet(l1Size / 2,
+				random), hotSet(l2Size / 2, random), uniform(random) };
+		String[] names = { "sequentiell", "Schrittweite 4096", "Hot Set L1",
+				"Hot Set L2", "gleichverteilt" };
+		int[] policies = { CacheLevel.LRU, CacheLevel.PLRU };
+		String[] policyNames = { "LRU", "PLRU" };
+
+		if (args.length == 3) {
+			l1Size = Integer.parseInt(args[0]);
+			l2Size = Integer.parseInt(args[1]);
+			lineSize = Integer.parseInt(args[2]);
+		}
+		System.out.println("L1 " + l1Size + " Byte 4-fach, L2 " + l2Size
+				+ " Byte 8-fach, Zeile " + lineSize + " Byte");
+		System.out.println("Last                Strategie   L1-Treffer   L2-Treffer   Mio. Zugriffe/s");
+		for (int l = 0; l < loads.length; l++) {
+			for (int p = 0; p < policies.length; p++) {
+				// Aufwärmen (JIT), danach messen
+				run(loads[l], l1Size, l2Size, lineSize, policies[p]);
+				run(loads[l], l1Size, l2Size, lineSize, policies[p]);
+				System.out.printf("%-18s  %-9s%s%n", names[l], policyNames[p],
+						run(loads[l], l1Size, l2Size, lineSize, policies[p]));
+			}
+		}
+	}
+
+	/**
+	 * Adressfolge durch eine neue L1/L2-Hierarchie spielen
+	 *
+	 * @return formatierte Trefferraten und Durchsatz
+	 */
+	private static String run(int[] adrs, int l1Size, int l2Size,
+			int lineSize, int policy) {
+		CacheLevel l1 = new CacheLevel(l1Size, lineSize, 4, policy);
+		CacheLevel l2 = new CacheLevel(l2Size, lineSize, 8, policy);
+		long l1Hits = 0; // Treffer im L1
+		long l2Hits = 0; // Treffer im L2
+		long start = System.nanoTime(); // Startzeit der Messung
+		long time; // Dauer in ns
+
+		for (int adr : adrs) {
+			if (l1.access(adr)) {
+				l1Hits++;
+			} else if (l2.access(adr)) {
+				l2Hits++;
+			}
+		}
+		time = Math.max(1, System.nanoTime() - start);
+		return String.format("   %10.4f   %10.4f   %15.1f", (double) l1Hits
+				/ adrs.length, (double) l2Hits / Math.max(1, adrs.length
+				- l1Hits), adrs.length * 1000.0 / time);
+	}
+
+	// ----------------------- Adressfolgen ---------------------------------
+
+	/**
+	 * Wortweiser Durchlauf durch den gesamten Adressraum
+	 */
+	private static int[] sequential() {
+		int[] adrs = new int[ACCESSES]; // Ergebnis
+
+		for (int i = 0; i < adrs.length; i++) {
+			adrs[i] = (4 * i) % MEMORY_SIZE;
+		}
+		return adrs;
+	}
+
+	/**
+	 * Zugriffe mit fester Schrittweite (z.B. ein Wort je Seite): alle
+	 * Adressen fallen in wenige Mengen
+	 */
+	private static int[] strided(int stride) {
+		int[] adrs = new int[ACCESSES]; // Ergebnis
+
+		for (int i = 0; i < adrs.length; i++) {
+			adrs[i] = (int) (((long) i * stride) % MEMORY_SIZE);
+		}
+		return adrs;
+	}
+
+	/**
+	 * Zufällige Wortzugriffe auf einen Bereich von size Byte
+	 */
+	private static int[] hotSet(int size, Random random) {
+		int[] adrs = new int[ACCESSES]; // Ergebnis
+
+		for (int i = 0; i < adrs.length; i++) {
+			adrs[i] = 4 * random.nextInt(size / 4);
+		}
+		return adrs;
+	}
+
+	/**
+	 * Zufällige Wortzugriffe auf den gesamten Adressraum
+	 */
+	private static int[] uniform(Random random) {
+		return hotSet(MEMORY_SIZE, random);
+	}
+}
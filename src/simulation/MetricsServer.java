@@ -0,0 +1,226 @@
+package simulation;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import osbsp.OperatingSystem;
+import osbsp.Statistics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Live-Überwachung einer laufenden Simulation: die Statistik wird als MBean
+ * osbsp:type=Statistics und die Belegung von RAM, Prozessen und Platte als
+ * MBean osbsp:type=Memory beim Plattform-MBean-Server angemeldet (z.B. mit
+ * jconsole beobachtbar). Zusätzlich liefert ein HTTP-Server auf localhost
+ * unter /metrics alle Kennzahlen im Textformat von Prometheus.
+ *
+ * Jede Abfrage liest die Zähler als Momentaufnahme; nur die Werte von
+ * Prozessliste, Freibereichsliste und Plattenwarteschlange werden unter dem
+ * Monitor des Betriebssystems ermittelt.
+ */
+public class MetricsServer {
+
+	/**
+	 * JMX-Name der Statistik
+	 */
+	public static final String STATISTICS_NAME = "osbsp:type=Statistics";
+
+	/**
+	 * JMX-Name der Speicherbelegung
+	 */
+	public static final String MEMORY_NAME = "osbsp:type=Memory";
+
+	/**
+	 * JMX-Schnittstelle der Speicherbelegung
+	 */
+	public interface MemoryMBean {
+		/**
+		 * @return Anzahl freier Seitenrahmen
+		 */
+		public int getFreeFrames();
+
+		/**
+		 * @return Anzahl laufender Prozesse
+		 */
+		public int getProcesses();
+
+		/**
+		 * @return Seiten im RAM je Prozess (Prozess-ID --> Seiten)
+		 */
+		public Map<Integer, Integer> getResidentPages();
+
+		/**
+		 * @return Anzahl wartender Plattenaufträge
+		 */
+		public int getDiskQueueLength();
+	}
+
+	private final OperatingSystem os; // überwachtes Betriebssystem
+	private HttpServer server; // HTTP-Server (null = nicht gestartet)
+
+	/**
+	 * Konstruktor
+	 *
+	 * @param os
+	 *            zu überwachendes Betriebssystem
+	 */
+	public MetricsServer(OperatingSystem os) {
+		this.os = os;
+	}
+
+	/**
+	 * MBeans anmelden und HTTP-Server starten
+	 *
+	 * @param port
+	 *            TCP-Port auf localhost
+	 * @throws IOException
+	 *             wenn der Port belegt ist oder die MBeans nicht angemeldet
+	 *             werden können
+	 */
+	public void start(int port) throws IOException {
+		MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+		MemoryMBean memory = new MemoryMBean() {
+			public int getFreeFrames() {
+				return os.getFreeRAMSize() / os.getPAGE_SIZE();
+			}
+
+			public int getProcesses() {
+				return os.getResidentPages().size();
+			}
+
+			public Map<Integer, Integer> getResidentPages() {
+				return os.getResidentPages();
+			}
+
+			public int getDiskQueueLength() {
+				return os.getDiskQueueLength();
+			}
+		};
+
+		try {
+			mbs.registerMBean(os.eventLog, new ObjectName(STATISTICS_NAME));
+			mbs.registerMBean(new StandardMBean(memory, MemoryMBean.class),
+					new ObjectName(MEMORY_NAME));
+		} catch (JMException e) {
+			throw new IOException("MBeans nicht anmeldbar: " + e.getMessage(), e);
+		}
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+		server.createContext("/metrics", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				byte[] body = scrape().getBytes("UTF-8"); // Antwort
+				OutputStream out = exchange.getResponseBody();
+
+				exchange.getResponseHeaders().set("Content-Type",
+						"text/plain; version=0.0.4; charset=utf-8");
+				exchange.sendResponseHeaders(200, body.length);
+				try {
+					out.write(body);
+				} finally {
+					out.close();
+				}
+			}
+		});
+		server.start();
+	}
+
+	/**
+	 * HTTP-Server anhalten und MBeans abmelden
+	 */
+	public void stop() {
+		MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+
+		if (server == null) {
+			return;
+		}
+		server.stop(0);
+		server = null;
+		try {
+			mbs.unregisterMBean(new ObjectName(STATISTICS_NAME));
+			mbs.unregisterMBean(new ObjectName(MEMORY_NAME));
+		} catch (JMException e) {
+			System.err.println("MBeans nicht abmeldbar: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @return aktuelle Kennzahlen im Textformat von Prometheus
+	 */
+	public String scrape() {
+		Statistics stats = os.eventLog; // Zähler
+		Map<Integer, Integer> resident = os.getResidentPages(); // je Prozess
+		StringBuilder text = new StringBuilder();
+
+		metric(text, "osbsp_accesses_total", "counter",
+				"Lese- und Schreibzugriffe", stats.getTotalAccesses());
+		metric(text, "osbsp_accesses_per_second", "gauge",
+				"Mittlere Zugriffe je Sekunde", stats.getAccessesPerSecond());
+		metric(text, "osbsp_page_faults_total", "counter", "Seitenfehler",
+				stats.getPageFaults());
+		metric(text, "osbsp_page_fault_rate", "gauge",
+				"Seitenfehler je Zugriff", stats.getPageFaultRate());
+		metric(text, "osbsp_protection_faults_total", "counter",
+				"Schutzverletzungen (keine Seitenfehler)",
+				stats.getProtectionFaults());
+		metric(text, "osbsp_tlb_hit_rate", "gauge", "TLB-Trefferrate",
+				stats.getTlbHitRate());
+		metric(text, "osbsp_page_cache_hit_rate", "gauge",
+				"Trefferrate des Page Cache", stats.getPageCacheHitRate());
+		metric(text, "osbsp_page_merges_total", "counter",
+				"Zusammengelegte Seiten (eingesparte Seitenrahmen)",
+				stats.getPageMerges());
+		metric(text, "osbsp_merge_cost_per_page_ns", "gauge",
+				"Rechenzeit der Seitenzusammenlegung je Seite",
+				stats.getMergeCostPerPage());
+		metric(text, "osbsp_disk_reads_total", "counter",
+				"Lesezugriffe auf die Platte", stats.getDiskReads());
+		metric(text, "osbsp_disk_writes_total", "counter",
+				"Schreibzugriffe auf die Platte", stats.getDiskWrites());
+		metric(text, "osbsp_disk_queue_length", "gauge",
+				"Wartende Plattenauftraege", os.getDiskQueueLength());
+		metric(text, "osbsp_free_frames", "gauge", "Freie Seitenrahmen",
+				os.getFreeRAMSize() / os.getPAGE_SIZE());
+		metric(text, "osbsp_processes", "gauge", "Laufende Prozesse",
+				resident.size());
+		metric(text, "osbsp_suspended_processes", "gauge",
+				"Von der Lastkontrolle angehaltene Prozesse",
+				os.getSuspendedProcesses());
+		header(text, "osbsp_resident_pages", "gauge", "Seiten im RAM je Prozess");
+		for (Map.Entry<Integer, Integer> entry : resident.entrySet()) {
+			text.append("osbsp_resident_pages{pid=\"").append(entry.getKey())
+					.append("\"} ").append(entry.getValue()).append('\n');
+		}
+		return text.toString();
+	}
+
+	// ----------------------- Hilfsmethoden --------------------------------
+
+	/**
+	 * Kennzahl ohne Labels anfügen
+	 */
+	private static void metric(StringBuilder text, String name, String type,
+			String help, Number value) {
+		header(text, name, type, help);
+		text.append(name).append(' ').append(value).append('\n');
+	}
+
+	/**
+	 * HELP- und TYPE-Zeile einer Kennzahl anfügen
+	 */
+	private static void header(StringBuilder text, String name, String type,
+			String help) {
+		text.append("# HELP ").append(name).append(' ').append(help)
+				.append('\n');
+		text.append("# TYPE ").append(name).append(' ').append(type)
+				.append('\n');
+	}
+}
@@ -0,0 +1,130 @@
+package simulation;
+import osbsp.PhysicalMemory;
+
+/**
+ * Mikro-Benchmark für die Seitenoperationen des physikalischen Speichers:
+ * Kopieren (RAM --> Platte), Löschen und Vergleichen ganzer Seiten, jeweils
+ * wortweise über readWord/writeWord und als Blockoperation (copy, clear,
+ * isEqual). Diese Operationen bestimmen die Dauer der Seitenfehlerbehandlung
+ * (Ein-/Auslagern, Demand Zero, Freigabe) und der Suche nach gleichen
+ * Seiten, daher wird für verschiedene Seitengrößen gemessen. Verglichen
+ * werden jeweils zwei gleiche Seiten (ungünstigster Fall).
+ */
+public class PageCopyBenchmark {
+
+	/**
+	 * Untersuchte Seitengrößen in Byte
+	 */
+	public static final int[] PAGE_SIZES = { 256, 1024, 4096, 16384, 65536 };
+
+	/**
+	 * Anzahl Seiten in RAM und Platte (Operationen laufen reihum über alle
+	 * Seiten, damit nicht nur der CPU-Cache gemessen wird)
+	 */
+	public static final int PAGES = 64;
+
+	/**
+	 * Anzahl bearbeiteter Bytes je Messung (unabhängig von der Seitengröße)
+	 */
+	public static final long BYTES_PER_RUN = 1L << 30;
+
+	private static final int COPY = 0;
+	private static final int CLEAR = 1;
+	private static final int COMPARE = 2;
+	private static final String[] NAMES = { "Kopieren", "Loeschen",
+			"Vergleichen" };
+
+	private static int sink; // verhindert das Wegoptimieren der Vergleiche
+
+	/**
+	 * Main-Methode zum Start des Benchmarks
+	 *
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		PhysicalMemory ram; // Quelle
+		PhysicalMemory disk; // Ziel
+		double wordTime; // ns je Seite wortweise
+		double blockTime; // ns je Seite als Block
+
+		System.out.println("Seitengroesse   Operation     wortweise ns   "
+				+ "Block ns   Faktor   Block GB/s");
+		for (int pageSize : PAGE_SIZES) {
+			ram = new PhysicalMemory(PAGES * pageSize);
+			disk = new PhysicalMemory(PAGES * pageSize);
+			for (int adr = 0; adr < ram.getSize(); adr = adr + 4) {
+				ram.writeWord(adr, adr);
+				disk.writeWord(adr, adr);
+			}
+			for (int op = COPY; op <= COMPARE; op++) {
+				// Vergleich mit einer gleichen Kopie (ganze Seite wird gelesen)
+				ram.copy(0, disk, 0, ram.getSize());
+				// Aufwärmen (JIT), danach messen
+				run(ram, disk, pageSize, op, false, BYTES_PER_RUN / 8);
+				run(ram, disk, pageSize, op, true, BYTES_PER_RUN / 8);
+				wordTime = run(ram, disk, pageSize, op, false, BYTES_PER_RUN);
+				blockTime = run(ram, disk, pageSize, op, true, BYTES_PER_RUN);
+				System.out.printf("%13d   %-11s   %12.1f   %8.1f   %6.1f   %10.2f%n",
+						pageSize, NAMES[op], wordTime, blockTime, wordTime
+								/ blockTime, pageSize / blockTime);
+			}
+		}
+		if (sink == 42) {
+			System.out.println();
+		}
+	}
+
+	/**
+	 * Operation reihum auf alle Seiten anwenden, bis bytes Bytes bearbeitet
+	 * sind
+	 *
+	 * @param block
+	 *            true = Blockoperation, false = wortweise
+	 * @return mittlere Dauer je Seite in ns
+	 */
+	private static double run(PhysicalMemory ram, PhysicalMemory disk,
+			int pageSize, int op, boolean block, long bytes) {
+		long pages = bytes / pageSize; // Anzahl Operationen
+		long start = System.nanoTime(); // Beginn der Messung
+		int adr; // Adresse der aktuellen Seite
+
+		for (long i = 0; i < pages; i++) {
+			adr = (int) (i % PAGES) * pageSize;
+			if (op == COPY) {
+				if (block) {
+					ram.copy(adr, disk, adr, pageSize);
+				} else {
+					for (int a = adr; a < adr + pageSize; a = a + 4) {
+						disk.writeWord(a, ram.readWord(a));
+					}
+				}
+			} else if (op == CLEAR) {
+				if (block) {
+					disk.clear(adr, pageSize);
+				} else {
+					for (int a = adr; a < adr + pageSize; a = a + 4) {
+						disk.writeWord(a, 0);
+					}
+				}
+			} else if (block) {
+				sink = sink + (ram.isEqual(adr, disk, adr, pageSize) ? 1 : 0);
+			} else {
+				sink = sink + (equalWords(ram, adr, disk, adr, pageSize) ? 1 : 0);
+			}
+		}
+		return (double) (System.nanoTime() - start) / pages;
+	}
+
+	/**
+	 * Wortweiser Vergleich zweier Bereiche
+	 */
+	private static boolean equalWords(PhysicalMemory a, int adrA,
+			PhysicalMemory b, int adrB, int size) {
+		for (int offset = 0; offset < size; offset = offset + 4) {
+			if (a.readWord(adrA + offset) != b.readWord(adrB + offset)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,105 @@
+package simulation;
+import java.util.Random;
+
+import osbsp.OperatingSystem;
+import osbsp.PageTable;
+import osbsp.PageTableEntry;
+
+/**
+ * Mikro-Benchmark für die Seitenersetzungsstrategien: misst die Kosten einer
+ * Ersetzung (selectNextRAMpteAndReplace) in Abhängigkeit von der Anzahl der
+ * Seiten eines Prozesses im RAM. Da die Residenzmenge als Ringpuffer mit
+ * Austausch am selben Platz verwaltet wird, sollen die Kosten pro Ersetzung
+ * auch bei mehreren hundert RAM-Seiten nicht ansteigen.
+ *
+ * Die Seitentabelle wird direkt (ohne Prozess-Thread, RAM und Platte)
+ * benutzt; gemessen wird also nur die Auswahl der zu verdrängenden Seite.
+ */
+public class ReplacementBenchmark {
+
+	/**
+	 * Untersuchte Anzahlen von Seiten im RAM (MAX_RAM_PAGES_PER_PROCESS)
+	 */
+	public static final int[] RAM_PAGES = { 16, 64, 256, 1024 };
+
+	/**
+	 * Anzahl gemessener Ersetzungen je Konfiguration
+	 */
+	public static final int REPLACEMENTS = 1000000;
+
+	/**
+	 * Anzahl Referenzen auf zufällige Seiten zwischen zwei Ersetzungen
+	 */
+	public static final int REFERENCES_PER_REPLACEMENT = 4;
+
+	/**
+	 * Main-Methode zum Start des Benchmarks
+	 *
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		OperatingSystem os = new OperatingSystem();
+		int[] algorithms = { os.CLOCK, os.FIFO, os.RANDOM, os.CAR, os.TWO_Q };
+		String[] names = { "CLOCK", "FIFO", "RANDOM", "CAR", "2Q" };
+
+		System.out.println("Seiten im RAM   Strategie   ns/Ersetzung");
+		for (int ramPages : RAM_PAGES) {
+			for (int a = 0; a < algorithms.length; a++) {
+				os.setREPLACEMENT_ALGORITHM(algorithms[a]);
+				// Aufwärmen (JIT), danach messen
+				run(os, ramPages, REPLACEMENTS / 10);
+				System.out.printf("%13d   %-9s   %12.1f%n", ramPages, names[a],
+						run(os, ramPages, REPLACEMENTS));
+			}
+		}
+	}
+
+	/**
+	 * Residenzmenge mit ramPages Seiten füllen und anschließend replacements
+	 * Seitenersetzungen für Seiten aus einem doppelt so großen Arbeitsbereich
+	 * durchführen
+	 *
+	 * @return mittlere Dauer einer Ersetzung in ns
+	 */
+	private static double run(OperatingSystem os, int ramPages,
+			int replacements) {
+		PageTable pageTable = new PageTable(os, 0, os.getPAGE_SIZE());
+		Random random = new Random(4711);
+		int[] swapped = new int[ramPages]; // VPNs der ausgelagerten Seiten
+		PageTableEntry pte; // Aktueller Eintrag
+		PageTableEntry victim; // Verdrängte Seite
+		int slot; // Index in swapped
+		long start; // Startzeit der Messung
+		long time = 0; // Summe der Ersetzungsdauern
+
+		pageTable.setRAMlistCapacity(ramPages);
+		for (int vpn = 0; vpn < ramPages; vpn++) {
+			pageTable.pteRAMlistInsert(pageTable.createEntry(vpn));
+		}
+		for (int i = 0; i < ramPages; i++) {
+			swapped[i] = ramPages + i;
+			pageTable.createEntry(swapped[i]).setValid(false);
+		}
+		for (int i = 0; i < replacements; i++) {
+			// Zugriffe auf zufällige Seiten setzen die R-Bits
+			for (int r = 0; r < REFERENCES_PER_REPLACEMENT; r++) {
+				pte = pageTable.getPte(random.nextInt(2 * ramPages));
+				if (pte.isValid()) {
+					pte.setReferenced(true);
+				}
+			}
+			// Seitenfehler für eine ausgelagerte Seite
+			slot = random.nextInt(ramPages);
+			pte = pageTable.getPte(swapped[slot]);
+			start = System.nanoTime();
+			victim = pageTable.selectNextRAMpteAndReplace(pte);
+			time = time + System.nanoTime() - start;
+			victim.setValid(false);
+			victim.setReferenced(false);
+			pte.setValid(true);
+			pte.setReferenced(true);
+			swapped[slot] = victim.getVirtPageNum();
+		}
+		return (double) time / replacements;
+	}
+}
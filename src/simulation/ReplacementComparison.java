@@ -0,0 +1,240 @@
+package simulation;
+import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
+
+import osbsp.EventTrace;
+import osbsp.OperatingSystem;
+import osbsp.PageTable;
+import osbsp.PageTableEntry;
+
+/**
+ * Vergleich der Seitenersetzungsstrategien anhand der Seitenfehlerrate: alle
+ * Strategien bearbeiten dieselbe Folge von Seitenzugriffen mit derselben
+ * Anzahl Seitenrahmen. Die Zugriffsfolge stammt entweder aus einer
+ * Ereignisaufzeichnung (OperatingSystem.dumpTrace, Lese- und
+ * Schreibzugriffe eines Prozesses) oder aus synthetischen Lasten:
+ *
+ * Schleife: zyklischer Durchlauf über etwas mehr Seiten, als Rahmen
+ * vorhanden sind (ungünstigster Fall für LRU-artige Strategien);
+ * Hot Set + Scan: häufig benutzte Seiten, unterbrochen von einmaligen
+ * sequentiellen Durchläufen über viele Seiten;
+ * Lokalität: Zugriffe um zufällige Mittelpunkte wie in Process.run().
+ *
+ * Wie beim ReplacementBenchmark wird die Seitentabelle direkt (ohne
+ * Prozess-Thread, RAM und Platte) benutzt.
+ *
+ * Aufruf: java simulation.ReplacementComparison [seitenrahmen] oder
+ * java simulation.ReplacementComparison datei pid [seitenrahmen]
+ */
+public class ReplacementComparison {
+
+	/**
+	 * Voreingestellte Anzahl Seitenrahmen
+	 */
+	public static final int DEFAULT_FRAMES = 64;
+
+	/**
+	 * Länge der synthetischen Zugriffsfolgen
+	 */
+	public static final int ACCESSES = 1000000;
+
+	/**
+	 * Anzahl Zugriffe je Seite bei sequentiellen Durchläufen (Wörter, die
+	 * nacheinander auf derselben Seite gelesen werden)
+	 */
+	public static final int ACCESSES_PER_PAGE = 4;
+
+	/**
+	 * Main-Methode
+	 *
+	 * @param args
+	 *            [seitenrahmen] oder datei pid [seitenrahmen]
+	 */
+	public static void main(String[] args) {
+		OperatingSystem os = new OperatingSystem();
+		int frames = DEFAULT_FRAMES; // Anzahl Seitenrahmen
+		int maxPages = os.getVIRT_ADR_SPACE() / os.getPAGE_SIZE(); // VPNs
+
+		if (args.length >= 2) {
+			if (args.length > 2) {
+				frames = Integer.parseInt(args[2]);
+			}
+			try {
+				compare(os, args[0] + ", Prozess " + args[1], readTrace(os,
+						args[0], Integer.parseInt(args[1])), frames);
+			} catch (IOException e) {
+				System.err.println("Fehler beim Lesen von " + args[0] + ": "
+						+ e.getMessage());
+			}
+			return;
+		}
+		if (args.length == 1) {
+			frames = Integer.parseInt(args[0]);
+		}
+		compare(os, "Schleife", loop(frames + frames / 4), frames);
+		compare(os, "Hot Set + Scan", hotSetAndScan(frames / 2, maxPages,
+				new Random(4711)), frames);
+		compare(os, "Lokalitaet", locality(Math.min(maxPages, 4 * frames),
+				new Random(4711)), frames);
+	}
+
+	/**
+	 * Zugriffsfolge mit allen Strategien bearbeiten und Seitenfehler
+	 * ausgeben
+	 */
+	private static void compare(OperatingSystem os, String name, int[] vpns,
+			int frames) {
+		int[] algorithms = { os.CLOCK, os.FIFO, os.RANDOM, os.CAR, os.TWO_Q };
+		String[] names = { "CLOCK", "FIFO", "RANDOM", "CAR", "2Q" };
+		long faults; // Seitenfehler einer Strategie
+
+		System.out.println("\n" + name + ": " + vpns.length + " Zugriffe, "
+				+ frames + " Seitenrahmen");
+		System.out.println("Strategie   Seitenfehler   Fehlerrate");
+		for (int a = 0; a < algorithms.length; a++) {
+			os.setREPLACEMENT_ALGORITHM(algorithms[a]);
+			faults = replay(os, vpns, frames);
+			System.out.printf("%-9s   %12d   %10.6f%n", names[a], faults,
+					(double) faults / Math.max(1, vpns.length));
+		}
+	}
+
+	/**
+	 * Zugriffsfolge auf einer leeren Seitentabelle abspielen
+	 *
+	 * @return Anzahl Seitenfehler (inkl. Erstzugriffe)
+	 */
+	private static long replay(OperatingSystem os, int[] vpns, int frames) {
+		PageTable pageTable = new PageTable(os, 0, os.getPAGE_SIZE());
+		PageTableEntry pte; // Eintrag der aktuellen Seite
+		PageTableEntry victim; // verdrängte Seite
+		long faults = 0; // Anzahl Seitenfehler
+
+		pageTable.setRAMlistCapacity(frames);
+		for (int vpn : vpns) {
+			pte = pageTable.getPte(vpn);
+			if (pte == null || !pte.isValid()) {
+				faults++;
+				if (pte == null) {
+					pte = pageTable.createEntry(vpn);
+				} else {
+					pte.setValid(true);
+				}
+				if (pageTable.getRAMlistSize() < frames) {
+					pageTable.pteRAMlistInsert(pte);
+				} else {
+					victim = pageTable.selectNextRAMpteAndReplace(pte);
+					victim.setValid(false);
+					victim.setReferenced(false);
+				}
+			}
+			pte.setReferenced(true);
+		}
+		return faults;
+	}
+
+	// ----------------------- Zugriffsfolgen -------------------------------
+
+	/**
+	 * Zyklischer Durchlauf über pages Seiten
+	 */
+	private static int[] loop(int pages) {
+		int[] vpns = new int[ACCESSES]; // Ergebnis
+
+		for (int i = 0; i < vpns.length; i++) {
+			vpns[i] = (i / ACCESSES_PER_PAGE) % pages;
+		}
+		return vpns;
+	}
+
+	/**
+	 * Zufällige Zugriffe auf hotPages Seiten, nach jeweils 20 * hotPages
+	 * Zugriffen unterbrochen von einem Durchlauf über 4 * hotPages noch nicht
+	 * (bzw. lange nicht mehr) benutzte Seiten
+	 */
+	private static int[] hotSetAndScan(int hotPages, int maxPages,
+			Random random) {
+		int[] vpns = new int[ACCESSES]; // Ergebnis
+		int scanPage = hotPages; // nächste Seite des Durchlaufs
+		int i = 0; // Anzahl erzeugter Zugriffe
+
+		while (i < vpns.length) {
+			for (int k = 0; k < 20 * hotPages && i < vpns.length; k++) {
+				vpns[i++] = random.nextInt(hotPages);
+			}
+			for (int k = 0; k < 4 * hotPages * ACCESSES_PER_PAGE
+					&& i < vpns.length; k++) {
+				vpns[i++] = scanPage;
+				if ((k + 1) % ACCESSES_PER_PAGE == 0) {
+					scanPage++;
+					if (scanPage == maxPages) {
+						scanPage = hotPages;
+					}
+				}
+			}
+		}
+		return vpns;
+	}
+
+	/**
+	 * Zugriffe wie in Process.run(): je 30 Zugriffe im Abstand von höchstens
+	 * zwei Seiten um einen zufälligen Mittelpunkt
+	 */
+	private static int[] locality(int pages, Random random) {
+		int[] vpns = new int[ACCESSES]; // Ergebnis
+		int median = 0; // aktueller Mittelpunkt
+		int bias = 2; // Streuung in Seiten
+
+		for (int i = 0; i < vpns.length; i++) {
+			if (i % 30 == 0) {
+				median = random.nextInt(pages);
+			}
+			vpns[i] = Math.max(0, Math.min(pages - 1, median - bias
+					+ random.nextInt(2 * bias + 1)));
+		}
+		return vpns;
+	}
+
+	/**
+	 * Lese- und Schreibzugriffe eines Prozesses aus einer Dump-Datei lesen
+	 *
+	 * @return VPNs der Zugriffe (Basisseiten)
+	 */
+	private static int[] readTrace(OperatingSystem os, String fileName,
+			int pid) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(fileName)));
+		int shift = Integer.numberOfTrailingZeros(os.getPAGE_SIZE());
+		int[] vpns = new int[1024]; // Ergebnis
+		int count = 0; // Anzahl Zugriffe
+		int events; // Anzahl Ereignisse in der Datei
+		int type; // Ereignistyp
+		int eventPid; // Prozess-Id des Ereignisses
+		int virtAdr; // virtuelle Adresse
+
+		try {
+			if (in.readInt() != EventTrace.MAGIC) {
+				throw new IOException("keine Ereignisaufzeichnung");
+			}
+			events = in.readInt();
+			for (int i = 0; i < events; i++) {
+				in.readLong();
+				type = in.readInt();
+				eventPid = in.readInt();
+				virtAdr = in.readInt();
+				in.readInt();
+				if (eventPid == pid
+						&& (type == EventTrace.READ || type == EventTrace.WRITE)) {
+					if (count == vpns.length) {
+						vpns = Arrays.copyOf(vpns, 2 * count);
+					}
+					vpns[count++] = virtAdr >>> shift;
+				}
+			}
+		} finally {
+			in.close();
+		}
+		return Arrays.copyOf(vpns, count);
+	}
+}
@@ -0,0 +1,284 @@
+package simulation;
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.*;
+
+import osbsp.OperatingSystem;
+
+/**
+ * Konfiguration einer Simulation: Maschinen-, Last- und Strategieparameter
+ * als Schlüssel-Wert-Paare aus einer Properties-Datei und/oder von der
+ * Kommandozeile (SCHLUESSEL=wert, spätere Angaben überschreiben frühere).
+ * Einfache YAML-Dateien mit einer Zeile "SCHLUESSEL: wert" je Parameter
+ * werden ebenfalls gelesen, da Properties ':' als Trennzeichen akzeptiert.
+ *
+ * Die Schlüssel sind die Parameternamen des Betriebssystems: zu jedem
+ * Schlüssel X gehört die Methode setX (bzw. getX/isX) von OperatingSystem,
+ * z.B. MAX_RAM_PAGES_PER_PROCESS=12 oder REPLACEMENT_ALGORITHM=CAR. Als
+ * Werte sind Zahlen, true/false und die Namen der Konstanten des
+ * Betriebssystems (CLOCK, TWO_Q, SCAN, CACHE_PLRU, ...) erlaubt. Dazu
+ * kommen die Maschinenparameter (MACHINE_KEYS, nur beim Anlegen des
+ * Betriebssystems) und die Lastparameter der Simulationsumgebung
+ * (WORKLOAD_KEYS).
+ *
+ * Mit apply() und get() lassen sich Parameter auch während einer laufenden
+ * Simulation ändern bzw. abfragen (Administrationsschnittstelle).
+ */
+public class SimulationConfig {
+
+	/**
+	 * Maschinenparameter (Konstruktor von OperatingSystem)
+	 */
+	public static final String[] MACHINE_KEYS = { "RAM_SIZE", "PAGE_SIZE",
+			"VIRT_ADR_SPACE", "HUGE_PAGE_SIZE" };
+
+	/**
+	 * Parameter der Simulationsumgebung: Dauer in ms, Anzahl Prozesse,
+	 * Prozessgröße in Byte, Port der Live-Metriken (0 = aus)
+	 */
+	public static final String[] WORKLOAD_KEYS = { "SIMULATION_TIME",
+			"NUM_OF_PROCESSES", "PROCESS_SIZE", "METRICS_PORT" };
+
+	private Properties settings; // Schlüssel --> Wert
+
+	/**
+	 * Konstruktor: leere Konfiguration
+	 */
+	public SimulationConfig() {
+		settings = new Properties();
+	}
+
+	/**
+	 * Wert setzen (überschreibt einen vorhandenen Wert)
+	 */
+	public void put(String key, String value) {
+		settings.setProperty(key.trim(), value.trim());
+	}
+
+	/**
+	 * @return Wert des Schlüssels oder null
+	 */
+	public String get(String key) {
+		return settings.getProperty(key);
+	}
+
+	/**
+	 * @return Wert des Schlüssels als Zahl oder defaultValue, wenn nicht
+	 *         gesetzt
+	 * @throws IllegalArgumentException
+	 *             wenn der Wert keine Zahl ist
+	 */
+	public int getInt(String key, int defaultValue) {
+		String value = settings.getProperty(key); // gesetzter Wert
+
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(key + ": " + value
+					+ " ist keine Zahl");
+		}
+	}
+
+	/**
+	 * Einstellungen aus einer Properties-Datei lesen
+	 *
+	 * @throws IOException
+	 *             wenn die Datei nicht lesbar ist
+	 */
+	public void load(String fileName) throws IOException {
+		Reader in = new BufferedReader(new FileReader(fileName));
+		Properties loaded = new Properties(); // Inhalt der Datei
+
+		try {
+			loaded.load(in);
+		} finally {
+			in.close();
+		}
+		for (String key : loaded.stringPropertyNames()) {
+			put(key, loaded.getProperty(key));
+		}
+	}
+
+	/**
+	 * Kommandozeile auswerten: Argumente der Form SCHLUESSEL=wert setzen
+	 * einen Wert, alle übrigen Argumente sind Konfigurationsdateien
+	 *
+	 * @throws IOException
+	 *             wenn eine Datei nicht lesbar ist
+	 */
+	public void parseArgs(String[] args) throws IOException {
+		int separator; // Position des '='
+
+		for (String arg : args) {
+			separator = arg.indexOf('=');
+			if (separator > 0) {
+				put(arg.substring(0, separator), arg.substring(separator + 1));
+			} else {
+				load(arg);
+			}
+		}
+	}
+
+	/**
+	 * Betriebssystem mit den Maschinenparametern anlegen und alle übrigen
+	 * Parameter (außer den Lastparametern) in der Reihenfolge ihrer Namen
+	 * setzen
+	 *
+	 * @return konfiguriertes Betriebssystem
+	 * @throws IllegalArgumentException
+	 *             bei unbekannten Schlüsseln oder unzulässigen Werten
+	 */
+	public OperatingSystem createOperatingSystem() {
+		OperatingSystem os = new OperatingSystem(getInt("RAM_SIZE",
+				OperatingSystem.DEFAULT_RAM_SIZE), getInt("PAGE_SIZE",
+				OperatingSystem.DEFAULT_PAGE_SIZE), getInt("VIRT_ADR_SPACE",
+				OperatingSystem.DEFAULT_VIRT_ADR_SPACE), getInt(
+				"HUGE_PAGE_SIZE", 0));
+
+		for (String key : new TreeSet<String>(settings.stringPropertyNames())) {
+			if (!contains(MACHINE_KEYS, key) && !contains(WORKLOAD_KEYS, key)) {
+				apply(os, key, settings.getProperty(key));
+			}
+		}
+		return os;
+	}
+
+	/**
+	 * Parameter eines (ggf. laufenden) Betriebssystems ändern. Die Änderung
+	 * erfolgt unter dem Monitor des Betriebssystems, also zwischen zwei
+	 * System Calls.
+	 *
+	 * @param os
+	 *            Betriebssystem
+	 * @param key
+	 *            Parametername (z.B. REPLACEMENT_ALGORITHM)
+	 * @param value
+	 *            Zahl, true/false oder Name einer Konstanten (z.B. CAR)
+	 * @throws IllegalArgumentException
+	 *             bei unbekanntem oder nicht änderbarem Parameter oder
+	 *             unzulässigem Wert
+	 */
+	public static void apply(OperatingSystem os, String key, String value) {
+		Method setter = findMethod("set" + key, 1); // Setter des Parameters
+		Object arg; // umgewandelter Wert
+
+		if (contains(MACHINE_KEYS, key)) {
+			throw new IllegalArgumentException(key
+					+ " kann nur beim Start gesetzt werden");
+		}
+		if (setter == null) {
+			throw new IllegalArgumentException("Unbekannter Parameter " + key);
+		}
+		value = value.trim();
+		if (setter.getParameterTypes()[0] == boolean.class) {
+			if (!value.equals("true") && !value.equals("false")) {
+				throw new IllegalArgumentException(key + ": " + value
+						+ " ist nicht true oder false");
+			}
+			arg = Boolean.valueOf(value);
+		} else {
+			arg = Integer.valueOf(parseValue(os, key, value));
+		}
+		synchronized (os) {
+			invoke(os, setter, arg);
+		}
+	}
+
+	/**
+	 * Aktuellen Wert eines Parameters abfragen
+	 *
+	 * @return Wert als Text
+	 * @throws IllegalArgumentException
+	 *             bei unbekanntem Parameter
+	 */
+	public static String get(OperatingSystem os, String key) {
+		Method getter = findMethod("get" + key, 0); // Getter des Parameters
+
+		if (getter == null) {
+			getter = findMethod("is" + key, 0);
+		}
+		if (getter == null) {
+			throw new IllegalArgumentException("Unbekannter Parameter " + key);
+		}
+		return String.valueOf(invoke(os, getter, null));
+	}
+
+	// ----------------------- Hilfsmethoden --------------------------------
+
+	/**
+	 * @return öffentliche Methode von OperatingSystem mit int- bzw.
+	 *         boolean-Parameter (params = 1) oder ohne Parameter (params =
+	 *         0), sonst null
+	 */
+	private static Method findMethod(String name, int params) {
+		Class<?>[] types; // Parametertypen
+
+		for (Method method : OperatingSystem.class.getMethods()) {
+			types = method.getParameterTypes();
+			if (method.getName().equals(name)
+					&& types.length == params
+					&& (params == 0 || types[0] == int.class || types[0] == boolean.class)) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Zahl oder Name einer int-Konstanten des Betriebssystems auswerten
+	 */
+	private static int parseValue(OperatingSystem os, String key, String value) {
+		Field constant; // Konstante des Betriebssystems
+
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			// keine Zahl --> Name einer Konstanten?
+		}
+		try {
+			constant = OperatingSystem.class.getField(value);
+			if (constant.getType() == int.class) {
+				return constant.getInt(os);
+			}
+		} catch (NoSuchFieldException e) {
+			// unten gemeldet
+		} catch (IllegalAccessException e) {
+			// unten gemeldet
+		}
+		throw new IllegalArgumentException(key + ": " + value
+				+ " ist weder Zahl noch Konstante des Betriebssystems");
+	}
+
+	/**
+	 * Methode des Betriebssystems aufrufen; Fehler der Methode werden als
+	 * IllegalArgumentException weitergegeben
+	 */
+	private static Object invoke(OperatingSystem os, Method method, Object arg) {
+		try {
+			return (arg == null) ? method.invoke(os) : method.invoke(os, arg);
+		} catch (InvocationTargetException e) {
+			throw new IllegalArgumentException(method.getName() + ": "
+					+ e.getCause().getMessage(), e.getCause());
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException(method.getName() + ": "
+					+ e.getMessage());
+		}
+	}
+
+	/**
+	 * @return true, wenn key in keys vorkommt
+	 */
+	private static boolean contains(String[] keys, String key) {
+		for (String k : keys) {
+			if (k.equals(key)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -1,4 +1,6 @@
 package simulation;
+import java.io.*;
+
 import osbsp.OperatingSystem;
 
 /**
@@ -28,42 +30,103 @@ public class SimulationEnv {
 	 * Main-Methode zum Start der Simulation
 	 * 
 	 * @param args
+	 *            Konfigurationsdateien und/oder SCHLUESSEL=wert (siehe
+	 *            SimulationConfig), z.B. REPLACEMENT_ALGORITHM=CAR
 	 */
 	public static void main(String[] args) {
+		SimulationConfig config = new SimulationConfig(); // Parameter
+		OperatingSystem os; // simuliertes Betriebssystem
+		int numOfProcesses; // Anzahl zu erzeugender Prozesse
+		int metricsPort; // Port der Live-Metriken (0 = aus)
+		MetricsServer metrics = null; // Live-Metriken
 		int pid; // Aktuelle Prozess-ID
 
 		Thread.currentThread().setPriority(Thread.MAX_PRIORITY);
 
-		// "Laden" des Betriebssystems
-		OperatingSystem os = new OperatingSystem();
-		System.out
-				.println("*********** Simulation der Betriebssystem-Speicherverwaltung startet *************");
-
-		// ------------------------- Parameter setzen
-		// ----------------------------------------------
+		// ------------------------- Voreinstellungen der Parameter
+		// (ueberschreibbar durch Konfigurationsdateien und SCHLUESSEL=wert
+		// auf der Kommandozeile) --------------------------------------------
 		// Dauer der Simulation in ms
-		simulationTime = 10000;
+		config.put("SIMULATION_TIME", "10000");
+		// Anzahl Prozesse und Prozessgroesse in Byte (20 Seiten bei einer
+		// Seitengroesse von 256 Byte)
+		config.put("NUM_OF_PROCESSES", String.valueOf(NUM_OF_PROCESSES));
+		config.put("PROCESS_SIZE", "5120");
+		// Live-Metriken: JMX und http://localhost:METRICS_PORT/metrics im
+		// Prometheus-Format (0 = aus)
+		config.put("METRICS_PORT", "0");
+		// Maschine: RAM_SIZE, PAGE_SIZE, VIRT_ADR_SPACE, HUGE_PAGE_SIZE
+		// (Voreinstellung: OperatingSystem.DEFAULT_...)
 		// max. Anzahl Seiten pro Prozess im Hauptspeicher (sonst Verdr�ngung eigener Seiten)
-		os.setMAX_RAM_PAGES_PER_PROCESS(10); 
-		// os.CLOCK oder os.FIFO oder os.RANDOM
-		os.setREPLACEMENT_ALGORITHM(os.CLOCK); 
+		config.put("MAX_RAM_PAGES_PER_PROCESS", "10");
+		// CLOCK oder FIFO oder RANDOM oder (scan-resistent) CAR oder TWO_Q
+		config.put("REPLACEMENT_ALGORITHM", "CLOCK");
 		// Anzahl Operationen innerhalb eines Seitenbereichs
-		os.setDEFAULT_LOCALITY_FACTOR(1); 
-
+		config.put("DEFAULT_LOCALITY_FACTOR", "1");
+		// DISK_SYNCHRONOUS oder FCFS, SSTF, SCAN, CLOOK (asynchrone
+		// Plattenwarteschlange mit Zeitmodell)
+		config.put("DISK_SCHEDULER", "DISK_SYNCHRONOUS");
 		// Testausgaben erw�nscht? Wenn true, dann Dauer auf max. 100 ms setzen!
-		os.setTEST(false); 
+		config.put("TEST", "false");
+		// Ereignisaufzeichnung: Anzahl aufbewahrter Ereignisse (0 = aus); der
+		// Ringpuffer wird am Ende nach trace.bin geschrieben (Auswertung mit
+		// simulation.TraceDump)
+		config.put("TRACE_SIZE", "0");
+		// Zugriffsprofil je Prozess (Miss-Ratio-Kurve, Dauer der Seitenfehler)?
+		config.put("REUSE_PROFILING", "false");
+		// Seitenrahmen anhand der Miss-Ratio-Kurven aufteilen statt fester Quote?
+		config.put("FRAME_PARTITIONING", "false");
+		// NUMA: Anzahl Speicherknoten (1 = kein NUMA), Zugriffskosten lokal /
+		// entfernt in ns
+		config.put("NUMA_NODES", "1");
+		config.put("NUMA_LOCAL_COST", "100");
+		config.put("NUMA_REMOTE_COST", "180");
+		// Cache-Modell: L1, L2 und Cache-Zeile in Byte (L1 = 0: aus),
+		// Ersetzung CACHE_LRU oder CACHE_PLRU
+		config.put("L1_CACHE_SIZE", "0");
+		config.put("L2_CACHE_SIZE", "8192");
+		config.put("CACHE_LINE_SIZE", "16");
+		config.put("CACHE_REPLACEMENT", "CACHE_LRU");
 
-		// ------------------------- Parameter setzen Ende
-		// ------------------------------------------
+		// ------------------------- Parameter setzen
+		// ----------------------------------------------
+		try {
+			config.parseArgs(args);
+			simulationTime = config.getInt("SIMULATION_TIME", 10000);
+			numOfProcesses = config.getInt("NUM_OF_PROCESSES", NUM_OF_PROCESSES);
+			metricsPort = config.getInt("METRICS_PORT", 0);
+			// "Laden" des Betriebssystems
+			os = config.createOperatingSystem();
+		} catch (IOException e) {
+			System.err.println("Konfiguration nicht lesbar: " + e.getMessage());
+			return;
+		} catch (IllegalArgumentException e) {
+			System.err.println("Fehlerhafte Konfiguration: " + e.getMessage());
+			return;
+		}
+		System.out
+				.println("*********** Simulation der Betriebssystem-Speicherverwaltung startet *************");
+		// Parameter waehrend der Laufzeit ueber die Konsole aendern
+		startAdminConsole(os);
+		if (metricsPort > 0) {
+			metrics = new MetricsServer(os);
+			try {
+				metrics.start(metricsPort);
+				System.out.println("Metriken unter http://localhost:"
+						+ metricsPort + "/metrics");
+			} catch (IOException e) {
+				System.err.println("Metriken nicht verfuegbar: " + e.getMessage());
+				metrics = null;
+			}
+		}
 
 		// Erzeugen von unabh�ngigen Prozessen
-		for (int i = 0; i < NUM_OF_PROCESSES; i++) {
-			pid = os.createProcess(5120); // 20 Seiten bei einer Seitengr��e von
-											// 256 KB
+		for (int i = 0; i < numOfProcesses; i++) {
+			pid = os.createProcess(config.getInt("PROCESS_SIZE", 5120));
 			if (pid < 0) {
 				System.out
 						.println("*********** Fehlerhafte Konfiguration: Zu wenig RAM f�r "
-								+ NUM_OF_PROCESSES + " Prozesse! *************");
+								+ numOfProcesses + " Prozesse! *************");
 				break;
 			}
 		}
@@ -74,6 +137,17 @@ public class SimulationEnv {
 		}
 		// Alle Prozesse stoppen
 		os.killAll();
+		if (metrics != null) {
+			metrics.stop();
+		}
+		if (os.getTRACE_SIZE() > 0) {
+			try {
+				System.out.println(os.dumpTrace("trace.bin")
+						+ " Ereignisse nach trace.bin geschrieben");
+			} catch (IOException e) {
+				System.err.println("trace.bin nicht schreibbar: " + e.getMessage());
+			}
+		}
 
 		System.out
 				.println("*********** Simulation der Betriebssystem-Speicherverwaltung wurde nach "
@@ -81,5 +155,54 @@ public class SimulationEnv {
 
 		// Statistische Auswertung anzeigen
 		os.eventLog.showReport();
+		os.showProfiles();
+	}
+
+	/**
+	 * Administrationskonsole als Hintergrund-Thread starten: jede Zeile der
+	 * Standardeingabe der Form SCHLUESSEL=wert aendert einen Parameter des
+	 * laufenden Betriebssystems (z.B. REPLACEMENT_ALGORITHM=TWO_Q oder
+	 * MAX_RAM_PAGES_PER_PROCESS=6), eine Zeile SCHLUESSEL zeigt den
+	 * aktuellen Wert an.
+	 * 
+	 * @param os
+	 *            laufendes Betriebssystem
+	 */
+	private static void startAdminConsole(final OperatingSystem os) {
+		Thread console = new Thread("Admin") {
+			public void run() {
+				BufferedReader in = new BufferedReader(new InputStreamReader(
+						System.in));
+				String line; // eingegebene Zeile
+				int separator; // Position des '='
+
+				try {
+					while ((line = in.readLine()) != null) {
+						line = line.trim();
+						separator = line.indexOf('=');
+						try {
+							if (separator > 0) {
+								SimulationConfig.apply(os, line.substring(0,
+										separator).trim(), line
+										.substring(separator + 1));
+							}
+							if (line.length() > 0) {
+								String key = (separator > 0) ? line.substring(0,
+										separator).trim() : line;
+								System.out.println("Admin: " + key + " = "
+										+ SimulationConfig.get(os, key));
+							}
+						} catch (IllegalArgumentException e) {
+							System.out.println("Admin: " + e.getMessage());
+						}
+					}
+				} catch (IOException e) {
+					// Standardeingabe geschlossen
+				}
+			}
+		};
+
+		console.setDaemon(true);
+		console.start();
 	}
 }
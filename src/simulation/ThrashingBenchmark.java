@@ -0,0 +1,93 @@
+package simulation;
+import osbsp.OperatingSystem;
+import osbsp.Statistics;
+
+/**
+ * Benchmark der Lastkontrolle: mehr Prozesse als der RAM halten kann laufen
+ * mit automatischer Rahmenaufteilung und Zeitmodell der Platte einmal ohne
+ * und einmal mit THRASHING_CONTROL. Verglichen werden Durchsatz (Zugriffe je
+ * Sekunde), Seitenfehlerrate und die Eingriffe der Lastkontrolle.
+ *
+ * Aufruf: java simulation.ThrashingBenchmark [SCHLUESSEL=wert ...] mit den
+ * Schlüsseln von SimulationConfig, z.B. NUM_OF_PROCESSES=12 oder
+ * THRASHING_FAULT_RATE=20.
+ */
+public class ThrashingBenchmark {
+
+	/**
+	 * Voreinstellung RAM-Größe: 64 Seitenrahmen zu 256 Byte
+	 */
+	public static final int RAM_SIZE = 16384;
+
+	/**
+	 * Voreinstellung Anzahl Prozesse
+	 */
+	public static final int NUM_OF_PROCESSES = 8;
+
+	/**
+	 * Voreinstellung Prozessgröße in Byte (je Prozess so viel wie der halbe
+	 * RAM)
+	 */
+	public static final int PROCESS_SIZE = 8192;
+
+	/**
+	 * Voreinstellung Dauer eines Laufs in ms
+	 */
+	public static final int SIMULATION_TIME = 5000;
+
+	/**
+	 * Main-Methode zum Start des Benchmarks
+	 *
+	 * @param args
+	 *            Konfiguration (SCHLUESSEL=wert oder Dateien)
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		SimulationConfig config = new SimulationConfig();
+
+		config.put("RAM_SIZE", String.valueOf(RAM_SIZE));
+		config.put("MAX_RAM_PAGES_PER_PROCESS", "4");
+		config.put("FRAME_PARTITIONING", "true");
+		config.put("DISK_SCHEDULER", "SCAN");
+		config.put("THRASHING_WINDOW", "1000");
+		config.put("REBALANCE_INTERVAL", "1000");
+		config.parseArgs(args);
+
+		System.out.println("Lastkontrolle   Zugriffe/s   Seitenfehlerrate   "
+				+ "zurueckgestellt   deaktiviert");
+		run(config, false);
+		run(config, true);
+	}
+
+	/**
+	 * Einen Lauf durchführen und eine Ergebniszeile ausgeben
+	 *
+	 * @param control
+	 *            true = mit Lastkontrolle
+	 */
+	private static void run(SimulationConfig config, boolean control)
+			throws InterruptedException {
+		OperatingSystem os = config.createOperatingSystem();
+		int processes = config.getInt("NUM_OF_PROCESSES", NUM_OF_PROCESSES);
+		int processSize = config.getInt("PROCESS_SIZE", PROCESS_SIZE);
+		Statistics stats = os.eventLog; // Zähler des Laufs
+
+		os.setTHRASHING_CONTROL(control);
+		os.eventLog.resetCounter();
+		for (int i = 0; i < processes; i++) {
+			if (os.createProcess(processSize) < 0) {
+				System.err.println("Prozess " + i + " nicht zugelassen "
+						+ "(MAX_RAM_PAGES_PER_PROCESS verkleinern)");
+			}
+		}
+		Thread.sleep(config.getInt("SIMULATION_TIME", SIMULATION_TIME));
+		synchronized (os) {
+			System.out.printf("%-13s   %10.0f   %16.4f   %15d   %11d%n",
+					control ? "ein" : "aus", stats.getAccessesPerSecond(),
+					stats.getPageFaultRate(), stats.getDeferredAdmissions(),
+					stats.getDeactivations());
+		}
+		os.killAll();
+		os.setDISK_SCHEDULER(os.DISK_SYNCHRONOUS);
+	}
+}
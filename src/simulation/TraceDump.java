@@ -0,0 +1,78 @@
+package simulation;
+import java.io.*;
+
+import osbsp.EventTrace;
+
+/**
+ * Dekodierer für Ereignisaufzeichnungen (OperatingSystem.dumpTrace): gibt
+ * die Ereignisse einer Dump-Datei als Text aus, optional nur die eines
+ * Prozesses, und zählt die Ereignisse je Typ.
+ *
+ * Aufruf: java simulation.TraceDump datei [pid]
+ */
+public class TraceDump {
+
+	/**
+	 * Main-Methode
+	 *
+	 * @param args
+	 *            Dump-Datei und optional Prozess-Id
+	 */
+	public static void main(String[] args) {
+		DataInputStream in; // Dump-Datei
+		int count; // Anzahl Ereignisse in der Datei
+		int filterPid; // nur Ereignisse dieses Prozesses (-2 = alle)
+		int[] typeCounts = new int[EventTrace.getNumOfTypes()];
+		long time; // Zeitstempel in ns
+		int type; // Ereignistyp
+		int pid; // Prozess-Id
+		int arg1; // erstes Argument
+		int arg2; // zweites Argument
+
+		if (args.length < 1) {
+			System.err.println("Aufruf: java simulation.TraceDump datei [pid]");
+			return;
+		}
+		filterPid = (args.length > 1) ? Integer.parseInt(args[1]) : -2;
+		try {
+			in = new DataInputStream(new BufferedInputStream(
+					new FileInputStream(args[0])));
+			try {
+				if (in.readInt() != EventTrace.MAGIC) {
+					System.err.println(args[0] + " ist keine Ereignisaufzeichnung");
+					return;
+				}
+				count = in.readInt();
+				for (int i = 0; i < count; i++) {
+					time = in.readLong();
+					type = in.readInt();
+					pid = in.readInt();
+					arg1 = in.readInt();
+					arg2 = in.readInt();
+					if (filterPid != -2 && pid != filterPid) {
+						continue;
+					}
+					if (type > 0 && type < typeCounts.length) {
+						typeCounts[type]++;
+					}
+					System.out.printf("%12.3f us  %-15s %s%n", time / 1000.0,
+							EventTrace.getName(type),
+							EventTrace.format(type, pid, arg1, arg2));
+				}
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			System.err.println("Fehler beim Lesen von " + args[0] + ": "
+					+ e.getMessage());
+			return;
+		}
+		System.out.println("------------- Ereignisse je Typ -------------");
+		for (int t = 1; t < typeCounts.length; t++) {
+			if (typeCounts[t] > 0) {
+				System.out.printf("%-15s %10d%n", EventTrace.getName(t),
+						typeCounts[t]);
+			}
+		}
+	}
+}